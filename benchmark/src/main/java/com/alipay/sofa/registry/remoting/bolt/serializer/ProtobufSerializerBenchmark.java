@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt.serializer;
+
+import com.alipay.remoting.exception.CodecException;
+import com.alipay.sofa.registry.common.model.client.pb.DataBoxPb;
+import com.alipay.sofa.registry.common.model.client.pb.DataBoxesPb;
+import com.alipay.sofa.registry.common.model.client.pb.ReceivedDataPb;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** benchmark of encoding and decoding the push body, ReceivedDataPb is the largest message */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProtobufSerializerBenchmark {
+  @Param({"100", "1000", "10000"})
+  int publisherCount;
+
+  @Param({"128", "2048"})
+  int payloadSize;
+
+  @Param({"1", "4"})
+  int cellCount;
+
+  private final ProtobufSerializer serializer = ProtobufSerializer.getInstance();
+
+  private ReceivedDataPb receivedData;
+
+  private byte[] encoded;
+
+  @Setup(Level.Trial)
+  public void setup() throws CodecException {
+    ReceivedDataPb.Builder builder =
+        ReceivedDataPb.newBuilder()
+            .setDataId("benchmark-serializer")
+            .setGroup("benchmarkGroup")
+            .setInstanceId("benchmarkInstance")
+            .setSegment("benchmarkDataCenter")
+            .setScope("zone")
+            .setLocalZone("cell-0")
+            .setVersion(System.currentTimeMillis())
+            .addSubscriberRegistIds("benchmark-Subscriber");
+    for (int i = 0; i < cellCount; i++) {
+      DataBoxesPb.Builder boxes = DataBoxesPb.newBuilder();
+      for (int j = 0; j < publisherCount / cellCount; j++) {
+        boxes.addData(DataBoxPb.newBuilder().setData(payload(payloadSize)));
+      }
+      builder.putData("cell-" + i, boxes.build());
+    }
+    this.receivedData = builder.build();
+    this.encoded = serializer.serialize(receivedData);
+  }
+
+  private static String payload(int size) {
+    char[] chars = new char[size];
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = (char) ('a' + random.nextInt(26));
+    }
+    return new String(chars);
+  }
+
+  @Benchmark
+  public byte[] encode() throws CodecException {
+    return serializer.serialize(receivedData);
+  }
+
+  @Benchmark
+  public Object decode() throws CodecException {
+    return serializer.decode(encoded, ReceivedDataPb.class);
+  }
+}
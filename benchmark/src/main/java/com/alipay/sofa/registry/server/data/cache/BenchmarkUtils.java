@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.ConnectId;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotConfig;
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.server.data.bootstrap.CommonConfig;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.shared.env.ServerEnv;
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class BenchmarkUtils {
+  static final String DATA_CENTER = "benchmarkDataCenter";
+
+  private static final AtomicLong REGISTER_ID_SEQ = new AtomicLong();
+  private static final AtomicLong CLIENT_VERSION = new AtomicLong();
+
+  private BenchmarkUtils() {}
+
+  static Publisher newPublisher(String dataId, int payloadSize) {
+    Publisher publisher = new Publisher();
+    DataInfo dataInfo = DataInfo.valueOf(DataInfo.toDataInfoId(dataId, "I", "G"));
+    publisher.setDataInfoId(dataInfo.getDataInfoId());
+    publisher.setDataId(dataInfo.getDataId());
+    publisher.setInstanceId(dataInfo.getInstanceId());
+    publisher.setGroup(dataInfo.getGroup());
+    publisher.setRegisterId("benchmarkRegisterId-" + REGISTER_ID_SEQ.incrementAndGet());
+    publisher.setSessionProcessId(ServerEnv.PROCESS_ID);
+    publisher.setRegisterTimestamp(System.currentTimeMillis());
+    publisher.setVersion(CLIENT_VERSION.incrementAndGet());
+    ConnectId connectId =
+        ConnectId.of(
+            ServerEnv.PROCESS_ID.getHostAddress() + ":9999",
+            ServerEnv.PROCESS_ID.getHostAddress() + ":9998");
+    publisher.setSourceAddress(URL.valueOf(connectId.clientAddress()));
+    publisher.setTargetAddress(URL.valueOf(connectId.sessionAddress()));
+    publisher.setDataList(Collections.singletonList(newDataBox(payloadSize)));
+    return publisher;
+  }
+
+  /** same registerId with a higher version and a new payload, so the group version changes */
+  static Publisher newVersion(Publisher publisher, int payloadSize) {
+    Publisher p = newPublisher(publisher.getDataId(), payloadSize);
+    p.setRegisterId(publisher.getRegisterId());
+    p.setRegisterTimestamp(publisher.getRegisterTimestamp());
+    return p;
+  }
+
+  static ServerDataBox newDataBox(int payloadSize) {
+    char[] chars = new char[payloadSize];
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = (char) ('a' + random.nextInt(26));
+    }
+    return new ServerDataBox(ServerDataBox.getBytes(new String(chars)));
+  }
+
+  static LocalDatumStorage newLocalStorage() {
+    LocalDatumStorage storage = new LocalDatumStorage();
+    storage.setDataServerConfig(
+        new DataServerConfig(
+            new CommonConfig() {
+              @Override
+              public String getLocalDataCenter() {
+                return DATA_CENTER;
+              }
+            }));
+    for (int i = 0; i < SlotConfig.SLOT_NUM; i++) {
+      storage.getSlotChangeListener().onSlotAdd(i, Slot.Role.Leader);
+    }
+    return storage;
+  }
+}
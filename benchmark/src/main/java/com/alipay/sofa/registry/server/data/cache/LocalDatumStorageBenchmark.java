@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunction;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.server.shared.env.ServerEnv;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** benchmark of the per slot summary, it is called by SlotDiffSyncer in every sync round */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LocalDatumStorageBenchmark {
+  private static final int SLOT_ID = 0;
+
+  @Param({"10", "100"})
+  int dataInfoIdCount;
+
+  @Param({"100", "1000"})
+  int publisherCount;
+
+  @Param({"128"})
+  int payloadSize;
+
+  private LocalDatumStorage storage;
+
+  private Set<String> sessions;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.storage = BenchmarkUtils.newLocalStorage();
+    this.sessions = Sets.newHashSet(ServerEnv.PROCESS_ID.getHostAddress(), "127.0.0.2");
+    final SlotFunction slotFunction = SlotFunctionRegistry.getFunc();
+    int dataInfoIds = 0;
+    for (int i = 0; dataInfoIds < dataInfoIdCount; i++) {
+      final String dataId = "benchmark-storage-" + i;
+      List<Publisher> publishers = Lists.newArrayListWithCapacity(publisherCount);
+      publishers.add(BenchmarkUtils.newPublisher(dataId, payloadSize));
+      if (slotFunction.slotOf(publishers.get(0).getDataInfoId()) != SLOT_ID) {
+        continue;
+      }
+      for (int j = 1; j < publisherCount; j++) {
+        publishers.add(BenchmarkUtils.newPublisher(dataId, payloadSize));
+      }
+      storage.put(publishers.get(0).getDataInfoId(), publishers);
+      dataInfoIds++;
+    }
+  }
+
+  @Benchmark
+  public Object getDatumSummary() {
+    return storage.getDatumSummary(SLOT_ID);
+  }
+
+  @Benchmark
+  public Object getDatumSummaryBySessions() {
+    return storage.getDatumSummary(SLOT_ID, sessions);
+  }
+}
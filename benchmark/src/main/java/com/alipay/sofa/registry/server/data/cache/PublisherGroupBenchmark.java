@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * benchmark of the write and read path of PublisherGroup, the read path is called by every session
+ * fetching the datum after a change
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PublisherGroupBenchmark {
+  private static final String DATA_ID = "benchmark-publisher-group";
+
+  @Param({"100", "1000", "10000"})
+  int publisherCount;
+
+  @Param({"128", "2048"})
+  int payloadSize;
+
+  @Param({"16"})
+  int putBatchSize;
+
+  private PublisherGroup group;
+
+  private Publisher[] publishers;
+
+  private int cursor;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.publishers = new Publisher[publisherCount];
+    List<Publisher> list = Lists.newArrayListWithCapacity(publisherCount);
+    for (int i = 0; i < publisherCount; i++) {
+      Publisher p = BenchmarkUtils.newPublisher(DATA_ID, payloadSize);
+      publishers[i] = p;
+      list.add(p);
+    }
+    this.group = new PublisherGroup(publishers[0].getDataInfoId(), BenchmarkUtils.DATA_CENTER);
+    group.put(list);
+  }
+
+  private Publisher nextVersion() {
+    final int idx = cursor++ % publishers.length;
+    Publisher p = BenchmarkUtils.newVersion(publishers[idx], payloadSize);
+    publishers[idx] = p;
+    return p;
+  }
+
+  @Benchmark
+  public Object addPublisher() {
+    return group.addPublisher(nextVersion());
+  }
+
+  @Benchmark
+  public Object put() {
+    List<Publisher> puts = Lists.newArrayListWithCapacity(putBatchSize);
+    for (int i = 0; i < putBatchSize; i++) {
+      puts.add(nextVersion());
+    }
+    return group.put(puts);
+  }
+
+  @Benchmark
+  public Object toDatum() {
+    return group.toDatum();
+  }
+
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(3)
+  public void toDatumWithWriter(Blackhole bh) {
+    bh.consume(group.toDatum());
+  }
+
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(1)
+  public void addPublisherWithReader(Blackhole bh) {
+    // only one writer thread in the group, the cursor is not shared
+    bh.consume(group.addPublisher(nextVersion()));
+  }
+}
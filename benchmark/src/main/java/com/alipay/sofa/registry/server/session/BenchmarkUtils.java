@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session;
+
+import com.alipay.sofa.registry.common.model.ElementType;
+import com.alipay.sofa.registry.common.model.PublishSource;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.store.BaseInfo;
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
+import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class BenchmarkUtils {
+  public static final String DATA_CENTER = "benchmarkDataCenter";
+  public static final String GROUP = "benchmarkGroup";
+  public static final String INSTANCE = "benchmarkInstance";
+
+  private static final AtomicLong REGISTER_ID_SEQ = new AtomicLong();
+
+  private BenchmarkUtils() {}
+
+  public static Subscriber newZoneSubscriber(String dataId, String cell) {
+    Subscriber subscriber = new Subscriber();
+    subscriber.setRegisterId("benchmark-Subscriber-" + REGISTER_ID_SEQ.incrementAndGet());
+    subscriber.setScope(ScopeEnum.zone);
+    subscriber.setElementType(ElementType.SUBSCRIBER);
+    subscriber.setClientVersion(BaseInfo.ClientVersion.StoreData);
+    subscriber.setCell(cell);
+    subscriber.setGroup(GROUP);
+    subscriber.setInstanceId(INSTANCE);
+    subscriber.setDataId(dataId);
+    subscriber.setDataInfoId(DataInfo.toDataInfoId(dataId, INSTANCE, GROUP));
+    subscriber.setAppName("benchmarkApp");
+    subscriber.setSourceAddress(new URL("192.168.1.1", 8888));
+    return subscriber;
+  }
+
+  /**
+   * create a datum with the publishers spread over the cells
+   *
+   * @param dataId the dataId
+   * @param version the datum version
+   * @param publisherCount the publisher count
+   * @param payloadSize the size of the data of each publisher
+   * @param cells the cells of publishers
+   * @return the datum
+   */
+  public static SubDatum newSubDatum(
+      String dataId, long version, int publisherCount, int payloadSize, String... cells) {
+    List<SubPublisher> publishers = Lists.newArrayListWithCapacity(publisherCount);
+    for (int i = 0; i < publisherCount; i++) {
+      publishers.add(newSubPublisher(cells[i % cells.length], payloadSize));
+    }
+    return SubDatum.normalOf(
+        DataInfo.toDataInfoId(dataId, INSTANCE, GROUP),
+        DATA_CENTER,
+        version,
+        publishers,
+        dataId,
+        INSTANCE,
+        GROUP,
+        Lists.newArrayList(version));
+  }
+
+  public static SubPublisher newSubPublisher(String cell, int payloadSize) {
+    List<ServerDataBox> dataList =
+        Collections.singletonList(new ServerDataBox(ServerDataBox.getBytes(payload(payloadSize))));
+    return new SubPublisher(
+        "benchmarkRegisterId-" + REGISTER_ID_SEQ.incrementAndGet(),
+        cell,
+        dataList,
+        "benchmarkClient",
+        1,
+        "192.168.0.1:8888",
+        System.currentTimeMillis(),
+        PublishSource.CLIENT);
+  }
+
+  public static String payload(int size) {
+    char[] chars = new char[size];
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = (char) ('a' + random.nextInt(26));
+    }
+    return new String(chars);
+  }
+}
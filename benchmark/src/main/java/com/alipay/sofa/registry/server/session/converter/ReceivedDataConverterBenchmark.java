@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.converter;
+
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.alipay.sofa.registry.server.session.BenchmarkUtils;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.openjdk.jmh.annotations.*;
+
+/** benchmark of converting the datum to the push data, it runs for every push task */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReceivedDataConverterBenchmark {
+  private static final String LOCAL_CELL = "cell-0";
+
+  @Param({"100", "1000", "10000"})
+  int publisherCount;
+
+  @Param({"128", "2048"})
+  int payloadSize;
+
+  @Param({"1", "4"})
+  int cellCount;
+
+  @Param({"zone", "global"})
+  ScopeEnum scope;
+
+  private SubDatum datum;
+
+  private List<String> subscriberRegisterIds;
+
+  private Predicate<String> zonePredicate;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    String[] cells = new String[cellCount];
+    for (int i = 0; i < cellCount; i++) {
+      cells[i] = "cell-" + i;
+    }
+    this.datum =
+        BenchmarkUtils.newSubDatum(
+            "benchmark-converter", System.currentTimeMillis(), publisherCount, payloadSize, cells);
+    this.subscriberRegisterIds =
+        Collections.singletonList(
+            BenchmarkUtils.newZoneSubscriber("benchmark-converter", LOCAL_CELL).getRegisterId());
+    // same as ZonePredicate without the invalid forever zones
+    this.zonePredicate = zone -> scope == ScopeEnum.zone && !LOCAL_CELL.equals(zone);
+  }
+
+  @Benchmark
+  public Object getReceivedDataMulti() {
+    return ReceivedDataConverter.getReceivedDataMulti(
+        datum, scope, subscriberRegisterIds, LOCAL_CELL, zonePredicate);
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.push;
+
+import com.alipay.sofa.registry.common.model.store.PushData;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.server.session.BenchmarkUtils;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * benchmark of merging the push tasks into the buffer and of the worker tick which picks the
+ * expired tasks. the workers are suspended, the tick is driven by the benchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"-Dregistry.session.push_task.max_buffered=1000000"})
+@State(Scope.Benchmark)
+public class PushTaskBufferBenchmark {
+  private static final long NOT_EXPIRE = Long.MAX_VALUE;
+
+  @Param({"1000", "10000", "50000"})
+  int bufferedCount;
+
+  private PushTaskBuffer buffer;
+
+  private Subscriber[] subscribers;
+
+  private InetSocketAddress addr;
+
+  private long version = 1;
+
+  private int cursor;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.buffer = new PushTaskBuffer(1);
+    buffer.suspend();
+    this.addr = new InetSocketAddress("192.168.1.1", 8888);
+    this.subscribers = new Subscriber[bufferedCount];
+    for (int i = 0; i < bufferedCount; i++) {
+      subscribers[i] = BenchmarkUtils.newZoneSubscriber("benchmark-buffer-" + i, "cell");
+      buffer.buffer(newTask(subscribers[i]));
+    }
+  }
+
+  private BenchmarkTask newTask(Subscriber subscriber) {
+    SubDatum datum =
+        SubDatum.emptyOf(
+            subscriber.getDataInfoId(),
+            BenchmarkUtils.DATA_CENTER,
+            version++,
+            subscriber.getDataId(),
+            subscriber.getInstanceId(),
+            subscriber.getGroup());
+    BenchmarkTask task =
+        new BenchmarkTask(
+            new PushCause(null, PushType.Sub, System.currentTimeMillis()),
+            addr,
+            Collections.singletonMap(subscriber.getRegisterId(), subscriber),
+            datum);
+    task.expireTimestamp = NOT_EXPIRE;
+    return task;
+  }
+
+  /** replace the buffered task of the same key with a newer version */
+  @Benchmark
+  public boolean buffer() {
+    return buffer.buffer(newTask(subscribers[cursor++ % subscribers.length]));
+  }
+
+  /** one tick of the worker, none of the buffered tasks is expired */
+  @Benchmark
+  public int watchBuffer() {
+    return buffer.watchBuffer(buffer.workers[0]);
+  }
+
+  private static final class BenchmarkTask extends PushTask {
+    BenchmarkTask(
+        PushCause pushCause,
+        InetSocketAddress addr,
+        Map<String, Subscriber> subscriberMap,
+        SubDatum datum) {
+      super(pushCause, addr, subscriberMap, datum);
+    }
+
+    @Override
+    protected boolean commit() {
+      return true;
+    }
+
+    @Override
+    protected PushData createPushData() {
+      return null;
+    }
+  }
+}
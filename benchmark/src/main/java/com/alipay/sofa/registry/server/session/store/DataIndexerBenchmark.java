@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.store;
+
+import com.alipay.sofa.registry.common.model.ConnectId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** benchmark of the connectId index, it is updated by every register and queried by clientOff */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataIndexerBenchmark {
+  @Param({"10000", "100000"})
+  int connectionCount;
+
+  @Param({"1", "10"})
+  int registersPerConnection;
+
+  private MapDataIndexer indexer;
+
+  private ConnectId[] connectIds;
+
+  private DataPos[][] dataPos;
+
+  private int cursor;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.indexer = new MapDataIndexer();
+    this.connectIds = new ConnectId[connectionCount];
+    this.dataPos = new DataPos[connectionCount][registersPerConnection];
+    for (int i = 0; i < connectionCount; i++) {
+      connectIds[i] =
+          ConnectId.of(
+              "10." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff) + ":9999",
+              "127.0.0.1:9600");
+      for (int j = 0; j < registersPerConnection; j++) {
+        dataPos[i][j] = new DataPos("benchmark-indexer-" + j, "benchmarkRegisterId-" + i + "-" + j);
+        add(connectIds[i], dataPos[i][j]);
+      }
+    }
+  }
+
+  private Object add(ConnectId connectId, DataPos pos) {
+    return indexer.add(connectId, pos, () -> indexer.store.put(pos, connectId));
+  }
+
+  @Benchmark
+  public Object add() {
+    final int idx = cursor++ % connectIds.length;
+    return add(connectIds[idx], dataPos[idx][cursor % registersPerConnection]);
+  }
+
+  /** remove then add back, the connection entry is dropped and recreated when it is empty */
+  @Benchmark
+  public Object removeAndAdd() {
+    final int idx = cursor++ % connectIds.length;
+    final DataPos pos = dataPos[idx][cursor % registersPerConnection];
+    indexer.store.remove(pos);
+    indexer.remove(connectIds[idx], pos);
+    return add(connectIds[idx], pos);
+  }
+
+  @Benchmark
+  public Object queryByKey() {
+    return indexer.queryByKey(connectIds[cursor++ % connectIds.length]);
+  }
+
+  static final class MapDataIndexer extends DataIndexer<ConnectId, DataPos> {
+    final Map<DataPos, ConnectId> store = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean dataStoreContains(ConnectId connectId, DataPos pos) {
+      return connectId.equals(store.get(pos));
+    }
+  }
+}
@@ -170,4 +170,20 @@ public interface RegistryClientConfig {
    * @return the boolean
    */
   boolean isEventBusEnable();
+
+  /**
+   * Gets the max count of the registers sent in one batch request, not greater than 1 means send
+   * the registers one by one.
+   *
+   * @return the batch register size
+   */
+  int getBatchRegisterSize();
+
+  /**
+   * Gets the max count of the register requests in flight when the registers are sent
+   * asynchronously, not greater than 0 means send the registers synchronously.
+   *
+   * @return the async max inflight requests
+   */
+  int getAsyncMaxInflightRequests();
 }
@@ -31,6 +31,8 @@ public class SubscriberRegistration extends BaseRegistration {
 
   private SubscriberDataObserver subscriberDataObserver;
 
+  private boolean acceptDeltaPush;
+
   /**
    * Instantiates a new Subscriber registration.
    *
@@ -83,6 +85,25 @@ public class SubscriberRegistration extends BaseRegistration {
    *
    * @return the string
    */
+  /**
+   * Getter method for property <tt>acceptDeltaPush</tt>.
+   *
+   * @return property value of acceptDeltaPush
+   */
+  public boolean isAcceptDeltaPush() {
+    return acceptDeltaPush;
+  }
+
+  /**
+   * Setter method for property <tt>acceptDeltaPush</tt>, the server pushes the added and removed
+   * data only if accept.
+   *
+   * @param acceptDeltaPush value to be assigned to property acceptDeltaPush
+   */
+  public void setAcceptDeltaPush(boolean acceptDeltaPush) {
+    this.acceptDeltaPush = acceptDeltaPush;
+  }
+
   @Override
   public String toString() {
     return "SubscriberRegistration{"
@@ -99,6 +120,8 @@ public class SubscriberRegistration extends BaseRegistration {
         + scopeEnum
         + ", subscriberDataObserver="
         + subscriberDataObserver
+        + ", acceptDeltaPush="
+        + acceptDeltaPush
         + '}';
   }
 }
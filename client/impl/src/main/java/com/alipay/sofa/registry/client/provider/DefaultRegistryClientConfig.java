@@ -25,6 +25,8 @@ import com.alipay.sofa.registry.client.api.RegistryClientConfig;
  * @version $Id : DefaultRegistryClientConfig.java, v 0.1 2017-11-23 20:11 zhuoyu.sjw Exp $$
  */
 public class DefaultRegistryClientConfig implements RegistryClientConfig {
+  /** the default max count of the registers sent in one batch request */
+  public static final int DEFAULT_BATCH_REGISTER_SIZE = 100;
 
   /** */
   private String env;
@@ -89,6 +91,12 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
   /** */
   private boolean eventBusEnable;
 
+  /** */
+  private int batchRegisterSize = DEFAULT_BATCH_REGISTER_SIZE;
+
+  /** */
+  private int asyncMaxInflightRequests;
+
   /**
    * Instantiates a new Default registry client config.
    *
@@ -395,6 +403,44 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
     this.eventBusEnable = eventBusEnable;
   }
 
+  /**
+   * Getter method for property <tt>batchRegisterSize</tt>.
+   *
+   * @return property value of batchRegisterSize
+   */
+  @Override
+  public int getBatchRegisterSize() {
+    return batchRegisterSize;
+  }
+
+  /**
+   * Setter method for property <tt>batchRegisterSize</tt>.
+   *
+   * @param batchRegisterSize value to be assigned to property batchRegisterSize
+   */
+  public void setBatchRegisterSize(int batchRegisterSize) {
+    this.batchRegisterSize = batchRegisterSize;
+  }
+
+  /**
+   * Getter method for property <tt>asyncMaxInflightRequests</tt>.
+   *
+   * @return property value of asyncMaxInflightRequests
+   */
+  @Override
+  public int getAsyncMaxInflightRequests() {
+    return asyncMaxInflightRequests;
+  }
+
+  /**
+   * Setter method for property <tt>asyncMaxInflightRequests</tt>.
+   *
+   * @param asyncMaxInflightRequests value to be assigned to property asyncMaxInflightRequests
+   */
+  public void setAsyncMaxInflightRequests(int asyncMaxInflightRequests) {
+    this.asyncMaxInflightRequests = asyncMaxInflightRequests;
+  }
+
   /**
    * Equals boolean.
    *
@@ -511,6 +557,10 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
         + authCacheInterval
         + ", eventBusEnable="
         + eventBusEnable
+        + ", batchRegisterSize="
+        + batchRegisterSize
+        + ", asyncMaxInflightRequests="
+        + asyncMaxInflightRequests
         + '}';
   }
 }
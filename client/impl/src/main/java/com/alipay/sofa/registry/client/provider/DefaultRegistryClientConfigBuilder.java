@@ -47,6 +47,8 @@ public class DefaultRegistryClientConfigBuilder {
   private String algorithm = "HmacSHA256";
   private long authCacheInterval = 5 * 60 * 1000;
   private boolean eventBusEnable = true;
+  private int batchRegisterSize = DefaultRegistryClientConfig.DEFAULT_BATCH_REGISTER_SIZE;
+  private int asyncMaxInflightRequests;
 
   /**
    * Start default registry client config builder.
@@ -281,33 +283,58 @@ public class DefaultRegistryClientConfigBuilder {
     return this;
   }
 
+  /**
+   * Setter method for property <tt>batchRegisterSize</tt>.
+   *
+   * @param batchRegisterSize value to be assigned to property batchRegisterSize
+   */
+  public DefaultRegistryClientConfigBuilder setBatchRegisterSize(int batchRegisterSize) {
+    this.batchRegisterSize = batchRegisterSize;
+    return this;
+  }
+
+  /**
+   * Setter method for property <tt>asyncMaxInflightRequests</tt>.
+   *
+   * @param asyncMaxInflightRequests value to be assigned to property asyncMaxInflightRequests
+   */
+  public DefaultRegistryClientConfigBuilder setAsyncMaxInflightRequests(
+      int asyncMaxInflightRequests) {
+    this.asyncMaxInflightRequests = asyncMaxInflightRequests;
+    return this;
+  }
+
   /**
    * Create default registry client config default registry client config.
    *
    * @return the default registry client config
    */
   public DefaultRegistryClientConfig build() {
-    return new DefaultRegistryClientConfig(
-        env,
-        instanceId,
-        zone,
-        registryEndpoint,
-        registryEndpointPort,
-        dataCenter,
-        appName,
-        connectTimeout,
-        socketTimeout,
-        invokeTimeout,
-        recheckInterval,
-        observerThreadCoreSize,
-        observerThreadMaxSize,
-        observerThreadQueueLength,
-        observerCallbackTimeout,
-        syncConfigRetryInterval,
-        accessKey,
-        secretKey,
-        algorithm,
-        authCacheInterval,
-        eventBusEnable);
+    DefaultRegistryClientConfig config =
+        new DefaultRegistryClientConfig(
+            env,
+            instanceId,
+            zone,
+            registryEndpoint,
+            registryEndpointPort,
+            dataCenter,
+            appName,
+            connectTimeout,
+            socketTimeout,
+            invokeTimeout,
+            recheckInterval,
+            observerThreadCoreSize,
+            observerThreadMaxSize,
+            observerThreadQueueLength,
+            observerCallbackTimeout,
+            syncConfigRetryInterval,
+            accessKey,
+            secretKey,
+            algorithm,
+            authCacheInterval,
+            eventBusEnable);
+    config.setBatchRegisterSize(batchRegisterSize);
+    config.setAsyncMaxInflightRequests(asyncMaxInflightRequests);
+    return config;
   }
 }
@@ -27,6 +27,7 @@ import com.alipay.sofa.registry.client.task.TaskEvent;
 import com.alipay.sofa.registry.client.task.Worker;
 import com.alipay.sofa.registry.client.util.CommonUtils;
 import com.alipay.sofa.registry.client.util.StringUtils;
+import com.alipay.sofa.registry.core.constants.AttributeKeyConstants;
 import com.alipay.sofa.registry.core.constants.EventTypeConstants;
 import com.alipay.sofa.registry.core.model.DataBox;
 import com.alipay.sofa.registry.core.model.ScopeEnum;
@@ -193,6 +194,11 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
       register.setVersion(this.getPubVersion().get());
       register.setTimestamp(this.getTimestamp());
       register.setScope(registration.getScopeEnum().name());
+      if (registration.isAcceptDeltaPush()) {
+        Map<String, String> attributes = new HashMap<String, String>();
+        attributes.put(AttributeKeyConstants.ATTRIBUTE_ACCEPT_DELTA_PUSH, Boolean.TRUE.toString());
+        register.setAttributes(attributes);
+      }
 
       // auth signature
       setAuthSignature(register);
@@ -218,6 +224,81 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
     }
   }
 
+  /**
+   * Apply the delta push on the data of base version.
+   *
+   * @param segment the segment
+   * @param baseVersion the version the delta based on
+   * @param version the version after applied
+   * @param added the added data
+   * @param removed the removed data
+   * @param localZone the local zone
+   * @return false if the data of base version not exists, need a full push
+   */
+  public boolean putReceivedDeltaData(
+      String segment,
+      long baseVersion,
+      long version,
+      Map<String, List<DataBox>> added,
+      Map<String, List<DataBox>> removed,
+      String localZone) {
+    writeLock.lock();
+    try {
+      SegmentData existsData = data.get(segment);
+      if (null == existsData || existsData.getVersion() != baseVersion) {
+        // the data has been newer, ignore the delta
+        return null != existsData && existsData.getVersion() >= version;
+      }
+      Map<String, List<DataBox>> zoneData = new HashMap<String, List<DataBox>>();
+      for (Entry<String, List<DataBox>> entry : existsData.getData().entrySet()) {
+        zoneData.put(entry.getKey(), new ArrayList<DataBox>(entry.getValue()));
+      }
+      if (null != removed) {
+        for (Entry<String, List<DataBox>> entry : removed.entrySet()) {
+          List<DataBox> dataList = zoneData.get(entry.getKey());
+          if (null == dataList) {
+            continue;
+          }
+          for (DataBox dataBox : entry.getValue()) {
+            removeDataBox(dataList, dataBox);
+          }
+          if (dataList.isEmpty()) {
+            zoneData.remove(entry.getKey());
+          }
+        }
+      }
+      if (null != added) {
+        for (Entry<String, List<DataBox>> entry : added.entrySet()) {
+          List<DataBox> dataList = zoneData.get(entry.getKey());
+          if (null == dataList) {
+            dataList = new ArrayList<DataBox>();
+            zoneData.put(entry.getKey(), dataList);
+          }
+          dataList.addAll(entry.getValue());
+        }
+      }
+      SegmentData segmentData = new SegmentData();
+      segmentData.setSegment(segment);
+      segmentData.setVersion(version);
+      segmentData.setData(zoneData);
+      data.put(segment, segmentData);
+      this.localZone = localZone;
+      return true;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private static void removeDataBox(List<DataBox> dataList, DataBox removed) {
+    for (int i = 0; i < dataList.size(); i++) {
+      String data = dataList.get(i).getData();
+      if (data == null ? removed.getData() == null : data.equals(removed.getData())) {
+        dataList.remove(i);
+        return;
+      }
+    }
+  }
+
   private void putSegmentData(SegmentData segmentData) {
     if (null != segmentData) {
 
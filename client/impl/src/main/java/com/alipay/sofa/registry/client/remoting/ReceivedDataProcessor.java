@@ -26,6 +26,7 @@ import com.alipay.sofa.registry.client.provider.RegisterCache;
 import com.alipay.sofa.registry.client.task.ObserverHandler;
 import com.alipay.sofa.registry.core.model.ReceivedData;
 import com.alipay.sofa.registry.core.model.Result;
+import java.util.ArrayList;
 import java.util.List;
 import org.slf4j.Logger;
 
@@ -66,6 +67,8 @@ public class ReceivedDataProcessor extends SyncUserProcessor<ReceivedData> {
     if (null == request || null == request.getData()) {
       return result;
     }
+    final boolean delta = null != request.getBaseVersion();
+    final List<String> baseMissingRegistIds = new ArrayList<String>();
     try {
       List<String> registIds = request.getSubscriberRegistIds();
 
@@ -82,7 +85,20 @@ public class ReceivedDataProcessor extends SyncUserProcessor<ReceivedData> {
 
         if (subscriber instanceof DefaultSubscriber) {
           DefaultSubscriber defaultSubscriber = (DefaultSubscriber) subscriber;
-          defaultSubscriber.putReceivedData(segmentData, request.getLocalZone());
+          if (delta) {
+            if (!defaultSubscriber.putReceivedDeltaData(
+                request.getSegment(),
+                request.getBaseVersion(),
+                request.getVersion(),
+                request.getData(),
+                request.getRemovedData(),
+                request.getLocalZone())) {
+              baseMissingRegistIds.add(registId);
+              continue;
+            }
+          } else {
+            defaultSubscriber.putReceivedData(segmentData, request.getLocalZone());
+          }
           try {
             observerHandler.notify(subscriber);
           } catch (Exception e) {
@@ -116,6 +132,13 @@ public class ReceivedDataProcessor extends SyncUserProcessor<ReceivedData> {
           request.getData(),
           e);
     }
+    if (!baseMissingRegistIds.isEmpty()) {
+      // fail the push, the session server will retry with a full push
+      throw new IllegalStateException(
+          String.format(
+              "[received] delta base version %s not found, dataId: %s, registIds: %s",
+              request.getBaseVersion(), request.getDataId(), baseMissingRegistIds));
+    }
     return result;
   }
 
@@ -24,7 +24,7 @@ import com.alipay.sofa.registry.client.api.Register;
  * @author zhuoyu.sjw
  * @version $Id : TaskEvent.java, v 0.1 2018-02-28 20:33 zhuoyu.sjw Exp $$
  */
-public class TaskEvent implements Comparable<TaskEvent> {
+public class TaskEvent {
   private static final int MAX_DELAY_TIME = 1000;
 
   private Register source;
@@ -63,50 +63,16 @@ public class TaskEvent implements Comparable<TaskEvent> {
   }
 
   /**
-   * Delay time long.
+   * The delay of resending after triggered, increased by the send count.
    *
-   * @return long long
+   * @return the delay millis
    */
-  public long delayTime() {
+  public long retryDelay() {
     int time = sendCount * 200;
     if (time > MAX_DELAY_TIME) {
       time = MAX_DELAY_TIME;
     }
-    return time - (System.currentTimeMillis() - this.triggerTime);
-  }
-
-  /**
-   * Compare to int.
-   *
-   * @param event the event
-   * @return the int
-   */
-  @Override
-  public int compareTo(TaskEvent event) {
-    if (this.sendCount > event.sendCount) {
-      return 1;
-    } else if (this.sendCount < event.sendCount) {
-      return -1;
-    }
-    Register register1 = source;
-    Register register2 = event.getSource();
-
-    if (register1 == null) {
-      return register2 != null ? -1 : 0;
-    } else {
-      if (register2 == null) {
-        return 1;
-      }
-    }
-
-    long t1 = register1.getTimestamp();
-    long t2 = register2.getTimestamp();
-    if (t1 > t2) {
-      return 1;
-    } else if (t1 < t2) {
-      return -1;
-    }
-    return 0;
+    return time;
   }
 
   /** @see Object#equals(Object) */
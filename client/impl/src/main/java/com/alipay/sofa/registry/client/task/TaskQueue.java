@@ -18,48 +18,28 @@ package com.alipay.sofa.registry.client.task;
 
 import com.alipay.sofa.registry.client.api.Register;
 import com.alipay.sofa.registry.client.provider.AbstractInternalRegister;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
- * The type Task queue.
+ * The type Task queue. The tasks are keyed by registId, the later task of the same registId
+ * replaces the former one. The tasks are ordered by the deadline of the next sending, only the
+ * ready tasks are polled.
  *
  * @author zhuoyu.sjw
  * @version $Id : TaskQueue.java, v 0.1 2018-02-28 20:44 zhuoyu.sjw Exp $$
  */
-public class TaskQueue implements Iterable<TaskEvent> {
+public class TaskQueue {
 
   private final ConcurrentMap<String, TaskEvent> taskMap =
       new ConcurrentHashMap<String, TaskEvent>();
 
-  /**
-   * Iterator iterator.
-   *
-   * @return the iterator
-   */
-  @Override
-  public Iterator<TaskEvent> iterator() {
-    List<TaskEvent> taskList = new ArrayList<TaskEvent>(taskMap.values());
-    Collections.sort(taskList);
-    return taskList.iterator();
-  }
+  /** guarded by this, may contain the replaced or completed tasks, they are dropped when polled */
+  private final PriorityQueue<Scheduled> schedules = new PriorityQueue<Scheduled>();
 
-  /** Delete the completed task, return task queue size. */
-  public void cleanCompletedTasks() {
-    List<String> taskList = new ArrayList<String>(taskMap.keySet());
-    for (String key : taskList) {
-      TaskEvent event = taskMap.get(key);
-      AbstractInternalRegister r = (AbstractInternalRegister) event.getSource();
-      if (r.isDone()) {
-        taskMap.remove(key, event);
-      }
-    }
-    taskMap.size();
-  }
+  private long seq;
 
   /**
    * Add task event to task queue.
@@ -70,6 +50,7 @@ public class TaskQueue implements Iterable<TaskEvent> {
     Register register = event.getSource();
     String key = register.getRegistId();
     taskMap.put(key, event);
+    schedule(event, System.currentTimeMillis());
   }
 
   /**
@@ -83,6 +64,56 @@ public class TaskQueue implements Iterable<TaskEvent> {
     }
   }
 
+  /**
+   * Poll the ready task, the polled task is scheduled again with the delay of resending, it is
+   * removed when polled after the register completed.
+   *
+   * @param now the current time millis
+   * @return the ready task, null if no task is ready
+   */
+  public TaskEvent poll(long now) {
+    synchronized (this) {
+      for (; ; ) {
+        Scheduled scheduled = schedules.peek();
+        if (scheduled == null || scheduled.deadline > now) {
+          return null;
+        }
+        schedules.poll();
+        TaskEvent event = scheduled.event;
+        String key = event.getSource().getRegistId();
+        if (taskMap.get(key) != event) {
+          // replaced by the later task
+          continue;
+        }
+        AbstractInternalRegister r = (AbstractInternalRegister) event.getSource();
+        if (r.isDone()) {
+          taskMap.remove(key, event);
+          continue;
+        }
+        event.incSendCount();
+        event.setTriggerTime(now);
+        schedules.add(new Scheduled(now + event.retryDelay(), seq++, event));
+        return event;
+      }
+    }
+  }
+
+  /**
+   * Gets the millis to wait for the next ready task.
+   *
+   * @param now the current time millis
+   * @return the millis to wait, -1 if no task
+   */
+  public long nextDelay(long now) {
+    synchronized (this) {
+      Scheduled scheduled = schedules.peek();
+      if (scheduled == null) {
+        return -1;
+      }
+      return Math.max(0, scheduled.deadline - now);
+    }
+  }
+
   /**
    * Is empty boolean.
    *
@@ -91,4 +122,42 @@ public class TaskQueue implements Iterable<TaskEvent> {
   public boolean isEmpty() {
     return taskMap.isEmpty();
   }
+
+  /**
+   * Size int.
+   *
+   * @return the count of the tasks not completed
+   */
+  public int size() {
+    return taskMap.size();
+  }
+
+  private void schedule(TaskEvent event, long deadline) {
+    synchronized (this) {
+      schedules.add(new Scheduled(deadline, seq++, event));
+    }
+  }
+
+  private static final class Scheduled implements Comparable<Scheduled> {
+    final long deadline;
+    final long seq;
+    final TaskEvent event;
+
+    Scheduled(long deadline, long seq, TaskEvent event) {
+      this.deadline = deadline;
+      this.seq = seq;
+      this.event = event;
+    }
+
+    @Override
+    public int compareTo(Scheduled o) {
+      if (deadline != o.deadline) {
+        return deadline < o.deadline ? -1 : 1;
+      }
+      if (seq != o.seq) {
+        return seq < o.seq ? -1 : 1;
+      }
+      return 0;
+    }
+  }
 }
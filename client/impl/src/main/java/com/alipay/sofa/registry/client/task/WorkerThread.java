@@ -16,6 +16,8 @@
  */
 package com.alipay.sofa.registry.client.task;
 
+import com.alipay.remoting.InvokeCallback;
+import com.alipay.remoting.rpc.exception.InvokeServerException;
 import com.alipay.sofa.registry.client.api.Register;
 import com.alipay.sofa.registry.client.api.RegistryClientConfig;
 import com.alipay.sofa.registry.client.log.LoggerFactory;
@@ -23,9 +25,20 @@ import com.alipay.sofa.registry.client.provider.AbstractInternalRegister;
 import com.alipay.sofa.registry.client.provider.AbstractInternalRegister.SyncTask;
 import com.alipay.sofa.registry.client.provider.RegisterCache;
 import com.alipay.sofa.registry.client.remoting.Client;
+import com.alipay.sofa.registry.core.model.BaseRegister;
+import com.alipay.sofa.registry.core.model.BatchRegisterRequest;
+import com.alipay.sofa.registry.core.model.BatchRegisterResponse;
+import com.alipay.sofa.registry.core.model.PublisherRegister;
 import com.alipay.sofa.registry.core.model.RegisterResponse;
-import java.util.Iterator;
+import com.alipay.sofa.registry.core.model.SubscriberRegister;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 
@@ -47,6 +60,15 @@ public class WorkerThread extends AbstractWorkerThread {
 
   private AtomicBoolean inited = new AtomicBoolean(false);
 
+  /** limit the requests in flight when sending asynchronously, null means sending synchronously */
+  private final Semaphore inflightPermits;
+
+  private final Set<String> inflightRegisters =
+      Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+  /** false if the server not support the batch request, reset after reconnected */
+  private volatile boolean batchSupported = true;
+
   /**
    * Instantiates a new Worker thread.
    *
@@ -57,6 +79,10 @@ public class WorkerThread extends AbstractWorkerThread {
     super(client);
     this.config = config;
     this.registerCache = registerCache;
+    this.inflightPermits =
+        config.getAsyncMaxInflightRequests() > 0
+            ? new Semaphore(config.getAsyncMaxInflightRequests())
+            : null;
     this.setName("RegistryWorkerThread");
     this.setDaemon(true);
   }
@@ -85,7 +111,10 @@ public class WorkerThread extends AbstractWorkerThread {
     if (inited.compareAndSet(false, true)) {
       this.start();
     }
+    // called after reconnected, the new server may support the batch request
+    batchSupported = true;
     requestQueue.putAll(events);
+    signal();
   }
 
   /** Handle. */
@@ -97,63 +126,214 @@ public class WorkerThread extends AbstractWorkerThread {
         // check connection status, try to reconnect to the server when connection lose
         client.ensureConnected();
 
-        if (requestQueue.isEmpty()) {
-          await(config.getRecheckInterval());
+        TaskEvent ev = requestQueue.poll(System.currentTimeMillis());
+        if (ev == null) {
+          // wait for the next resending or the new task
+          long delay = requestQueue.nextDelay(System.currentTimeMillis());
+          int recheckInterval = config.getRecheckInterval();
+          await(delay < 0 || delay > recheckInterval ? recheckInterval : Math.max(delay, 1));
           continue;
         }
 
-        Iterator<TaskEvent> lt = requestQueue.iterator();
-
-        while (lt.hasNext()) {
+        List<SyncRequest> batch = new ArrayList<SyncRequest>();
+        while (ev != null) {
           client.ensureConnected();
-          TaskEvent ev = lt.next();
-          lt.remove();
-          int sendCount = ev.incSendCount();
-
-          // Resent needs delay when task event is not the first time to send.
-          if (sendCount != 0 && ev.delayTime() > 0) {
+          SyncRequest syncRequest = prepareTask(ev);
+          ev = requestQueue.poll(System.currentTimeMillis());
+          if (syncRequest == null) {
             continue;
           }
-
-          handleTask(ev);
+          if (!isBatchable(syncRequest)) {
+            sendTask(syncRequest);
+            continue;
+          }
+          batch.add(syncRequest);
+          if (batch.size() >= config.getBatchRegisterSize()) {
+            sendBatch(batch);
+            batch = new ArrayList<SyncRequest>();
+          }
+        }
+        if (!batch.isEmpty()) {
+          sendBatch(batch);
         }
-
-        // Cleaning completed task, it will take more time when the registration number is large.
-        requestQueue.cleanCompletedTasks();
       } catch (Throwable e) {
         LOGGER.error("[send] handle data error!", e);
       }
     }
   }
 
-  private void handleTask(TaskEvent event) {
+  private SyncRequest prepareTask(TaskEvent event) {
     if (null == event) {
-      return;
+      return null;
     }
 
     try {
-      event.setTriggerTime(System.currentTimeMillis());
       Register register = event.getSource();
 
       if (!(register instanceof AbstractInternalRegister)) {
         LOGGER.warn("[register] register type unknown, {}", register);
-        return;
+        return null;
       }
 
       AbstractInternalRegister abstractInternalRegister = (AbstractInternalRegister) register;
 
+      if (inflightRegisters.contains(register.getRegistId())) {
+        // waiting for the response, resend after the delay if not done
+        return null;
+      }
+
       SyncTask syncTask = abstractInternalRegister.assemblySyncTask();
-      String requestId = syncTask.getRequestId();
 
       if (syncTask.isDone()) {
         LOGGER.info("[register] register already sync succeeded, {}", register);
+        return null;
+      }
+      return new SyncRequest(event, abstractInternalRegister, syncTask);
+    } catch (Exception e) {
+      LOGGER.error("[send] handle request failed, {}", event, e);
+      return null;
+    }
+  }
+
+  private boolean isBatchable(SyncRequest syncRequest) {
+    if (!batchSupported || config.getBatchRegisterSize() <= 1) {
+      return false;
+    }
+    Object request = syncRequest.syncTask.getRequest();
+    return request instanceof PublisherRegister || request instanceof SubscriberRegister;
+  }
+
+  private void sendTask(SyncRequest syncRequest) {
+    if (inflightPermits != null) {
+      sendAsync(syncRequest.syncTask.getRequest(), Collections.singletonList(syncRequest));
+      return;
+    }
+    try {
+      Object result = client.invokeSync(syncRequest.syncTask.getRequest());
+      handleResult(syncRequest, result);
+    } catch (Exception e) {
+      LOGGER.error("[send] handle request failed, {}", syncRequest.event, e);
+    }
+  }
+
+  private void sendBatch(List<SyncRequest> batch) {
+    if (batch.size() == 1) {
+      sendTask(batch.get(0));
+      return;
+    }
+    BatchRegisterRequest request = new BatchRegisterRequest();
+    for (SyncRequest syncRequest : batch) {
+      request.addRegister((BaseRegister) syncRequest.syncTask.getRequest());
+    }
+    if (inflightPermits != null) {
+      sendAsync(request, batch);
+      return;
+    }
+    Object result;
+    try {
+      result = client.invokeSync(request);
+    } catch (InvokeServerException e) {
+      // the server without the batch processor responds a server exception,
+      // send the registers one by one until reconnected
+      LOGGER.warn("[send] batch register failed by server, fallback to single, {}", request, e);
+      batchSupported = false;
+      for (SyncRequest syncRequest : batch) {
+        sendTask(syncRequest);
+      }
+      return;
+    } catch (Exception e) {
+      LOGGER.error("[send] batch register failed, {}", request, e);
+      return;
+    }
+
+    handleBatchResult(request, batch, result);
+  }
+
+  private void sendAsync(final Object request, final List<SyncRequest> syncRequests) {
+    try {
+      // too many requests in flight, the registers are resent later
+      if (!inflightPermits.tryAcquire(config.getInvokeTimeout(), TimeUnit.MILLISECONDS)) {
+        LOGGER.warn("[send] too many inflight requests, {}", request);
         return;
       }
+    } catch (InterruptedException e) {
+      LOGGER.warn("[send] interrupted when acquiring inflight permit, {}", request);
+      return;
+    }
+    for (SyncRequest syncRequest : syncRequests) {
+      inflightRegisters.add(syncRequest.register.getRegistId());
+    }
+    try {
+      client.invokeWithCallback(
+          request,
+          new InvokeCallback() {
+            @Override
+            public void onResponse(Object result) {
+              try {
+                if (request instanceof BatchRegisterRequest) {
+                  handleBatchResult((BatchRegisterRequest) request, syncRequests, result);
+                } else {
+                  handleResult(syncRequests.get(0), result);
+                }
+              } finally {
+                releaseInflight(syncRequests);
+              }
+            }
+
+            @Override
+            public void onException(Throwable e) {
+              try {
+                if (request instanceof BatchRegisterRequest && e instanceof InvokeServerException) {
+                  // the server not support the batch request, the registers are resent one by
+                  // one later
+                  batchSupported = false;
+                }
+                LOGGER.error("[send] handle request failed, {}", request, e);
+              } finally {
+                releaseInflight(syncRequests);
+              }
+            }
 
-      Object request = syncTask.getRequest();
+            @Override
+            public Executor getExecutor() {
+              return null;
+            }
+          });
+    } catch (Throwable e) {
+      releaseInflight(syncRequests);
+      LOGGER.error("[send] handle request failed, {}", request, e);
+    }
+  }
 
-      Object result = client.invokeSync(request);
+  private void releaseInflight(List<SyncRequest> syncRequests) {
+    for (SyncRequest syncRequest : syncRequests) {
+      inflightRegisters.remove(syncRequest.register.getRegistId());
+    }
+    inflightPermits.release();
+  }
 
+  private void handleBatchResult(
+      BatchRegisterRequest request, List<SyncRequest> batch, Object result) {
+    if (!(result instanceof BatchRegisterResponse)) {
+      LOGGER.warn("[register] batch result type is wrong, {}", result);
+      return;
+    }
+    BatchRegisterResponse response = (BatchRegisterResponse) result;
+    List<RegisterResponse> responses = response.getResponses();
+    if (!response.isSuccess() || responses == null || responses.size() != batch.size()) {
+      LOGGER.info("[register] batch register to server failed, {}, {}", request, response);
+      return;
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      handleResult(batch.get(i), responses.get(i));
+    }
+  }
+
+  private void handleResult(SyncRequest syncRequest, Object result) {
+    final Object request = syncRequest.syncTask.getRequest();
+    final String requestId = syncRequest.syncTask.getRequestId();
+    final AbstractInternalRegister register = syncRequest.register;
+    try {
       if (!(result instanceof RegisterResponse)) {
         LOGGER.warn("[register] result type is wrong, {}", result);
         return;
@@ -165,8 +345,7 @@ public class WorkerThread extends AbstractWorkerThread {
         return;
       }
 
-      boolean syncOK =
-          abstractInternalRegister.syncOK(requestId, response.getVersion(), response.isRefused());
+      boolean syncOK = register.syncOK(requestId, response.getVersion(), response.isRefused());
       if (!syncOK) {
         LOGGER.info(
             "[register] requestId has expired, ignore this response, {}, {}, {}",
@@ -188,7 +367,19 @@ public class WorkerThread extends AbstractWorkerThread {
             "[register] register to server success, {}, {}, {}", requestId, request, response);
       }
     } catch (Exception e) {
-      LOGGER.error("[send] handle request failed, {}", event, e);
+      LOGGER.error("[send] handle request failed, {}", syncRequest.event, e);
+    }
+  }
+
+  private static final class SyncRequest {
+    final TaskEvent event;
+    final AbstractInternalRegister register;
+    final SyncTask syncTask;
+
+    SyncRequest(TaskEvent event, AbstractInternalRegister register, SyncTask syncTask) {
+      this.event = event;
+      this.register = register;
+      this.syncTask = syncTask;
     }
   }
 }
@@ -21,6 +21,8 @@ import com.alipay.remoting.rpc.RpcServer;
 import com.alipay.remoting.rpc.protocol.SyncUserProcessor;
 import com.alipay.sofa.registry.core.constants.EventTypeConstants;
 import com.alipay.sofa.registry.core.model.BaseRegister;
+import com.alipay.sofa.registry.core.model.BatchRegisterRequest;
+import com.alipay.sofa.registry.core.model.BatchRegisterResponse;
 import com.alipay.sofa.registry.core.model.ConfiguratorRegister;
 import com.alipay.sofa.registry.core.model.DataBox;
 import com.alipay.sofa.registry.core.model.PublisherRegister;
@@ -61,6 +63,7 @@ public class MockServer {
     rpcServer.registerUserProcessor(new MockSubscriberRegisterProcessor());
     rpcServer.registerUserProcessor(new MockPublisherRegisterProcessor());
     rpcServer.registerUserProcessor(new MockConfiguratorRegisterProcesor());
+    rpcServer.registerUserProcessor(new MockBatchRegisterProcessor());
     rpcServer.start();
   }
 
@@ -176,6 +179,37 @@ public class MockServer {
     }
   }
 
+  /** The type Mock batch register processor. */
+  class MockBatchRegisterProcessor extends SyncUserProcessor<BatchRegisterRequest> {
+    private final MockPublisherRegisterProcessor publisherProcessor =
+        new MockPublisherRegisterProcessor();
+    private final MockSubscriberRegisterProcessor subscriberProcessor =
+        new MockSubscriberRegisterProcessor();
+
+    @Override
+    public Object handleRequest(BizContext bizCtx, BatchRegisterRequest request) throws Exception {
+      BatchRegisterResponse response = new BatchRegisterResponse();
+      for (BaseRegister register : request.getRegisters()) {
+        if (register instanceof PublisherRegister) {
+          response.addResponse(
+              (RegisterResponse)
+                  publisherProcessor.handleRequest(bizCtx, (PublisherRegister) register));
+        } else {
+          response.addResponse(
+              (RegisterResponse)
+                  subscriberProcessor.handleRequest(bizCtx, (SubscriberRegister) register));
+        }
+      }
+      response.setSuccess(true);
+      return response;
+    }
+
+    @Override
+    public String interest() {
+      return BatchRegisterRequest.class.getName();
+    }
+  }
+
   private RegisterResponse response(BaseRegister register) {
     return response(register, false);
   }
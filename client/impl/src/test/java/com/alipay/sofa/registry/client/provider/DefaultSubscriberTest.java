@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.client.provider;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
@@ -233,6 +234,46 @@ public class DefaultSubscriberTest {
     assertZoneDataEquals(expectedMap8, userData10.getZoneData());
   }
 
+  @Test
+  public void testPutReceivedDeltaData() {
+    DefaultRegistryClientConfig config = DefaultRegistryClientConfigBuilder.start().build();
+    DefaultSubscriber defaultSubscriber = new DefaultSubscriber(null, null, config);
+
+    // base not exists
+    Map<String, List<DataBox>> added = new HashMap<String, List<DataBox>>();
+    Map<String, List<DataBox>> removed = new HashMap<String, List<DataBox>>();
+    assertFalse(defaultSubscriber.putReceivedDeltaData(segmentA, 1, 2, added, removed, ZHEJIANG));
+
+    Map<String, List<DataBox>> map = new HashMap<String, List<DataBox>>();
+    addToDataBoxMap(map, ZHEJIANG, HANGZHOU, NINGBO);
+    addToDataBoxMap(map, JIANGSU, NANJING);
+    SegmentData sd = new SegmentData();
+    sd.setSegment(segmentA);
+    sd.setVersion(1L);
+    sd.setData(map);
+    defaultSubscriber.putReceivedData(sd, ZHEJIANG);
+
+    addToDataBoxMap(added, ZHEJIANG, WENZHOU);
+    addToDataBoxMap(added, FUJIAN, FUZHOU);
+    addToDataBoxMap(removed, ZHEJIANG, NINGBO);
+    addToDataBoxMap(removed, JIANGSU, NANJING);
+    assertTrue(defaultSubscriber.putReceivedDeltaData(segmentA, 1, 2, added, removed, ZHEJIANG));
+
+    Map<String, List<String>> expectedMap = new HashMap<String, List<String>>();
+    addToStringMap(expectedMap, ZHEJIANG, HANGZHOU, WENZHOU);
+    addToStringMap(expectedMap, FUJIAN, FUZHOU);
+    assertZoneDataEquals(expectedMap, defaultSubscriber.peekData().getZoneData());
+    // the base data is not changed
+    assertEquals(2, map.get(ZHEJIANG).size());
+
+    // the data is newer, ignore
+    assertTrue(defaultSubscriber.putReceivedDeltaData(segmentA, 1, 2, added, removed, ZHEJIANG));
+    assertZoneDataEquals(expectedMap, defaultSubscriber.peekData().getZoneData());
+
+    // version gap
+    assertFalse(defaultSubscriber.putReceivedDeltaData(segmentA, 3, 4, added, removed, ZHEJIANG));
+  }
+
   private void addToDataBoxMap(Map<String, List<DataBox>> map, String key, String... values) {
     List<DataBox> list = map.get(key);
     if (list == null) {
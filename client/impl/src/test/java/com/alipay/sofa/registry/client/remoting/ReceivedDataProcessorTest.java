@@ -81,6 +81,29 @@ public class ReceivedDataProcessorTest {
     Assert.assertNull(result.getMessage());
   }
 
+  @Test
+  public void handleDeltaRequest() {
+    ReceivedData request = new ReceivedData();
+    request.setSubscriberRegistIds(Arrays.asList("11", "22", "33"));
+    request.setData(new HashMap<String, List<DataBox>>());
+    request.setRemovedData(new HashMap<String, List<DataBox>>());
+    request.setBaseVersion(1233L);
+    request.setVersion(1234L);
+    request.setSegment("seg1");
+    request.setLocalZone("local");
+    try {
+      // the base of subscriber 33 not exists
+      processor.handleRequest(null, request);
+      Assert.fail();
+    } catch (IllegalStateException e) {
+      Assert.assertTrue(e.getMessage().contains("33"));
+    }
+
+    request.setSubscriberRegistIds(Arrays.asList("11", "22"));
+    Result result = (Result) processor.handleRequest(null, request);
+    Assert.assertTrue(result.isSuccess());
+  }
+
   @Test
   public void interest() {
     Assert.assertEquals(ReceivedData.class.getName(), processor.interest());
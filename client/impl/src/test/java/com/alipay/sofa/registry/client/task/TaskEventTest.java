@@ -16,8 +16,6 @@
  */
 package com.alipay.sofa.registry.client.task;
 
-import static org.mockito.Mockito.when;
-
 import com.alipay.sofa.registry.client.api.Register;
 import org.junit.Assert;
 import org.junit.Test;
@@ -27,49 +25,15 @@ import org.mockito.Mockito;
 public class TaskEventTest {
 
   @Test
-  public void delayTime() {
-    TaskEvent event1 = new TaskEvent(null);
-    Assert.assertTrue(event1.delayTime() <= 200);
-    event1.incSendCount();
-    Assert.assertTrue(event1.delayTime() <= 400);
-    event1.incSendCount();
-    Assert.assertTrue(event1.delayTime() <= 600);
-    event1.incSendCount();
-    Assert.assertTrue(event1.delayTime() <= 800);
-    event1.incSendCount();
-    Assert.assertTrue(event1.delayTime() <= 1000);
-    event1.incSendCount();
-    Assert.assertTrue(event1.delayTime() <= 1000);
-  }
-
-  @Test
-  public void testCompare() {
+  public void testRetryDelay() {
     TaskEvent event1 = new TaskEvent(null);
-    TaskEvent event2 = new TaskEvent(null);
-    Assert.assertEquals(0, event1.compareTo(event2));
-
+    Assert.assertEquals(0, event1.retryDelay());
     event1.incSendCount();
-    Assert.assertEquals(1, event1.compareTo(event2));
-    Assert.assertEquals(-1, event2.compareTo(event1));
-    event2.incSendCount();
-
-    Register register = Mockito.mock(Register.class);
-    TaskEvent event3 = new TaskEvent(register);
-    TaskEvent event4 = new TaskEvent(register);
-    TaskEvent event5 = new TaskEvent(null);
-    Assert.assertEquals(1, event4.compareTo(event5));
-    Assert.assertEquals(-1, event5.compareTo(event3));
-
-    Register register6 = Mockito.mock(Register.class);
-    when(register6.getTimestamp()).thenReturn(123L);
-    Register register7 = Mockito.mock(Register.class);
-    when(register7.getTimestamp()).thenReturn(234L);
-    TaskEvent event6 = new TaskEvent(register6);
-    TaskEvent event7 = new TaskEvent(register7);
-    TaskEvent event8 = new TaskEvent(register7);
-    Assert.assertEquals(1, event7.compareTo(event6));
-    Assert.assertEquals(-1, event6.compareTo(event7));
-    Assert.assertEquals(0, event8.compareTo(event7));
+    Assert.assertEquals(200, event1.retryDelay());
+    for (int i = 0; i < 10; i++) {
+      event1.incSendCount();
+    }
+    Assert.assertEquals(1000, event1.retryDelay());
   }
 
   @Test
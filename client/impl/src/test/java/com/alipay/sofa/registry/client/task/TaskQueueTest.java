@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.client.task;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.alipay.sofa.registry.client.provider.DefaultPublisher;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TaskQueueTest {
+
+  @Test
+  public void testPoll() {
+    TaskQueue queue = new TaskQueue();
+    Assert.assertTrue(queue.isEmpty());
+    Assert.assertNull(queue.poll(System.currentTimeMillis()));
+    Assert.assertEquals(-1, queue.nextDelay(System.currentTimeMillis()));
+
+    DefaultPublisher publisher1 = mockPublisher("testRegistId-1");
+    DefaultPublisher publisher2 = mockPublisher("testRegistId-2");
+    TaskEvent event1 = new TaskEvent(publisher1);
+    TaskEvent event2 = new TaskEvent(publisher2);
+    queue.put(event1);
+    queue.put(event2);
+    Assert.assertEquals(2, queue.size());
+
+    long now = System.currentTimeMillis();
+    Assert.assertSame(event1, queue.poll(now));
+    Assert.assertSame(event2, queue.poll(now));
+    // not ready, wait for resending
+    Assert.assertNull(queue.poll(now));
+    Assert.assertEquals(200, queue.nextDelay(now));
+
+    // resend with the delay
+    Assert.assertSame(event1, queue.poll(now + 200));
+    Assert.assertSame(event2, queue.poll(now + 200));
+    Assert.assertEquals(400, queue.nextDelay(now + 200));
+
+    // completed task is removed when polled
+    when(publisher1.isDone()).thenReturn(true);
+    Assert.assertSame(event2, queue.poll(now + 600));
+    Assert.assertNull(queue.poll(now + 600));
+    Assert.assertEquals(1, queue.size());
+  }
+
+  @Test
+  public void testReplace() {
+    TaskQueue queue = new TaskQueue();
+    DefaultPublisher publisher = mockPublisher("testRegistId");
+    TaskEvent event1 = new TaskEvent(publisher);
+    TaskEvent event2 = new TaskEvent(publisher);
+    queue.put(event1);
+    queue.put(event2);
+    Assert.assertEquals(1, queue.size());
+
+    long now = System.currentTimeMillis();
+    Assert.assertSame(event2, queue.poll(now));
+    Assert.assertNull(queue.poll(now));
+  }
+
+  private static DefaultPublisher mockPublisher(String registId) {
+    DefaultPublisher publisher = mock(DefaultPublisher.class);
+    when(publisher.getRegistId()).thenReturn(registId);
+    when(publisher.isDone()).thenReturn(false);
+    return publisher;
+  }
+}
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.client.task;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.alipay.remoting.InvokeCallback;
+import com.alipay.remoting.exception.RemotingException;
+import com.alipay.remoting.rpc.exception.InvokeServerException;
+import com.alipay.sofa.registry.client.api.RegistryClientConfig;
+import com.alipay.sofa.registry.client.provider.AbstractInternalRegister.SyncTask;
+import com.alipay.sofa.registry.client.provider.DefaultPublisher;
+import com.alipay.sofa.registry.client.provider.DefaultRegistryClientConfigBuilder;
+import com.alipay.sofa.registry.client.provider.RegisterCache;
+import com.alipay.sofa.registry.client.remoting.Client;
+import com.alipay.sofa.registry.core.model.BatchRegisterRequest;
+import com.alipay.sofa.registry.core.model.BatchRegisterResponse;
+import com.alipay.sofa.registry.core.model.PublisherRegister;
+import com.alipay.sofa.registry.core.model.RegisterResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class WorkerThreadTest {
+
+  @Test
+  public void testBatchRegister() throws RemotingException, InterruptedException {
+    RegistryClientConfig config =
+        DefaultRegistryClientConfigBuilder.start()
+            .setDataCenter("test-data-center")
+            .setZone("test-zone")
+            .setBatchRegisterSize(2)
+            .build();
+    Client client = mock(Client.class);
+    when(client.isConnected()).thenReturn(true);
+    final List<Object> requests = new ArrayList<Object>();
+    when(client.invokeSync(any()))
+        .thenAnswer(
+            new Answer<Object>() {
+              @Override
+              public Object answer(InvocationOnMock invocation) {
+                Object request = invocation.getArguments()[0];
+                synchronized (requests) {
+                  requests.add(request);
+                }
+                if (request instanceof BatchRegisterRequest) {
+                  BatchRegisterResponse response = new BatchRegisterResponse();
+                  response.setSuccess(true);
+                  for (int i = 0; i < ((BatchRegisterRequest) request).getRegisters().size(); i++) {
+                    response.addResponse(success());
+                  }
+                  return response;
+                }
+                return success();
+              }
+            });
+
+    List<TaskEvent> events = new ArrayList<TaskEvent>();
+    List<DefaultPublisher> publishers = new ArrayList<DefaultPublisher>();
+    for (int i = 0; i < 3; i++) {
+      DefaultPublisher publisher = mockPublisher("testRegistId-" + i);
+      publishers.add(publisher);
+      events.add(new TaskEvent(publisher));
+    }
+
+    WorkerThread workerThread = new WorkerThread(client, config, mock(RegisterCache.class));
+    workerThread.schedule(events);
+    workerThread.signal();
+
+    for (DefaultPublisher publisher : publishers) {
+      verify(publisher, timeout(3000).times(1)).syncOK(anyString(), anyLong(), anyBoolean());
+    }
+    verify(client, times(2)).invokeSync(any());
+    synchronized (requests) {
+      Assert.assertEquals(2, ((BatchRegisterRequest) requests.get(0)).getRegisters().size());
+      Assert.assertTrue(requests.get(1) instanceof PublisherRegister);
+    }
+  }
+
+  @Test
+  public void testBatchNotSupported() throws RemotingException, InterruptedException {
+    RegistryClientConfig config =
+        DefaultRegistryClientConfigBuilder.start()
+            .setDataCenter("test-data-center")
+            .setZone("test-zone")
+            .build();
+    Client client = mock(Client.class);
+    when(client.isConnected()).thenReturn(true);
+    when(client.invokeSync(isA(BatchRegisterRequest.class)))
+        .thenThrow(new InvokeServerException("no processor"));
+    when(client.invokeSync(isA(PublisherRegister.class))).thenReturn(success());
+
+    List<TaskEvent> events = new ArrayList<TaskEvent>();
+    List<DefaultPublisher> publishers = new ArrayList<DefaultPublisher>();
+    for (int i = 0; i < 3; i++) {
+      DefaultPublisher publisher = mockPublisher("testRegistId-" + i);
+      publishers.add(publisher);
+      events.add(new TaskEvent(publisher));
+    }
+
+    WorkerThread workerThread = new WorkerThread(client, config, mock(RegisterCache.class));
+    workerThread.schedule(events);
+    workerThread.signal();
+
+    for (DefaultPublisher publisher : publishers) {
+      verify(publisher, timeout(3000).times(1)).syncOK(anyString(), anyLong(), anyBoolean());
+    }
+    verify(client, times(1)).invokeSync(isA(BatchRegisterRequest.class));
+    verify(client, times(3)).invokeSync(isA(PublisherRegister.class));
+
+    // the next register is sent directly
+    DefaultPublisher publisher = mockPublisher("testRegistId-3");
+    workerThread.schedule(new TaskEvent(publisher));
+    verify(publisher, timeout(3000).times(1)).syncOK(anyString(), anyLong(), anyBoolean());
+    verify(client, times(1)).invokeSync(isA(BatchRegisterRequest.class));
+  }
+
+  @Test
+  public void testAsyncRegister() throws Exception {
+    RegistryClientConfig config =
+        DefaultRegistryClientConfigBuilder.start()
+            .setDataCenter("test-data-center")
+            .setZone("test-zone")
+            .setBatchRegisterSize(2)
+            .setAsyncMaxInflightRequests(1)
+            .build();
+    Client client = mock(Client.class);
+    when(client.isConnected()).thenReturn(true);
+    final AtomicInteger maxInflight = new AtomicInteger();
+    final AtomicInteger inflight = new AtomicInteger();
+    doAnswer(
+            new Answer<Object>() {
+              @Override
+              public Object answer(InvocationOnMock invocation) {
+                final BatchRegisterRequest request =
+                    (BatchRegisterRequest) invocation.getArguments()[0];
+                final InvokeCallback callback = (InvokeCallback) invocation.getArguments()[1];
+                final int current = inflight.incrementAndGet();
+                maxInflight.set(Math.max(maxInflight.get(), current));
+                new Thread() {
+                  @Override
+                  public void run() {
+                    BatchRegisterResponse response = new BatchRegisterResponse();
+                    response.setSuccess(true);
+                    for (int i = 0; i < request.getRegisters().size(); i++) {
+                      response.addResponse(success());
+                    }
+                    inflight.decrementAndGet();
+                    callback.onResponse(response);
+                  }
+                }.start();
+                return null;
+              }
+            })
+        .when(client)
+        .invokeWithCallback(isA(BatchRegisterRequest.class), any(InvokeCallback.class));
+
+    List<TaskEvent> events = new ArrayList<TaskEvent>();
+    List<DefaultPublisher> publishers = new ArrayList<DefaultPublisher>();
+    for (int i = 0; i < 4; i++) {
+      DefaultPublisher publisher = mockPublisher("testRegistId-" + i);
+      publishers.add(publisher);
+      events.add(new TaskEvent(publisher));
+    }
+
+    WorkerThread workerThread = new WorkerThread(client, config, mock(RegisterCache.class));
+    workerThread.schedule(events);
+
+    for (DefaultPublisher publisher : publishers) {
+      verify(publisher, timeout(3000).times(1)).syncOK(anyString(), anyLong(), anyBoolean());
+    }
+    verify(client, times(2)).invokeWithCallback(anyObject(), any(InvokeCallback.class));
+    verify(client, times(0)).invokeSync(anyObject());
+    Assert.assertEquals(1, maxInflight.get());
+  }
+
+  private static DefaultPublisher mockPublisher(String registId) {
+    DefaultPublisher publisher = mock(DefaultPublisher.class);
+    SyncTask syncTask = mock(SyncTask.class);
+    when(syncTask.getRequestId()).thenReturn(registId);
+    when(syncTask.getRequest()).thenReturn(new PublisherRegister());
+    when(publisher.getRegistId()).thenReturn(registId);
+    when(publisher.assemblySyncTask()).thenReturn(syncTask);
+    final AtomicBoolean done = new AtomicBoolean();
+    when(publisher.syncOK(anyString(), anyLong(), anyBoolean()))
+        .thenAnswer(
+            new Answer<Boolean>() {
+              @Override
+              public Boolean answer(InvocationOnMock invocation) {
+                done.set(true);
+                return true;
+              }
+            });
+    when(publisher.isEnabled()).thenReturn(true);
+    when(publisher.isDone())
+        .thenAnswer(
+            new Answer<Boolean>() {
+              @Override
+              public Boolean answer(InvocationOnMock invocation) {
+                return done.get();
+              }
+            });
+    return publisher;
+  }
+
+  private static RegisterResponse success() {
+    RegisterResponse response = new RegisterResponse();
+    response.setSuccess(true);
+    response.setVersion(1);
+    return response;
+  }
+}
@@ -30,4 +30,6 @@ public class AttributeKeyConstants {
   public static final String ATTRIBUTE_SIGNATURE = "!Signature";
   /** Timestamp Key */
   public static final String ATTRIBUTE_TIMESTAMP = "!Timestamp";
+  /** Subscriber accepts the delta push */
+  public static final String ATTRIBUTE_ACCEPT_DELTA_PUSH = "!AcceptDeltaPush";
 }
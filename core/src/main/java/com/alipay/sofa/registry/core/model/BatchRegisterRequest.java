@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.core.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The registers sent in one request, the item is PublisherRegister or SubscriberRegister. The
+ * server handles the items in order and responds a RegisterResponse for each item.
+ */
+public class BatchRegisterRequest implements Serializable {
+
+  private static final long serialVersionUID = 4735392518093364185L;
+
+  private List<BaseRegister> registers = new ArrayList<BaseRegister>();
+
+  /**
+   * Getter method for property <tt>registers</tt>.
+   *
+   * @return property value of registers
+   */
+  public List<BaseRegister> getRegisters() {
+    return registers;
+  }
+
+  /**
+   * Setter method for property <tt>registers</tt>.
+   *
+   * @param registers value to be assigned to property registers
+   */
+  public void setRegisters(List<BaseRegister> registers) {
+    this.registers = registers;
+  }
+
+  /**
+   * Add register.
+   *
+   * @param register the register
+   */
+  public void addRegister(BaseRegister register) {
+    registers.add(register);
+  }
+
+  /**
+   * To string string.
+   *
+   * @return the string
+   */
+  @Override
+  public String toString() {
+    return "BatchRegisterRequest{" + "size=" + (registers == null ? 0 : registers.size()) + '}';
+  }
+}
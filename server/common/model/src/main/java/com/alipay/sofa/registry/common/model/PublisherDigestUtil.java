@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.common.model;
 
 import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
+import com.alipay.sofa.registry.util.MathUtils;
 import com.google.common.collect.Maps;
 import java.util.*;
 
@@ -71,6 +72,39 @@ public final class PublisherDigestUtil {
         publisherNum, publisherIdSign, publisherVerSign, publisherTimestampSign, max, min);
   }
 
+  public static int bucketOf(String dataInfoId, int bucketNum) {
+    return (digest(dataInfoId) & Integer.MAX_VALUE) % bucketNum;
+  }
+
+  /**
+   * the digest of every bucket is the sum of the mixed dataInfoId and DatumDigest, it is not
+   * sensitive to the iteration order
+   *
+   * @param digestMap the digests of dataInfoIds
+   * @param bucketNum the number of buckets
+   * @return the digests of buckets
+   */
+  public static long[] bucketDigest(Map<String, DatumDigest> digestMap, int bucketNum) {
+    final long[] buckets = new long[bucketNum];
+    for (Map.Entry<String, DatumDigest> e : digestMap.entrySet()) {
+      final String dataInfoId = e.getKey();
+      final long sign = MathUtils.mix64(((long) digest(dataInfoId) << 32) ^ e.getValue().sign());
+      buckets[bucketOf(dataInfoId, bucketNum)] += sign;
+    }
+    return buckets;
+  }
+
+  public static Map<String, DatumDigest> filterBuckets(
+      Map<String, DatumDigest> digestMap, int bucketNum, Set<Integer> buckets) {
+    final Map<String, DatumDigest> ret = Maps.newHashMapWithExpectedSize(digestMap.size());
+    for (Map.Entry<String, DatumDigest> e : digestMap.entrySet()) {
+      if (buckets.contains(bucketOf(e.getKey(), bucketNum))) {
+        ret.put(e.getKey(), e.getValue());
+      }
+    }
+    return ret;
+  }
+
   private static int digest(String str) {
     // use string.hashCode, it's the fastest. the calc result has cached.
     // but must pay attention to the compatibility of different jdk versions
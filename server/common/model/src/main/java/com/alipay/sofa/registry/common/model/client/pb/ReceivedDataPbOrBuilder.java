@@ -91,4 +91,34 @@ public interface ReceivedDataPbOrBuilder
 
   /** <code>int32 originBodySize = 12;</code> */
   int getOriginBodySize();
+
+  /**
+   *
+   *
+   * <pre>
+   * delta push, the data contains the added boxes, applied on the data of baseVersion
+   * </pre>
+   *
+   * <code>int64 baseVersion = 13;</code>
+   */
+  long getBaseVersion();
+
+  /** <code>map&lt;string, .DataBoxesPb&gt; removedData = 14;</code> */
+  int getRemovedDataCount();
+  /** <code>map&lt;string, .DataBoxesPb&gt; removedData = 14;</code> */
+  boolean containsRemovedData(java.lang.String key);
+  /** Use {@link #getRemovedDataMap()} instead. */
+  @java.lang.Deprecated
+  java.util.Map<java.lang.String, com.alipay.sofa.registry.common.model.client.pb.DataBoxesPb>
+      getRemovedData();
+  /** <code>map&lt;string, .DataBoxesPb&gt; removedData = 14;</code> */
+  java.util.Map<java.lang.String, com.alipay.sofa.registry.common.model.client.pb.DataBoxesPb>
+      getRemovedDataMap();
+  /** <code>map&lt;string, .DataBoxesPb&gt; removedData = 14;</code> */
+  com.alipay.sofa.registry.common.model.client.pb.DataBoxesPb getRemovedDataOrDefault(
+      java.lang.String key,
+      com.alipay.sofa.registry.common.model.client.pb.DataBoxesPb defaultValue);
+  /** <code>map&lt;string, .DataBoxesPb&gt; removedData = 14;</code> */
+  com.alipay.sofa.registry.common.model.client.pb.DataBoxesPb getRemovedDataOrThrow(
+      java.lang.String key);
 }
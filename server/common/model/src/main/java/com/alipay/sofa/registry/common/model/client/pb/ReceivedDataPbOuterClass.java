@@ -32,6 +32,10 @@ public final class ReceivedDataPbOuterClass {
       internal_static_ReceivedDataPb_DataEntry_descriptor;
   static final com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
       internal_static_ReceivedDataPb_DataEntry_fieldAccessorTable;
+  static final com.google.protobuf.Descriptors.Descriptor
+      internal_static_ReceivedDataPb_RemovedDataEntry_descriptor;
+  static final com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_ReceivedDataPb_RemovedDataEntry_fieldAccessorTable;
 
   public static com.google.protobuf.Descriptors.FileDescriptor getDescriptor() {
     return descriptor;
@@ -42,16 +46,20 @@ public final class ReceivedDataPbOuterClass {
   static {
     java.lang.String[] descriptorData = {
       "\n\024ReceivedDataPb.proto\032\021DataBoxesPb.prot"
-          + "o\"\300\002\n\016ReceivedDataPb\022\016\n\006dataId\030\001 \001(\t\022\r\n\005"
+          + "o\"\316\003\n\016ReceivedDataPb\022\016\n\006dataId\030\001 \001(\t\022\r\n\005"
           + "group\030\002 \001(\t\022\022\n\ninstanceId\030\003 \001(\t\022\017\n\007segme"
           + "nt\030\004 \001(\t\022\r\n\005scope\030\005 \001(\t\022\033\n\023subscriberReg"
           + "istIds\030\006 \003(\t\022\'\n\004data\030\007 \003(\0132\031.ReceivedDat"
           + "aPb.DataEntry\022\017\n\007version\030\010 \001(\003\022\021\n\tlocalZ"
           + "one\030\t \001(\t\022\020\n\010encoding\030\n \001(\t\022\014\n\004body\030\013 \001("
-          + "\014\022\026\n\016originBodySize\030\014 \001(\005\0329\n\tDataEntry\022\013"
-          + "\n\003key\030\001 \001(\t\022\033\n\005value\030\002 \001(\0132\014.DataBoxesPb"
-          + ":\0028\001B:\n/com.alipay.sofa.registry.common."
-          + "model.client.pbP\001Z\005protob\006proto3"
+          + "\014\022\026\n\016originBodySize\030\014 \001(\005\022\023\n\013baseVersion"
+          + "\030\r \001(\003\0225\n\013removedData\030\016 \003(\0132 .ReceivedDa"
+          + "taPb.RemovedDataEntry\0329\n\tDataEntry\022\013\n\003ke"
+          + "y\030\001 \001(\t\022\033\n\005value\030\002 \001(\0132\014.DataBoxesPb:\0028\001"
+          + "\032@\n\020RemovedDataEntry\022\013\n\003key\030\001 \001(\t\022\033\n\005val"
+          + "ue\030\002 \001(\0132\014.DataBoxesPb:\0028\001B:\n/com.alipay"
+          + ".sofa.registry.common.model.client.pbP\001Z"
+          + "\005protob\006proto3"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
         new com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner() {
@@ -84,6 +92,8 @@ public final class ReceivedDataPbOuterClass {
               "Encoding",
               "Body",
               "OriginBodySize",
+              "BaseVersion",
+              "RemovedData",
             });
     internal_static_ReceivedDataPb_DataEntry_descriptor =
         internal_static_ReceivedDataPb_descriptor.getNestedTypes().get(0);
@@ -93,6 +103,14 @@ public final class ReceivedDataPbOuterClass {
             new java.lang.String[] {
               "Key", "Value",
             });
+    internal_static_ReceivedDataPb_RemovedDataEntry_descriptor =
+        internal_static_ReceivedDataPb_descriptor.getNestedTypes().get(1);
+    internal_static_ReceivedDataPb_RemovedDataEntry_fieldAccessorTable =
+        new com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+            internal_static_ReceivedDataPb_RemovedDataEntry_descriptor,
+            new java.lang.String[] {
+              "Key", "Value",
+            });
     com.alipay.sofa.registry.common.model.client.pb.DataBoxesPbOuterClass.getDescriptor();
   }
 
@@ -43,6 +43,21 @@ public final class DatumDigest implements Serializable {
     this.minTimestamp = minTimestamp;
   }
 
+  /**
+   * the 64bits sign of all the fields, used to build the digest of buckets
+   *
+   * @return the sign
+   */
+  public long sign() {
+    long h = publisherNum;
+    h = 31 * h + publisherIdSign;
+    h = 31 * h + publisherVerSign;
+    h = 31 * h + publisherTimestampSign;
+    h = 31 * h + maxTimestamp;
+    h = 31 * h + minTimestamp;
+    return h;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.dataserver;
+
+import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.util.StringFormatter;
+
+/**
+ * request to get the publishers modified since the fromVersion, the response is the full datum if
+ * the fromVersion has aged out. the versions are generated by each data server, so the delta is
+ * only valid on the slot leader and leaderEpoch which the fromVersion is fetched from
+ *
+ * @author yuzhi.lyz
+ * @version v 0.1 2021-06-15 15:02 yuzhi.lyz Exp $
+ */
+public class GetDataDeltaRequest extends GetDataRequest {
+  private static final long serialVersionUID = -3184709362115526187L;
+
+  private final long fromVersion;
+
+  private final String fromSlotLeader;
+
+  private final long fromSlotLeaderEpoch;
+
+  public GetDataDeltaRequest(
+      ProcessId sessionProcessId,
+      String dataInfoId,
+      String dataCenter,
+      int slotId,
+      long fromVersion,
+      String fromSlotLeader,
+      long fromSlotLeaderEpoch) {
+    super(sessionProcessId, dataInfoId, dataCenter, slotId);
+    this.fromVersion = fromVersion;
+    this.fromSlotLeader = fromSlotLeader;
+    this.fromSlotLeaderEpoch = fromSlotLeaderEpoch;
+  }
+
+  public long getFromVersion() {
+    return fromVersion;
+  }
+
+  public String getFromSlotLeader() {
+    return fromSlotLeader;
+  }
+
+  public long getFromSlotLeaderEpoch() {
+    return fromSlotLeaderEpoch;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "GetDataDelta:{},{},{},{},{},from={}@{}/{}",
+        getDataInfoId(),
+        getDataCenter(),
+        getSlotId(),
+        getSlotLeaderEpoch(),
+        getSlotTableEpoch(),
+        fromVersion,
+        fromSlotLeader,
+        fromSlotLeaderEpoch);
+  }
+}
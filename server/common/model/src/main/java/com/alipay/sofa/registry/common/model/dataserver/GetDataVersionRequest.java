@@ -35,6 +35,10 @@ public class GetDataVersionRequest extends AbstractSlotRequest {
   private final String dataCenter;
   // dataInfoId:max(push.version)
   private final Map<String, DatumVersion> interests;
+  // response the SlotVersions with the version digest of the slot
+  private boolean returnSlotDigest;
+  // only response the version digest of the slot, not compare the interests
+  private boolean digestOnly;
 
   /** constructor */
   public GetDataVersionRequest(
@@ -55,14 +59,52 @@ public class GetDataVersionRequest extends AbstractSlotRequest {
     return dataCenter;
   }
 
+  /**
+   * Getter method for property <tt>returnSlotDigest</tt>.
+   *
+   * @return property value of returnSlotDigest
+   */
+  public boolean isReturnSlotDigest() {
+    return returnSlotDigest;
+  }
+
+  /**
+   * Setter method for property <tt>returnSlotDigest</tt>.
+   *
+   * @param returnSlotDigest value to be assigned to property returnSlotDigest
+   */
+  public void setReturnSlotDigest(boolean returnSlotDigest) {
+    this.returnSlotDigest = returnSlotDigest;
+  }
+
+  /**
+   * Getter method for property <tt>digestOnly</tt>.
+   *
+   * @return property value of digestOnly
+   */
+  public boolean isDigestOnly() {
+    return digestOnly;
+  }
+
+  /**
+   * Setter method for property <tt>digestOnly</tt>.
+   *
+   * @param digestOnly value to be assigned to property digestOnly
+   */
+  public void setDigestOnly(boolean digestOnly) {
+    this.digestOnly = digestOnly;
+  }
+
   @Override
   public String toString() {
     return StringFormatter.format(
-        "GetDataVer:{},{},{},{},interests={}",
+        "GetDataVer:{},{},{},{},interests={},digest={}/{}",
         getSlotId(),
         dataCenter,
         getSlotLeaderEpoch(),
         getSlotTableEpoch(),
-        interests.size());
+        interests.size(),
+        returnSlotDigest,
+        digestOnly);
   }
 }
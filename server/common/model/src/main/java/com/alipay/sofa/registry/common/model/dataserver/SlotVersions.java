@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.dataserver;
+
+import com.alipay.sofa.registry.util.MathUtils;
+import com.alipay.sofa.registry.util.StringFormatter;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * the response of GetDataVersionRequest, contains the changed versions and the version digest of
+ * all the datum in the slot. the digest is computed before the versions, if the digest not changed,
+ * the datum versions of the slot not changed
+ */
+public final class SlotVersions implements Serializable {
+  private static final long serialVersionUID = -1906207458340924512L;
+
+  private final Map<String, DatumVersion> versions;
+  // null means the data server not support the digest
+  private final Long digest;
+
+  public SlotVersions(Map<String, DatumVersion> versions, Long digest) {
+    this.versions = versions == null ? Collections.emptyMap() : versions;
+    this.digest = digest;
+  }
+
+  /**
+   * Getter method for property <tt>versions</tt>.
+   *
+   * @return property value of versions
+   */
+  public Map<String, DatumVersion> getVersions() {
+    return versions;
+  }
+
+  /**
+   * Getter method for property <tt>digest</tt>.
+   *
+   * @return property value of digest
+   */
+  public Long getDigest() {
+    return digest;
+  }
+
+  public static long digest(String dataInfoId, long version) {
+    return MathUtils.mix64(((long) dataInfoId.hashCode() << 32) ^ version);
+  }
+
+  /**
+   * the sum of the mixed dataInfoId and version, it is not sensitive to the iteration order
+   *
+   * @param versions the versions
+   * @return the digest
+   */
+  public static long digest(Map<String, DatumVersion> versions) {
+    long digest = 0;
+    for (Map.Entry<String, DatumVersion> e : versions.entrySet()) {
+      digest += digest(e.getKey(), e.getValue().getValue());
+    }
+    return digest;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format("SlotVersions{versions={},digest={}}", versions.size(), digest);
+  }
+}
@@ -69,7 +69,16 @@ public class Lease<T> implements Serializable {
    * @return
    */
   public boolean isExpired() {
-    return System.currentTimeMillis() > lastUpdateTimestamp + duration;
+    return System.currentTimeMillis() > getExpireTimestamp();
+  }
+
+  /**
+   * the lease is expired after the timestamp
+   *
+   * @return the expire timestamp
+   */
+  public long getExpireTimestamp() {
+    return lastUpdateTimestamp + duration;
   }
 
   /** refresh lastUpdateTimestamp */
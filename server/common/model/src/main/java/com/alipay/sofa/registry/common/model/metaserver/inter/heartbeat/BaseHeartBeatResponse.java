@@ -20,6 +20,7 @@ import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
 import com.google.common.collect.Sets;
 import java.io.Serializable;
 import java.util.*;
@@ -32,7 +33,9 @@ public class BaseHeartBeatResponse implements Serializable {
 
   private final boolean heartbeatOnLeader;
 
-  private final SlotTable slotTable;
+  private SlotTable slotTable;
+
+  private SlotTableDelta slotTableDelta;
 
   private final VersionedList<MetaNode> metaNodes;
 
@@ -74,6 +77,24 @@ public class BaseHeartBeatResponse implements Serializable {
     return slotTable;
   }
 
+  public void setSlotTable(SlotTable slotTable) {
+    this.slotTable = slotTable;
+  }
+
+  /**
+   * the delta is returned instead of the slotTable when the node accepts it
+   *
+   * @return the delta from the slot table of the heartbeat, null if the full slotTable returned
+   */
+  public SlotTableDelta getSlotTableDelta() {
+    return slotTableDelta;
+  }
+
+  public BaseHeartBeatResponse setSlotTableDelta(SlotTableDelta slotTableDelta) {
+    this.slotTableDelta = slotTableDelta;
+    return this;
+  }
+
   public List<MetaNode> getMetaNodes() {
     return metaNodes.getClusterMembers();
   }
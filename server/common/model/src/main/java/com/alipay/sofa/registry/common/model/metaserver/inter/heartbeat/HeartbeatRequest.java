@@ -46,6 +46,8 @@ public class HeartbeatRequest<T extends Node> implements Serializable {
 
   private SlotTable slotTable;
 
+  private boolean acceptSlotTableDelta;
+
   /**
    * constructor
    *
@@ -179,6 +181,20 @@ public class HeartbeatRequest<T extends Node> implements Serializable {
     return this;
   }
 
+  /**
+   * the node could apply the slot table delta on the slotTable of the request
+   *
+   * @return true if accept the delta
+   */
+  public boolean isAcceptSlotTableDelta() {
+    return acceptSlotTableDelta;
+  }
+
+  public HeartbeatRequest<T> setAcceptSlotTableDelta(boolean acceptSlotTableDelta) {
+    this.acceptSlotTableDelta = acceptSlotTableDelta;
+    return this;
+  }
+
   /**
    * To string string.
    *
@@ -20,6 +20,7 @@ import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author yuzhi.lyz
@@ -30,12 +31,43 @@ public class DataSlotDiffDigestRequest implements Serializable {
   // all dataInfoIds, diff by digest
   private final Map<String, DatumDigest> datumDigest;
   private final int slotId;
+  // not null means only diff the digest of the dataInfoId buckets
+  private final long[] bucketDigests;
+  // not null means only diff the dataInfoIds in the buckets
+  private final Set<Integer> buckets;
+  private final int bucketNum;
 
   public DataSlotDiffDigestRequest(
       long slotTableEpoch, int slotId, Map<String, DatumDigest> datumDigest) {
+    this(slotTableEpoch, slotId, datumDigest, null, null, 0);
+  }
+
+  public DataSlotDiffDigestRequest(long slotTableEpoch, int slotId, long[] bucketDigests) {
+    this(slotTableEpoch, slotId, null, bucketDigests, null, bucketDigests.length);
+  }
+
+  public DataSlotDiffDigestRequest(
+      long slotTableEpoch,
+      int slotId,
+      Map<String, DatumDigest> datumDigest,
+      int bucketNum,
+      Set<Integer> buckets) {
+    this(slotTableEpoch, slotId, datumDigest, null, buckets, bucketNum);
+  }
+
+  private DataSlotDiffDigestRequest(
+      long slotTableEpoch,
+      int slotId,
+      Map<String, DatumDigest> datumDigest,
+      long[] bucketDigests,
+      Set<Integer> buckets,
+      int bucketNum) {
     this.slotTableEpoch = slotTableEpoch;
     this.slotId = slotId;
     this.datumDigest = datumDigest == null ? Collections.emptyMap() : datumDigest;
+    this.bucketDigests = bucketDigests;
+    this.buckets = buckets;
+    this.bucketNum = bucketNum;
   }
 
   /**
@@ -60,6 +92,33 @@ public class DataSlotDiffDigestRequest implements Serializable {
     return Collections.unmodifiableMap(datumDigest);
   }
 
+  /**
+   * Getter method for property <tt>bucketDigests</tt>.
+   *
+   * @return property value of bucketDigests
+   */
+  public long[] getBucketDigests() {
+    return bucketDigests;
+  }
+
+  /**
+   * Getter method for property <tt>buckets</tt>.
+   *
+   * @return property value of buckets
+   */
+  public Set<Integer> getBuckets() {
+    return buckets;
+  }
+
+  /**
+   * Getter method for property <tt>bucketNum</tt>.
+   *
+   * @return property value of bucketNum
+   */
+  public int getBucketNum() {
+    return bucketNum;
+  }
+
   @Override
   public String toString() {
     return "DiffDigest{"
@@ -69,6 +128,10 @@ public class DataSlotDiffDigestRequest implements Serializable {
         + slotTableEpoch
         + ", digests="
         + datumDigest.size()
+        + ", bucketNum="
+        + bucketNum
+        + ", buckets="
+        + (bucketDigests != null ? "all" : buckets)
         + '}';
   }
 }
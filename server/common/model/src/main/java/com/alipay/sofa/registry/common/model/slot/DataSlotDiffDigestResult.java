@@ -32,6 +32,8 @@ public class DataSlotDiffDigestResult implements Serializable {
   private final List<String> updatedDataInfoIds;
   private final List<String> addedDataInfoIds;
   private final List<String> removedDataInfoIds;
+  // the mismatched buckets when diff the digest of the dataInfoId buckets
+  private List<Integer> mismatchBuckets;
   // if from session, return the sessionProcessId for lease
   private ProcessId sessionProcessId;
 
@@ -44,6 +46,11 @@ public class DataSlotDiffDigestResult implements Serializable {
     this.removedDataInfoIds = Lists.newArrayList(removedDataInfoIds);
   }
 
+  public DataSlotDiffDigestResult(List<Integer> mismatchBuckets) {
+    this(Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+    this.mismatchBuckets = Lists.newArrayList(mismatchBuckets);
+  }
+
   /**
    * Getter method for property <tt>slotTableEpoch</tt>.
    *
@@ -79,6 +86,12 @@ public class DataSlotDiffDigestResult implements Serializable {
     return Collections.unmodifiableList(addedDataInfoIds);
   }
 
+  public List<Integer> getMismatchBuckets() {
+    return mismatchBuckets == null
+        ? Collections.emptyList()
+        : Collections.unmodifiableList(mismatchBuckets);
+  }
+
   /**
    * Getter method for property <tt>sessionProcessId</tt>.
    *
@@ -100,7 +113,8 @@ public class DataSlotDiffDigestResult implements Serializable {
   public boolean isEmpty() {
     return CollectionUtils.isEmpty(updatedDataInfoIds)
         && CollectionUtils.isEmpty(removedDataInfoIds)
-        && CollectionUtils.isEmpty(addedDataInfoIds);
+        && CollectionUtils.isEmpty(addedDataInfoIds)
+        && CollectionUtils.isEmpty(mismatchBuckets);
   }
 
   public int getUpdateAndAddSize() {
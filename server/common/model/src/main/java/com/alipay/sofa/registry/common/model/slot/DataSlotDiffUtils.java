@@ -27,6 +27,7 @@ import com.alipay.sofa.registry.log.LoggerFactory;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import java.util.*;
+import java.util.function.BiFunction;
 
 /**
  * @author yuzhi.lyz
@@ -37,6 +38,36 @@ public final class DataSlotDiffUtils {
 
   private DataSlotDiffUtils() {}
 
+  public static DataSlotDiffDigestResult diffDigestResult(
+      DataSlotDiffDigestRequest request, Map<String, Map<String, Publisher>> sourcePublishers) {
+    return diffDigestResultBySummary(request, PublisherUtils.getDatumSummary(sourcePublishers));
+  }
+
+  public static DataSlotDiffDigestResult diffDigestResultBySummary(
+      DataSlotDiffDigestRequest request, Map<String, DatumSummary> sourceSummaryMap) {
+    final long[] targetBuckets = request.getBucketDigests();
+    if (targetBuckets == null && request.getBuckets() == null) {
+      return diffDigest(request.getDatumDigest(), PublisherDigestUtil.digest(sourceSummaryMap));
+    }
+    Map<String, DatumDigest> digestMap = PublisherDigestUtil.digest(sourceSummaryMap);
+    if (targetBuckets != null) {
+      // the first level, only return the mismatched buckets
+      final long[] sourceBuckets =
+          PublisherDigestUtil.bucketDigest(digestMap, targetBuckets.length);
+      List<Integer> mismatches = Lists.newArrayList();
+      for (int i = 0; i < sourceBuckets.length; i++) {
+        if (sourceBuckets[i] != targetBuckets[i]) {
+          mismatches.add(i);
+        }
+      }
+      return new DataSlotDiffDigestResult(mismatches);
+    }
+    // the second level, diff the dataInfoIds in the mismatched buckets
+    digestMap =
+        PublisherDigestUtil.filterBuckets(digestMap, request.getBucketNum(), request.getBuckets());
+    return diffDigest(request.getDatumDigest(), digestMap);
+  }
+
   public static DataSlotDiffDigestResult diffDigestResult(
       Map<String, DatumDigest> targetDigestMap,
       Map<String, Map<String, Publisher>> sourcePublishers) {
@@ -76,6 +107,34 @@ public final class DataSlotDiffUtils {
       Collection<DatumSummary> targetDatumSummaries,
       Map<String, Map<String, Publisher>> sourcePublishers,
       int publisherMaxNum) {
+    return diffPublishersResult(
+        targetDatumSummaries,
+        PublisherUtils.getDatumSummary(sourcePublishers),
+        (String dataInfoId, Collection<String> registerIds) -> {
+          final Map<String, Publisher> publisherMap = sourcePublishers.get(dataInfoId);
+          List<Publisher> publishers = new ArrayList<>(registerIds.size());
+          for (String registerId : registerIds) {
+            publishers.add(publisherMap.get(registerId));
+          }
+          return publishers;
+        },
+        publisherMaxNum);
+  }
+
+  /**
+   * diff by the summaries of the source, only the publishers to update are loaded
+   *
+   * @param targetDatumSummaries the summaries of the target
+   * @param sourceSummaries the summaries of the source
+   * @param publisherLoader load the publishers of the dataInfoId by the registerIds
+   * @param publisherMaxNum the max num of the updated publishers
+   * @return the diff result
+   */
+  public static DataSlotDiffPublisherResult diffPublishersResult(
+      Collection<DatumSummary> targetDatumSummaries,
+      Map<String, DatumSummary> sourceSummaries,
+      BiFunction<String, Collection<String>, List<Publisher>> publisherLoader,
+      int publisherMaxNum) {
     Map<String, List<Publisher>> updatePublishers =
         Maps.newHashMapWithExpectedSize(targetDatumSummaries.size());
     Map<String, List<String>> removedPublishers = new HashMap<>();
@@ -85,36 +144,39 @@ public final class DataSlotDiffUtils {
     for (DatumSummary summary : targetDatumSummaries) {
       checkRound++;
       final String dataInfoId = summary.getDataInfoId();
-      Map<String, Publisher> publisherMap = sourcePublishers.get(dataInfoId);
-      if (publisherMap == null) {
+      DatumSummary sourceSummary = sourceSummaries.get(dataInfoId);
+      if (sourceSummary == null) {
         // the dataInfoId has removed, do not handle it, diffDataInfoIds will handle it
         continue;
       }
+      final Map<String, RegisterVersion> sourceVersions = sourceSummary.getPublisherVersions();
       Set<String> registerIds = summary.getPublisherVersions().keySet();
       for (String registerId : registerIds) {
-        if (!publisherMap.containsKey(registerId)) {
+        if (!sourceVersions.containsKey(registerId)) {
           List<String> list = removedPublishers.computeIfAbsent(dataInfoId, k -> new ArrayList<>());
           list.add(registerId);
         }
       }
-      List<Publisher> publishers = new ArrayList<>();
+      List<String> updateRegisterIds = new ArrayList<>();
       Map<String, RegisterVersion> versions = summary.getPublisherVersions();
-      for (Map.Entry<String, Publisher> p : publisherMap.entrySet()) {
-        final String registerId = p.getKey();
-        if (!versions.containsKey(registerId)) {
-          publishers.add(p.getValue());
-          continue;
-        }
+      for (Map.Entry<String, RegisterVersion> p : sourceVersions.entrySet()) {
         // compare version
-        if (p.getValue().registerVersion().equals(versions.get(registerId))) {
-          // the same
-          continue;
+        if (!p.getValue().equals(versions.get(p.getKey()))) {
+          updateRegisterIds.add(p.getKey());
         }
-        publishers.add(p.getValue());
       }
-      if (!publishers.isEmpty()) {
-        publisherCount += publishers.size();
-        updatePublishers.put(dataInfoId, publishers);
+      if (!updateRegisterIds.isEmpty()) {
+        List<Publisher> publishers = new ArrayList<>(updateRegisterIds.size());
+        for (Publisher publisher : publisherLoader.apply(dataInfoId, updateRegisterIds)) {
+          // removed after the summary, the next round will handle it
+          if (publisher != null) {
+            publishers.add(publisher);
+          }
+        }
+        if (!publishers.isEmpty()) {
+          publisherCount += publishers.size();
+          updatePublishers.put(dataInfoId, publishers);
+        }
       }
       if (publisherCount >= publisherMaxNum) {
         // too many publishers, mark has remain
@@ -145,8 +207,9 @@ public final class DataSlotDiffUtils {
   public static void logDiffResult(DataSlotDiffDigestResult result, int slotId) {
     if (!result.isEmpty()) {
       SYNC_LOGGER.info(
-          "DiffDigest, slotId={}, update={}, add={}, remove={}, adds={}, removes={}",
+          "DiffDigest, slotId={}, buckets={}, update={}, add={}, remove={}, adds={}, removes={}",
           slotId,
+          result.getMismatchBuckets(),
           result.getUpdatedDataInfoIds().size(),
           result.getAddedDataInfoIds().size(),
           result.getRemovedDataInfoIds().size(),
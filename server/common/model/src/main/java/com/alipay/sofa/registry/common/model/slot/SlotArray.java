@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * the slot table indexed directly by the slotId, the lookup not boxes and hashes the slotId. the
+ * slotId out of the range is treated as absent
+ */
+public final class SlotArray<T> implements Iterable<T> {
+  private final AtomicReferenceArray<T> slots;
+  private final AtomicInteger size = new AtomicInteger();
+
+  public SlotArray() {
+    this(SlotConfig.SLOT_NUM);
+  }
+
+  public SlotArray(int slotNum) {
+    ParaCheckUtil.checkIsPositive(slotNum, "slotNum");
+    this.slots = new AtomicReferenceArray<>(slotNum);
+  }
+
+  public T get(int slotId) {
+    return inRange(slotId) ? slots.get(slotId) : null;
+  }
+
+  /**
+   * the creator may be called concurrently for the same slotId, only one of the values is kept
+   *
+   * @param slotId the slotId
+   * @param creator create the value if absent
+   * @return the value of the slot
+   */
+  public T computeIfAbsent(int slotId, IntFunction<T> creator) {
+    checkRange(slotId);
+    T exist = slots.get(slotId);
+    if (exist != null) {
+      return exist;
+    }
+    T created = creator.apply(slotId);
+    ParaCheckUtil.checkNotNull(created, "slot value");
+    for (; ; ) {
+      if (slots.compareAndSet(slotId, null, created)) {
+        size.incrementAndGet();
+        return created;
+      }
+      exist = slots.get(slotId);
+      if (exist != null) {
+        return exist;
+      }
+    }
+  }
+
+  public T remove(int slotId) {
+    if (!inRange(slotId)) {
+      return null;
+    }
+    T removed = slots.getAndSet(slotId, null);
+    if (removed != null) {
+      size.decrementAndGet();
+    }
+    return removed;
+  }
+
+  public int size() {
+    return size.get();
+  }
+
+  public int capacity() {
+    return slots.length();
+  }
+
+  /** weakly consistent, skips the absent slots */
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<T>() {
+      int index = 0;
+      T next = advance();
+
+      private T advance() {
+        while (index < slots.length()) {
+          T t = slots.get(index++);
+          if (t != null) {
+            return t;
+          }
+        }
+        return null;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public T next() {
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        T ret = next;
+        next = advance();
+        return ret;
+      }
+    };
+  }
+
+  private boolean inRange(int slotId) {
+    return slotId >= 0 && slotId < slots.length();
+  }
+
+  private void checkRange(int slotId) {
+    if (!inRange(slotId)) {
+      throw new IllegalArgumentException(
+          "slotId out of range [0," + slots.length() + "): " + slotId);
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import com.alipay.sofa.registry.exception.SofaRegistrySlotTableException;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.collect.Lists;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * the changes of slot table from fromEpoch to epoch, only contains the slots whose leader or
+ * followers changed and the ids of the removed slots
+ */
+public final class SlotTableDelta implements Serializable {
+  private final long fromEpoch;
+  private final long epoch;
+  private final List<Slot> changedSlots;
+  private final List<Integer> removedSlotIds;
+
+  public SlotTableDelta(
+      long fromEpoch, long epoch, List<Slot> changedSlots, List<Integer> removedSlotIds) {
+    this.fromEpoch = fromEpoch;
+    this.epoch = epoch;
+    this.changedSlots = Lists.newArrayList(changedSlots);
+    this.removedSlotIds = Lists.newArrayList(removedSlotIds);
+  }
+
+  public static SlotTableDelta diff(SlotTable from, SlotTable to) {
+    final List<Slot> changed = Lists.newArrayList();
+    final List<Integer> removed = Lists.newArrayList();
+    for (Slot slot : to.getSlots()) {
+      if (!slot.equals(from.getSlot(slot.getId()))) {
+        changed.add(slot);
+      }
+    }
+    for (Slot slot : from.getSlots()) {
+      if (to.getSlot(slot.getId()) == null) {
+        removed.add(slot.getId());
+      }
+    }
+    return new SlotTableDelta(from.getEpoch(), to.getEpoch(), changed, removed);
+  }
+
+  /**
+   * apply the delta on the base table
+   *
+   * @param base the slot table of the node
+   * @return the slot table of epoch, base self if it is not older than the delta
+   */
+  public SlotTable apply(SlotTable base) {
+    if (base.getEpoch() >= epoch) {
+      return base;
+    }
+    if (base.getEpoch() != fromEpoch) {
+      throw new SofaRegistrySlotTableException(
+          StringFormatter.format(
+              "slot table delta not match, base={}, delta={}", base.getEpoch(), this));
+    }
+    final Map<Integer, Slot> slots = base.getSlotMap();
+    for (Integer slotId : removedSlotIds) {
+      slots.remove(slotId);
+    }
+    for (Slot slot : changedSlots) {
+      slots.put(slot.getId(), slot);
+    }
+    return new SlotTable(epoch, slots.values());
+  }
+
+  public boolean isEmpty() {
+    return changedSlots.isEmpty() && removedSlotIds.isEmpty();
+  }
+
+  /**
+   * Getter method for property <tt>fromEpoch</tt>.
+   *
+   * @return property value of fromEpoch
+   */
+  public long getFromEpoch() {
+    return fromEpoch;
+  }
+
+  /**
+   * Getter method for property <tt>epoch</tt>.
+   *
+   * @return property value of epoch
+   */
+  public long getEpoch() {
+    return epoch;
+  }
+
+  public List<Slot> getChangedSlots() {
+    return changedSlots;
+  }
+
+  public List<Integer> getRemovedSlotIds() {
+    return removedSlotIds;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "SlotTableDelta{from={}, epoch={}, changed={}, removed={}}",
+        fromEpoch,
+        epoch,
+        changedSlots.size(),
+        removedSlotIds);
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.store;
+
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.collect.Maps;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * the response of GetDataDeltaRequest, contains the full datum or the publishers modified since the
+ * fromVersion
+ *
+ * @author yuzhi.lyz
+ * @version v 0.1 2021-06-15 15:10 yuzhi.lyz Exp $
+ */
+public final class SubDatumDelta implements Serializable {
+  private static final long serialVersionUID = 2613858301467329004L;
+
+  private final boolean delta;
+
+  private final long fromVersion;
+
+  // the full datum, or the updated publishers if delta
+  private final SubDatum datum;
+
+  private final List<String> removedRegisterIds;
+
+  private SubDatumDelta(
+      boolean delta, long fromVersion, SubDatum datum, List<String> removedRegisterIds) {
+    this.delta = delta;
+    this.fromVersion = fromVersion;
+    this.datum = datum;
+    this.removedRegisterIds = removedRegisterIds;
+  }
+
+  public static SubDatumDelta fullOf(SubDatum datum) {
+    return new SubDatumDelta(false, 0, datum, Collections.emptyList());
+  }
+
+  public static SubDatumDelta deltaOf(
+      long fromVersion, SubDatum updated, List<String> removedRegisterIds) {
+    ParaCheckUtil.checkNotNull(updated, "updated");
+    updated.mustUnzipped();
+    return new SubDatumDelta(true, fromVersion, updated, removedRegisterIds);
+  }
+
+  public static SubDatumDelta intern(SubDatumDelta delta) {
+    final SubDatum datum = delta.datum == null ? null : SubDatum.intern(delta.datum);
+    return new SubDatumDelta(delta.delta, delta.fromVersion, datum, delta.removedRegisterIds);
+  }
+
+  /**
+   * apply the delta to the base datum
+   *
+   * @param base the datum of the fromVersion, must be unzipped
+   * @return the datum of the new version
+   */
+  public SubDatum applyTo(SubDatum base) {
+    if (!delta) {
+      return datum;
+    }
+    ParaCheckUtil.checkEquals(base.getVersion(), fromVersion, "base.version");
+    if (datum.getVersion() == fromVersion) {
+      return base;
+    }
+    final List<SubPublisher> basePublishers = base.mustGetPublishers();
+    Map<String, SubPublisher> publishers = Maps.newLinkedHashMap();
+    for (SubPublisher publisher : basePublishers) {
+      publishers.put(publisher.getRegisterId(), publisher);
+    }
+    for (String registerId : removedRegisterIds) {
+      publishers.remove(registerId);
+    }
+    for (SubPublisher publisher : datum.mustGetPublishers()) {
+      publishers.put(publisher.getRegisterId(), publisher);
+    }
+    return SubDatum.normalOf(
+        datum.getDataInfoId(),
+        datum.getDataCenter(),
+        datum.getVersion(),
+        publishers.values(),
+        datum.getDataId(),
+        datum.getInstanceId(),
+        datum.getGroup(),
+        datum.getRecentVersions());
+  }
+
+  public boolean isDelta() {
+    return delta;
+  }
+
+  public long getFromVersion() {
+    return fromVersion;
+  }
+
+  public SubDatum getDatum() {
+    return datum;
+  }
+
+  public List<String> getRemovedRegisterIds() {
+    return removedRegisterIds;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "SubDatumDelta{delta={},from={},datum={},removed={}}",
+        delta,
+        fromVersion,
+        datum,
+        removedRegisterIds.size());
+  }
+}
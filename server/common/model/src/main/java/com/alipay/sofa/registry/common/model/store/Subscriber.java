@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.common.model.store;
 
 import com.alipay.sofa.registry.common.model.ElementType;
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
+import com.alipay.sofa.registry.core.constants.AttributeKeyConstants;
 import com.alipay.sofa.registry.core.model.ScopeEnum;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -94,6 +95,22 @@ public class Subscriber extends BaseInfo {
   }
 
   public synchronized boolean checkAndUpdateCtx(String dataCenter, long pushVersion, int num) {
+    return updateCtx(dataCenter, pushVersion, num, null);
+  }
+
+  /**
+   * update the ctx with the pushed datum, the datum is kept as the base of the next delta push if
+   * the subscriber accepts the delta push
+   */
+  public synchronized boolean checkAndUpdateCtx(SubDatum pushedDatum, int num) {
+    return updateCtx(
+        pushedDatum.getDataCenter(),
+        pushedDatum.getVersion(),
+        num,
+        acceptDeltaPush() ? pushedDatum : null);
+  }
+
+  private boolean updateCtx(String dataCenter, long pushVersion, int num, SubDatum pushedDatum) {
     final PushContext ctx = getPushContext(dataCenter);
 
     if (ctx.pushedVersion < pushVersion) {
@@ -101,6 +118,7 @@ public class Subscriber extends BaseInfo {
       ctx.pushedNum = num;
       ctx.pushedFailCount = 0;
       ctx.lastPushedFailTimeStamp = 0;
+      ctx.pushedDatum = pushedDatum;
       return true;
     }
     return false;
@@ -112,6 +130,8 @@ public class Subscriber extends BaseInfo {
     if (ctx.pushedVersion < pushVersion) {
       ctx.pushedFailCount += 1;
       ctx.lastPushedFailTimeStamp = System.currentTimeMillis();
+      // the client may not hold the pushed datum, the next push must be full
+      ctx.pushedDatum = null;
       return true;
     }
     return false;
@@ -208,6 +228,17 @@ public class Subscriber extends BaseInfo {
     return ctx.pushedVersion;
   }
 
+  /** @return the datum last pushed, null if absent or the subscriber not accepts delta push */
+  public synchronized SubDatum getPushedDatum(String dataCenter) {
+    final PushContext ctx = getPushContext(dataCenter);
+    final SubDatum datum = ctx.pushedDatum;
+    return datum != null && datum.getVersion() == ctx.pushedVersion ? datum : null;
+  }
+
+  public boolean acceptDeltaPush() {
+    return Boolean.parseBoolean(attributeOf(AttributeKeyConstants.ATTRIBUTE_ACCEPT_DELTA_PUSH));
+  }
+
   public synchronized int getPushedNum(String dataCenter) {
     final PushContext ctx = getPushContext(dataCenter);
     return ctx.pushedNum;
@@ -284,6 +315,8 @@ public class Subscriber extends BaseInfo {
     int pushedNum = -1;
     int pushedFailCount = 0;
     long lastPushedFailTimeStamp = 0;
+    // the base of delta push
+    SubDatum pushedDatum;
 
     @Override
     public String toString() {
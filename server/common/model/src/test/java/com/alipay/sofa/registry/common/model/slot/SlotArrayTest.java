@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SlotArrayTest {
+  @Test
+  public void test() {
+    SlotArray<String> slots = new SlotArray<>(8);
+    Assert.assertEquals(8, slots.capacity());
+    Assert.assertEquals(0, slots.size());
+    Assert.assertNull(slots.get(1));
+    Assert.assertNull(slots.get(-1));
+    Assert.assertNull(slots.get(8));
+    Assert.assertFalse(slots.iterator().hasNext());
+
+    Assert.assertEquals("s1", slots.computeIfAbsent(1, k -> "s" + k));
+    Assert.assertEquals("s1", slots.computeIfAbsent(1, k -> "x"));
+    Assert.assertEquals("s7", slots.computeIfAbsent(7, k -> "s" + k));
+    Assert.assertEquals(2, slots.size());
+    Assert.assertEquals("s1", slots.get(1));
+    Assert.assertEquals(Lists.newArrayList("s1", "s7"), Lists.newArrayList(slots));
+
+    Assert.assertEquals("s1", slots.remove(1));
+    Assert.assertNull(slots.remove(1));
+    Assert.assertNull(slots.remove(100));
+    Assert.assertEquals(1, slots.size());
+    Assert.assertEquals(Lists.newArrayList("s7"), Lists.newArrayList(slots));
+
+    try {
+      slots.computeIfAbsent(8, k -> "s" + k);
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      Assert.assertTrue(e.getMessage().contains("out of range"));
+    }
+  }
+}
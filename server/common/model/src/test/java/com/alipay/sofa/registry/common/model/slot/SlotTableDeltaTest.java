@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import com.alipay.sofa.registry.exception.SofaRegistrySlotTableException;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SlotTableDeltaTest {
+
+  @Test
+  public void testDiffAndApply() {
+    SlotTable from =
+        new SlotTable(
+            1,
+            Lists.newArrayList(
+                new Slot(0, "a", 1, Sets.newHashSet("b")),
+                new Slot(1, "b", 1, Sets.newHashSet("a")),
+                new Slot(2, "a", 1, Collections.emptySet())));
+    SlotTable to =
+        new SlotTable(
+            2,
+            Lists.newArrayList(
+                new Slot(0, "a", 1, Sets.newHashSet("b")),
+                new Slot(1, "a", 2, Sets.newHashSet("b")),
+                new Slot(3, "b", 1, Collections.emptySet())));
+    SlotTableDelta delta = SlotTableDelta.diff(from, to);
+    Assert.assertEquals(1, delta.getFromEpoch());
+    Assert.assertEquals(2, delta.getEpoch());
+    Assert.assertFalse(delta.isEmpty());
+    Assert.assertEquals(Lists.newArrayList(to.getSlot(1), to.getSlot(3)), delta.getChangedSlots());
+    Assert.assertEquals(Lists.newArrayList(2), delta.getRemovedSlotIds());
+    Assert.assertEquals(to, delta.apply(from));
+
+    // the base is up to date
+    Assert.assertSame(to, delta.apply(to));
+    Assert.assertTrue(SlotTableDelta.diff(to, to).isEmpty());
+
+    try {
+      delta.apply(SlotTable.INIT);
+      Assert.fail();
+    } catch (SofaRegistrySlotTableException e) {
+      Assert.assertTrue(e.getMessage().contains("not match"));
+    }
+  }
+}
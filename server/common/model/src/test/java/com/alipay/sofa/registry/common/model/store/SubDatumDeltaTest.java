@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.store;
+
+import com.alipay.sofa.registry.common.model.PublishSource;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SubDatumDeltaTest {
+
+  private SubPublisher newPublisher(String registerId, long version) {
+    return new SubPublisher(
+        registerId,
+        "cell",
+        Lists.newArrayList(new ServerDataBox(new byte[] {1, 2, 3})),
+        "clientId",
+        version,
+        "srcAddr",
+        1234,
+        PublishSource.CLIENT);
+  }
+
+  private SubDatum newDatum(long version, List<SubPublisher> publishers) {
+    return SubDatum.normalOf(
+        "dataInfoId",
+        "dc",
+        version,
+        publishers,
+        "dataId",
+        "instanceId",
+        "group",
+        Lists.newArrayList(version - 1));
+  }
+
+  @Test
+  public void testFull() {
+    SubDatum datum = newDatum(10, Lists.newArrayList(newPublisher("a", 1)));
+    SubDatumDelta delta = SubDatumDelta.fullOf(datum);
+    Assert.assertFalse(delta.isDelta());
+    Assert.assertTrue(delta.applyTo(null) == datum);
+    Assert.assertNotNull(delta.toString());
+    Assert.assertNull(SubDatumDelta.intern(SubDatumDelta.fullOf(null)).getDatum());
+  }
+
+  @Test
+  public void testApply() {
+    SubDatum base = newDatum(10, Lists.newArrayList(newPublisher("a", 1), newPublisher("b", 1)));
+    SubDatum updated = newDatum(20, Lists.newArrayList(newPublisher("b", 2), newPublisher("c", 1)));
+    SubDatumDelta delta = SubDatumDelta.deltaOf(10, updated, Collections.singletonList("a"));
+    Assert.assertTrue(delta.isDelta());
+    Assert.assertEquals(delta.getFromVersion(), 10);
+
+    SubDatum datum = SubDatumDelta.intern(delta).applyTo(base);
+    Assert.assertEquals(datum.getVersion(), 20);
+    Assert.assertEquals(datum.getRecentVersions(), updated.getRecentVersions());
+    Assert.assertEquals(datum.getPubNum(), 2);
+    Assert.assertEquals(datum.mustGetPublishers().get(0).getRegisterId(), "b");
+    Assert.assertEquals(datum.mustGetPublishers().get(0).getVersion(), 2);
+    Assert.assertEquals(datum.mustGetPublishers().get(1).getRegisterId(), "c");
+
+    // the base version not match
+    SubDatumTest.assertException(IllegalArgumentException.class, () -> delta.applyTo(datum));
+
+    // not modified
+    SubDatumDelta same =
+        SubDatumDelta.deltaOf(10, newDatum(10, Collections.emptyList()), Collections.emptyList());
+    Assert.assertTrue(same.applyTo(base) == base);
+  }
+}
@@ -119,4 +119,14 @@ public final class ConcurrentUtils {
     }
     return null;
   }
+
+  public static boolean awaitUninterruptibly(CountDownLatch latch, long wait, TimeUnit unit) {
+    try {
+      return latch.await(wait, unit);
+    } catch (InterruptedException ignored) {
+      // no need to remark Thread.currentThread().interrupt();
+      LOGGER.warn("Interrupted awaiting", ignored);
+    }
+    return latch.getCount() == 0;
+  }
 }
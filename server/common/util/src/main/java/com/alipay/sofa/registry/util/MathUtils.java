@@ -34,4 +34,16 @@ public class MathUtils {
     result += dividend % divisor == 0 ? 0 : 1;
     return result;
   }
+
+  /**
+   * the finalizer of murmur3, spread the bits of the input
+   *
+   * @param z the input
+   * @return the mixed value
+   */
+  public static long mix64(long z) {
+    z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+    z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return z ^ (z >>> 33);
+  }
 }
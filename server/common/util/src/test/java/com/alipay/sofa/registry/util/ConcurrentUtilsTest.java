@@ -17,10 +17,12 @@
 package com.alipay.sofa.registry.util;
 
 import com.google.common.collect.Lists;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
 import org.junit.Test;
 
 public class ConcurrentUtilsTest {
@@ -41,6 +43,12 @@ public class ConcurrentUtilsTest {
 
     Thread.currentThread().interrupt();
     ConcurrentUtils.pollUninterruptibly(new SynchronousQueue(), 1, TimeUnit.MILLISECONDS);
+
+    Thread.currentThread().interrupt();
+    Assert.assertFalse(
+        ConcurrentUtils.awaitUninterruptibly(new CountDownLatch(1), 1, TimeUnit.MILLISECONDS));
+    Assert.assertTrue(
+        ConcurrentUtils.awaitUninterruptibly(new CountDownLatch(0), 1, TimeUnit.MILLISECONDS));
   }
 
   @Test
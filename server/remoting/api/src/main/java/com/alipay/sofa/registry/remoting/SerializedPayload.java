@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting;
+
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+
+/**
+ * the payload has been serialized, the remoting writes the content directly and the peer
+ * deserializes it as the instance of className
+ */
+public final class SerializedPayload {
+  private final String className;
+  private final byte serializer;
+  private final byte[] content;
+
+  public SerializedPayload(String className, byte serializer, byte[] content) {
+    ParaCheckUtil.checkNotBlank(className, "className");
+    ParaCheckUtil.checkNotNull(content, "content");
+    this.className = className;
+    this.serializer = serializer;
+    this.content = content;
+  }
+
+  /**
+   * Getter method for property <tt>className</tt>.
+   *
+   * @return property value of className
+   */
+  public String getClassName() {
+    return className;
+  }
+
+  /**
+   * Getter method for property <tt>serializer</tt>.
+   *
+   * @return property value of serializer
+   */
+  public byte getSerializer() {
+    return serializer;
+  }
+
+  /**
+   * Getter method for property <tt>content</tt>, the content is shared, should not be modified.
+   *
+   * @return property value of content
+   */
+  public byte[] getContent() {
+    return content;
+  }
+
+  @Override
+  public String toString() {
+    return "SerializedPayload{"
+        + "className="
+        + className
+        + ", serializer="
+        + serializer
+        + ", size="
+        + content.length
+        + '}';
+  }
+}
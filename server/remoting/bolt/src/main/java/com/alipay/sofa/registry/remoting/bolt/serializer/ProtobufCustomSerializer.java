@@ -20,12 +20,17 @@ import com.alipay.remoting.CustomSerializer;
 import com.alipay.remoting.InvokeContext;
 import com.alipay.remoting.exception.CodecException;
 import com.alipay.remoting.exception.DeserializationException;
+import com.alipay.remoting.exception.SerializationException;
 import com.alipay.remoting.rpc.RequestCommand;
 import com.alipay.remoting.rpc.ResponseCommand;
+import com.alipay.remoting.rpc.RpcCommand;
 import com.alipay.remoting.rpc.protocol.RpcRequestCommand;
 import com.alipay.remoting.rpc.protocol.RpcResponseCommand;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.remoting.SerializedPayload;
+import com.alipay.sofa.registry.util.StringFormatter;
+import java.nio.charset.StandardCharsets;
 
 /**
  * The type Protobuf custom serializer.
@@ -68,6 +73,9 @@ public class ProtobufCustomSerializer implements CustomSerializer {
       try {
         RpcRequestCommand requestCommand = (RpcRequestCommand) request;
         Object requestObject = requestCommand.getRequestObject();
+        if (requestObject instanceof SerializedPayload) {
+          return writeSerialized(request, (SerializedPayload) requestObject);
+        }
         request.setContent(ProtobufSerializer.getInstance().serialize(requestObject));
         return true;
       } catch (CodecException e) {
@@ -89,6 +97,8 @@ public class ProtobufCustomSerializer implements CustomSerializer {
                 ProtobufSerializer.getInstance().serialize(((Throwable) appResponse).getMessage()));
             // TODO should return true ?
             return false;
+          } else if (appResponse instanceof SerializedPayload) {
+            return writeSerialized(response, (SerializedPayload) appResponse);
           } else {
             response.setContent(ProtobufSerializer.getInstance().serialize(appResponse));
             return true;
@@ -102,6 +112,22 @@ public class ProtobufCustomSerializer implements CustomSerializer {
     return false;
   }
 
+  /**
+   * write the serialized content directly, the clazz of the command is replaced, so the peer
+   * deserializes the content as the origin class
+   */
+  private static boolean writeSerialized(RpcCommand command, SerializedPayload payload)
+      throws CodecException {
+    if (payload.getSerializer() != command.getSerializer()) {
+      throw new SerializationException(
+          StringFormatter.format(
+              "serializer not match, command={}, payload={}", command.getSerializer(), payload));
+    }
+    command.setClazz(payload.getClassName().getBytes(StandardCharsets.UTF_8));
+    command.setContent(payload.getContent());
+    return true;
+  }
+
   @Override
   public <T extends RequestCommand> boolean deserializeContent(T request)
       throws DeserializationException {
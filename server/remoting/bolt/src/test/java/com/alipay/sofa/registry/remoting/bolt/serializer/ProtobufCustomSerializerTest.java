@@ -21,6 +21,8 @@ import com.alipay.remoting.rpc.HeartbeatAckCommand;
 import com.alipay.remoting.rpc.HeartbeatCommand;
 import com.alipay.remoting.rpc.protocol.RpcRequestCommand;
 import com.alipay.remoting.rpc.protocol.RpcResponseCommand;
+import com.alipay.sofa.registry.remoting.SerializedPayload;
+import java.nio.charset.StandardCharsets;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -90,4 +92,38 @@ public class ProtobufCustomSerializerTest {
     Assert.assertTrue(serializer.deserializeContent(command, null));
     Assert.assertEquals(command.getResponseObject(), "testObj");
   }
+
+  @Test
+  public void testSerialized() throws Exception {
+    ProtobufCustomSerializer serializer = new ProtobufCustomSerializer();
+    SerializedPayload payload =
+        new SerializedPayload(
+            String.class.getName(),
+            ProtobufCustomSerializer.PROTOCOL_PROTOBUF,
+            "testObj".getBytes(StandardCharsets.UTF_8));
+    RpcRequestCommand command = new RpcRequestCommand(payload);
+    command.setRequestClass(SerializedPayload.class.getName());
+    command.serializeClazz();
+    // serializer not match
+    Assert.assertFalse(serializer.serializeContent(command, null));
+
+    command.setSerializer(ProtobufCustomSerializer.PROTOCOL_PROTOBUF);
+    Assert.assertTrue(serializer.serializeContent(command, null));
+    Assert.assertTrue(command.getContent() == payload.getContent());
+    // the peer decodes as the origin class
+    command.setRequestClass(null);
+    command.deserializeClazz();
+    Assert.assertEquals(String.class.getName(), command.getRequestClass());
+    Assert.assertTrue(serializer.deserializeContent(command));
+    Assert.assertEquals(command.getRequestObject(), "testObj");
+
+    RpcResponseCommand response = new RpcResponseCommand(payload);
+    response.setSerializer(ProtobufCustomSerializer.PROTOCOL_PROTOBUF);
+    Assert.assertTrue(serializer.serializeContent(response));
+    response.setResponseClass(null);
+    response.deserializeClazz();
+    Assert.assertEquals(String.class.getName(), response.getResponseClass());
+    Assert.assertTrue(serializer.deserializeContent(response, null));
+    Assert.assertEquals(response.getResponseObject(), "testObj");
+  }
 }
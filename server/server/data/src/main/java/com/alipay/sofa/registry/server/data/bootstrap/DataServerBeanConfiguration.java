@@ -23,6 +23,7 @@ import com.alipay.sofa.registry.remoting.jersey.exchange.JerseyExchange;
 import com.alipay.sofa.registry.server.data.cache.DatumCache;
 import com.alipay.sofa.registry.server.data.cache.DatumStorage;
 import com.alipay.sofa.registry.server.data.cache.LocalDatumStorage;
+import com.alipay.sofa.registry.server.data.cache.SubDatumCache;
 import com.alipay.sofa.registry.server.data.change.DataChangeEventCenter;
 import com.alipay.sofa.registry.server.data.lease.SessionLeaseManager;
 import com.alipay.sofa.registry.server.data.providedata.CompressDatumService;
@@ -43,6 +44,7 @@ import com.alipay.sofa.registry.server.data.resource.HealthResource;
 import com.alipay.sofa.registry.server.data.resource.SlotTableStatusResource;
 import com.alipay.sofa.registry.server.data.slot.SlotManager;
 import com.alipay.sofa.registry.server.data.slot.SlotManagerImpl;
+import com.alipay.sofa.registry.server.data.slot.SlotSnapshotService;
 import com.alipay.sofa.registry.server.data.timer.CacheCountTask;
 import com.alipay.sofa.registry.server.data.timer.CacheDigestTask;
 import com.alipay.sofa.registry.server.shared.meta.MetaServerManager;
@@ -122,6 +124,13 @@ public class DataServerBeanConfiguration {
       return new DatumCache();
     }
 
+    @Bean
+    public SubDatumCache subDatumCache(DataServerConfig dataServerConfig) {
+      return new SubDatumCache(
+          dataServerConfig.getSubDatumCacheSilentMillis(),
+          dataServerConfig.getSubDatumCacheMaxWeight());
+    }
+
     @Bean
     @ConditionalOnMissingBean
     public DatumStorage localDatumStorage() {
@@ -144,6 +153,11 @@ public class DataServerBeanConfiguration {
     public DiskSlotTableRecorder diskSlotTableRecorder() {
       return new DiskSlotTableRecorder();
     }
+
+    @Bean
+    public SlotSnapshotService slotSnapshotService() {
+      return new SlotSnapshotService();
+    }
   }
 
   @Configuration
@@ -187,6 +201,7 @@ public class DataServerBeanConfiguration {
     public Collection<AbstractServerHandler> serverHandlers() {
       Collection<AbstractServerHandler> list = new ArrayList<>();
       list.add(getDataHandler());
+      list.add(getDataDeltaHandler());
       list.add(batchPutDataHandler());
       list.add(getDataVersionsHandler());
       return list;
@@ -213,6 +228,11 @@ public class DataServerBeanConfiguration {
       return new GetDataHandler();
     }
 
+    @Bean
+    public AbstractServerHandler getDataDeltaHandler() {
+      return new GetDataDeltaHandler();
+    }
+
     @Bean
     public AbstractServerHandler slotFollowerDiffDataInfoIdRequestHandler() {
       return new SlotFollowerDiffDigestRequestHandler();
@@ -33,6 +33,7 @@ import com.alipay.sofa.registry.server.data.change.DataChangeEventCenter;
 import com.alipay.sofa.registry.server.data.lease.SessionLeaseManager;
 import com.alipay.sofa.registry.server.data.providedata.FetchStopPushService;
 import com.alipay.sofa.registry.server.data.slot.SlotManager;
+import com.alipay.sofa.registry.server.data.slot.SlotSnapshotService;
 import com.alipay.sofa.registry.server.shared.env.ServerEnv;
 import com.alipay.sofa.registry.server.shared.meta.MetaServerService;
 import com.alipay.sofa.registry.server.shared.providedata.SystemPropertyProcessorManager;
@@ -90,6 +91,8 @@ public class DataServerBootstrap {
 
   @Autowired private SlotManager slotManager;
 
+  @Autowired private SlotSnapshotService slotSnapshotService;
+
   @Resource private FetchStopPushService fetchStopPushService;
 
   private Server server;
@@ -287,6 +290,8 @@ public class DataServerBootstrap {
       stopServer();
       stopDataSyncServer();
       stopNotifyServer();
+      // the servers are stopped, the data not changes anymore
+      slotSnapshotService.save();
     } catch (Throwable e) {
       LOGGER.error("Shutting down Data Server error!", e);
     }
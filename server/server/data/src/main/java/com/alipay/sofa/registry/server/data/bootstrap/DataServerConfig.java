@@ -100,6 +100,12 @@ public class DataServerConfig implements ServerShareConfig {
   // the publisher.digest if len(registerId/uuid+long+long), 50bytes
   private volatile int slotSyncPublisherDigestMaxNum = 4000;
 
+  // the dataInfoIds of a slot are hashed into buckets, compare the buckets digest at first,
+  // only the mismatched buckets exchange the dataInfoId digest. 0 means not use buckets.
+  // the peers ignoring the buckets see an empty digest and sync all the publishers, enable it
+  // after all the data and session servers are upgraded
+  private volatile int slotSyncDigestBucketNum = 0;
+
   private volatile int slotSyncPublisherMaxNum = 512;
 
   private int slotSyncRequestExecutorMinPoolSize = OsUtils.getCpuCount() * 3;
@@ -120,6 +126,18 @@ public class DataServerConfig implements ServerShareConfig {
 
   private int cacheCountIntervalSecs = 60;
 
+  // the dir of the slot snapshots, the snapshot is off if blank
+  private String slotSnapshotDir;
+  private int slotSnapshotIntervalSecs = 60;
+  private int slotSnapshotMaxAgeSecs = 60 * 10;
+
+  // keep the publishers serialized in the storage to reduce the heap objects
+  private boolean compactPublisherStorage = false;
+
+  // the encoded SubDatum of GetData shared by the sessions
+  private int subDatumCacheSilentMillis = 1000 * 10;
+  private int subDatumCacheMaxWeight = 1024 * 1024 * 128;
+
   private int lowWaterMark = 1024 * 256;
   private int highWaterMark = 1024 * 288;
 
@@ -471,6 +489,24 @@ public class DataServerConfig implements ServerShareConfig {
     this.slotSyncPublisherDigestMaxNum = slotSyncPublisherDigestMaxNum;
   }
 
+  /**
+   * Getter method for property <tt>slotSyncDigestBucketNum</tt>.
+   *
+   * @return property value of slotSyncDigestBucketNum
+   */
+  public int getSlotSyncDigestBucketNum() {
+    return slotSyncDigestBucketNum;
+  }
+
+  /**
+   * Setter method for property <tt>slotSyncDigestBucketNum</tt>.
+   *
+   * @param slotSyncDigestBucketNum value to be assigned to property slotSyncDigestBucketNum
+   */
+  public void setSlotSyncDigestBucketNum(int slotSyncDigestBucketNum) {
+    this.slotSyncDigestBucketNum = slotSyncDigestBucketNum;
+  }
+
   /**
    * Getter method for property <tt>slotSyncPublisherMaxNum</tt>.
    *
@@ -773,6 +809,54 @@ public class DataServerConfig implements ServerShareConfig {
     this.cacheDigestIntervalMinutes = cacheDigestIntervalMinutes;
   }
 
+  public String getSlotSnapshotDir() {
+    return slotSnapshotDir;
+  }
+
+  public void setSlotSnapshotDir(String slotSnapshotDir) {
+    this.slotSnapshotDir = slotSnapshotDir;
+  }
+
+  public int getSlotSnapshotIntervalSecs() {
+    return slotSnapshotIntervalSecs;
+  }
+
+  public void setSlotSnapshotIntervalSecs(int slotSnapshotIntervalSecs) {
+    this.slotSnapshotIntervalSecs = slotSnapshotIntervalSecs;
+  }
+
+  public int getSlotSnapshotMaxAgeSecs() {
+    return slotSnapshotMaxAgeSecs;
+  }
+
+  public void setSlotSnapshotMaxAgeSecs(int slotSnapshotMaxAgeSecs) {
+    this.slotSnapshotMaxAgeSecs = slotSnapshotMaxAgeSecs;
+  }
+
+  public boolean isCompactPublisherStorage() {
+    return compactPublisherStorage;
+  }
+
+  public void setCompactPublisherStorage(boolean compactPublisherStorage) {
+    this.compactPublisherStorage = compactPublisherStorage;
+  }
+
+  public int getSubDatumCacheSilentMillis() {
+    return subDatumCacheSilentMillis;
+  }
+
+  public void setSubDatumCacheSilentMillis(int subDatumCacheSilentMillis) {
+    this.subDatumCacheSilentMillis = subDatumCacheSilentMillis;
+  }
+
+  public int getSubDatumCacheMaxWeight() {
+    return subDatumCacheMaxWeight;
+  }
+
+  public void setSubDatumCacheMaxWeight(int subDatumCacheMaxWeight) {
+    this.subDatumCacheMaxWeight = subDatumCacheMaxWeight;
+  }
+
   public int getCacheCountIntervalSecs() {
     return cacheCountIntervalSecs;
   }
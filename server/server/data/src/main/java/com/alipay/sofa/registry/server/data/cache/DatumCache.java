@@ -39,7 +39,7 @@ public class DatumCache {
   @Autowired private DataServerConfig dataServerConfig;
 
   /**
-   * get datum by specific dataCenter and dataInfoId
+   * get datum by specific dataCenter and dataInfoId, the datum is shared, must not be modified
    *
    * @param dataCenter
    * @param dataInfoId
@@ -49,6 +49,10 @@ public class DatumCache {
     return localDatumStorage.get(dataInfoId);
   }
 
+  public DatumDelta getDelta(String dataCenter, String dataInfoId, long fromVersion) {
+    return localDatumStorage.getDelta(dataInfoId, fromVersion);
+  }
+
   public void clean(String dataCenter, String dataInfoId) {
     localDatumStorage.remove(dataInfoId, null);
   }
@@ -65,6 +69,11 @@ public class DatumCache {
     return localDatumStorage.getVersions(slotId, targetDataInfoIds);
   }
 
+  public long getVersionDigest(String dataCenter, int slotId) {
+    // local
+    return localDatumStorage.getVersionDigest(slotId);
+  }
+
   public DatumVersion updateVersion(String dataCenter, String dataInfoId) {
     return localDatumStorage.updateVersion(dataInfoId);
   }
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.util.StringFormatter;
+import java.util.List;
+
+/**
+ * the publishers modified between the fromVersion and the version of the datum
+ *
+ * @author yuzhi.lyz
+ * @version v 0.1 2021-06-15 14:21 yuzhi.lyz Exp $
+ */
+public final class DatumDelta {
+  private final long fromVersion;
+
+  // contains the updated publishers only
+  private final Datum datum;
+
+  private final List<String> removedRegisterIds;
+
+  DatumDelta(long fromVersion, Datum datum, List<String> removedRegisterIds) {
+    this.fromVersion = fromVersion;
+    this.datum = datum;
+    this.removedRegisterIds = removedRegisterIds;
+  }
+
+  public long getFromVersion() {
+    return fromVersion;
+  }
+
+  public Datum getDatum() {
+    return datum;
+  }
+
+  public List<String> getRemovedRegisterIds() {
+    return removedRegisterIds;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "DatumDelta{{},from={},to={},updated={},removed={}}",
+        datum.getDataInfoId(),
+        fromVersion,
+        datum.getVersion(),
+        datum.publisherSize(),
+        removedRegisterIds.size());
+  }
+}
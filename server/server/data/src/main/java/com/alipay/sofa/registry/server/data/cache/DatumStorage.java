@@ -36,21 +36,48 @@ import java.util.Set;
 public interface DatumStorage {
 
   /**
-   * get datum by specific dataInfoId
+   * get datum by specific dataInfoId, the datum is an immutable snapshot shared by the callers
    *
    * @param dataInfoId
    * @return
    */
   Datum get(String dataInfoId);
 
+  /**
+   * get the publishers modified since the fromVersion
+   *
+   * @param dataInfoId
+   * @param fromVersion
+   * @return null if the datum not exist or the delta is unavailable, the caller should get the full
+   *     datum
+   */
+  DatumDelta getDelta(String dataInfoId, long fromVersion);
+
   DatumVersion getVersion(String dataInfoId);
 
   Map<String, DatumVersion> getVersions(int slotId, Collection<String> targetDatInfoIds);
 
+  /**
+   * the digest of the versions of all the datum in the slot, see SlotVersions.digest
+   *
+   * @param slotId
+   * @return
+   */
+  long getVersionDigest(int slotId);
+
   Map<String, Publisher> getByConnectId(ConnectId connectId);
 
   Map<String, Map<String, Publisher>> getPublishers(int slot);
 
+  /**
+   * get the publishers of the registerIds, only the found publishers are materialized
+   *
+   * @param dataInfoId
+   * @param registerIds
+   * @return
+   */
+  List<Publisher> getPublishers(String dataInfoId, Collection<String> registerIds);
+
   /**
    * get all datum
    *
@@ -23,6 +23,7 @@ import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotArray;
 import com.alipay.sofa.registry.common.model.slot.func.SlotFunction;
 import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.Publisher;
@@ -46,12 +47,12 @@ public final class LocalDatumStorage implements DatumStorage {
   private static final Logger LOGGER = LoggerFactory.getLogger(LocalDatumStorage.class);
 
   private final SlotFunction slotFunction = SlotFunctionRegistry.getFunc();
-  private final Map<Integer, PublisherGroups> publisherGroupsMap = Maps.newConcurrentMap();
+  private final SlotArray<PublisherGroups> publisherGroupsMap = new SlotArray<>();
 
   @Autowired private DataServerConfig dataServerConfig;
 
   private PublisherGroups getPublisherGroups(String dataInfoId) {
-    final Integer slotId = slotFunction.slotOf(dataInfoId);
+    final int slotId = slotFunction.slotOf(dataInfoId);
     PublisherGroups groups = publisherGroupsMap.get(slotId);
     if (groups == null) {
       LOGGER.warn("[nullGroups] {}, {}", slotId, dataInfoId);
@@ -73,6 +74,12 @@ public final class LocalDatumStorage implements DatumStorage {
     return groups == null ? null : groups.getDatum(dataInfoId);
   }
 
+  @Override
+  public DatumDelta getDelta(String dataInfoId, long fromVersion) {
+    final PublisherGroups groups = getPublisherGroups(dataInfoId);
+    return groups == null ? null : groups.getDelta(dataInfoId, fromVersion);
+  }
+
   @Override
   public DatumVersion getVersion(String dataInfoId) {
     PublisherGroups groups = getPublisherGroups(dataInfoId);
@@ -85,31 +92,37 @@ public final class LocalDatumStorage implements DatumStorage {
     return groups == null ? Collections.emptyMap() : groups.getVersions(targetDataInfoIds);
   }
 
+  @Override
+  public long getVersionDigest(int slotId) {
+    PublisherGroups groups = getPublisherGroups(slotId);
+    return groups == null ? 0 : groups.getVersionDigest();
+  }
+
   @Override
   public Map<String, Datum> getAll() {
     Map<String, Datum> m = Maps.newHashMapWithExpectedSize(128);
-    publisherGroupsMap.values().forEach(g -> m.putAll(g.getAllDatum()));
+    publisherGroupsMap.forEach(g -> m.putAll(g.getAllDatum()));
     return m;
   }
 
   @Override
   public Map<String, List<Publisher>> getAllPublisher() {
     Map<String, List<Publisher>> m = Maps.newHashMapWithExpectedSize(128);
-    publisherGroupsMap.values().forEach(g -> m.putAll(g.getAllPublisher()));
+    publisherGroupsMap.forEach(g -> m.putAll(g.getAllPublisher()));
     return m;
   }
 
   @Override
   public Map<String, Integer> getPubCount() {
     Map<String, Integer> map = Maps.newHashMapWithExpectedSize(128);
-    publisherGroupsMap.values().forEach(g -> map.putAll(g.getPubCount()));
+    publisherGroupsMap.forEach(g -> map.putAll(g.getPubCount()));
     return map;
   }
 
   @Override
   public Map<String, Publisher> getByConnectId(ConnectId connectId) {
     Map<String, Publisher> m = Maps.newHashMapWithExpectedSize(64);
-    publisherGroupsMap.values().forEach(g -> m.putAll(g.getByConnectId(connectId)));
+    publisherGroupsMap.forEach(g -> m.putAll(g.getByConnectId(connectId)));
     return m;
   }
 
@@ -136,6 +149,12 @@ public final class LocalDatumStorage implements DatumStorage {
     return ret;
   }
 
+  @Override
+  public List<Publisher> getPublishers(String dataInfoId, Collection<String> registerIds) {
+    PublisherGroups groups = getPublisherGroups(dataInfoId);
+    return groups == null ? Collections.emptyList() : groups.getPublishers(dataInfoId, registerIds);
+  }
+
   @Override
   public DatumVersion createEmptyDatumIfAbsent(String dataInfoId, String dataCenter) {
     PublisherGroups groups = getPublisherGroups(dataInfoId);
@@ -216,21 +235,21 @@ public final class LocalDatumStorage implements DatumStorage {
   @Override
   public Set<ProcessId> getSessionProcessIds() {
     Set<ProcessId> ids = Sets.newHashSet();
-    publisherGroupsMap.values().forEach(g -> ids.addAll(g.getSessionProcessIds()));
+    publisherGroupsMap.forEach(g -> ids.addAll(g.getSessionProcessIds()));
     return ids;
   }
 
   @Override
   public Map<String, Integer> compact(long tombstoneTimestamp) {
     Map<String, Integer> compacts = Maps.newHashMap();
-    publisherGroupsMap.values().forEach(g -> compacts.putAll(g.compact(tombstoneTimestamp)));
+    publisherGroupsMap.forEach(g -> compacts.putAll(g.compact(tombstoneTimestamp)));
     return compacts;
   }
 
   @Override
   public int tombstoneNum() {
     int count = 0;
-    for (PublisherGroups groups : publisherGroupsMap.values()) {
+    for (PublisherGroups groups : publisherGroupsMap) {
       count += groups.tombstoneNum();
     }
     return count;
@@ -258,7 +277,10 @@ public final class LocalDatumStorage implements DatumStorage {
       publisherGroupsMap.computeIfAbsent(
           slotId,
           k -> {
-            PublisherGroups groups = new PublisherGroups(dataServerConfig.getLocalDataCenter());
+            PublisherGroups groups =
+                new PublisherGroups(
+                    dataServerConfig.getLocalDataCenter(),
+                    dataServerConfig.isCompactPublisherStorage());
             LOGGER.info(
                 "{} add publisherGroup {}, role={}, slotNum={}",
                 dataServerConfig.getLocalDataCenter(),
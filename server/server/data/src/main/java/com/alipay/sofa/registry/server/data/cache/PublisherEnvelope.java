@@ -21,6 +21,7 @@ import com.alipay.sofa.registry.common.model.ProcessId;
 import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.StoreData;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 
 /**
@@ -28,27 +29,42 @@ import com.alipay.sofa.registry.util.ParaCheckUtil;
  * @version v 0.1 2020-12-02 19:47 yuzhi.lyz Exp $
  */
 public final class PublisherEnvelope {
+  // null if unpub or compacted
   final Publisher publisher;
+  // the serialized publisher if compacted, the object graph of publisher is not retained
+  final byte[] compactedPublisher;
+  // only retained if compacted, the publisher holds it otherwise
+  final ConnectId connectId;
   final ProcessId sessionProcessId;
   final RegisterVersion registerVersion;
   final long tombstoneTimestamp;
 
   private PublisherEnvelope(
       Publisher publisher,
+      byte[] compactedPublisher,
+      ConnectId connectId,
       ProcessId sessionProcessId,
       RegisterVersion registerVersion,
       long tombstoneTimestamp) {
     this.publisher = publisher;
+    this.compactedPublisher = compactedPublisher;
+    this.connectId = connectId;
     this.sessionProcessId = sessionProcessId;
     this.registerVersion = registerVersion;
     this.tombstoneTimestamp = tombstoneTimestamp;
   }
 
   static PublisherEnvelope of(Publisher publisher) {
+    return of(publisher, false);
+  }
+
+  static PublisherEnvelope of(Publisher publisher, boolean compact) {
     ParaCheckUtil.checkNotNull(publisher.getSessionProcessId(), "publisher.sessionProcessId");
     switch (publisher.getDataType()) {
       case PUBLISHER:
-        return pubOf(publisher, publisher.getSessionProcessId());
+        return compact
+            ? compactPubOf(publisher, publisher.getSessionProcessId())
+            : pubOf(publisher, publisher.getSessionProcessId());
       case UN_PUBLISHER:
         return unpubOf(publisher.registerVersion(), publisher.getSessionProcessId());
       default:
@@ -61,26 +77,78 @@ public final class PublisherEnvelope {
         publisher.getDataType(), StoreData.DataType.PUBLISHER, "Publisher.dataType");
     return new PublisherEnvelope(
         publisher,
+        null,
+        null,
         sessionProcessId,
         publisher.registerVersion(),
         // Long.max means pub never compact
         Long.MAX_VALUE);
   }
 
+  static PublisherEnvelope compactPubOf(Publisher publisher, ProcessId sessionProcessId) {
+    ParaCheckUtil.checkEquals(
+        publisher.getDataType(), StoreData.DataType.PUBLISHER, "Publisher.dataType");
+    final byte[] bytes;
+    try {
+      bytes = DatumUtils.serializer.serialize(publisher);
+    } catch (Throwable e) {
+      throw new RuntimeException("compact publisher failed, " + publisher.getRegisterId(), e);
+    }
+    return new PublisherEnvelope(
+        null,
+        bytes,
+        publisher.connectId(),
+        sessionProcessId,
+        publisher.registerVersion(),
+        Long.MAX_VALUE);
+  }
+
   static PublisherEnvelope unpubOf(RegisterVersion version, ProcessId sessionProcessId) {
-    return new PublisherEnvelope(null, sessionProcessId, version, System.currentTimeMillis());
+    return new PublisherEnvelope(
+        null, null, null, sessionProcessId, version, System.currentTimeMillis());
   }
 
   boolean isPub() {
-    return publisher != null;
+    return publisher != null || compactedPublisher != null;
+  }
+
+  boolean isCompacted() {
+    return compactedPublisher != null;
+  }
+
+  /**
+   * the compacted publisher is materialized in every call
+   *
+   * @return null if unpub
+   */
+  Publisher getPublisher() {
+    if (compactedPublisher == null) {
+      return publisher;
+    }
+    final Publisher p;
+    try {
+      p = DatumUtils.serializer.deserialize(compactedPublisher, Publisher.class.getName());
+    } catch (Throwable e) {
+      throw new RuntimeException("materialize publisher failed", e);
+    }
+    // share the cached processId
+    p.setSessionProcessId(sessionProcessId);
+    return p;
   }
 
   RegisterVersion getVersionIfPub() {
     return isPub() ? registerVersion : null;
   }
 
+  ConnectId getConnectId() {
+    if (connectId != null) {
+      return connectId;
+    }
+    return publisher != null ? publisher.connectId() : null;
+  }
+
   boolean isConnectId(ConnectId connectId) {
-    return isPub() && publisher.connectId().equals(connectId);
+    return isPub() && getConnectId().equals(connectId);
   }
 
   @Override
@@ -89,7 +157,7 @@ public final class PublisherEnvelope {
     sb.append("pub=")
         .append(isPub())
         .append(", connectId=")
-        .append(publisher != null ? publisher.connectId() : "null")
+        .append(isPub() ? getConnectId() : "null")
         .append(", ver=")
         .append(registerVersion)
         .append(", ts=")
@@ -33,11 +33,13 @@ import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.util.DatumVersionUtil;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -67,6 +69,9 @@ public final class PublisherGroup {
 
   final String group;
 
+  // keep the publishers serialized, materialize them on reading
+  final boolean compact;
+
   // if the delete publisher from session, mark unpub
   final Map<String /*registerId*/, PublisherEnvelope> pubMap = Maps.newConcurrentMap();
 
@@ -76,13 +81,27 @@ public final class PublisherGroup {
 
   private final ArrayDeque<Long> recentVersions = new ArrayDeque<>(RECENT_VERSIONS_CAP);
 
+  // the immutable datum of the current version, rebuild lazily after the pubMap modified
+  private volatile Datum snapshot;
+
+  // the registerIds modified since the current version, guarded by the write lock
+  private Set<String> pendingChanges = Sets.newHashSet();
+
+  // the registerIds modified between the recent versions, used to build the delta
+  private final ArrayDeque<VersionChanges> changeLog = new ArrayDeque<>(RECENT_VERSIONS_CAP);
+
   PublisherGroup(String dataInfoId, String dataCenter) {
+    this(dataInfoId, dataCenter, false);
+  }
+
+  PublisherGroup(String dataInfoId, String dataCenter, boolean compact) {
     DataInfo dataInfo = DataInfo.valueOf(dataInfoId);
     this.dataInfoId = WordCache.getWordCache(dataInfoId);
     this.dataCenter = WordCache.getWordCache(dataCenter);
     this.dataId = WordCache.getWordCache(dataInfo.getDataId());
     this.instanceId = WordCache.getWordCache(dataInfo.getInstanceId());
     this.group = WordCache.getWordCache(dataInfo.getGroup());
+    this.compact = compact;
     if (DatumVersionUtil.useConfregVersionGen()) {
       this.version = DatumVersionUtil.confregNextId(0);
     } else {
@@ -94,38 +113,115 @@ public final class PublisherGroup {
     return new DatumVersion(version);
   }
 
+  long getVersionValue() {
+    return version;
+  }
+
+  /**
+   * the datum is a snapshot shared by all the callers until the next modification, must not be
+   * modified by the callers. the snapshot is not retained if compact, the materialized publishers
+   * would be held on heap again
+   */
   Datum toDatum() {
+    Datum datum = snapshot;
+    if (datum != null) {
+      return datum;
+    }
+    lock.readLock().lock();
+    try {
+      // the writers are blocked, the snapshot is consistent with the version
+      datum = snapshot;
+      if (datum == null) {
+        datum = buildDatum();
+        if (!compact) {
+          snapshot = datum;
+        }
+      }
+      return datum;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private Datum buildDatum() {
+    Datum datum = newEmptyDatum();
+    for (PublisherEnvelope envelope : pubMap.values()) {
+      if (envelope.isPub()) {
+        datum.addPublisher(envelope.getPublisher());
+      }
+    }
+    return datum;
+  }
+
+  private Datum newEmptyDatum() {
     Datum datum = new Datum();
     datum.setDataCenter(dataCenter);
     datum.setDataId(dataId);
     datum.setDataInfoId(dataInfoId);
     datum.setGroup(group);
     datum.setInstanceId(instanceId);
-    long ver;
-    List<Publisher> list = new ArrayList<>(pubMap.size());
-    lock.readLock().lock();
     datum.setRecentVersions(
         recentVersions.stream().filter(Objects::nonNull).collect(Collectors.toList()));
+    datum.setVersion(version);
+    return datum;
+  }
+
+  /**
+   * get the publishers modified since the fromVersion
+   *
+   * @param fromVersion the version of the datum held by the caller
+   * @return null if the fromVersion has aged out of the change log, or the delta is not smaller
+   *     than the full datum
+   */
+  DatumDelta toDelta(long fromVersion) {
+    lock.readLock().lock();
     try {
-      ver = this.version;
-      for (PublisherEnvelope envelope : pubMap.values()) {
-        if (envelope.isPub()) {
-          list.add(envelope.publisher);
+      if (fromVersion == version) {
+        return new DatumDelta(fromVersion, newEmptyDatum(), Collections.emptyList());
+      }
+      Set<String> registerIds = null;
+      for (VersionChanges changes : changeLog) {
+        if (registerIds != null) {
+          registerIds.addAll(changes.registerIds);
+        } else if (changes.fromVersion == fromVersion) {
+          registerIds = Sets.newHashSet(changes.registerIds);
+        }
+      }
+      if (registerIds == null || registerIds.size() >= pubMap.size()) {
+        return null;
+      }
+      Datum datum = newEmptyDatum();
+      List<String> removed = Lists.newArrayList();
+      for (String registerId : registerIds) {
+        PublisherEnvelope envelope = pubMap.get(registerId);
+        if (envelope != null && envelope.isPub()) {
+          datum.addPublisher(envelope.getPublisher());
+        } else {
+          removed.add(registerId);
         }
       }
+      return new DatumDelta(fromVersion, datum, removed);
     } finally {
       lock.readLock().unlock();
     }
-    datum.setVersion(ver);
-    list.forEach(datum::addPublisher);
-    return datum;
   }
 
   List<Publisher> getPublishers() {
     List<Publisher> list = new ArrayList<>(pubMap.size());
     for (PublisherEnvelope envelope : pubMap.values()) {
       if (envelope.isPub()) {
-        list.add(envelope.publisher);
+        list.add(envelope.getPublisher());
+      }
+    }
+    return list;
+  }
+
+  List<Publisher> getPublishers(Collection<String> registerIds) {
+    List<Publisher> list = new ArrayList<>(registerIds.size());
+    for (String registerId : registerIds) {
+      PublisherEnvelope envelope = pubMap.get(registerId);
+      if (envelope != null && envelope.isPub()) {
+        list.add(envelope.getPublisher());
       }
     }
     return list;
@@ -135,7 +231,8 @@ public final class PublisherGroup {
     Map<String, Publisher> map = Maps.newHashMap();
     for (PublisherEnvelope p : pubMap.values()) {
       if (p.isConnectId(connectId)) {
-        map.put(p.publisher.getRegisterId(), p.publisher);
+        Publisher publisher = p.getPublisher();
+        map.put(publisher.getRegisterId(), publisher);
       }
     }
     return map;
@@ -152,6 +249,8 @@ public final class PublisherGroup {
         this.version = DatumVersionUtil.nextId();
       }
       appendRecentVersion(lastVersion);
+      appendChanges(lastVersion);
+      this.snapshot = null;
       return new DatumVersion(version);
     } finally {
       lock.writeLock().unlock();
@@ -165,12 +264,22 @@ public final class PublisherGroup {
     this.recentVersions.addLast(version);
   }
 
+  private void appendChanges(long fromVersion) {
+    if (changeLog.size() >= RECENT_VERSIONS_CAP) {
+      changeLog.pollFirst();
+    }
+    changeLog.addLast(new VersionChanges(fromVersion, pendingChanges));
+    this.pendingChanges = Sets.newHashSet();
+  }
+
   private boolean tryAddPublisher(Publisher publisher) {
     PublisherEnvelope exist = pubMap.get(publisher.getRegisterId());
     final RegisterVersion registerVersion = publisher.registerVersion();
     if (exist == null) {
-      PublisherEnvelope envelope = PublisherEnvelope.of(publisher);
+      PublisherEnvelope envelope = PublisherEnvelope.of(publisher, compact);
       pubMap.put(publisher.getRegisterId(), envelope);
+      pendingChanges.add(publisher.getRegisterId());
+      this.snapshot = null;
       return envelope.isPub();
     }
 
@@ -194,10 +303,13 @@ public final class PublisherGroup {
           publisher.registerVersion());
       return false;
     }
-    PublisherEnvelope envelope = PublisherEnvelope.of(publisher);
+    PublisherEnvelope envelope = PublisherEnvelope.of(publisher, compact);
     pubMap.put(publisher.getRegisterId(), envelope);
+    // the version maybe not update if the dataList is same, the snapshot holds the older publisher
+    pendingChanges.add(publisher.getRegisterId());
+    this.snapshot = null;
 
-    if (exist.publisher == null) {
+    if (!exist.isPub()) {
       // publisher is null after client_off
       LOGGER.info(
           "[ReplaceEmptyPub] {}, {}, exist={}, add={}, regIsPub={}",
@@ -209,10 +321,11 @@ public final class PublisherGroup {
       return envelope.isPub();
     }
     try {
+      final Publisher existPublisher = exist.getPublisher();
       boolean same =
-          exist.publisher.getDataList() == null
+          existPublisher.getDataList() == null
               ? publisher.getDataList() == null
-              : exist.publisher.getDataList().equals(publisher.getDataList());
+              : existPublisher.getDataList().equals(publisher.getDataList());
       if (same) {
         SKIP_SAME_VALUE_COUNTER.inc();
         LOGGER.info(
@@ -261,6 +374,7 @@ public final class PublisherGroup {
           return null;
         }
         cleanContinues.onClean(size);
+        pendingChanges.addAll(pubMap.keySet());
         pubMap.clear();
         return updateVersion();
       } finally {
@@ -284,6 +398,7 @@ public final class PublisherGroup {
           break;
         }
         if (pubMap.remove(clean.getKey(), clean.getValue())) {
+          pendingChanges.add(clean.getKey());
           cleanContinues.onClean(1);
           modified = true;
         }
@@ -317,6 +432,7 @@ public final class PublisherGroup {
           // sync from leader
           if (sessionProcessId == null) {
             pubMap.remove(registerId);
+            pendingChanges.add(registerId);
             modified = true;
             continue;
           }
@@ -325,6 +441,7 @@ public final class PublisherGroup {
             pubMap.put(
                 registerId,
                 PublisherEnvelope.unpubOf(removedVer.incrRegisterTimestamp(), sessionProcessId));
+            pendingChanges.add(registerId);
             modified = true;
           } else {
             LOGGER.warn(
@@ -461,4 +578,14 @@ public final class PublisherGroup {
     return StringFormatter.format(
         "PubGroup{{},size={},ver={}}", dataInfoId, pubMap.size(), version);
   }
+
+  private static final class VersionChanges {
+    final long fromVersion;
+    final Set<String> registerIds;
+
+    VersionChanges(long fromVersion, Set<String> registerIds) {
+      this.fromVersion = fromVersion;
+      this.registerIds = registerIds;
+    }
+  }
 }
@@ -22,10 +22,12 @@ import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.dataserver.SlotVersions;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.google.common.collect.Maps;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -40,9 +42,15 @@ import org.springframework.util.CollectionUtils;
 public final class PublisherGroups {
   private final Map<String, PublisherGroup> publisherGroupMap = Maps.newConcurrentMap();
   private final String dataCenter;
+  private final boolean compact;
 
   PublisherGroups(String dataCenter) {
+    this(dataCenter, false);
+  }
+
+  PublisherGroups(String dataCenter, boolean compact) {
     this.dataCenter = dataCenter;
+    this.compact = compact;
   }
 
   Datum getDatum(String dataInfoId) {
@@ -50,6 +58,16 @@ public final class PublisherGroups {
     return group == null ? null : group.toDatum();
   }
 
+  DatumDelta getDelta(String dataInfoId, long fromVersion) {
+    PublisherGroup group = publisherGroupMap.get(dataInfoId);
+    return group == null ? null : group.toDelta(fromVersion);
+  }
+
+  List<Publisher> getPublishers(String dataInfoId, Collection<String> registerIds) {
+    PublisherGroup group = publisherGroupMap.get(dataInfoId);
+    return group == null ? Collections.emptyList() : group.getPublishers(registerIds);
+  }
+
   DatumVersion getVersion(String dataInfoId) {
     PublisherGroup group = publisherGroupMap.get(dataInfoId);
     return group == null ? null : group.getVersion();
@@ -72,6 +90,14 @@ public final class PublisherGroups {
     return ret;
   }
 
+  long getVersionDigest() {
+    long digest = 0;
+    for (Map.Entry<String, PublisherGroup> e : publisherGroupMap.entrySet()) {
+      digest += SlotVersions.digest(e.getKey(), e.getValue().getVersionValue());
+    }
+    return digest;
+  }
+
   Map<String, Datum> getAllDatum() {
     Map<String, Datum> map = Maps.newHashMapWithExpectedSize(publisherGroupMap.size());
     publisherGroupMap.forEach(
@@ -104,7 +130,7 @@ public final class PublisherGroups {
 
   PublisherGroup createGroupIfAbsent(String dataInfoId) {
     return publisherGroupMap.computeIfAbsent(
-        dataInfoId, k -> new PublisherGroup(dataInfoId, dataCenter));
+        dataInfoId, k -> new PublisherGroup(dataInfoId, dataCenter, compact));
   }
 
   Map<String, DatumVersion> clean(ProcessId sessionProcessId, CleanContinues cleanContinues) {
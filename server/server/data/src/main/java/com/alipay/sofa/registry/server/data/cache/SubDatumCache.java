@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.cache.CacheCleaner;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.concurrent.SingleFlight;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.alipay.sofa.registry.util.StringUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * the encoded SubDatum of GetData, keyed by the datum version and the encoding. after a datum
+ * changed, the sessions get the same version at the same time, the SubDatum is built and compressed
+ * once and the concurrent misses wait for it. the entry of an old version is never hit again and is
+ * evicted by the weight or expiry
+ */
+public final class SubDatumCache {
+  private final Cache<Key, SubDatum> cache;
+  private final SingleFlight singleFlight = new SingleFlight();
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missingCount = new LongAdder();
+
+  public SubDatumCache(long silentMs, long maxWeight) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxWeight)
+            .<Key, SubDatum>weigher((k, v) -> k.size() + v.size())
+            .expireAfterAccess(silentMs, TimeUnit.MILLISECONDS)
+            .build();
+    CacheCleaner.autoClean(cache, silentMs);
+  }
+
+  /**
+   * @param key the key of the current version
+   * @param loader build the encoded SubDatum, the result is cached only if it is of the key version
+   * @return the encoded SubDatum, null if the loader returns null
+   * @throws Exception the exception of loader
+   */
+  public SubDatum get(Key key, Callable<SubDatum> loader) throws Exception {
+    SubDatum datum = cache.getIfPresent(key);
+    if (datum != null) {
+      hitCount.increment();
+      return datum;
+    }
+    return singleFlight.execute(
+        key,
+        () -> {
+          SubDatum exist = cache.getIfPresent(key);
+          if (exist != null) {
+            hitCount.increment();
+            return exist;
+          }
+          missingCount.increment();
+          SubDatum loaded = loader.call();
+          // the datum maybe changed after the key version read
+          if (loaded != null && loaded.getVersion() == key.version) {
+            cache.put(key, loaded);
+          }
+          return loaded;
+        });
+  }
+
+  public void clean() {
+    cache.invalidateAll();
+  }
+
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  public long getMissingCount() {
+    return missingCount.sum();
+  }
+
+  public static final class Key {
+    final String dataInfoId;
+    final String dataCenter;
+    final long version;
+    final String[] acceptEncodes;
+    final long compressSwitchVersion;
+    final int hashCode;
+
+    public Key(
+        String dataInfoId,
+        String dataCenter,
+        long version,
+        String[] acceptEncodes,
+        long compressSwitchVersion) {
+      this.dataInfoId = dataInfoId;
+      this.dataCenter = dataCenter;
+      this.version = version;
+      this.acceptEncodes = acceptEncodes == null ? new String[0] : acceptEncodes;
+      this.compressSwitchVersion = compressSwitchVersion;
+      this.hashCode =
+          Objects.hash(
+              dataInfoId,
+              dataCenter,
+              version,
+              Arrays.hashCode(this.acceptEncodes),
+              compressSwitchVersion);
+    }
+
+    int size() {
+      int size = StringUtils.sizeof(dataInfoId) + StringUtils.sizeof(dataCenter) + 32;
+      for (String encode : acceptEncodes) {
+        size += StringUtils.sizeof(encode);
+      }
+      return size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Key that = (Key) o;
+      return version == that.version
+          && compressSwitchVersion == that.compressSwitchVersion
+          && Objects.equals(dataInfoId, that.dataInfoId)
+          && Objects.equals(dataCenter, that.dataCenter)
+          && Arrays.equals(acceptEncodes, that.acceptEncodes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public String toString() {
+      return StringFormatter.format(
+          "SubDatumKey{{},{},ver={},encodes={},switch={}}",
+          dataInfoId,
+          dataCenter,
+          version,
+          Arrays.toString(acceptEncodes),
+          compressSwitchVersion);
+    }
+  }
+}
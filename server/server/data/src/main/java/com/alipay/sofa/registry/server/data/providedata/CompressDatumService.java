@@ -78,6 +78,10 @@ public class CompressDatumService
     return storage.get().compressDatumSwitch;
   }
 
+  public long getCompressSwitchVersion() {
+    return storage.get().getVersion();
+  }
+
   public Compressor getCompressor(SubDatum datum, String[] encodes) {
     if (datum == null) {
       return null;
@@ -18,11 +18,9 @@ package com.alipay.sofa.registry.server.data.remoting.dataserver.handler;
 
 import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.Node;
-import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffUtils;
-import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.remoting.Channel;
@@ -32,7 +30,6 @@ import com.alipay.sofa.registry.server.shared.remoting.AbstractServerHandler;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.google.common.annotations.VisibleForTesting;
-import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -61,11 +58,7 @@ public class SlotFollowerDiffDigestRequestHandler
         LOGGER.warn("not leader of {}", slotId);
         return new GenericResponse().fillFailed("not leader of " + slotId);
       }
-      DataSlotDiffDigestResult result =
-          calcDiffResult(
-              slotId,
-              request.getDatumDigest(),
-              localDatumStorage.getPublishers(request.getSlotId()));
+      DataSlotDiffDigestResult result = calcDiffResult(slotId, request);
       result.setSlotTableEpoch(slotManager.getSlotTableEpoch());
       return new GenericResponse().fillSucceed(result);
     } catch (Throwable e) {
@@ -77,11 +70,10 @@ public class SlotFollowerDiffDigestRequestHandler
   }
 
   private DataSlotDiffDigestResult calcDiffResult(
-      int targetSlot,
-      Map<String, DatumDigest> targetDigestMap,
-      Map<String, Map<String, Publisher>> existingPublishers) {
+      int targetSlot, DataSlotDiffDigestRequest request) {
     DataSlotDiffDigestResult result =
-        DataSlotDiffUtils.diffDigestResult(targetDigestMap, existingPublishers);
+        DataSlotDiffUtils.diffDigestResultBySummary(
+            request, localDatumStorage.getDatumSummary(targetSlot));
     DataSlotDiffUtils.logDiffResult(result, targetSlot);
     return result;
   }
@@ -22,7 +22,6 @@ import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherResult;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffUtils;
-import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.remoting.Channel;
@@ -34,7 +33,6 @@ import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.google.common.annotations.VisibleForTesting;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -72,11 +70,7 @@ public class SlotFollowerDiffPublisherRequestHandler
         LOGGER.warn("not leader of {}", slotId);
         return new GenericResponse().fillFailed("not leader of " + slotId);
       }
-      DataSlotDiffPublisherResult result =
-          calcDiffResult(
-              slotId,
-              request.getDatumSummaries(),
-              localDatumStorage.getPublishers(request.getSlotId()));
+      DataSlotDiffPublisherResult result = calcDiffResult(slotId, request.getDatumSummaries());
       result.setSlotTableEpoch(slotManager.getSlotTableEpoch());
       return new GenericResponse().fillSucceed(result);
     } catch (Throwable e) {
@@ -89,12 +83,14 @@ public class SlotFollowerDiffPublisherRequestHandler
   }
 
   private DataSlotDiffPublisherResult calcDiffResult(
-      int targetSlot,
-      List<DatumSummary> datumSummaries,
-      Map<String, Map<String, Publisher>> existingPublishers) {
+      int targetSlot, List<DatumSummary> datumSummaries) {
+    // diff by the summaries, only the publishers to sync are materialized
     DataSlotDiffPublisherResult result =
         DataSlotDiffUtils.diffPublishersResult(
-            datumSummaries, existingPublishers, dataServerConfig.getSlotSyncPublisherMaxNum());
+            datumSummaries,
+            localDatumStorage.getDatumSummary(targetSlot),
+            localDatumStorage::getPublishers,
+            dataServerConfig.getSlotSyncPublisherMaxNum());
     DataSlotDiffUtils.logDiffResult(result, targetSlot);
     return result;
   }
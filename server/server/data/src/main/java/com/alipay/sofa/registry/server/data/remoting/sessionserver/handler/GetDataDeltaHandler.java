@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
+
+import static com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.HandlerMetrics.GetDataDelta.*;
+
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.GetDataDeltaRequest;
+import com.alipay.sofa.registry.common.model.slot.SlotAccess;
+import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
+import com.alipay.sofa.registry.compress.Compressor;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.cache.DatumDelta;
+import com.alipay.sofa.registry.server.data.providedata.CompressDatumService;
+import com.alipay.sofa.registry.server.shared.env.ServerEnv;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import javax.annotation.Resource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * processor to get the publishers modified since the version held by session, fallback to the full
+ * datum if the version has aged out
+ *
+ * @author yuzhi.lyz
+ * @version v 0.1 2021-06-15 15:32 yuzhi.lyz Exp $
+ */
+public class GetDataDeltaHandler extends AbstractDataHandler<GetDataDeltaRequest> {
+  private static final Logger LOGGER = DataLog.GET_LOGGER;
+  @Autowired private DatumCache datumCache;
+
+  @Autowired private ThreadPoolExecutor getDataProcessorExecutor;
+
+  @Resource private CompressDatumService compressDatumService;
+
+  @Override
+  public Executor getExecutor() {
+    return getDataProcessorExecutor;
+  }
+
+  @Override
+  public void checkParam(GetDataDeltaRequest request) {
+    ParaCheckUtil.checkNotBlank(request.getDataInfoId(), "GetDataDeltaRequest.dataInfoId");
+    ParaCheckUtil.checkNotBlank(request.getDataCenter(), "GetDataDeltaRequest.dataCenter");
+    checkSessionProcessId(request.getSessionProcessId());
+  }
+
+  @Override
+  public Object doHandle(Channel channel, GetDataDeltaRequest request) {
+    processSessionProcessId(channel, request.getSessionProcessId());
+
+    final String dataInfoId = request.getDataInfoId();
+    final String dataCenter = request.getDataCenter();
+    final SlotAccess slotAccessBefore =
+        checkAccess(dataInfoId, request.getSlotTableEpoch(), request.getSlotLeaderEpoch());
+    if (!slotAccessBefore.isAccept()) {
+      GET_DELTA_N_COUNTER.inc();
+      return SlotAccessGenericResponse.failedResponse(slotAccessBefore);
+    }
+    // the versions are generated by each data server, the base fetched from another leader or
+    // leaderEpoch maybe collides with the local versions
+    final boolean sameSource =
+        ServerEnv.isLocalServer(request.getFromSlotLeader())
+            && request.getFromSlotLeaderEpoch() == slotAccessBefore.getSlotLeaderEpoch();
+    final DatumDelta delta =
+        sameSource ? datumCache.getDelta(dataCenter, dataInfoId, request.getFromVersion()) : null;
+    final Datum datum = delta == null ? datumCache.get(dataCenter, dataInfoId) : null;
+    // double check the slot access, @see GetDataHandler
+    final SlotAccess slotAccessAfter =
+        checkAccess(dataInfoId, request.getSlotTableEpoch(), request.getSlotLeaderEpoch());
+    if (slotAccessAfter.getSlotLeaderEpoch() != slotAccessBefore.getSlotLeaderEpoch()) {
+      GET_DELTA_N_COUNTER.inc();
+      return SlotAccessGenericResponse.failedResponse(
+          slotAccessAfter, "slotLeaderEpoch has change, prev=" + slotAccessBefore);
+    }
+    if (delta != null) {
+      // not compress the delta, the compress cache is keyed by the version and pubNum of datum
+      SubDatum updated = DatumUtils.of(delta.getDatum());
+      GET_DELTA_Y_COUNTER.inc();
+      LOGGER.info(
+          "getDeltaD,{},{},{},{},updated={},removed={}",
+          dataInfoId,
+          dataCenter,
+          delta.getFromVersion(),
+          updated.getVersion(),
+          updated.getPubNum(),
+          delta.getRemovedRegisterIds().size());
+      return SlotAccessGenericResponse.successResponse(
+          slotAccessAfter,
+          SubDatumDelta.deltaOf(delta.getFromVersion(), updated, delta.getRemovedRegisterIds()));
+    }
+    SubDatum subDatum = datum != null ? DatumUtils.of(datum) : null;
+    Compressor compressor =
+        compressDatumService.getCompressor(subDatum, request.getAcceptEncodes());
+    SubDatum zipDatum = DatumUtils.compressSubDatum(subDatum, compressor);
+    GET_DELTA_FULL_COUNTER.inc();
+    LOGGER.info(
+        "getDeltaFullD,{},{},{},{}",
+        dataInfoId,
+        dataCenter,
+        request.getFromVersion(),
+        subDatum != null ? subDatum.getVersion() : null);
+    return SlotAccessGenericResponse.successResponse(
+        slotAccessAfter, SubDatumDelta.fullOf(zipDatum));
+  }
+
+  @Override
+  public Class interest() {
+    return GetDataDeltaRequest.class;
+  }
+
+  @VisibleForTesting
+  void setDatumCache(DatumCache datumCache) {
+    this.datumCache = datumCache;
+  }
+
+  @VisibleForTesting
+  void setCompressDatumService(CompressDatumService service) {
+    this.compressDatumService = service;
+  }
+}
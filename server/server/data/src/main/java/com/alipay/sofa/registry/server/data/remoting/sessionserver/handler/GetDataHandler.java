@@ -19,15 +19,18 @@ package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
 import static com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.HandlerMetrics.GetData.*;
 
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.dataserver.GetDataRequest;
 import com.alipay.sofa.registry.common.model.slot.SlotAccess;
 import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.ZipSubPublisherList;
 import com.alipay.sofa.registry.compress.CompressUtils;
 import com.alipay.sofa.registry.compress.Compressor;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.cache.SubDatumCache;
 import com.alipay.sofa.registry.server.data.providedata.CompressDatumService;
 import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
@@ -47,6 +50,8 @@ public class GetDataHandler extends AbstractDataHandler<GetDataRequest> {
   private static final Logger LOGGER = DataLog.GET_LOGGER;
   @Autowired private DatumCache datumCache;
 
+  @Autowired private SubDatumCache subDatumCache;
+
   @Autowired private ThreadPoolExecutor getDataProcessorExecutor;
 
   @Resource private CompressDatumService compressDatumService;
@@ -75,7 +80,7 @@ public class GetDataHandler extends AbstractDataHandler<GetDataRequest> {
       GET_DATUM_N_COUNTER.inc();
       return SlotAccessGenericResponse.failedResponse(slotAccessBefore);
     }
-    final Datum datum = datumCache.get(dataCenter, dataInfoId);
+    final SubDatum zipDatum = getSubDatum(request);
     // important. double check the slot access. avoid the case:
     // 1. the slot is leader, the first check pass
     // 2. slot moved and data cleaned
@@ -92,33 +97,61 @@ public class GetDataHandler extends AbstractDataHandler<GetDataRequest> {
       return SlotAccessGenericResponse.failedResponse(
           slotAccessAfter, "slotLeaderEpoch has change, prev=" + slotAccessBefore);
     }
-    // return SubDatum, it's serdeSize and memoryOverhead much smaller than Datum
-    SubDatum subDatum = datum != null ? DatumUtils.of(datum) : null;
-    String encode = "";
-    Compressor compressor =
-        compressDatumService.getCompressor(subDatum, request.getAcceptEncodes());
-    if (compressor != null) {
-      encode = compressor.getEncoding();
-    }
-    SubDatum zipDatum = DatumUtils.compressSubDatum(subDatum, compressor);
     GET_DATUM_Y_COUNTER.inc();
-    if (subDatum != null) {
+    if (zipDatum != null) {
+      final ZipSubPublisherList zipPublishers = zipDatum.getZipPublishers();
       LOGGER.info(
           "getD,{},{},{},{},encode={},dataBoxSize={},encodeSize={}",
           dataInfoId,
           dataCenter,
-          subDatum.mustGetPublishers().size(),
-          subDatum.getVersion(),
-          CompressUtils.normalizeEncode(encode),
+          zipDatum.getPubNum(),
+          zipDatum.getVersion(),
+          CompressUtils.normalizeEncode(zipPublishers == null ? "" : zipPublishers.getEncoding()),
           zipDatum.getDataBoxBytes(),
           zipDatum.size());
-      GET_PUBLISHER_COUNTER.inc(subDatum.mustGetPublishers().size());
+      GET_PUBLISHER_COUNTER.inc(zipDatum.getPubNum());
     } else {
       LOGGER.info("getNilD,{},{}", dataInfoId, dataCenter);
     }
     return SlotAccessGenericResponse.successResponse(slotAccessAfter, zipDatum);
   }
 
+  /**
+   * the encoded SubDatum of a version is built once and shared by the sessions
+   *
+   * @param request the request
+   * @return the encoded SubDatum, null if the datum not exists
+   */
+  SubDatum getSubDatum(GetDataRequest request) {
+    final String dataInfoId = request.getDataInfoId();
+    final String dataCenter = request.getDataCenter();
+    final DatumVersion version = datumCache.getVersion(dataCenter, dataInfoId);
+    if (version == null) {
+      return newSubDatum(request);
+    }
+    final SubDatumCache.Key key =
+        new SubDatumCache.Key(
+            dataInfoId,
+            dataCenter,
+            version.getValue(),
+            request.getAcceptEncodes(),
+            compressDatumService.getCompressSwitchVersion());
+    try {
+      return subDatumCache.get(key, () -> newSubDatum(request));
+    } catch (Exception e) {
+      throw new RuntimeException("get SubDatum failed, " + key, e);
+    }
+  }
+
+  private SubDatum newSubDatum(GetDataRequest request) {
+    final Datum datum = datumCache.get(request.getDataCenter(), request.getDataInfoId());
+    // return SubDatum, it's serdeSize and memoryOverhead much smaller than Datum
+    SubDatum subDatum = datum != null ? DatumUtils.of(datum) : null;
+    Compressor compressor =
+        compressDatumService.getCompressor(subDatum, request.getAcceptEncodes());
+    return DatumUtils.compressSubDatum(subDatum, compressor);
+  }
+
   @Override
   public Class interest() {
     return GetDataRequest.class;
@@ -129,6 +162,11 @@ public class GetDataHandler extends AbstractDataHandler<GetDataRequest> {
     this.datumCache = datumCache;
   }
 
+  @VisibleForTesting
+  void setSubDatumCache(SubDatumCache subDatumCache) {
+    this.subDatumCache = subDatumCache;
+  }
+
   @VisibleForTesting
   void setCompressDatumService(CompressDatumService service) {
     this.compressDatumService = service;
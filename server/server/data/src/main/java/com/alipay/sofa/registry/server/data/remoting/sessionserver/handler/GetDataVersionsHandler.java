@@ -20,6 +20,7 @@ import static com.alipay.sofa.registry.server.data.remoting.sessionserver.handle
 
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.dataserver.GetDataVersionRequest;
+import com.alipay.sofa.registry.common.model.dataserver.SlotVersions;
 import com.alipay.sofa.registry.common.model.slot.SlotAccess;
 import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
 import com.alipay.sofa.registry.common.model.store.WordCache;
@@ -29,6 +30,7 @@ import com.alipay.sofa.registry.server.data.cache.DatumCache;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Maps;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -68,7 +70,11 @@ public class GetDataVersionsHandler extends AbstractDataHandler<GetDataVersionRe
     if (!slotAccessBefore.isAccept()) {
       return SlotAccessGenericResponse.failedResponse(slotAccessBefore);
     }
-    final Map<String, DatumVersion> interests = request.getInterests();
+    // the digest is computed before the versions, any change after it would change the digest
+    final Long digest =
+        request.isReturnSlotDigest() ? datumCache.getVersionDigest(dataCenter, slotId) : null;
+    final Map<String, DatumVersion> interests =
+        request.isDigestOnly() ? Collections.emptyMap() : request.getInterests();
     Map<String /*dataInfoId*/, DatumVersion> getVersions =
         datumCache.getVersions(dataCenter, slotId, interests.keySet());
     // double check slot access, @see GetDataHandler
@@ -78,6 +84,11 @@ public class GetDataVersionsHandler extends AbstractDataHandler<GetDataVersionRe
       return SlotAccessGenericResponse.failedResponse(
           slotAccessAfter, "slotLeaderEpoch has change, prev=" + slotAccessBefore);
     }
+    if (request.isDigestOnly()) {
+      GET_VERSION_DIGEST_COUNTER.inc();
+      return SlotAccessGenericResponse.successResponse(
+          slotAccessAfter, new SlotVersions(Collections.emptyMap(), digest));
+    }
     final boolean localDataCenter = dataServerConfig.isLocalDataCenter(dataCenter);
     Map<String, DatumVersion> ret = Maps.newHashMapWithExpectedSize(64);
     for (Map.Entry<String, DatumVersion> e : interests.entrySet()) {
@@ -141,7 +152,8 @@ public class GetDataVersionsHandler extends AbstractDataHandler<GetDataVersionRe
     }
     LOGGER.info("getV,{},{},gets={},rets={}", slotId, dataCenter, getVersions.size(), ret.size());
     GET_VERSION_COUNTER.inc();
-    return SlotAccessGenericResponse.successResponse(slotAccessAfter, ret);
+    return SlotAccessGenericResponse.successResponse(
+        slotAccessAfter, request.isReturnSlotDigest() ? new SlotVersions(ret, digest) : ret);
   }
 
   @Override
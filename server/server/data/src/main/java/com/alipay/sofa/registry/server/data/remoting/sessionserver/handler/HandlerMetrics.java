@@ -43,6 +43,22 @@ public final class HandlerMetrics {
             .register();
   }
 
+  static final class GetDataDelta {
+    private static final Counter GET_DATUM_DELTA_COUNTER =
+        Counter.build()
+            .namespace("data")
+            .subsystem("remote")
+            .name("getDeltaD_total")
+            .help("session get datum delta")
+            .labelNames("type")
+            .register();
+
+    static final Counter.Child GET_DELTA_Y_COUNTER = GET_DATUM_DELTA_COUNTER.labels("Y");
+    // the delta is unavailable, response the full datum
+    static final Counter.Child GET_DELTA_FULL_COUNTER = GET_DATUM_DELTA_COUNTER.labels("F");
+    static final Counter.Child GET_DELTA_N_COUNTER = GET_DATUM_DELTA_COUNTER.labels("N");
+  }
+
   static final class GetVersion {
     static final Counter GET_VERSION_COUNTER =
         Counter.build()
@@ -51,5 +67,13 @@ public final class HandlerMetrics {
             .name("getV_total")
             .help("session get versions")
             .register();
+
+    static final Counter GET_VERSION_DIGEST_COUNTER =
+        Counter.build()
+            .namespace("data")
+            .subsystem("remote")
+            .name("getV_digest_total")
+            .help("session get the version digest of slot")
+            .register();
   }
 }
@@ -201,16 +201,32 @@ public final class SlotDiffSyncer {
       SyncLeader.observeSyncLeaderId(slotId, summaryMap.size());
     }
     Map<String, DatumDigest> digestMap = PublisherDigestUtil.digest(summaryMap);
+    final int bucketNum = dataServerConfig.getSlotSyncDigestBucketNum();
     DataSlotDiffDigestRequest request =
-        new DataSlotDiffDigestRequest(slotTableEpoch, slotId, digestMap);
-    Response exchangeResp = exchanger.requestRaw(targetAddress, request);
-    GenericResponse<DataSlotDiffDigestResult> resp =
-        (GenericResponse<DataSlotDiffDigestResult>) exchangeResp.getResult();
+        bucketNum > 0
+            ? new DataSlotDiffDigestRequest(
+                slotTableEpoch, slotId, PublisherDigestUtil.bucketDigest(digestMap, bucketNum))
+            : new DataSlotDiffDigestRequest(slotTableEpoch, slotId, digestMap);
     DataSlotDiffDigestResult result =
-        processSyncDigestResp(slotId, resp, targetAddress, summaryMap);
+        requestDigest(slotId, targetAddress, exchanger, request, summaryMap);
     if (result == null) {
       return false;
     }
+    if (!result.getMismatchBuckets().isEmpty()) {
+      // only exchange the dataInfoId digests in the mismatched buckets
+      final Set<Integer> buckets = Sets.newHashSet(result.getMismatchBuckets());
+      request =
+          new DataSlotDiffDigestRequest(
+              slotTableEpoch,
+              slotId,
+              PublisherDigestUtil.filterBuckets(digestMap, bucketNum, buckets),
+              bucketNum,
+              buckets);
+      result = requestDigest(slotId, targetAddress, exchanger, request, summaryMap);
+      if (result == null) {
+        return false;
+      }
+    }
     if (result.getUpdateAndAddSize() == 0) {
       // no change of update and add
       return true;
@@ -227,6 +243,18 @@ public final class SlotDiffSyncer {
         syncSession);
   }
 
+  private DataSlotDiffDigestResult requestDigest(
+      int slotId,
+      String targetAddress,
+      ClientSideExchanger exchanger,
+      DataSlotDiffDigestRequest request,
+      Map<String, DatumSummary> summaryMap) {
+    Response exchangeResp = exchanger.requestRaw(targetAddress, request);
+    GenericResponse<DataSlotDiffDigestResult> resp =
+        (GenericResponse<DataSlotDiffDigestResult>) exchangeResp.getResult();
+    return processSyncDigestResp(slotId, resp, targetAddress, summaryMap);
+  }
+
   static Map<String, DatumSummary> getSummaryForSyncPublishers(
       DataSlotDiffDigestResult result, Map<String, DatumSummary> digestSummaryMap) {
     final Map<String, DatumSummary> newSummaryMap =
@@ -283,9 +311,10 @@ public final class SlotDiffSyncer {
           changeDataIds, DataChangeType.SYNC, dataServerConfig.getLocalDataCenter());
     }
     DIFF_LOGGER.info(
-        "DiffDigest, slotId={} from {}, update={}, add={}, remove={}, adds={}, removes={}",
+        "DiffDigest, slotId={} from {}, buckets={}, update={}, add={}, remove={}, adds={}, removes={}",
         slotId,
         targetAddress,
+        result.getMismatchBuckets(),
         result.getUpdatedDataInfoIds().size(),
         result.getAddedDataInfoIds().size(),
         result.getRemovedDataInfoIds().size(),
@@ -298,6 +298,10 @@ public final class SlotManagerImpl implements SlotManager {
   private void updateSlotState(SlotTable updating) {
     for (Slot s : updating.getSlots()) {
       SlotState state = slotTableStates.slotStates.get(s.getId());
+      if (state != null && s.equals(state.slot)) {
+        // only the slots whose leader or followers changed need to update
+        continue;
+      }
       listenAdd(s);
       if (state != null) {
         state.update(s);
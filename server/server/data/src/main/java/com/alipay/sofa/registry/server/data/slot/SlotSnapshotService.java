@@ -0,0 +1,421 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.slot;
+
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DatumStorage;
+import com.alipay.sofa.registry.server.shared.env.ServerEnv;
+import com.alipay.sofa.registry.server.shared.slot.SlotTableRecorder;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
+import com.alipay.sofa.registry.util.NamedThreadFactory;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.commons.lang.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * the local snapshot of the publishers of the slots. the snapshots are restored to the storage at
+ * startup, so the migrating after restart only syncs the diff from the sessions/leader instead of
+ * the full datum. the restored data is not accessible until the slot is assigned and migrated, the
+ * restored slots not assigned by the first slot table are dropped
+ */
+public class SlotSnapshotService implements SlotTableRecorder {
+  private static final Logger LOGGER = LoggerFactory.getLogger("SLOT-SNAPSHOT");
+
+  static final String FILE_PREFIX = "slot-";
+  static final String FILE_SUFFIX = ".snapshot";
+  private static final int MAGIC = 0x534c5453;
+  private static final int FORMAT_VERSION = 1;
+  // magic, version, slotId, leader, slotTableEpoch, leaderEpoch, timestamp, crc, length
+  static final int HEADER_SIZE = 4 + 4 + 4 + 1 + 8 + 8 + 8 + 8 + 4;
+
+  @Autowired private DataServerConfig dataServerConfig;
+
+  @Autowired private DatumStorage localDatumStorage;
+
+  private volatile File snapshotDir;
+
+  private volatile SlotTable slotTable;
+
+  private final Set<Integer> restoredSlots = Sets.newConcurrentHashSet();
+
+  // slotId -> the last written snapshot, the slots with unchanged versions only refresh the header
+  private final Map<Integer, SavedSnapshot> savedSnapshots = Maps.newConcurrentMap();
+
+  private volatile ScheduledThreadPoolExecutor executor;
+
+  @PostConstruct
+  public void init() {
+    start();
+  }
+
+  @PreDestroy
+  public void preDestroy() {
+    final ScheduledThreadPoolExecutor executor = this.executor;
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * restore the snapshots and schedule the saving
+   *
+   * @return false if the snapshot is off
+   */
+  boolean start() {
+    final String dir = dataServerConfig.getSlotSnapshotDir();
+    if (StringUtils.isBlank(dir)) {
+      LOGGER.info("slot snapshot off with blank dir");
+      return false;
+    }
+    this.snapshotDir = new File(dir);
+    if (!snapshotDir.isDirectory() && !snapshotDir.mkdirs()) {
+      throw new IllegalStateException("failed to create slot snapshot dir: " + dir);
+    }
+    restore();
+    final int intervalSecs = dataServerConfig.getSlotSnapshotIntervalSecs();
+    if (intervalSecs > 0) {
+      this.executor =
+          new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("SlotSnapshot", true));
+      executor.scheduleWithFixedDelay(this::save, intervalSecs, intervalSecs, TimeUnit.SECONDS);
+    }
+    return true;
+  }
+
+  /** drop the restored slots which are not assigned to us by the first slot table */
+  @Override
+  public synchronized void record(SlotTable slotTable) {
+    final SlotTable table = slotTable.filter(ServerEnv.IP);
+    this.slotTable = table;
+    if (restoredSlots.isEmpty()) {
+      return;
+    }
+    final SlotChangeListener listener = localDatumStorage.getSlotChangeListener();
+    for (Integer slotId : restoredSlots) {
+      if (table.getSlot(slotId) == null) {
+        listener.onSlotRemove(slotId, Slot.Role.Follower);
+        LOGGER.info("[drop]slotId={}, not assigned in epoch={}", slotId, table.getEpoch());
+      }
+    }
+    restoredSlots.clear();
+  }
+
+  synchronized int restore() {
+    final File[] files = listSnapshotFiles();
+    final long expireTimestamp =
+        System.currentTimeMillis() - dataServerConfig.getSlotSnapshotMaxAgeSecs() * 1000L;
+    final SlotChangeListener listener = localDatumStorage.getSlotChangeListener();
+    int pubCount = 0;
+    for (File file : files) {
+      try {
+        final SlotSnapshot snapshot = read(file);
+        if (snapshot.timestamp < expireTimestamp) {
+          LOGGER.info("[expired]{}, timestamp={}", file.getName(), snapshot.timestamp);
+          Files.deleteIfExists(file.toPath());
+          continue;
+        }
+        listener.onSlotAdd(
+            snapshot.slotId, snapshot.leader ? Slot.Role.Leader : Slot.Role.Follower);
+        Map<String, List<Publisher>> publishers = Maps.newHashMap();
+        for (Publisher p : snapshot.publishers) {
+          publishers.computeIfAbsent(p.getDataInfoId(), k -> Lists.newArrayList()).add(p);
+        }
+        publishers.forEach((k, v) -> localDatumStorage.put(k, v));
+        restoredSlots.add(snapshot.slotId);
+        pubCount += snapshot.publishers.size();
+        LOGGER.info(
+            "[restore]slotId={}, leader={}, epoch={}/{}, dataInfoIds={}, pubs={}",
+            snapshot.slotId,
+            snapshot.leader,
+            snapshot.slotTableEpoch,
+            snapshot.leaderEpoch,
+            publishers.size(),
+            snapshot.publishers.size());
+      } catch (Throwable e) {
+        LOGGER.error("failed to restore slot snapshot {}", file.getName(), e);
+      }
+    }
+    LOGGER.info("[restoreFinish]slots={}, pubs={}", restoredSlots.size(), pubCount);
+    return restoredSlots.size();
+  }
+
+  /**
+   * save the slots assigned by the latest slot table, the snapshots of the other slots are removed.
+   * the slot whose version digest is unchanged since the last save is not serialized again, only
+   * the header (leader, epochs, timestamp) of its snapshot is refreshed
+   *
+   * @return the num of saved slots
+   */
+  public int save() {
+    final SlotTable table = this.slotTable;
+    if (snapshotDir == null || table == null) {
+      return 0;
+    }
+    int count = 0;
+    int rewriteCount = 0;
+    for (Slot slot : table.getSlots()) {
+      final int slotId = slot.getId();
+      final File file = snapshotFile(slotId);
+      // the digest is computed before the publishers, any change after it would change the digest
+      final long versionDigest = localDatumStorage.getVersionDigest(slotId);
+      final SavedSnapshot saved = savedSnapshots.get(slotId);
+      final boolean leader = StringUtils.equals(slot.getLeader(), ServerEnv.IP);
+      try {
+        if (saved != null
+            && saved.versionDigest == versionDigest
+            && refreshHeader(
+                file,
+                new SlotSnapshot(
+                    slotId,
+                    leader,
+                    table.getEpoch(),
+                    slot.getLeaderEpoch(),
+                    System.currentTimeMillis(),
+                    null),
+                saved)) {
+          count++;
+          continue;
+        }
+        final Map<String, Map<String, Publisher>> publisherMap =
+            localDatumStorage.getPublishers(slotId);
+        List<Publisher> publishers = new ArrayList<>(256);
+        for (Map<String, Publisher> map : publisherMap.values()) {
+          publishers.addAll(map.values());
+        }
+        SlotSnapshot snapshot =
+            new SlotSnapshot(
+                slotId,
+                leader,
+                table.getEpoch(),
+                slot.getLeaderEpoch(),
+                System.currentTimeMillis(),
+                publishers);
+        savedSnapshots.put(slotId, write(file, snapshot, versionDigest));
+        count++;
+        rewriteCount++;
+      } catch (Throwable e) {
+        savedSnapshots.remove(slotId);
+        LOGGER.error("failed to save slot snapshot, slotId={}", slotId, e);
+      }
+    }
+    savedSnapshots.keySet().removeIf(slotId -> table.getSlot(slotId) == null);
+    for (File file : listSnapshotFiles()) {
+      final Integer slotId = slotIdOf(file);
+      if (slotId == null || table.getSlot(slotId) == null) {
+        if (!file.delete()) {
+          LOGGER.warn("failed to delete slot snapshot {}", file.getName());
+        }
+      }
+    }
+    LOGGER.info("[save]epoch={}, slots={}, rewrite={}", table.getEpoch(), count, rewriteCount);
+    return count;
+  }
+
+  private File[] listSnapshotFiles() {
+    File[] files =
+        snapshotDir.listFiles(
+            (dir, name) -> name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX));
+    return files == null ? new File[0] : files;
+  }
+
+  private File snapshotFile(int slotId) {
+    return new File(snapshotDir, FILE_PREFIX + slotId + FILE_SUFFIX);
+  }
+
+  static Integer slotIdOf(File file) {
+    final String name = file.getName();
+    try {
+      return Integer.valueOf(
+          name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  static SavedSnapshot write(File file, SlotSnapshot snapshot, long versionDigest)
+      throws Exception {
+    final byte[] content = DatumUtils.serializer.serialize(snapshot.publishers);
+    final CRC32 crc = new CRC32();
+    crc.update(content);
+    final File tmp = new File(file.getPath() + ".tmp");
+    try (FileChannel channel =
+        FileChannel.open(
+            tmp.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      writeFully(channel, header(snapshot, crc.getValue(), content.length), 0);
+      writeFully(channel, ByteBuffer.wrap(content), HEADER_SIZE);
+      channel.force(false);
+    }
+    Files.move(
+        tmp.toPath(),
+        file.toPath(),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    return new SavedSnapshot(versionDigest, crc.getValue(), content.length);
+  }
+
+  /**
+   * rewrite the header in place, the content is kept
+   *
+   * @return false if the file is missing or not the saved one, the caller should write it fully
+   */
+  static boolean refreshHeader(File file, SlotSnapshot snapshot, SavedSnapshot saved)
+      throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+      if (channel.size() != HEADER_SIZE + saved.length) {
+        return false;
+      }
+      writeFully(channel, header(snapshot, saved.checksum, saved.length), 0);
+      channel.force(false);
+      return true;
+    } catch (NoSuchFileException e) {
+      return false;
+    }
+  }
+
+  private static ByteBuffer header(SlotSnapshot snapshot, long checksum, int length) {
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+    buffer.putInt(MAGIC);
+    buffer.putInt(FORMAT_VERSION);
+    buffer.putInt(snapshot.slotId);
+    buffer.put(snapshot.leader ? (byte) 1 : (byte) 0);
+    buffer.putLong(snapshot.slotTableEpoch);
+    buffer.putLong(snapshot.leaderEpoch);
+    buffer.putLong(snapshot.timestamp);
+    buffer.putLong(checksum);
+    buffer.putInt(length);
+    buffer.flip();
+    return buffer;
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer, position);
+    }
+  }
+
+  static SlotSnapshot read(File file) throws Exception {
+    final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+    final long size = buffer.limit();
+    if (size < HEADER_SIZE) {
+      throw new IOException("snapshot is truncated, size=" + size);
+    }
+    final int magic = buffer.getInt();
+    final int version = buffer.getInt();
+    if (magic != MAGIC || version != FORMAT_VERSION) {
+      throw new IOException("unknown snapshot format, magic=" + magic + ", version=" + version);
+    }
+    final int slotId = buffer.getInt();
+    final boolean leader = buffer.get() == 1;
+    final long slotTableEpoch = buffer.getLong();
+    final long leaderEpoch = buffer.getLong();
+    final long timestamp = buffer.getLong();
+    final long checksum = buffer.getLong();
+    final int length = buffer.getInt();
+    if (length != size - HEADER_SIZE) {
+      throw new IOException("snapshot is truncated, length=" + length + ", size=" + size);
+    }
+    final byte[] content = new byte[length];
+    buffer.get(content);
+    final CRC32 crc = new CRC32();
+    crc.update(content);
+    if (crc.getValue() != checksum) {
+      throw new IOException("snapshot checksum mismatch");
+    }
+    List<Publisher> publishers =
+        DatumUtils.serializer.deserialize(content, ArrayList.class.getName());
+    return new SlotSnapshot(slotId, leader, slotTableEpoch, leaderEpoch, timestamp, publishers);
+  }
+
+  static final class SavedSnapshot {
+    final long versionDigest;
+    final long checksum;
+    final int length;
+
+    SavedSnapshot(long versionDigest, long checksum, int length) {
+      this.versionDigest = versionDigest;
+      this.checksum = checksum;
+      this.length = length;
+    }
+  }
+
+  static final class SlotSnapshot {
+    final int slotId;
+    final boolean leader;
+    final long slotTableEpoch;
+    final long leaderEpoch;
+    final long timestamp;
+    final List<Publisher> publishers;
+
+    SlotSnapshot(
+        int slotId,
+        boolean leader,
+        long slotTableEpoch,
+        long leaderEpoch,
+        long timestamp,
+        List<Publisher> publishers) {
+      this.slotId = slotId;
+      this.leader = leader;
+      this.slotTableEpoch = slotTableEpoch;
+      this.leaderEpoch = leaderEpoch;
+      this.timestamp = timestamp;
+      this.publishers = publishers;
+    }
+  }
+
+  @VisibleForTesting
+  public void setDataServerConfig(DataServerConfig dataServerConfig) {
+    this.dataServerConfig = dataServerConfig;
+  }
+
+  @VisibleForTesting
+  public void setLocalDatumStorage(DatumStorage localDatumStorage) {
+    this.localDatumStorage = localDatumStorage;
+  }
+
+  @VisibleForTesting
+  Set<Integer> getRestoredSlots() {
+    return restoredSlots;
+  }
+}
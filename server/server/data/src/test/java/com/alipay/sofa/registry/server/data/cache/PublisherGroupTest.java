@@ -37,6 +37,73 @@ import org.junit.Assert;
 import org.junit.Test;
 
 public class PublisherGroupTest {
+  @Test
+  public void testCompact() {
+    Publisher publisher = TestBaseUtils.createTestPublisher("testCompactDataId");
+    publisher.setDataList(Lists.newArrayList(new ServerDataBox(ServerDataBox.getBytes("v1"))));
+    PublisherGroup group = new PublisherGroup(publisher.getDataInfoId(), "dc", true);
+    DatumVersion v = group.addPublisher(publisher);
+    Assert.assertNotNull(v);
+    PublisherEnvelope envelope = group.pubMap.get(publisher.getRegisterId());
+    Assert.assertTrue(envelope.isCompacted());
+    Assert.assertNull(envelope.publisher);
+
+    Publisher materialized = group.getPublishers().get(0);
+    Assert.assertTrue(materialized != publisher);
+    Assert.assertEquals(materialized.getRegisterId(), publisher.getRegisterId());
+    Assert.assertEquals(materialized.registerVersion(), publisher.registerVersion());
+    Assert.assertEquals(materialized.getDataList(), publisher.getDataList());
+    Assert.assertTrue(materialized.getSessionProcessId() == envelope.sessionProcessId);
+
+    // the snapshot is not retained
+    Datum datum = group.toDatum();
+    Assert.assertEquals(datum.getPubMap().size(), 1);
+    Assert.assertTrue(datum != group.toDatum());
+    Assert.assertEquals(group.getByConnectId(publisher.connectId()).size(), 1);
+    Assert.assertEquals(
+        group.getAllSummary().getPublisherVersions().get(publisher.getRegisterId()),
+        publisher.registerVersion());
+
+    // same dataList not update the version
+    Publisher newer = TestBaseUtils.cloneBase(publisher);
+    newer.setDataList(Lists.newArrayList(new ServerDataBox(ServerDataBox.getBytes("v1"))));
+    newer.setVersion(publisher.getVersion() + 1);
+    Assert.assertNull(group.addPublisher(newer));
+    Assert.assertEquals(group.getPublishers().get(0).getVersion(), newer.getVersion());
+
+    newer = TestBaseUtils.cloneBase(newer);
+    newer.setDataList(Lists.newArrayList(new ServerDataBox(ServerDataBox.getBytes("v2"))));
+    newer.setVersion(newer.getVersion() + 1);
+    Assert.assertNotNull(group.addPublisher(newer));
+    Assert.assertEquals(group.getPublishers().get(0).getDataList(), newer.getDataList());
+  }
+
+  @Test
+  public void testGetPublishersByRegisterIds() {
+    Publisher publisher1 = TestBaseUtils.createTestPublisher("testGetPublishersDataId");
+    Publisher publisher2 = TestBaseUtils.cloneBase(publisher1);
+    publisher2.setRegisterId(publisher1.getRegisterId() + "-2");
+    PublisherGroup group = new PublisherGroup(publisher1.getDataInfoId(), "dc", true);
+    group.addPublisher(publisher1);
+    group.addPublisher(publisher2);
+
+    List<Publisher> list =
+        group.getPublishers(Lists.newArrayList(publisher2.getRegisterId(), "notExist"));
+    Assert.assertEquals(list.size(), 1);
+    Assert.assertEquals(list.get(0).getRegisterId(), publisher2.getRegisterId());
+    Assert.assertEquals(list.get(0).registerVersion(), publisher2.registerVersion());
+    // only the requested one is materialized
+    Assert.assertTrue(group.pubMap.get(publisher1.getRegisterId()).isCompacted());
+
+    // the unpub is skipped
+    Assert.assertNotNull(
+        group.remove(
+            ServerEnv.PROCESS_ID,
+            Collections.singletonMap(publisher1.getRegisterId(), publisher1.registerVersion())));
+    Assert.assertTrue(
+        group.getPublishers(Collections.singletonList(publisher1.getRegisterId())).isEmpty());
+  }
+
   @Test
   public void testBaseOp() {
     final String dataId = "testDataInfoId";
@@ -233,6 +300,93 @@ public class PublisherGroupTest {
     Assert.assertTrue(group.toString().length() != 0);
   }
 
+  @Test
+  public void testSnapshot() {
+    final String dataId = "testDataInfoId";
+    Publisher publisher = TestBaseUtils.createTestPublisher(dataId);
+    PublisherGroup group = new PublisherGroup(publisher.getDataInfoId(), "dc");
+    Datum datum = group.toDatum();
+    Assert.assertTrue(datum == group.toDatum());
+    Assert.assertEquals(datum.publisherSize(), 0);
+
+    DatumVersion v = group.addPublisher(publisher);
+    Datum datum1 = group.toDatum();
+    Assert.assertTrue(datum != datum1);
+    Assert.assertTrue(datum1 == group.toDatum());
+    Assert.assertEquals(datum1.getVersion(), v.getValue());
+    Assert.assertEquals(datum1.getPubMap().get(publisher.getRegisterId()), publisher);
+    // the prev snapshot not modified
+    Assert.assertEquals(datum.publisherSize(), 0);
+
+    // same dataList, version not change but the publisher replaced
+    Publisher newer = TestBaseUtils.cloneBase(publisher);
+    newer.setVersion(publisher.getVersion() + 1);
+    Assert.assertNull(group.addPublisher(newer));
+    Datum datum2 = group.toDatum();
+    Assert.assertTrue(datum1 != datum2);
+    Assert.assertEquals(datum2.getVersion(), v.getValue());
+    Assert.assertTrue(datum2.getPubMap().get(publisher.getRegisterId()) == newer);
+
+    v = group.updateVersion();
+    Datum datum3 = group.toDatum();
+    Assert.assertTrue(datum2 != datum3);
+    Assert.assertEquals(datum3.getVersion(), v.getValue());
+    Assert.assertEquals(datum3.getRecentVersions().size(), 2);
+
+    v = group.clean(null, CleanContinues.ALWAYS);
+    Datum datum4 = group.toDatum();
+    Assert.assertEquals(datum4.getVersion(), v.getValue());
+    Assert.assertEquals(datum4.publisherSize(), 0);
+    Assert.assertEquals(datum3.publisherSize(), 1);
+  }
+
+  @Test
+  public void testDelta() {
+    final String dataId = "testDataInfoId";
+    Publisher p1 = TestBaseUtils.createTestPublisher(dataId);
+    Publisher p2 = TestBaseUtils.createTestPublisher(dataId);
+    Publisher p3 = TestBaseUtils.createTestPublisher(dataId);
+    Publisher p4 = TestBaseUtils.createTestPublisher(dataId);
+    PublisherGroup group = new PublisherGroup(p1.getDataInfoId(), "dc");
+    final long v0 = group.getVersion().getValue();
+    final long v1 = group.put(Lists.newArrayList(p1, p2, p4)).getValue();
+    // the delta is not smaller than the full
+    Assert.assertNull(group.toDelta(v0));
+
+    DatumDelta delta = group.toDelta(v1);
+    Assert.assertEquals(delta.getFromVersion(), v1);
+    Assert.assertEquals(delta.getDatum().getVersion(), v1);
+    Assert.assertEquals(delta.getDatum().publisherSize(), 0);
+
+    final long v2 = group.addPublisher(p3).getValue();
+    delta = group.toDelta(v1);
+    Assert.assertEquals(delta.getDatum().getVersion(), v2);
+    Assert.assertTrue(delta.getDatum().getPubMap().get(p3.getRegisterId()) == p3);
+    Assert.assertEquals(delta.getDatum().publisherSize(), 1);
+    Assert.assertEquals(delta.getRemovedRegisterIds().size(), 0);
+
+    Map<String, RegisterVersion> removed =
+        Collections.singletonMap(p1.getRegisterId(), p1.registerVersion());
+    final long v3 = group.remove(null, removed).getValue();
+    delta = group.toDelta(v1);
+    Assert.assertEquals(delta.getDatum().getVersion(), v3);
+    Assert.assertEquals(delta.getDatum().publisherSize(), 1);
+    Assert.assertEquals(delta.getRemovedRegisterIds(), Lists.newArrayList(p1.getRegisterId()));
+    delta = group.toDelta(v2);
+    Assert.assertEquals(delta.getDatum().publisherSize(), 0);
+    Assert.assertEquals(delta.getRemovedRegisterIds(), Lists.newArrayList(p1.getRegisterId()));
+
+    // unknown version
+    Assert.assertNull(group.toDelta(v3 + 1));
+    // aged out of the change log
+    for (int i = 0; i < 10; i++) {
+      group.updateVersion();
+    }
+    Assert.assertNull(group.toDelta(v1));
+    delta = group.toDelta(group.getVersion().getValue());
+    Assert.assertEquals(delta.getDatum().publisherSize(), 0);
+  }
+
   @Test
   public void testUpdate() {
     final String dataId = "testDataInfoId";
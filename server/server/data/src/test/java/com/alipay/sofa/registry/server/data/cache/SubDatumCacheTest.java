@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SubDatumCacheTest {
+  private static final String DATA_INFO_ID = "testDataInfoId";
+
+  private static SubDatum newSubDatum(long version) {
+    return SubDatum.normalOf(
+        DATA_INFO_ID,
+        "testDc",
+        version,
+        Collections.emptyList(),
+        "testDataId",
+        "testInstanceId",
+        "testGroup",
+        Lists.newArrayList(version));
+  }
+
+  private static SubDatumCache.Key key(long version, String... encodes) {
+    return new SubDatumCache.Key(DATA_INFO_ID, "testDc", version, encodes, 1);
+  }
+
+  @Test
+  public void testGet() throws Exception {
+    SubDatumCache cache = new SubDatumCache(10000, 1024 * 1024);
+    SubDatum datum = newSubDatum(10);
+    Assert.assertSame(datum, cache.get(key(10, "gzip"), () -> datum));
+    Assert.assertSame(datum, cache.get(key(10, "gzip"), () -> newSubDatum(10)));
+    Assert.assertEquals(1, cache.getHitCount());
+    Assert.assertEquals(1, cache.getMissingCount());
+
+    // the encoding is part of key
+    SubDatum other = newSubDatum(10);
+    Assert.assertSame(other, cache.get(key(10), () -> other));
+
+    // the datum changed after the version read, not cached
+    SubDatum newer = newSubDatum(11);
+    Assert.assertSame(newer, cache.get(key(9), () -> newer));
+    SubDatum old = newSubDatum(9);
+    Assert.assertSame(old, cache.get(key(9), () -> old));
+
+    // null is not cached
+    Assert.assertNull(cache.get(key(12), () -> null));
+    Assert.assertSame(datum, cache.get(key(12), () -> datum));
+
+    cache.clean();
+    SubDatum cleaned = newSubDatum(10);
+    Assert.assertSame(cleaned, cache.get(key(10, "gzip"), () -> cleaned));
+  }
+
+  @Test
+  public void testConcurrentMiss() throws Exception {
+    SubDatumCache cache = new SubDatumCache(10000, 1024 * 1024);
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Thread t =
+        new Thread(
+            () -> {
+              try {
+                cache.get(
+                    key(10),
+                    () -> {
+                      loads.incrementAndGet();
+                      loading.countDown();
+                      release.await();
+                      return newSubDatum(10);
+                    });
+              } catch (Exception e) {
+                throw new RuntimeException(e);
+              }
+            });
+    t.start();
+    loading.await();
+    Thread waiter =
+        new Thread(
+            () -> {
+              try {
+                cache.get(
+                    key(10),
+                    () -> {
+                      loads.incrementAndGet();
+                      return newSubDatum(10);
+                    });
+              } catch (Exception e) {
+                throw new RuntimeException(e);
+              }
+            });
+    waiter.start();
+    Thread.sleep(100);
+    release.countDown();
+    t.join();
+    waiter.join();
+    Assert.assertEquals(1, loads.get());
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.dataserver.GetDataDeltaRequest;
+import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
+import com.alipay.sofa.registry.server.data.TestBaseUtils;
+import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.change.DataChangeEventCenter;
+import com.alipay.sofa.registry.server.data.lease.SessionLeaseManager;
+import com.alipay.sofa.registry.server.data.providedata.CompressDatumService;
+import com.alipay.sofa.registry.server.data.slot.SlotManager;
+import com.alipay.sofa.registry.server.shared.env.ServerEnv;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GetDataDeltaHandlerTest {
+
+  @Test
+  public void testCheckParam() {
+    GetDataDeltaHandler handler = newHandler();
+    TestBaseUtils.assertException(
+        IllegalArgumentException.class,
+        () -> {
+          handler.checkParam(request(null, "xxx", 0));
+        });
+
+    TestBaseUtils.assertException(
+        IllegalArgumentException.class,
+        () -> {
+          handler.checkParam(request("xx", null, 0));
+        });
+
+    handler.checkParam(request("xx", "xx", 0));
+  }
+
+  private GetDataDeltaHandler newHandler() {
+    GetDataDeltaHandler handler = new GetDataDeltaHandler();
+    Assert.assertNull(handler.getExecutor());
+    Assert.assertEquals(handler.interest(), GetDataDeltaRequest.class);
+    handler.sessionLeaseManager = new SessionLeaseManager();
+    handler.slotManager = mock(SlotManager.class);
+    DatumCache datumCache = TestBaseUtils.newLocalDatumCache("testDc", true);
+    handler.setDatumCache(datumCache);
+    handler.setCompressDatumService(new CompressDatumService());
+    handler.localDatumStorage = datumCache.getLocalDatumStorage();
+    handler.dataChangeEventCenter = new DataChangeEventCenter();
+    handler.dataServerConfig = TestBaseUtils.newDataConfig("testDc");
+    return handler;
+  }
+
+  @Test
+  public void testHandle() {
+    GetDataDeltaHandler handler = newHandler();
+    TestBaseUtils.MockBlotChannel channel = TestBaseUtils.newChannel(9620, "localhost", 8888);
+
+    // get nil
+    when(handler.slotManager.checkSlotAccess(anyInt(), anyLong(), anyLong()))
+        .thenReturn(TestBaseUtils.accept(), TestBaseUtils.accept());
+    SlotAccessGenericResponse resp =
+        (SlotAccessGenericResponse) handler.doHandle(channel, request("testDc", "testDataId", 0));
+    Assert.assertTrue(resp.isSuccess());
+    SubDatumDelta delta = (SubDatumDelta) resp.getData();
+    Assert.assertFalse(delta.isDelta());
+    Assert.assertNull(delta.getDatum());
+
+    // get leader change
+    when(handler.slotManager.checkSlotAccess(anyInt(), anyLong(), anyLong()))
+        .thenReturn(TestBaseUtils.accept(), TestBaseUtils.migrating(1, 10, 100));
+    resp =
+        (SlotAccessGenericResponse) handler.doHandle(channel, request("testDc", "testDataId", 0));
+    Assert.assertFalse(resp.isSuccess());
+    Assert.assertNull(resp.getData());
+
+    when(handler.slotManager.checkSlotAccess(anyInt(), anyLong(), anyLong()))
+        .thenReturn(TestBaseUtils.accept());
+    List<Publisher> pubs = TestBaseUtils.createTestPublishers(1, 2);
+    final String dataInfoId = pubs.get(0).getDataInfoId();
+    DatumVersion v1 = handler.localDatumStorage.put(pubs.get(0));
+    DatumVersion v2 = handler.localDatumStorage.put(pubs.get(1));
+
+    // get delta
+    resp =
+        (SlotAccessGenericResponse)
+            handler.doHandle(channel, request("testDc", dataInfoId, v1.getValue()));
+    Assert.assertTrue(resp.isSuccess());
+    delta = (SubDatumDelta) resp.getData();
+    Assert.assertTrue(delta.isDelta());
+    Assert.assertEquals(delta.getFromVersion(), v1.getValue());
+    Assert.assertEquals(delta.getDatum().getVersion(), v2.getValue());
+    Assert.assertEquals(delta.getDatum().mustGetPublishers().size(), 1);
+    Assert.assertEquals(
+        delta.getDatum().mustGetPublishers().get(0).getRegisterId(), pubs.get(1).getRegisterId());
+    Assert.assertEquals(delta.getRemovedRegisterIds().size(), 0);
+
+    // the base is fetched from another leader or leaderEpoch, get full
+    resp =
+        (SlotAccessGenericResponse)
+            handler.doHandle(
+                channel, request("testDc", dataInfoId, v1.getValue(), "192.168.0.1", 1));
+    Assert.assertTrue(resp.isSuccess());
+    Assert.assertFalse(((SubDatumDelta) resp.getData()).isDelta());
+    resp =
+        (SlotAccessGenericResponse)
+            handler.doHandle(
+                channel, request("testDc", dataInfoId, v1.getValue(), ServerEnv.IP, 2));
+    Assert.assertTrue(resp.isSuccess());
+    delta = (SubDatumDelta) resp.getData();
+    Assert.assertFalse(delta.isDelta());
+    Assert.assertEquals(delta.getDatum().getPubNum(), 2);
+
+    // the version aged out, get full
+    resp = (SlotAccessGenericResponse) handler.doHandle(channel, request("testDc", dataInfoId, 1));
+    Assert.assertTrue(resp.isSuccess());
+    delta = (SubDatumDelta) resp.getData();
+    Assert.assertFalse(delta.isDelta());
+    Assert.assertEquals(delta.getDatum().getVersion(), v2.getValue());
+    Assert.assertEquals(delta.getDatum().getPubNum(), 2);
+  }
+
+  @Test
+  public void testHandleErrorSlotAccess() {
+    GetDataDeltaHandler handler = newHandler();
+    TestBaseUtils.MockBlotChannel channel = TestBaseUtils.newChannel(9620, "localhost", 8888);
+    when(handler.slotManager.checkSlotAccess(anyInt(), anyLong(), anyLong()))
+        .thenReturn(TestBaseUtils.moved());
+    SlotAccessGenericResponse resp =
+        (SlotAccessGenericResponse) handler.doHandle(channel, request("testDc", "testDataId", 0));
+    Assert.assertFalse(resp.isSuccess());
+    Assert.assertEquals(resp.getSlotAccess().getStatus(), TestBaseUtils.moved().getStatus());
+  }
+
+  private static GetDataDeltaRequest request(
+      String dataCenter, String dataInfoId, long fromVersion) {
+    return request(dataCenter, dataInfoId, fromVersion, ServerEnv.IP, 1);
+  }
+
+  private static GetDataDeltaRequest request(
+      String dataCenter,
+      String dataInfoId,
+      long fromVersion,
+      String fromSlotLeader,
+      long fromSlotLeaderEpoch) {
+    return new GetDataDeltaRequest(
+        ServerEnv.PROCESS_ID,
+        dataInfoId,
+        dataCenter,
+        10,
+        fromVersion,
+        fromSlotLeader,
+        fromSlotLeaderEpoch);
+  }
+}
@@ -29,6 +29,7 @@ import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.remoting.ChannelHandler;
 import com.alipay.sofa.registry.server.data.TestBaseUtils;
 import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.cache.SubDatumCache;
 import com.alipay.sofa.registry.server.data.change.DataChangeEventCenter;
 import com.alipay.sofa.registry.server.data.lease.SessionLeaseManager;
 import com.alipay.sofa.registry.server.data.providedata.CompressDatumService;
@@ -74,6 +75,7 @@ public class GetDataHandlerTest {
     CompressDatumService compressDatumService = new CompressDatumService();
     handler.setDatumCache(datumCache);
     handler.setCompressDatumService(compressDatumService);
+    handler.setSubDatumCache(new SubDatumCache(10000, 1024 * 1024));
     handler.localDatumStorage = datumCache.getLocalDatumStorage();
     handler.dataChangeEventCenter = new DataChangeEventCenter();
     handler.dataServerConfig = TestBaseUtils.newDataConfig("testDc");
@@ -118,6 +120,19 @@ public class GetDataHandlerTest {
     Assert.assertEquals(
         subDatum.mustGetPublishers().get(0).getRegisterTimestamp(), pub.getRegisterTimestamp());
     Assert.assertEquals(subDatum.mustGetPublishers().get(0).getVersion(), pub.getVersion());
+
+    // the same version is shared
+    resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
+    Assert.assertSame(subDatum, resp.getData());
+
+    // the version changed
+    Publisher pub2 = TestBaseUtils.cloneBase(pub);
+    pub2.setRegisterId(pub.getRegisterId() + "-2");
+    handler.localDatumStorage.put(pub2);
+    resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
+    SubDatum subDatum2 = (SubDatum) resp.getData();
+    Assert.assertNotSame(subDatum, subDatum2);
+    Assert.assertEquals(subDatum2.mustGetPublishers().size(), 2);
   }
 
   @Test
@@ -24,7 +24,9 @@ import static org.mockito.Mockito.when;
 import com.alipay.sofa.registry.common.model.Node;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.dataserver.GetDataVersionRequest;
+import com.alipay.sofa.registry.common.model.dataserver.SlotVersions;
 import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.remoting.ChannelHandler;
 import com.alipay.sofa.registry.server.data.TestBaseUtils;
@@ -130,6 +132,43 @@ public class GetDataVersionsHandlerTest {
     Assert.assertEquals(retV.getValue(), putV);
   }
 
+  @Test
+  public void testHandleDigest() {
+    GetDataVersionsHandler handler = newHandler();
+    TestBaseUtils.MockBlotChannel channel = TestBaseUtils.newChannel(9620, "localhost", 8888);
+    when(handler.slotManager.checkSlotAccess(anyInt(), anyLong(), anyLong()))
+        .thenReturn(TestBaseUtils.accept());
+
+    Publisher pub = TestBaseUtils.createTestPublishers(10, 1).get(0);
+    handler.localDatumStorage.put(pub);
+    final int slotId = SlotFunctionRegistry.getFunc().slotOf(pub.getDataInfoId());
+    final long putV = handler.localDatumStorage.get(pub.getDataInfoId()).getVersion();
+
+    GetDataVersionRequest request =
+        request(Collections.singletonMap(pub.getDataInfoId(), new DatumVersion(putV)), slotId);
+    request.setReturnSlotDigest(true);
+    SlotAccessGenericResponse resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
+    Assert.assertTrue(resp.isSuccess());
+    SlotVersions versions = (SlotVersions) resp.getData();
+    Assert.assertEquals(versions.getVersions().size(), 0);
+    Assert.assertEquals(
+        versions.getDigest().longValue(),
+        SlotVersions.digest(Collections.singletonMap(pub.getDataInfoId(), new DatumVersion(putV))));
+
+    // digest only, not return the versions
+    request.setDigestOnly(true);
+    resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
+    Assert.assertTrue(resp.isSuccess());
+    SlotVersions digestOnly = (SlotVersions) resp.getData();
+    Assert.assertEquals(digestOnly.getVersions().size(), 0);
+    Assert.assertEquals(digestOnly.getDigest(), versions.getDigest());
+
+    // put a new publisher, the digest changes
+    handler.localDatumStorage.put(TestBaseUtils.createTestPublisher(pub.getDataId()));
+    resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
+    Assert.assertNotEquals(((SlotVersions) resp.getData()).getDigest(), versions.getDigest());
+  }
+
   @Test
   public void testHandleErrorSlotAccess() {
     GetDataVersionsHandler handler = newHandler();
@@ -27,6 +27,7 @@ import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherResult;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffUtils;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.remoting.exchange.message.Response;
 import com.alipay.sofa.registry.server.data.TestBaseUtils;
@@ -434,6 +435,73 @@ public class SlotDiffSyncerTest {
     Assert.assertEquals(datum4.getPubMap().get(p4.get(1).getRegisterId()), p4.get(1));
   }
 
+  @Test
+  public void testSyncLeaderBuckets() {
+    MockSync mockSync = mockSync(10, "testDc");
+    SlotDiffSyncer syncer = mockSync.syncer;
+    LocalDatumStorage storage = (LocalDatumStorage) syncer.getDatumStorage();
+    Assert.assertEquals(0, storage.getDataServerConfig().getSlotSyncDigestBucketNum());
+    storage.getDataServerConfig().setSlotSyncDigestBucketNum(64);
+
+    // the leader: update p1.0, remove p3.all, add p5
+    Map<String, Map<String, Publisher>> leader = Maps.newHashMap();
+    for (Map.Entry<String, Map<String, Publisher>> e : storage.getPublishers(10).entrySet()) {
+      leader.put(e.getKey(), Maps.newHashMap(e.getValue()));
+    }
+    Publisher p1Update = TestBaseUtils.cloneBase(mockSync.p1.get(0));
+    p1Update.setVersion(p1Update.getVersion() + 1);
+    leader.get(p1Update.getDataInfoId()).put(p1Update.getRegisterId(), p1Update);
+    leader.remove(mockSync.p3.get(0).getDataInfoId());
+    Publisher p5 = TestBaseUtils.createTestPublishers(10, 1).get(0);
+    leader.put(p5.getDataInfoId(), Collections.singletonMap(p5.getRegisterId(), p5));
+
+    List<Object> requests = Lists.newArrayList();
+    DataNodeExchanger exchanger = mock(DataNodeExchanger.class);
+    when(exchanger.requestRaw(anyString(), Matchers.anyObject()))
+        .thenAnswer(
+            invocation -> {
+              Object request = invocation.getArguments()[1];
+              requests.add(request);
+              final Object result;
+              if (request instanceof DataSlotDiffDigestRequest) {
+                result =
+                    DataSlotDiffUtils.diffDigestResult((DataSlotDiffDigestRequest) request, leader);
+              } else {
+                result =
+                    DataSlotDiffUtils.diffPublishersResult(
+                        ((DataSlotDiffPublisherRequest) request).getDatumSummaries(), leader, 1000);
+              }
+              return new Response() {
+                @Override
+                public Object getResult() {
+                  return new GenericResponse().fillSucceed(result);
+                }
+              };
+            });
+    Assert.assertTrue(syncer.syncSlotLeader(10, ServerEnv.IP, exchanger, 10, TRUE));
+    Assert.assertEquals(leader, storage.getPublishers(10));
+    // buckets digest, dataInfoId digest, publishers
+    Assert.assertEquals(3, requests.size());
+    DataSlotDiffDigestRequest bucketRequest = (DataSlotDiffDigestRequest) requests.get(0);
+    Assert.assertTrue(bucketRequest.getDatumDigest().isEmpty());
+    DataSlotDiffDigestRequest datumRequest = (DataSlotDiffDigestRequest) requests.get(1);
+    Assert.assertNull(datumRequest.getBucketDigests());
+    Assert.assertTrue(datumRequest.getBuckets().size() <= 3);
+
+    // all the buckets match, stop at the first level
+    requests.clear();
+    Assert.assertTrue(syncer.syncSlotLeader(10, ServerEnv.IP, exchanger, 10, TRUE));
+    Assert.assertEquals(1, requests.size());
+    Assert.assertEquals(leader, storage.getPublishers(10));
+
+    // not use buckets
+    storage.getDataServerConfig().setSlotSyncDigestBucketNum(0);
+    requests.clear();
+    Assert.assertTrue(syncer.syncSlotLeader(10, ServerEnv.IP, exchanger, 10, TRUE));
+    Assert.assertEquals(1, requests.size());
+    Assert.assertNull(((DataSlotDiffDigestRequest) requests.get(0)).getBucketDigests());
+  }
+
   private static <T extends ClientSideExchanger> T mockExchange(
       Class<T> c, Object result1, Class reqClazz1, Object result2, Class reqClazz2) {
     T exchanger = mock(c);
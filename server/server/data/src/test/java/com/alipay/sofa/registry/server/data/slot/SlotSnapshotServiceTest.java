@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.slot;
+
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.server.data.TestBaseUtils;
+import com.alipay.sofa.registry.server.data.cache.LocalDatumStorage;
+import com.alipay.sofa.registry.server.shared.env.ServerEnv;
+import com.google.common.collect.Lists;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SlotSnapshotServiceTest {
+
+  @Test
+  public void testSaveAndRestore() throws Exception {
+    final File dir = Files.createTempDirectory("slot-snapshot").toFile();
+    LocalDatumStorage storage = TestBaseUtils.newLocalStorage("testDc", false);
+    storage.getSlotChangeListener().onSlotAdd(0, Slot.Role.Leader);
+    storage.getSlotChangeListener().onSlotAdd(1, Slot.Role.Leader);
+    List<Publisher> pubs0 = TestBaseUtils.createTestPublishers(0, 3);
+    List<Publisher> pubs1 = TestBaseUtils.createTestPublishers(1, 2);
+    storage.put(pubs0.get(0).getDataInfoId(), pubs0);
+    storage.put(pubs1.get(0).getDataInfoId(), pubs1);
+
+    SlotSnapshotService service = newService(storage, dir);
+    Assert.assertEquals(service.save(), 0);
+    Assert.assertTrue(service.start());
+    Assert.assertTrue(service.getRestoredSlots().isEmpty());
+    service.record(newTable(1, 0, 1, 2));
+    // slot2 has no data, saved as empty
+    Assert.assertEquals(service.save(), 3);
+
+    // the stale snapshot of slot not assigned is removed
+    Assert.assertEquals(service.save(), 3);
+    service.record(newTable(2, 0, 1));
+    Assert.assertEquals(service.save(), 2);
+    Assert.assertEquals(dir.listFiles().length, 2);
+
+    LocalDatumStorage restored = TestBaseUtils.newLocalStorage("testDc", false);
+    SlotSnapshotService restoreService = newService(restored, dir);
+    Assert.assertTrue(restoreService.start());
+    Assert.assertEquals(restoreService.getRestoredSlots().size(), 2);
+    assertPublishers(restored.getPublishers(0), pubs0);
+    assertPublishers(restored.getPublishers(1), pubs1);
+
+    // slot1 is not assigned after restart
+    restoreService.record(newTable(3, 0));
+    Assert.assertTrue(restoreService.getRestoredSlots().isEmpty());
+    service.preDestroy();
+    restoreService.preDestroy();
+    assertPublishers(restored.getPublishers(0), pubs0);
+    Assert.assertTrue(restored.getPublishers(1).isEmpty());
+    Assert.assertNull(restored.put(pubs1.get(0)));
+  }
+
+  @Test
+  public void testExpiredAndBroken() throws Exception {
+    final File dir = Files.createTempDirectory("slot-snapshot").toFile();
+    LocalDatumStorage storage = TestBaseUtils.newLocalStorage("testDc", false);
+    storage.getSlotChangeListener().onSlotAdd(0, Slot.Role.Leader);
+    List<Publisher> pubs0 = TestBaseUtils.createTestPublishers(0, 3);
+    storage.put(pubs0.get(0).getDataInfoId(), pubs0);
+    SlotSnapshotService service = newService(storage, dir);
+    service.start();
+    service.record(newTable(1, 0));
+    Assert.assertEquals(service.save(), 1);
+
+    File file =
+        new File(dir, SlotSnapshotService.FILE_PREFIX + 0 + SlotSnapshotService.FILE_SUFFIX);
+    Assert.assertEquals(SlotSnapshotService.slotIdOf(file).intValue(), 0);
+    byte[] content = Files.readAllBytes(file.toPath());
+    content[content.length - 1]++;
+    Files.write(file.toPath(), content);
+    LocalDatumStorage restored = TestBaseUtils.newLocalStorage("testDc", false);
+    SlotSnapshotService restoreService = newService(restored, dir);
+    restoreService.start();
+    Assert.assertTrue(restoreService.getRestoredSlots().isEmpty());
+    Assert.assertTrue(restored.getPublishers(0).isEmpty());
+
+    // the version changed, the broken snapshot is rewritten
+    storage.put(TestBaseUtils.createTestPublishers(0, 1).get(0));
+    service.save();
+    restoreService = newService(restored, dir);
+    restored.getDataServerConfig().setSlotSnapshotMaxAgeSecs(-10);
+    restoreService.start();
+    Assert.assertTrue(restoreService.getRestoredSlots().isEmpty());
+    Assert.assertFalse(file.exists());
+  }
+
+  @Test
+  public void testSaveUnchanged() throws Exception {
+    final File dir = Files.createTempDirectory("slot-snapshot").toFile();
+    LocalDatumStorage storage = TestBaseUtils.newLocalStorage("testDc", false);
+    storage.getSlotChangeListener().onSlotAdd(0, Slot.Role.Leader);
+    List<Publisher> pubs0 = TestBaseUtils.createTestPublishers(0, 3);
+    storage.put(pubs0.get(0).getDataInfoId(), pubs0);
+    SlotSnapshotService service = newService(storage, dir);
+    service.start();
+    service.record(newTable(1, 0));
+    Assert.assertEquals(service.save(), 1);
+    File file =
+        new File(dir, SlotSnapshotService.FILE_PREFIX + 0 + SlotSnapshotService.FILE_SUFFIX);
+    SlotSnapshotService.SlotSnapshot snapshot = SlotSnapshotService.read(file);
+    Assert.assertEquals(snapshot.slotTableEpoch, 1);
+
+    // unchanged, only the header is refreshed
+    final byte[] content = Files.readAllBytes(file.toPath());
+    service.record(newTable(2, 0));
+    Assert.assertEquals(service.save(), 1);
+    snapshot = SlotSnapshotService.read(file);
+    Assert.assertEquals(snapshot.slotTableEpoch, 2);
+    Assert.assertEquals(snapshot.publishers.size(), 3);
+    final byte[] refreshed = Files.readAllBytes(file.toPath());
+    Assert.assertEquals(refreshed.length, content.length);
+    for (int i = SlotSnapshotService.HEADER_SIZE; i < content.length; i++) {
+      Assert.assertEquals(refreshed[i], content[i]);
+    }
+
+    // the file is missing, write it fully
+    Assert.assertTrue(file.delete());
+    Assert.assertEquals(service.save(), 1);
+    Assert.assertEquals(SlotSnapshotService.read(file).publishers.size(), 3);
+
+    // changed, rewrite the content
+    storage.put(TestBaseUtils.createTestPublishers(0, 1).get(0));
+    Assert.assertEquals(service.save(), 1);
+    Assert.assertEquals(SlotSnapshotService.read(file).publishers.size(), 4);
+  }
+
+  private static void assertPublishers(
+      Map<String, Map<String, Publisher>> restored, List<Publisher> expects) {
+    Map<String, Publisher> map = restored.get(expects.get(0).getDataInfoId());
+    Assert.assertEquals(map.size(), expects.size());
+    for (Publisher p : expects) {
+      Publisher r = map.get(p.getRegisterId());
+      Assert.assertEquals(r.getVersion(), p.getVersion());
+      Assert.assertEquals(r.getRegisterTimestamp(), p.getRegisterTimestamp());
+      Assert.assertEquals(r.getSessionProcessId(), p.getSessionProcessId());
+    }
+  }
+
+  private static SlotSnapshotService newService(LocalDatumStorage storage, File dir) {
+    SlotSnapshotService service = new SlotSnapshotService();
+    storage.getDataServerConfig().setSlotSnapshotDir(dir.getAbsolutePath());
+    storage.getDataServerConfig().setSlotSnapshotIntervalSecs(0);
+    service.setDataServerConfig(storage.getDataServerConfig());
+    service.setLocalDatumStorage(storage);
+    return service;
+  }
+
+  private static SlotTable newTable(long epoch, int... slotIds) {
+    List<Slot> slots = Lists.newArrayList();
+    for (int slotId : slotIds) {
+      slots.add(new Slot(slotId, ServerEnv.IP, epoch, Collections.emptyList()));
+    }
+    return new SlotTable(epoch, slots);
+  }
+}
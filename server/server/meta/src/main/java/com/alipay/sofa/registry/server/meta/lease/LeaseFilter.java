@@ -26,4 +26,11 @@ import com.alipay.sofa.registry.common.model.metaserver.Lease;
 public interface LeaseFilter<T extends Node> {
 
   boolean allowSelect(Lease<T> lease);
+
+  /**
+   * the version of the filter state, the filtered leases are reused until the version changes
+   *
+   * @return
+   */
+  long getVersion();
 }
@@ -84,6 +84,16 @@ public class DefaultForbiddenServerManager implements RegistryForbiddenServerMan
     return !servers.servers.contains(lease.getRenewal().getNodeUrl().getIpAddress());
   }
 
+  @Override
+  public long getVersion() {
+    DBResponse<PersistenceData> response =
+        provideDataService.queryProvideData(ValueConstants.REGISTRY_SERVER_BLACK_LIST_DATA_ID);
+    if (response.getOperationStatus() == OperationStatus.SUCCESS) {
+      return response.getEntity().getVersion();
+    }
+    return NOT_FOUND_VERSION;
+  }
+
   protected boolean store(ForbiddenServer servers) {
     PersistenceData persistence =
         PersistenceDataBuilder.createPersistenceData(
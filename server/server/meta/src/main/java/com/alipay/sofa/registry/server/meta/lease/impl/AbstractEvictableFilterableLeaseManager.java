@@ -22,6 +22,8 @@ import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
 import com.alipay.sofa.registry.server.meta.lease.LeaseFilter;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -34,17 +36,38 @@ public abstract class AbstractEvictableFilterableLeaseManager<T extends Node>
 
   @Autowired private List<LeaseFilter> leaseFilters;
 
+  private volatile FilteredLeaseMeta<T> filteredLeaseMeta;
+
+  /**
+   * the filtered snapshot is shared until the raw snapshot (reset on the membership change) or the
+   * version of any filter changes
+   */
   @Override
   public VersionedList<Lease<T>> getLeaseMeta() {
-    if (leaseFilters == null || leaseFilters.isEmpty()) {
+    final List<LeaseFilter> filters = leaseFilters;
+    if (filters == null || filters.isEmpty()) {
       return super.getLeaseMeta();
     }
-    VersionedList<Lease<T>> rawVersionedList = super.getLeaseMeta();
+    // the versions are read before the filtering, any change after it would miss the cache
+    final long[] filterVersions = new long[filters.size()];
+    for (int i = 0; i < filterVersions.length; i++) {
+      filterVersions[i] = filters.get(i).getVersion();
+    }
+    final VersionedList<Lease<T>> rawVersionedList = super.getLeaseMeta();
+    final FilteredLeaseMeta<T> cached = filteredLeaseMeta;
+    if (cached != null
+        && cached.raw == rawVersionedList
+        && Arrays.equals(cached.filterVersions, filterVersions)) {
+      return cached.filtered;
+    }
     List<Lease<T>> leaseList = rawVersionedList.getClusterMembers();
-    for (LeaseFilter filter : leaseFilters) {
+    for (LeaseFilter filter : filters) {
       leaseList = filterOut(leaseList, filter);
     }
-    return new VersionedList<>(rawVersionedList.getEpoch(), leaseList);
+    final VersionedList<Lease<T>> filtered =
+        new VersionedList<>(rawVersionedList.getEpoch(), Collections.unmodifiableList(leaseList));
+    this.filteredLeaseMeta = new FilteredLeaseMeta<>(rawVersionedList, filterVersions, filtered);
+    return filtered;
   }
 
   protected List<Lease<T>> filterOut(List<Lease<T>> inputs, LeaseFilter filter) {
@@ -57,10 +80,24 @@ public abstract class AbstractEvictableFilterableLeaseManager<T extends Node>
     return leases;
   }
 
+  private static final class FilteredLeaseMeta<T extends Node> {
+    final VersionedList<Lease<T>> raw;
+    final long[] filterVersions;
+    final VersionedList<Lease<T>> filtered;
+
+    FilteredLeaseMeta(
+        VersionedList<Lease<T>> raw, long[] filterVersions, VersionedList<Lease<T>> filtered) {
+      this.raw = raw;
+      this.filterVersions = filterVersions;
+      this.filtered = filtered;
+    }
+  }
+
   @VisibleForTesting
   protected AbstractEvictableFilterableLeaseManager<T> setLeaseFilters(
       List<LeaseFilter> leaseFilters) {
     this.leaseFilters = leaseFilters;
+    this.filteredLeaseMeta = null;
     return this;
   }
 }
@@ -25,7 +25,6 @@ import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.meta.lease.Evictable;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
-import com.google.common.collect.Lists;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -41,6 +40,8 @@ public abstract class AbstractEvictableLeaseManager<T extends Node>
 
   private final EvictTask evictTask = new EvictTask();
 
+  private final LeaseExpiryIndex<T> expiryIndex = new LeaseExpiryIndex<>();
+
   @Override
   public void doInitialize() throws InitializeException {
     super.doInitialize();
@@ -53,6 +54,13 @@ public abstract class AbstractEvictableLeaseManager<T extends Node>
     super.doDispose();
   }
 
+  @Override
+  public void register(Lease<T> lease) {
+    super.register(lease);
+    // the lease is dropped lazily from the index if it's not put into the table
+    expiryIndex.add(lease);
+  }
+
   @Override
   public void evict() {
     if (lastEvictTime.get() + getEvictBetweenMilli() > System.currentTimeMillis()) {
@@ -79,13 +87,9 @@ public abstract class AbstractEvictableLeaseManager<T extends Node>
   }
 
   protected List<Lease<T>> getExpiredLeases() {
-    List<Lease<T>> expires = Lists.newLinkedList();
-    for (Lease<T> lease : getLeaseMeta().getClusterMembers()) {
-      if (lease.isExpired()) {
-        expires.add(lease);
-      }
-    }
-    return expires;
+    return expiryIndex.getExpired(
+        System.currentTimeMillis(),
+        lease -> localRepo.get(lease.getRenewal().getNodeUrl().getIpAddress()) == lease);
   }
 
   protected abstract int getEvictBetweenMilli();
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.lease.impl;
+
+import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.metaserver.Lease;
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * the leases ordered by the expire timestamp. the lease is not reordered on renew, the renewed
+ * lease is rescheduled to the new expire timestamp when its stale entry is due, so the renew keeps
+ * O(1) and the poll only visits the due entries. the entries of the removed leases are dropped
+ * lazily
+ */
+final class LeaseExpiryIndex<T extends Node> {
+  private final PriorityQueue<Entry<T>> queue =
+      new PriorityQueue<>(256, (a, b) -> Long.compare(a.expireTimestamp, b.expireTimestamp));
+
+  synchronized void add(Lease<T> lease) {
+    queue.add(new Entry<>(lease, lease.getExpireTimestamp()));
+  }
+
+  /**
+   * the expired leases are kept in the index until they are removed from the lease table, so the
+   * failed evictions are retried
+   *
+   * @param now the current timestamp
+   * @param isCurrent the lease is still in the lease table
+   * @return the expired leases
+   */
+  synchronized List<Lease<T>> getExpired(long now, Predicate<Lease<T>> isCurrent) {
+    List<Lease<T>> expires = Lists.newArrayList();
+    List<Entry<T>> reschedules = Lists.newArrayList();
+    Entry<T> e;
+    while ((e = queue.peek()) != null && e.expireTimestamp < now) {
+      queue.poll();
+      if (!isCurrent.test(e.lease)) {
+        continue;
+      }
+      final long expireTimestamp = e.lease.getExpireTimestamp();
+      if (expireTimestamp < now) {
+        expires.add(e.lease);
+      }
+      reschedules.add(
+          expireTimestamp == e.expireTimestamp ? e : new Entry<>(e.lease, expireTimestamp));
+    }
+    queue.addAll(reschedules);
+    return expires;
+  }
+
+  synchronized int size() {
+    return queue.size();
+  }
+
+  private static final class Entry<T extends Node> {
+    final Lease<T> lease;
+    final long expireTimestamp;
+
+    Entry(Lease<T> lease, long expireTimestamp) {
+      this.lease = lease;
+      this.expireTimestamp = expireTimestamp;
+    }
+  }
+}
@@ -27,6 +27,7 @@ import com.alipay.sofa.registry.util.DatumVersionUtil;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -47,6 +48,9 @@ public class SimpleLeaseManager<T extends Node> extends AbstractLifecycleObserva
 
   protected final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
+  // the snapshot of the leases, reset on the membership change
+  private volatile VersionedList<Lease<T>> leaseMeta;
+
   protected void register(Lease<T> lease) {
     if (lease == null) {
       throw new IllegalArgumentException("[register]NullPointer of lease");
@@ -58,6 +62,7 @@ public class SimpleLeaseManager<T extends Node> extends AbstractLifecycleObserva
       String nodeIp = lease.getRenewal().getNodeUrl().getIpAddress();
       localRepo.putIfAbsent(nodeIp, lease);
       refreshEpoch(DatumVersionUtil.nextId());
+      this.leaseMeta = null;
     } finally {
       lock.writeLock().unlock();
     }
@@ -75,6 +80,7 @@ public class SimpleLeaseManager<T extends Node> extends AbstractLifecycleObserva
       result = localRepo.remove(lease.getRenewal().getNodeUrl().getIpAddress(), lease);
       logger.info("[cancel][end] {}", result);
       refreshEpoch(DatumVersionUtil.nextId());
+      this.leaseMeta = null;
     } finally {
       lock.writeLock().unlock();
     }
@@ -118,11 +124,26 @@ public class SimpleLeaseManager<T extends Node> extends AbstractLifecycleObserva
     return localRepo.get(renewal.getNodeUrl().getIpAddress());
   }
 
+  /**
+   * the snapshot is shared until the membership changes, the leases in it are renewed in place
+   *
+   * @return the unmodifiable snapshot of the leases
+   */
   @Override
   public VersionedList<Lease<T>> getLeaseMeta() {
+    VersionedList<Lease<T>> meta = leaseMeta;
+    if (meta != null) {
+      return meta;
+    }
     lock.readLock().lock();
     try {
-      return new VersionedList<>(getEpoch(), getClusterMembers());
+      // the writers are blocked, the snapshot is consistent with the epoch
+      meta = leaseMeta;
+      if (meta == null) {
+        meta = new VersionedList<>(getEpoch(), Collections.unmodifiableList(getClusterMembers()));
+        this.leaseMeta = meta;
+      }
+      return meta;
     } finally {
       lock.readLock().unlock();
     }
@@ -133,6 +154,7 @@ public class SimpleLeaseManager<T extends Node> extends AbstractLifecycleObserva
     if (currentEpoch.get() < newEpoch) {
       logger.info("[refreshEpoch] epoch change from {} to {}", currentEpoch.get(), newEpoch);
       currentEpoch.set(newEpoch);
+      this.leaseMeta = null;
       return true;
     } else {
       logger.info(
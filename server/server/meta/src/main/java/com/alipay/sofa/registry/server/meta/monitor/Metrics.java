@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.server.meta.monitor;
 
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import io.prometheus.client.Counter;
 import io.prometheus.client.Gauge;
 import io.prometheus.client.Histogram;
 
@@ -77,6 +78,40 @@ public class Metrics {
             .labelNames("session_server")
             .register();
 
+    private static final Histogram BATCH_SIZE_HISTOGRAM =
+        Histogram.build()
+            .namespace("meta")
+            .subsystem("heartbeat")
+            .name("batch_size")
+            .help("heartbeat batch size")
+            .buckets(1, 2, 4, 8, 16, 32, 64, 128, 256, 512)
+            .register();
+
+    private static final Counter SLOT_TABLE_COUNTER =
+        Counter.build()
+            .namespace("meta")
+            .subsystem("heartbeat")
+            .name("slot_table_total")
+            .help("slot table returned by heartbeat, full or delta")
+            .labelNames("type")
+            .register();
+
+    private static final Counter.Child SLOT_TABLE_DELTA_COUNTER =
+        SLOT_TABLE_COUNTER.labels("delta");
+    private static final Counter.Child SLOT_TABLE_FULL_COUNTER = SLOT_TABLE_COUNTER.labels("full");
+
+    public static void onBatch(int size) {
+      BATCH_SIZE_HISTOGRAM.observe(size);
+    }
+
+    public static void onSlotTableDelta(boolean delta) {
+      if (delta) {
+        SLOT_TABLE_DELTA_COUNTER.inc();
+      } else {
+        SLOT_TABLE_FULL_COUNTER.inc();
+      }
+    }
+
     public static void onDataHeartbeat(String dataServer) {
       try {
         DATA_HEART_BEAT_GUAGE.labels(dataServer).set(1);
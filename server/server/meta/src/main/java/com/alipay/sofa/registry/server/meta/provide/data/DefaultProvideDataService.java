@@ -16,8 +16,10 @@
  */
 package com.alipay.sofa.registry.server.meta.provide.data;
 
+import com.alipay.sofa.registry.common.model.Node.NodeType;
 import com.alipay.sofa.registry.common.model.console.PersistenceData;
 import com.alipay.sofa.registry.common.model.console.PersistenceDataBuilder;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideDataChangeEvent;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.meta.MetaLeaderService;
@@ -25,10 +27,17 @@ import com.alipay.sofa.registry.store.api.DBResponse;
 import com.alipay.sofa.registry.store.api.meta.ProvideDataRepository;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -40,7 +49,9 @@ public class DefaultProvideDataService implements ProvideDataService {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DefaultProvideDataService.class);
 
-  private Map<String, PersistenceData> provideDataCache = new ConcurrentHashMap<>();
+  private final Map<String, PersistenceData> provideDataCache = new ConcurrentHashMap<>();
+
+  private volatile boolean loaded;
 
   private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
@@ -50,6 +61,8 @@ public class DefaultProvideDataService implements ProvideDataService {
 
   @Autowired private ProvideDataRepository provideDataRepository;
 
+  @Autowired private ProvideDataNotifier provideDataNotifier;
+
   @PostConstruct
   public void init() {
     ConcurrentUtils.createDaemonThread("provideData_refresh", refresher).start();
@@ -73,17 +86,84 @@ public class DefaultProvideDataService implements ProvideDataService {
     if (!metaLeaderService.amILeader()) {
       return;
     }
-    Map<String, PersistenceData> provideDatas = provideDataRepository.getAll();
-
+    if (!loaded) {
+      loadAll();
+      return;
+    }
+    // only the keys and versions are loaded, the values of the changed keys are queried one by one
+    final Map<String, Long> versions = provideDataRepository.getAllVersions();
+    final Map<String, PersistenceData> changes = Maps.newHashMap();
+    for (Map.Entry<String, PersistenceData> e : provideDataCache.entrySet()) {
+      if (!versions.containsKey(e.getKey())) {
+        changes.put(e.getKey(), e.getValue());
+      }
+    }
+    for (Map.Entry<String, Long> e : versions.entrySet()) {
+      PersistenceData exist = provideDataCache.get(e.getKey());
+      if (exist == null || exist.getVersion() != e.getValue()) {
+        changes.put(e.getKey(), exist);
+      }
+    }
+    if (changes.isEmpty()) {
+      return;
+    }
+    final List<ProvideDataChangeEvent> events = Lists.newArrayListWithCapacity(changes.size());
+    for (Map.Entry<String, PersistenceData> e : changes.entrySet()) {
+      final String key = e.getKey();
+      final PersistenceData exist = e.getValue();
+      final PersistenceData data =
+          versions.containsKey(key) ? provideDataRepository.get(key) : null;
+      lock.writeLock().lock();
+      try {
+        // changed by save/remove concurrently, the next refresh will check it again
+        if (provideDataCache.get(key) != exist) {
+          continue;
+        }
+        if (data == null) {
+          if (exist == null) {
+            continue;
+          }
+          provideDataCache.remove(key);
+          events.add(new ProvideDataChangeEvent(key, exist.getVersion(), refreshNodeTypes()));
+        } else {
+          provideDataCache.put(key, data);
+          events.add(new ProvideDataChangeEvent(key, data.getVersion(), refreshNodeTypes()));
+        }
+      } catch (Throwable t) {
+        LOGGER.error("refresh provide data: {} error.", key, t);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
     LOGGER.info(
-        "refresh provide data, old size: {}, new size: {}",
+        "refresh provide data, size: {}, changes: {}",
         provideDataCache.size(),
-        provideDatas.size());
+        events.stream().map(ProvideDataChangeEvent::getDataInfoId).collect(Collectors.toList()));
+    for (ProvideDataChangeEvent event : events) {
+      provideDataNotifier.notifyProvideDataChange(event);
+    }
+  }
+
+  /** the key maybe consumed by the session or the data, e.g. the compress switch of data */
+  private static Set<NodeType> refreshNodeTypes() {
+    return Sets.newHashSet(NodeType.SESSION, NodeType.DATA);
+  }
+
+  private void loadAll() {
+    Map<String, PersistenceData> provideDatas = provideDataRepository.getAll();
+
+    LOGGER.info("load provide data, size: {}", provideDatas.size());
     lock.writeLock().lock();
     try {
-      provideDataCache = provideDatas;
+      provideDataCache.clear();
+      for (Map.Entry<String, PersistenceData> e : provideDatas.entrySet()) {
+        if (e.getValue() != null) {
+          provideDataCache.put(e.getKey(), e.getValue());
+        }
+      }
+      loaded = true;
     } catch (Throwable t) {
-      LOGGER.error("refresh provide data error.", t);
+      LOGGER.error("load provide data error.", t);
     } finally {
       lock.writeLock().unlock();
     }
@@ -211,4 +291,21 @@ public class DefaultProvideDataService implements ProvideDataService {
     }
     return success;
   }
+
+  @VisibleForTesting
+  void refresh() {
+    provideDataRefresh();
+  }
+
+  @VisibleForTesting
+  DefaultProvideDataService setProvideDataRepository(ProvideDataRepository provideDataRepository) {
+    this.provideDataRepository = provideDataRepository;
+    return this;
+  }
+
+  @VisibleForTesting
+  DefaultProvideDataService setProvideDataNotifier(ProvideDataNotifier provideDataNotifier) {
+    this.provideDataNotifier = provideDataNotifier;
+    return this;
+  }
 }
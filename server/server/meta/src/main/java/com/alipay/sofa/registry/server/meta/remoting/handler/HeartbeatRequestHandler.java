@@ -26,6 +26,7 @@ import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
 import com.alipay.sofa.registry.common.model.slot.SlotConfig;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
 import com.alipay.sofa.registry.exception.SofaRegistryMetaLeaderException;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
@@ -33,11 +34,14 @@ import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.server.meta.MetaLeaderService;
 import com.alipay.sofa.registry.server.meta.bootstrap.config.NodeConfig;
 import com.alipay.sofa.registry.server.meta.metaserver.impl.DefaultCurrentDcMetaServer;
+import com.alipay.sofa.registry.server.meta.monitor.Metrics;
 import com.alipay.sofa.registry.server.meta.monitor.data.DataMessageListener;
 import com.alipay.sofa.registry.server.meta.monitor.heartbeat.HeartbeatListener;
 import com.alipay.sofa.registry.server.meta.monitor.session.SessionMessageListener;
 import com.alipay.sofa.registry.server.shared.slot.SlotTableUtils;
+import com.google.common.collect.Maps;
 import java.util.List;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -62,6 +66,16 @@ public class HeartbeatRequestHandler extends BaseMetaServerHandler<HeartbeatRequ
 
   @Autowired private NodeConfig nodeConfig;
 
+  private static final int MAX_BATCH_SIZE = 512;
+
+  private static final int MAX_DELTA_SLOT_TABLES = 16;
+
+  private final RequestBatcher<HeartbeatRequest<Node>, HeartbeatContent> renewBatcher =
+      new RequestBatcher<>(MAX_BATCH_SIZE, this::renewBatch);
+
+  private final SlotTableDeltaCache slotTableDeltaCache =
+      new SlotTableDeltaCache(MAX_DELTA_SLOT_TABLES);
+
   /**
    * Do handle object.
    *
@@ -74,39 +88,42 @@ public class HeartbeatRequestHandler extends BaseMetaServerHandler<HeartbeatRequ
     boolean success = false;
     final Node renewNode = heartbeat.getNode();
     try {
-      onHeartbeat(heartbeat, channel);
+      new DefaultHeartbeatListener(nodeConfig.getLocalDataCenter(), channel).onHeartbeat(heartbeat);
+      // the renewals arrived at the same time are applied in one batch
+      final RequestBatcher.Pending<HeartbeatRequest<Node>, HeartbeatContent> pending =
+          renewBatcher.submit(heartbeat);
+      if (pending.error != null) {
+        throw pending.error;
+      }
 
-      SlotTable slotTable = currentDcMetaServer.getSlotTable();
-      if (!SlotTableUtils.isValidSlotTable(slotTable)) {
+      final HeartbeatContent content = pending.result;
+      if (!content.validSlotTable) {
         return new GenericResponse<BaseHeartBeatResponse>()
             .fillFailed("slot-table not valid, check meta-server log for detail");
       }
       BaseHeartBeatResponse response = null;
-
-      final VersionedList<MetaNode> metaServerInfo = currentDcMetaServer.getClusterMeta();
-      final VersionedList<SessionNode> sessionMetaInfo =
-          currentDcMetaServer.getSessionServerManager().getSessionServerMetaInfo();
-
       switch (renewNode.getNodeType()) {
         case SESSION:
         case DATA:
+          final SlotTableDelta delta = slotTableDeltaOf(heartbeat, content.slotTable);
           response =
               new BaseHeartBeatResponse(
-                  true,
-                  metaServerInfo,
-                  slotTable,
-                  sessionMetaInfo,
-                  metaLeaderService.getLeader(),
-                  metaLeaderService.getLeaderEpoch());
+                      true,
+                      content.metaServerInfo,
+                      delta == null ? content.slotTable : null,
+                      content.sessionMetaInfo,
+                      content.leader,
+                      content.leaderEpoch)
+                  .setSlotTableDelta(delta);
           break;
         case META:
           response =
               new BaseHeartBeatResponse(
                   true,
-                  metaServerInfo,
-                  slotTable,
-                  metaLeaderService.getLeader(),
-                  metaLeaderService.getLeaderEpoch());
+                  content.metaServerInfo,
+                  content.slotTable,
+                  content.leader,
+                  content.leaderEpoch);
           break;
         default:
           break;
@@ -133,20 +150,81 @@ public class HeartbeatRequestHandler extends BaseMetaServerHandler<HeartbeatRequ
     }
   }
 
+  /**
+   * renew the nodes of the batch, the heartbeats of the same node are coalesced. the listeners are
+   * notified before the content of response is computed once for the batch
+   */
+  void renewBatch(List<RequestBatcher.Pending<HeartbeatRequest<Node>, HeartbeatContent>> batch) {
+    Metrics.Heartbeat.onBatch(batch.size());
+    // the latest heartbeat of the node is applied
+    Map<String, HeartbeatRequest<Node>> renewals = Maps.newLinkedHashMap();
+    for (RequestBatcher.Pending<HeartbeatRequest<Node>, HeartbeatContent> p : batch) {
+      renewals.put(nodeKey(p.request.getNode()), p.request);
+    }
+    Map<String, Throwable> errors = Maps.newHashMap();
+    for (Map.Entry<String, HeartbeatRequest<Node>> e : renewals.entrySet()) {
+      try {
+        renew(e.getValue());
+      } catch (Throwable t) {
+        errors.put(e.getKey(), t);
+      }
+    }
+    for (RequestBatcher.Pending<HeartbeatRequest<Node>, HeartbeatContent> p : batch) {
+      if (!errors.containsKey(nodeKey(p.request.getNode()))) {
+        onMessageListeners(p.request);
+      }
+    }
+    final HeartbeatContent content = newHeartbeatContent();
+    for (RequestBatcher.Pending<HeartbeatRequest<Node>, HeartbeatContent> p : batch) {
+      Throwable t = errors.get(nodeKey(p.request.getNode()));
+      if (t != null) {
+        p.fail(t);
+      } else {
+        p.success(content);
+      }
+    }
+  }
+
+  private HeartbeatContent newHeartbeatContent() {
+    final SlotTable slotTable = currentDcMetaServer.getSlotTable();
+    if (SlotTableUtils.isValidSlotTable(slotTable)) {
+      slotTableDeltaCache.record(slotTable);
+    }
+    return new HeartbeatContent(
+        slotTable,
+        SlotTableUtils.isValidSlotTable(slotTable),
+        currentDcMetaServer.getClusterMeta(),
+        currentDcMetaServer.getSessionServerManager().getSessionServerMetaInfo(),
+        metaLeaderService.getLeader(),
+        metaLeaderService.getLeaderEpoch());
+  }
+
+  /** only the changed slots are returned to the node which has a recent slot table */
+  private SlotTableDelta slotTableDeltaOf(HeartbeatRequest<Node> heartbeat, SlotTable slotTable) {
+    if (!heartbeat.isAcceptSlotTableDelta() || heartbeat.getSlotTable() == null) {
+      return null;
+    }
+    final SlotTableDelta delta =
+        slotTableDeltaCache.deltaOf(heartbeat.getSlotTable().getEpoch(), slotTable);
+    Metrics.Heartbeat.onSlotTableDelta(delta != null);
+    return delta;
+  }
+
+  private static String nodeKey(Node node) {
+    return node.getNodeType() + ":" + node.getNodeUrl().getIpAddress();
+  }
+
   @SuppressWarnings("unchecked")
-  private void onHeartbeat(HeartbeatRequest heartbeat, Channel channel) {
-    new DefaultHeartbeatListener(nodeConfig.getLocalDataCenter(), channel).onHeartbeat(heartbeat);
+  private void renew(HeartbeatRequest heartbeat) {
     Node node = heartbeat.getNode();
     switch (node.getNodeType()) {
       case SESSION:
         currentDcMetaServer
             .getSessionServerManager()
             .renew((SessionNode) node, heartbeat.getDuration());
-        onSessionHeartbeat(heartbeat);
         return;
       case DATA:
         currentDcMetaServer.getDataServerManager().renew((DataNode) node, heartbeat.getDuration());
-        onDataHeartbeat(heartbeat);
         return;
       case META:
         currentDcMetaServer.renew((MetaNode) node);
@@ -157,6 +235,44 @@ public class HeartbeatRequestHandler extends BaseMetaServerHandler<HeartbeatRequ
     throw new IllegalArgumentException("node type not correct: " + node.getNodeType());
   }
 
+  @SuppressWarnings("unchecked")
+  private void onMessageListeners(HeartbeatRequest heartbeat) {
+    switch (heartbeat.getNode().getNodeType()) {
+      case SESSION:
+        onSessionHeartbeat(heartbeat);
+        return;
+      case DATA:
+        onDataHeartbeat(heartbeat);
+        return;
+      default:
+        break;
+    }
+  }
+
+  static final class HeartbeatContent {
+    final SlotTable slotTable;
+    final boolean validSlotTable;
+    final VersionedList<MetaNode> metaServerInfo;
+    final VersionedList<SessionNode> sessionMetaInfo;
+    final String leader;
+    final long leaderEpoch;
+
+    HeartbeatContent(
+        SlotTable slotTable,
+        boolean validSlotTable,
+        VersionedList<MetaNode> metaServerInfo,
+        VersionedList<SessionNode> sessionMetaInfo,
+        String leader,
+        long leaderEpoch) {
+      this.slotTable = slotTable;
+      this.validSlotTable = validSlotTable;
+      this.metaServerInfo = metaServerInfo;
+      this.sessionMetaInfo = sessionMetaInfo;
+      this.leader = leader;
+      this.leaderEpoch = leaderEpoch;
+    }
+  }
+
   private void onSessionHeartbeat(HeartbeatRequest<SessionNode> heartbeat) {
     if (sessionMessageListeners == null || sessionMessageListeners.isEmpty()) {
       return;
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.remoting.handler;
+
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * apply the requests in batches by flat combining: the request is queued, one of the waiting
+ * threads drains the queue and applies the batch for all of them, the others wait for the result.
+ * the batch is large when many requests arrive at the same time, and no thread is added
+ */
+final class RequestBatcher<T, R> {
+  private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final Queue<Pending<T, R>> queue = new ConcurrentLinkedQueue<>();
+  private final ReentrantLock combineLock = new ReentrantLock();
+  private final Consumer<List<Pending<T, R>>> processor;
+  private final int maxBatchSize;
+
+  RequestBatcher(int maxBatchSize, Consumer<List<Pending<T, R>>> processor) {
+    ParaCheckUtil.checkIsPositive(maxBatchSize, "maxBatchSize");
+    this.maxBatchSize = maxBatchSize;
+    this.processor = processor;
+  }
+
+  /**
+   * block until the request has been applied
+   *
+   * @param request the request
+   * @return the pending with the result or the error
+   */
+  Pending<T, R> submit(T request) {
+    final Pending<T, R> pending = new Pending<>(request, Thread.currentThread());
+    queue.add(pending);
+    while (!pending.done) {
+      if (combineLock.tryLock()) {
+        try {
+          // the pending maybe done by the previous combiner
+          while (!pending.done) {
+            combine();
+          }
+        } finally {
+          combineLock.unlock();
+        }
+      } else {
+        LockSupport.parkNanos(this, PARK_NANOS);
+      }
+    }
+    return pending;
+  }
+
+  private void combine() {
+    final List<Pending<T, R>> batch = Lists.newArrayListWithCapacity(16);
+    Pending<T, R> p;
+    while (batch.size() < maxBatchSize && (p = queue.poll()) != null) {
+      batch.add(p);
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+    try {
+      processor.accept(batch);
+    } catch (Throwable e) {
+      for (Pending<T, R> pending : batch) {
+        if (pending.error == null && pending.result == null) {
+          pending.error = e;
+        }
+      }
+    } finally {
+      for (Pending<T, R> pending : batch) {
+        pending.done = true;
+        LockSupport.unpark(pending.thread);
+      }
+    }
+  }
+
+  static final class Pending<T, R> {
+    final T request;
+    final Thread thread;
+    volatile boolean done;
+    volatile R result;
+    volatile Throwable error;
+
+    Pending(T request, Thread thread) {
+      this.request = request;
+      this.thread = thread;
+    }
+
+    void success(R result) {
+      this.result = result;
+    }
+
+    void fail(Throwable error) {
+      this.error = error;
+    }
+  }
+}
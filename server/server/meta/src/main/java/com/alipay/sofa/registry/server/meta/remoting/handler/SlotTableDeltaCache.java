@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.remoting.handler;
+
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.google.common.collect.Maps;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * the recent slot tables by epoch. the delta from a recent epoch to the current slot table is
+ * computed once and shared by the heartbeats of the nodes at the same epoch, the unknown epoch gets
+ * no delta and the full slot table is returned
+ */
+public final class SlotTableDeltaCache {
+  private final int maxTables;
+
+  private final LinkedHashMap<Long, SlotTable> tables = Maps.newLinkedHashMap();
+
+  private final Map<Long, SlotTableDelta> deltas = Maps.newHashMap();
+
+  private SlotTable current = SlotTable.INIT;
+
+  public SlotTableDeltaCache(int maxTables) {
+    ParaCheckUtil.checkIsPositive(maxTables, "maxTables");
+    this.maxTables = maxTables;
+  }
+
+  public synchronized void record(SlotTable slotTable) {
+    if (slotTable.getEpoch() == current.getEpoch()) {
+      return;
+    }
+    if (slotTable.getEpoch() < current.getEpoch()) {
+      // the epoch rollback, e.g. the leader changed, the history is useless
+      tables.clear();
+    }
+    deltas.clear();
+    tables.put(slotTable.getEpoch(), slotTable);
+    Iterator<Long> it = tables.keySet().iterator();
+    while (tables.size() > maxTables && it.hasNext()) {
+      it.next();
+      it.remove();
+    }
+    current = slotTable;
+  }
+
+  /**
+   * @param fromEpoch the epoch of the slot table of node
+   * @param to the slot table to return
+   * @return the delta, null if the fromEpoch is unknown or the to is not the current
+   */
+  public synchronized SlotTableDelta deltaOf(long fromEpoch, SlotTable to) {
+    if (to != current || current == SlotTable.INIT || fromEpoch > current.getEpoch()) {
+      return null;
+    }
+    SlotTableDelta delta = deltas.get(fromEpoch);
+    if (delta != null) {
+      return delta;
+    }
+    final SlotTable from = tables.get(fromEpoch);
+    if (from == null) {
+      return null;
+    }
+    delta = SlotTableDelta.diff(from, current);
+    deltas.put(fromEpoch, delta);
+    return delta;
+  }
+}
@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.server.meta.lease.impl;
 
 import com.alipay.sofa.registry.common.model.metaserver.Lease;
+import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
 import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
 import com.alipay.sofa.registry.server.meta.lease.LeaseFilter;
 import com.alipay.sofa.registry.server.meta.lease.filter.DefaultForbiddenServerManager;
@@ -62,9 +63,26 @@ public class AbstractEvictableFilterableLeaseManagerTest extends AbstractMetaSer
     }
     SimpleNode node = new SimpleNode(randomIp());
     leaseManager.renew(node, 100);
-    Assert.assertEquals(nodeNum + 1, leaseManager.getLeaseMeta().getClusterMembers().size());
+    VersionedList meta = leaseManager.getLeaseMeta();
+    Assert.assertEquals(nodeNum + 1, meta.getClusterMembers().size());
+    // unchanged, the filtered snapshot is shared
+    Assert.assertSame(meta, leaseManager.getLeaseMeta());
+    leaseManager.renew(node, 100);
+    Assert.assertSame(meta, leaseManager.getLeaseMeta());
+
+    // the filter changed
     forbiddenServerManager.addToBlacklist(node.getNodeUrl().getIpAddress());
-    Assert.assertEquals(nodeNum, leaseManager.getLeaseMeta().getClusterMembers().size());
+    meta = leaseManager.getLeaseMeta();
+    Assert.assertEquals(nodeNum, meta.getClusterMembers().size());
+    Assert.assertSame(meta, leaseManager.getLeaseMeta());
+
+    // the membership changed
+    leaseManager.renew(new SimpleNode(randomIp()), 100);
+    Assert.assertNotSame(meta, leaseManager.getLeaseMeta());
+    Assert.assertEquals(nodeNum + 1, leaseManager.getLeaseMeta().getClusterMembers().size());
+
+    forbiddenServerManager.removeFromBlacklist(node.getNodeUrl().getIpAddress());
+    Assert.assertEquals(nodeNum + 2, leaseManager.getLeaseMeta().getClusterMembers().size());
   }
 
   @Test
@@ -82,6 +100,11 @@ public class AbstractEvictableFilterableLeaseManagerTest extends AbstractMetaSer
               public boolean allowSelect(Lease<SimpleNode> lease) {
                 return !lease.getRenewal().getNodeUrl().getIpAddress().startsWith("10.0.0");
               }
+
+              @Override
+              public long getVersion() {
+                return 0;
+              }
             });
     Assert.assertEquals(1, leases.size());
   }
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.lease.impl;
+
+import com.alipay.sofa.registry.common.model.metaserver.Lease;
+import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
+import com.google.common.collect.Sets;
+import java.util.List;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LeaseExpiryIndexTest extends AbstractMetaServerTestBase {
+
+  @Test
+  public void testExpired() {
+    LeaseExpiryIndex<SimpleNode> index = new LeaseExpiryIndex<>();
+    Lease<SimpleNode> expired = new Lease<>(new SimpleNode(randomIp()), 1);
+    Lease<SimpleNode> renewed = new Lease<>(new SimpleNode(randomIp()), 1);
+    Lease<SimpleNode> removed = new Lease<>(new SimpleNode(randomIp()), 1);
+    Lease<SimpleNode> alive = new Lease<>(new SimpleNode(randomIp()), 100);
+    index.add(expired);
+    index.add(renewed);
+    index.add(removed);
+    index.add(alive);
+    final Set<Lease<SimpleNode>> current = Sets.newHashSet(expired, renewed, alive);
+
+    renewed.renew(10);
+    final long now = System.currentTimeMillis() + 2000;
+    List<Lease<SimpleNode>> expires = index.getExpired(now, current::contains);
+    Assert.assertEquals(1, expires.size());
+    Assert.assertTrue(expires.get(0) == expired);
+    // the removed is dropped, the expired is kept until removed
+    Assert.assertEquals(3, index.size());
+    Assert.assertTrue(index.getExpired(now, current::contains).get(0) == expired);
+
+    current.remove(expired);
+    Assert.assertTrue(index.getExpired(now, current::contains).isEmpty());
+    Assert.assertEquals(2, index.size());
+
+    // the renewed lease is rescheduled to the new expire timestamp
+    expires = index.getExpired(System.currentTimeMillis() + 20 * 1000, current::contains);
+    Assert.assertEquals(1, expires.size());
+    Assert.assertTrue(expires.get(0) == renewed);
+    Assert.assertEquals(2, index.size());
+  }
+}
@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.server.meta.lease.impl;
 import static org.junit.Assert.*;
 
 import com.alipay.sofa.registry.common.model.metaserver.Lease;
+import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
 import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
 import com.alipay.sofa.registry.util.DatumVersionUtil;
 import org.junit.Assert;
@@ -62,6 +63,27 @@ public class SimpleLeaseManagerTest extends AbstractMetaServerTestBase {
     Assert.assertEquals(1, leaseManager.localRepo.size());
   }
 
+  @Test
+  public void testLeaseMetaCached() {
+    SimpleNode node = new SimpleNode(randomIp());
+    leaseManager.register(new Lease<>(node, 1000));
+    VersionedList<Lease<SimpleNode>> meta = leaseManager.getLeaseMeta();
+    Assert.assertEquals(1, meta.getClusterMembers().size());
+    // renew not changes the membership
+    leaseManager.renew(new SimpleNode(node.getNodeUrl().getIpAddress()), 10);
+    Assert.assertTrue(meta == leaseManager.getLeaseMeta());
+
+    leaseManager.register(new Lease<>(new SimpleNode(randomIp()), 1000));
+    VersionedList<Lease<SimpleNode>> registered = leaseManager.getLeaseMeta();
+    Assert.assertEquals(2, registered.getClusterMembers().size());
+    Assert.assertTrue(registered.getEpoch() > meta.getEpoch());
+
+    leaseManager.cancel(leaseManager.getLease(node));
+    VersionedList<Lease<SimpleNode>> canceled = leaseManager.getLeaseMeta();
+    Assert.assertEquals(1, canceled.getClusterMembers().size());
+    Assert.assertTrue(canceled.getEpoch() > registered.getEpoch());
+  }
+
   @Test
   public void testRefreshEpoch() {
     Assert.assertTrue(leaseManager.refreshEpoch(DatumVersionUtil.nextId()));
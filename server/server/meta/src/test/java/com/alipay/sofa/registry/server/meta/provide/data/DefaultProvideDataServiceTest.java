@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.provide.data;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.alipay.sofa.registry.common.model.Node.NodeType;
+import com.alipay.sofa.registry.common.model.console.PersistenceData;
+import com.alipay.sofa.registry.common.model.console.PersistenceDataBuilder;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideDataChangeEvent;
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.server.meta.MetaLeaderService;
+import com.alipay.sofa.registry.store.api.meta.ProvideDataRepository;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class DefaultProvideDataServiceTest {
+  private static final String A = DataInfo.toDataInfoId("a", "DEFAULT", "DEFAULT");
+  private static final String B = DataInfo.toDataInfoId("b", "DEFAULT", "DEFAULT");
+
+  private DefaultProvideDataService service = new DefaultProvideDataService();
+
+  @Mock private ProvideDataRepository provideDataRepository;
+
+  @Mock private ProvideDataNotifier provideDataNotifier;
+
+  @Mock private MetaLeaderService metaLeaderService;
+
+  @Before
+  public void beforeDefaultProvideDataServiceTest() {
+    MockitoAnnotations.initMocks(this);
+    service
+        .setProvideDataRepository(provideDataRepository)
+        .setProvideDataNotifier(provideDataNotifier);
+    service.metaLeaderService = metaLeaderService;
+    when(metaLeaderService.amILeader()).thenReturn(true);
+  }
+
+  @Test
+  public void testRefresh() {
+    PersistenceData a1 = newData(A, 1);
+    when(provideDataRepository.getAll()).thenReturn(Collections.singletonMap(A, a1));
+    service.refresh();
+    Assert.assertEquals(a1, service.queryProvideData(A).getEntity());
+    verify(provideDataNotifier, never()).notifyProvideDataChange(any());
+
+    // not changed, only the versions are loaded
+    Map<String, Long> versions = Maps.newHashMap();
+    versions.put(A, 1L);
+    when(provideDataRepository.getAllVersions()).thenReturn(versions);
+    service.refresh();
+    verify(provideDataRepository, times(1)).getAll();
+    verify(provideDataRepository, never()).get(anyString());
+    verify(provideDataNotifier, never()).notifyProvideDataChange(any());
+
+    PersistenceData a2 = newData(A, 2);
+    PersistenceData b1 = newData(B, 1);
+    versions.put(A, 2L);
+    versions.put(B, 1L);
+    when(provideDataRepository.get(A)).thenReturn(a2);
+    when(provideDataRepository.get(B)).thenReturn(b1);
+    service.refresh();
+    Assert.assertEquals(a2, service.queryProvideData(A).getEntity());
+    Assert.assertEquals(b1, service.queryProvideData(B).getEntity());
+    verify(provideDataRepository, times(2)).get(anyString());
+    ArgumentCaptor<ProvideDataChangeEvent> captor =
+        ArgumentCaptor.forClass(ProvideDataChangeEvent.class);
+    verify(provideDataNotifier, times(2)).notifyProvideDataChange(captor.capture());
+    // the data node also consumes the provide data
+    Assert.assertEquals(
+        Sets.newHashSet(NodeType.SESSION, NodeType.DATA), captor.getValue().getNodeTypes());
+
+    versions.remove(A);
+    service.refresh();
+    Assert.assertNull(service.queryProvideData(A).getEntity());
+    Assert.assertEquals(b1, service.queryProvideData(B).getEntity());
+    verify(provideDataRepository, times(2)).get(anyString());
+    verify(provideDataNotifier, times(3)).notifyProvideDataChange(any());
+  }
+
+  @Test
+  public void testNotLeader() {
+    when(metaLeaderService.amILeader()).thenReturn(false);
+    service.refresh();
+    verify(provideDataRepository, never()).getAll();
+    verify(provideDataRepository, never()).getAllVersions();
+  }
+
+  private static PersistenceData newData(String dataInfoId, long version) {
+    PersistenceData data = PersistenceDataBuilder.createPersistenceData(dataInfoId, "val");
+    data.setVersion(version);
+    return data;
+  }
+}
@@ -20,9 +20,11 @@ import static org.mockito.Mockito.*;
 
 import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.BaseHeartBeatResponse;
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.HeartbeatRequest;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.DataNode;
 import com.alipay.sofa.registry.common.model.slot.SlotConfig;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
 import com.alipay.sofa.registry.server.meta.MetaLeaderService;
@@ -31,6 +33,8 @@ import com.alipay.sofa.registry.server.meta.lease.data.DataServerManager;
 import com.alipay.sofa.registry.server.meta.lease.session.SessionServerManager;
 import com.alipay.sofa.registry.server.meta.metaserver.impl.DefaultCurrentDcMetaServer;
 import com.alipay.sofa.registry.server.meta.slot.manager.DefaultSlotManager;
+import com.google.common.collect.Lists;
+import java.util.List;
 import java.util.concurrent.TimeoutException;
 import org.junit.Assert;
 import org.junit.Before;
@@ -83,6 +87,41 @@ public class HeartbeatRequestHandlerTest extends AbstractMetaServerTestBase {
     Assert.assertTrue(((GenericResponse) handler.doHandle(channel, heartbeat)).isSuccess());
   }
 
+  @Test
+  public void testDoHandleSlotTableDelta() throws TimeoutException, InterruptedException {
+    makeMetaLeader();
+    SlotTable slotTable = randomSlotTable(randomDataNodes(3));
+    when(currentDcMetaServer.getSlotTable()).thenReturn(slotTable);
+    HeartbeatRequest<Node> heartbeat =
+        new HeartbeatRequest<Node>(
+                new DataNode(randomURL(randomIp()), getDc()),
+                slotTable.getEpoch(),
+                getDc(),
+                System.currentTimeMillis(),
+                new SlotConfig.SlotBasicInfo(
+                    SlotConfig.SLOT_NUM, SlotConfig.SLOT_REPLICAS, SlotConfig.FUNC))
+            .setSlotTable(slotTable);
+    // not accept the delta
+    BaseHeartBeatResponse response =
+        ((GenericResponse<BaseHeartBeatResponse>) handler.doHandle(channel, heartbeat)).getData();
+    Assert.assertEquals(slotTable, response.getSlotTable());
+    Assert.assertNull(response.getSlotTableDelta());
+
+    heartbeat.setAcceptSlotTableDelta(true);
+    response =
+        ((GenericResponse<BaseHeartBeatResponse>) handler.doHandle(channel, heartbeat)).getData();
+    Assert.assertNull(response.getSlotTable());
+    Assert.assertTrue(response.getSlotTableDelta().isEmpty());
+    Assert.assertEquals(slotTable, response.getSlotTableDelta().apply(slotTable));
+
+    // the epoch of node is unknown
+    heartbeat.setSlotTable(SlotTable.INIT);
+    response =
+        ((GenericResponse<BaseHeartBeatResponse>) handler.doHandle(channel, heartbeat)).getData();
+    Assert.assertEquals(slotTable, response.getSlotTable());
+    Assert.assertNull(response.getSlotTableDelta());
+  }
+
   @Test
   public void testDoHandleWithErrDC() throws TimeoutException, InterruptedException {
     makeMetaLeader();
@@ -136,6 +175,36 @@ public class HeartbeatRequestHandlerTest extends AbstractMetaServerTestBase {
     verify(channel, times(3)).close();
   }
 
+  @Test
+  public void testRenewBatch() throws TimeoutException, InterruptedException {
+    makeMetaLeader();
+    slotManager.refresh(randomSlotTable(randomDataNodes(3)));
+    DataNode dataNode = new DataNode(randomURL(randomIp()), getDc());
+    List<RequestBatcher.Pending<HeartbeatRequest<Node>, HeartbeatRequestHandler.HeartbeatContent>>
+        batch = Lists.newArrayList();
+    for (int i = 0; i < 3; i++) {
+      HeartbeatRequest<Node> heartbeat =
+          new HeartbeatRequest<>(
+              dataNode,
+              0,
+              getDc(),
+              System.currentTimeMillis(),
+              new SlotConfig.SlotBasicInfo(
+                  SlotConfig.SLOT_NUM, SlotConfig.SLOT_REPLICAS, SlotConfig.FUNC));
+      batch.add(new RequestBatcher.Pending<>(heartbeat, Thread.currentThread()));
+    }
+    handler.renewBatch(batch);
+    // the renewals of the same node are coalesced
+    verify(dataServerManager, times(1)).renew(any(DataNode.class), anyInt());
+    verify(currentDcMetaServer, times(1)).getSlotTable();
+    HeartbeatRequestHandler.HeartbeatContent content = batch.get(0).result;
+    Assert.assertTrue(content.validSlotTable);
+    for (RequestBatcher.Pending p : batch) {
+      Assert.assertNull(p.error);
+      Assert.assertTrue(p.result == content);
+    }
+  }
+
   @Test
   public void testInterest() {
     Assert.assertEquals(HeartbeatRequest.class, handler.interest());
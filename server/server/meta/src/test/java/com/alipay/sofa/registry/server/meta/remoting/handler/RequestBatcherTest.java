@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.remoting.handler;
+
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RequestBatcherTest {
+
+  @Test
+  public void testBatch() throws Exception {
+    final int count = 8;
+    final CountDownLatch submitted = new CountDownLatch(count);
+    final AtomicInteger processed = new AtomicInteger();
+    final AtomicInteger maxBatchSize = new AtomicInteger();
+    RequestBatcher<Integer, Integer> batcher =
+        new RequestBatcher<>(
+            100,
+            batch -> {
+              // hold the first batch until all the requests are queued
+              try {
+                submitted.await(3, TimeUnit.SECONDS);
+                Thread.sleep(50);
+              } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+              }
+              maxBatchSize.set(Math.max(maxBatchSize.get(), batch.size()));
+              for (RequestBatcher.Pending<Integer, Integer> p : batch) {
+                processed.incrementAndGet();
+                p.success(p.request * 2);
+              }
+            });
+    ExecutorService executor = Executors.newFixedThreadPool(count);
+    List<RequestBatcher.Pending<Integer, Integer>> results = Lists.newCopyOnWriteArrayList();
+    for (int i = 0; i < count; i++) {
+      final int request = i;
+      executor.execute(
+          () -> {
+            submitted.countDown();
+            results.add(batcher.submit(request));
+          });
+    }
+    executor.shutdown();
+    Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    Assert.assertEquals(results.size(), count);
+    Assert.assertEquals(processed.get(), count);
+    Assert.assertTrue(maxBatchSize.get() > 1);
+    for (RequestBatcher.Pending<Integer, Integer> p : results) {
+      Assert.assertTrue(p.done);
+      Assert.assertNull(p.error);
+      Assert.assertEquals(p.result.intValue(), p.request * 2);
+    }
+  }
+
+  @Test
+  public void testError() {
+    RequestBatcher<Integer, Integer> batcher =
+        new RequestBatcher<>(
+            1,
+            batch -> {
+              throw new IllegalStateException("mock");
+            });
+    RequestBatcher.Pending<Integer, Integer> p = batcher.submit(1);
+    Assert.assertTrue(p.done);
+    Assert.assertNull(p.result);
+    Assert.assertTrue(p.error instanceof IllegalStateException);
+  }
+}
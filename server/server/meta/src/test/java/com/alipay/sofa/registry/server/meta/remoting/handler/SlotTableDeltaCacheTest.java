@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.remoting.handler;
+
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SlotTableDeltaCacheTest {
+
+  private static SlotTable newTable(long epoch, String leader) {
+    return new SlotTable(
+        epoch,
+        Lists.newArrayList(
+            new Slot(0, "a", 1, Collections.emptySet()),
+            new Slot(1, leader, epoch, Collections.emptySet())));
+  }
+
+  @Test
+  public void testDelta() {
+    SlotTableDeltaCache cache = new SlotTableDeltaCache(2);
+    SlotTable t1 = newTable(1, "a");
+    Assert.assertNull(cache.deltaOf(1, t1));
+
+    cache.record(t1);
+    SlotTableDelta delta = cache.deltaOf(1, t1);
+    Assert.assertTrue(delta.isEmpty());
+    Assert.assertEquals(1, delta.getEpoch());
+
+    SlotTable t2 = newTable(2, "b");
+    cache.record(t2);
+    delta = cache.deltaOf(1, t2);
+    Assert.assertEquals(Lists.newArrayList(t2.getSlot(1)), delta.getChangedSlots());
+    Assert.assertEquals(t2, delta.apply(t1));
+    // the delta is shared
+    Assert.assertSame(delta, cache.deltaOf(1, t2));
+    // not the current table
+    Assert.assertNull(cache.deltaOf(1, t1));
+    // unknown epoch
+    Assert.assertNull(cache.deltaOf(0, t2));
+    Assert.assertNull(cache.deltaOf(3, t2));
+
+    SlotTable t3 = newTable(3, "c");
+    cache.record(t3);
+    // evicted
+    Assert.assertNull(cache.deltaOf(1, t3));
+    Assert.assertEquals(t3, cache.deltaOf(2, t3).apply(t2));
+
+    // epoch rollback, the history is cleared
+    cache.record(t1);
+    Assert.assertNull(cache.deltaOf(2, t1));
+    Assert.assertTrue(cache.deltaOf(1, t1).isEmpty());
+  }
+}
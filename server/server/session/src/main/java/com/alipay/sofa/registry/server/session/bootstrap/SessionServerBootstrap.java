@@ -27,6 +27,7 @@ import com.alipay.sofa.registry.metrics.ReporterUtils;
 import com.alipay.sofa.registry.metrics.TaskMetrics;
 import com.alipay.sofa.registry.net.NetUtil;
 import com.alipay.sofa.registry.remoting.ChannelHandler;
+import com.alipay.sofa.registry.remoting.SerializedPayload;
 import com.alipay.sofa.registry.remoting.Server;
 import com.alipay.sofa.registry.remoting.bolt.serializer.ProtobufCustomSerializer;
 import com.alipay.sofa.registry.remoting.bolt.serializer.ProtobufSerializer;
@@ -406,6 +407,7 @@ public class SessionServerBootstrap {
         RegisterResponsePb.class.getName(), serializer);
     CustomSerializerManager.registerCustomSerializer(ResultPb.class.getName(), serializer);
     CustomSerializerManager.registerCustomSerializer(ReceivedDataPb.class.getName(), serializer);
+    CustomSerializerManager.registerCustomSerializer(SerializedPayload.class.getName(), serializer);
     CustomSerializerManager.registerCustomSerializer(
         ReceivedConfigDataPb.class.getName(), serializer);
 
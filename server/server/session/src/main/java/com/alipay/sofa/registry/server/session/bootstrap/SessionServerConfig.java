@@ -127,6 +127,8 @@ public interface SessionServerConfig extends ServerShareConfig {
 
   int getDataNodeMaxBatchSize();
 
+  int getDataNodeMaxInflightBatches();
+
   double getAccessLimitRate();
 
   int getDataClientConnNum();
@@ -190,4 +192,8 @@ public interface SessionServerConfig extends ServerShareConfig {
   int getScanWatcherIntervalMillis();
 
   boolean isGracefulShutdown();
+
+  boolean isDataDeltaFetchEnable();
+
+  boolean isPushDeltaEnable();
 }
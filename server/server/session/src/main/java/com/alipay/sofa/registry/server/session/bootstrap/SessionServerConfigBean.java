@@ -131,6 +131,8 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
   private int dataNodeMaxBatchSize = 100;
 
+  private int dataNodeMaxInflightBatches = 16;
+
   private int scanSubscriberIntervalMillis = 1000 * 5;
 
   private double accessLimitRate = 30000.0;
@@ -211,6 +213,10 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
   private boolean gracefulShutdown = false;
 
+  private boolean dataDeltaFetchEnable = true;
+
+  private boolean pushDeltaEnable = true;
+
   /**
    * constructor
    *
@@ -933,6 +939,15 @@ public class SessionServerConfigBean implements SessionServerConfig {
     this.dataNodeMaxBatchSize = dataNodeMaxBatchSize;
   }
 
+  @Override
+  public int getDataNodeMaxInflightBatches() {
+    return dataNodeMaxInflightBatches;
+  }
+
+  public void setDataNodeMaxInflightBatches(int dataNodeMaxInflightBatches) {
+    this.dataNodeMaxInflightBatches = dataNodeMaxInflightBatches;
+  }
+
   @Override
   public int getCacheCountIntervalSecs() {
     return cacheCountIntervalSecs;
@@ -1261,6 +1276,24 @@ public class SessionServerConfigBean implements SessionServerConfig {
     this.gracefulShutdown = gracefulShutdown;
   }
 
+  @Override
+  public boolean isDataDeltaFetchEnable() {
+    return dataDeltaFetchEnable;
+  }
+
+  public void setDataDeltaFetchEnable(boolean dataDeltaFetchEnable) {
+    this.dataDeltaFetchEnable = dataDeltaFetchEnable;
+  }
+
+  @Override
+  public boolean isPushDeltaEnable() {
+    return pushDeltaEnable;
+  }
+
+  public void setPushDeltaEnable(boolean pushDeltaEnable) {
+    this.pushDeltaEnable = pushDeltaEnable;
+  }
+
   public void setScanWatcherIntervalMillis(int scanWatcherIntervalMillis) {
     this.scanWatcherIntervalMillis = scanWatcherIntervalMillis;
   }
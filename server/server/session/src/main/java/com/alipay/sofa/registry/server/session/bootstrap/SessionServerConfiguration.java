@@ -184,6 +184,7 @@ public class SessionServerConfiguration {
       Collection<AbstractServerHandler> list = new ArrayList<>();
       list.add(publisherHandler());
       list.add(subscriberHandler());
+      list.add(batchRegisterHandler());
       list.add(watcherHandler());
       list.add(clientNodeConnectionHandler());
       list.add(syncConfigHandler());
@@ -234,6 +235,11 @@ public class SessionServerConfiguration {
       return new SubscriberHandler();
     }
 
+    @Bean
+    public AbstractServerHandler batchRegisterHandler() {
+      return new BatchRegisterHandler();
+    }
+
     @Bean
     public AbstractServerHandler watcherHandler() {
       return new WatcherHandler();
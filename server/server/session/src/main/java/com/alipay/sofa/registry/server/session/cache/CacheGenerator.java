@@ -29,4 +29,15 @@ public interface CacheGenerator {
    * @return
    */
   Value generatePayload(Key key);
+
+  /**
+   * generator cache based on the stale value
+   *
+   * @param key
+   * @param stale
+   * @return
+   */
+  default Value generatePayload(Key key, Value stale) {
+    return generatePayload(key);
+  }
 }
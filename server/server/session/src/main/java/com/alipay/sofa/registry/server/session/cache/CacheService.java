@@ -32,6 +32,16 @@ public interface CacheService {
 
   Value getValueIfPresent(Key key);
 
+  /**
+   * invalidate the stale value and load again, the generator could load the increment based on the
+   * stale value
+   *
+   * @param key
+   * @param stale
+   * @return
+   */
+  Value reload(Key key, Value stale) throws CacheAccessException;
+
   /**
    * invalidate cache by key
    *
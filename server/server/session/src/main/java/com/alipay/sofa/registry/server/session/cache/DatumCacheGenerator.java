@@ -19,7 +19,9 @@ package com.alipay.sofa.registry.server.session.cache;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
+import com.alipay.sofa.registry.server.session.node.service.FetchedDatum;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -32,8 +34,15 @@ public class DatumCacheGenerator implements CacheGenerator {
   /** DataNode service */
   @Autowired DataNodeService dataNodeService;
 
+  @Autowired SessionServerConfig sessionServerConfig;
+
   @Override
   public Value generatePayload(Key key) {
+    return generatePayload(key, null);
+  }
+
+  @Override
+  public Value generatePayload(Key key, Value stale) {
     EntityType entityType = key.getEntityType();
     if (entityType instanceof DatumKey) {
       DatumKey datumKey = (DatumKey) entityType;
@@ -42,23 +51,35 @@ public class DatumCacheGenerator implements CacheGenerator {
       final String dataInfoId = datumKey.getDataInfoId();
       ParaCheckUtil.checkNotBlank(dataCenter, "dataCenter");
       ParaCheckUtil.checkNotBlank(dataInfoId, "dataInfoId");
+      final FetchedDatum base =
+          stale instanceof DatumValue ? ((DatumValue) stale).getFetched() : null;
       final long now = System.currentTimeMillis();
-      SubDatum datum = dataNodeService.fetch(dataInfoId, dataCenter);
+      final FetchedDatum fetched = fetch(dataInfoId, dataCenter, base);
+      final SubDatum datum = fetched.getDatum();
       final long span = System.currentTimeMillis() - now;
       if (datum == null) {
         LOGGER.info("loadNil,{},{},span={}", dataInfoId, dataCenter, span);
       } else {
         LOGGER.info(
-            "loadD,{},{},{},{},{},span={}",
+            "loadD,{},{},{},{},{},base={},span={}",
             dataInfoId,
             dataCenter,
             datum.getPubNum(),
             datum.getDataBoxBytes(),
             datum.getVersion(),
+            base == null || base.getDatum() == null ? null : base.getDatum().getVersion(),
             span);
       }
-      return new Value((SubDatum) datum);
+      return new DatumValue(fetched);
     }
     throw new IllegalArgumentException("unsupported key type:" + entityType);
   }
+
+  private FetchedDatum fetch(String dataInfoId, String dataCenter, FetchedDatum base) {
+    if (base == null || !sessionServerConfig.isDataDeltaFetchEnable()) {
+      return dataNodeService.fetchDatum(dataInfoId, dataCenter);
+    }
+    // fallback to the full datum if the data server not support the delta
+    return dataNodeService.fetchDelta(dataInfoId, dataCenter, base);
+  }
 }
@@ -75,12 +75,15 @@ public class SessionCacheService implements CacheService {
   }
 
   private Value generatePayload(Key key) {
+    return getCacheGenerator(key).generatePayload(key);
+  }
+
+  private CacheGenerator getCacheGenerator(Key key) {
     ParaCheckUtil.checkNotNull(key, "generatePayload.key");
     ParaCheckUtil.checkNotNull(key.getEntityType(), "generatePayload.key.entityType");
 
     EntityType entityType = key.getEntityType();
-    CacheGenerator cacheGenerator = cacheGenerators.get(entityType.getClass().getName());
-    return cacheGenerator.generatePayload(key);
+    return cacheGenerators.get(entityType.getClass().getName());
   }
 
   @Override
@@ -98,6 +101,18 @@ public class SessionCacheService implements CacheService {
     return readWriteCacheMap.getIfPresent(key);
   }
 
+  @Override
+  public Value reload(Key key, Value stale) throws CacheAccessException {
+    readWriteCacheMap.invalidate(key);
+    try {
+      // the concurrent getValue waits for the loading
+      return readWriteCacheMap.get(key, () -> getCacheGenerator(key).generatePayload(key, stale));
+    } catch (Throwable e) {
+      String msg = "Cannot reload value for key is:" + key;
+      throw new CacheAccessException(msg, e);
+    }
+  }
+
   @Override
   public void invalidate(Key key) {
     readWriteCacheMap.invalidate(key);
@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Predicate;
 
 /**
@@ -105,6 +106,112 @@ public final class ReceivedDataConverter {
     return new PushData<>(receivedData, dataCount);
   }
 
+  /**
+   * the delta of unzipDatum based on unzipBase, the data contains the added boxes and the
+   * removedData contains the removed boxes, a changed publisher is treated as removed and added
+   *
+   * @return null if the delta is not smaller than the full push
+   */
+  public static PushData<ReceivedData> getReceivedDataDelta(
+      SubDatum unzipBase,
+      SubDatum unzipDatum,
+      ScopeEnum scope,
+      List<String> subscriberRegisterIdList,
+      String regionLocal,
+      Predicate<String> zonePredicate) {
+    unzipBase.mustUnzipped();
+    unzipDatum.mustUnzipped();
+    Map<String, SubPublisher> basePublishers = new HashMap<>();
+    for (SubPublisher publisher : unzipBase.mustGetPublishers()) {
+      if (!zonePredicate.test(publisher.getCell())) {
+        basePublishers.put(publisher.getRegisterId(), publisher);
+      }
+    }
+    Map<String /*zone*/, List<DataBox>> added = new HashMap<>();
+    Map<String /*zone*/, List<DataBox>> removed = new HashMap<>();
+    int dataCount = 0;
+    int deltaCount = 0;
+    for (SubPublisher publisher : unzipDatum.mustGetPublishers()) {
+      if (zonePredicate.test(publisher.getCell())) {
+        continue;
+      }
+      final List<ServerDataBox> datas = publisher.getDataList();
+      final int size = datas == null ? 0 : datas.size();
+      dataCount += size;
+      final SubPublisher exist = basePublishers.remove(publisher.getRegisterId());
+      if (isSamePublisher(exist, publisher)) {
+        continue;
+      }
+      if (exist != null) {
+        deltaCount += fillZoneDatas(removed, exist);
+      }
+      if (size != 0) {
+        fillRegionDatas(added.computeIfAbsent(publisher.getCell(), k -> new ArrayList<>()), datas);
+        deltaCount += size;
+      }
+    }
+    for (SubPublisher publisher : basePublishers.values()) {
+      deltaCount += fillZoneDatas(removed, publisher);
+    }
+    if (deltaCount >= dataCount) {
+      return null;
+    }
+    ReceivedData receivedData = new ReceivedData();
+    receivedData.setDataId(unzipDatum.getDataId());
+    receivedData.setGroup(unzipDatum.getGroup());
+    receivedData.setInstanceId(unzipDatum.getInstanceId());
+    receivedData.setSubscriberRegistIds(subscriberRegisterIdList);
+    receivedData.setSegment(unzipDatum.getDataCenter());
+    receivedData.setScope(scope.name());
+    receivedData.setVersion(unzipDatum.getVersion());
+    receivedData.setBaseVersion(unzipBase.getVersion());
+    receivedData.setLocalZone(regionLocal);
+    receivedData.setData(added);
+    receivedData.setRemovedData(removed);
+    return new PushData<>(receivedData, dataCount);
+  }
+
+  /**
+   * copy the received data with the subscribers, the data is shared with the template
+   *
+   * @param template the template
+   * @param subscriberRegisterIdList the subscriber register id list
+   * @return received data
+   */
+  public static ReceivedData copyOf(ReceivedData template, List<String> subscriberRegisterIdList) {
+    ReceivedData receivedData = new ReceivedData();
+    receivedData.setDataId(template.getDataId());
+    receivedData.setGroup(template.getGroup());
+    receivedData.setInstanceId(template.getInstanceId());
+    receivedData.setSubscriberRegistIds(subscriberRegisterIdList);
+    receivedData.setSegment(template.getSegment());
+    receivedData.setScope(template.getScope());
+    receivedData.setVersion(template.getVersion());
+    receivedData.setBaseVersion(template.getBaseVersion());
+    receivedData.setLocalZone(template.getLocalZone());
+    receivedData.setData(template.getData());
+    receivedData.setRemovedData(template.getRemovedData());
+    return receivedData;
+  }
+
+  private static boolean isSamePublisher(SubPublisher exist, SubPublisher publisher) {
+    if (exist == publisher) {
+      return true;
+    }
+    return exist != null
+        && exist.registerVersion().equals(publisher.registerVersion())
+        && Objects.equals(exist.getCell(), publisher.getCell());
+  }
+
+  private static int fillZoneDatas(Map<String, List<DataBox>> zoneDatas, SubPublisher publisher) {
+    final List<ServerDataBox> datas = publisher.getDataList();
+    if (datas == null || datas.isEmpty()) {
+      return 0;
+    }
+    fillRegionDatas(zoneDatas.computeIfAbsent(publisher.getCell(), k -> new ArrayList<>()), datas);
+    return datas.size();
+  }
+
   private static void fillRegionDatas(List<DataBox> regionDatas, List<ServerDataBox> datas) {
     for (ServerDataBox data : datas) {
       DataBox box = new DataBox();
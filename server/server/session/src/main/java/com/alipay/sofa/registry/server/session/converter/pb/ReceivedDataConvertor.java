@@ -21,7 +21,9 @@ import com.alipay.sofa.registry.compress.*;
 import com.alipay.sofa.registry.core.model.ReceivedConfigData;
 import com.alipay.sofa.registry.core.model.ReceivedData;
 import com.alipay.sofa.registry.util.SystemUtils;
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.UnsafeByteOperations;
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -56,6 +58,11 @@ public final class ReceivedDataConvertor {
     receivedData.setSubscriberRegistIds(
         ListStringConvertor.convert2Java(receivedDataPb.getSubscriberRegistIdsList()));
     receivedData.setVersion(receivedDataPb.getVersion());
+    if (receivedDataPb.getBaseVersion() != 0) {
+      receivedData.setBaseVersion(receivedDataPb.getBaseVersion());
+      receivedData.setRemovedData(
+          DataBoxConvertor.convert2JavaMaps(receivedDataPb.getRemovedDataMap()));
+    }
 
     return receivedData;
   }
@@ -121,12 +128,48 @@ public final class ReceivedDataConvertor {
       Map<String, DataBoxesPb> dataBoxesPbMap =
           DataBoxConvertor.convert2PbMaps(receivedDataJava.getData());
       builder.putAllData(dataBoxesPbMap);
+      if (receivedDataJava.getBaseVersion() != null) {
+        builder
+            .setBaseVersion(receivedDataJava.getBaseVersion())
+            .putAllRemovedData(DataBoxConvertor.convert2PbMaps(receivedDataJava.getRemovedData()));
+      }
       return builder.build();
     } catch (Throwable e) {
       throw new IllegalStateException(e);
     }
   }
 
+  /**
+   * append the subscriberRegistIds to the serialized ReceivedDataPb, the repeated field of the
+   * concatenated messages is merged when parsing, so the serialized template is not re-encoded
+   *
+   * @param serialized the serialized ReceivedDataPb without subscriberRegistIds
+   * @param subscriberRegistIds the subscriberRegistIds
+   * @return the serialized ReceivedDataPb
+   */
+  public static byte[] appendSubscriberRegistIds(
+      byte[] serialized, List<String> subscriberRegistIds) {
+    int size = serialized.length;
+    for (String registId : subscriberRegistIds) {
+      size +=
+          CodedOutputStream.computeStringSize(
+              ReceivedDataPb.SUBSCRIBERREGISTIDS_FIELD_NUMBER, registId);
+    }
+    final byte[] bytes = new byte[size];
+    System.arraycopy(serialized, 0, bytes, 0, serialized.length);
+    CodedOutputStream output =
+        CodedOutputStream.newInstance(bytes, serialized.length, size - serialized.length);
+    try {
+      for (String registId : subscriberRegistIds) {
+        output.writeString(ReceivedDataPb.SUBSCRIBERREGISTIDS_FIELD_NUMBER, registId);
+      }
+      output.checkNoSpaceLeft();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return bytes;
+  }
+
   public static ReceivedConfigDataPb convert2Pb(ReceivedConfigData receivedConfigData) {
 
     if (receivedConfigData == null) {
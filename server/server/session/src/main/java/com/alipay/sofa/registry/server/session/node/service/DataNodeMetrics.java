@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.node.service;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+
+public final class DataNodeMetrics {
+  private DataNodeMetrics() {}
+
+  static final Gauge INFLIGHT_BATCH_GAUGE =
+      Gauge.build()
+          .namespace("session")
+          .subsystem("data_req")
+          .name("inflight_batch")
+          .help("the batch requests to data in flight")
+          .register();
+
+  private static final Counter BATCH_COUNTER =
+      Counter.build()
+          .namespace("session")
+          .subsystem("data_req")
+          .name("batch_total")
+          .help("batch requests to data total")
+          .labelNames("result")
+          .register();
+
+  static final Counter.Child BATCH_SUCCESS_COUNTER = BATCH_COUNTER.labels("Y");
+  static final Counter.Child BATCH_FAIL_COUNTER = BATCH_COUNTER.labels("N");
+  static final Counter.Child BATCH_DROP_COUNTER = BATCH_COUNTER.labels("drop");
+
+  private static final Histogram BATCH_HISTOGRAM =
+      Histogram.build()
+          .namespace("session")
+          .subsystem("data_req")
+          .name("batch_millis")
+          .help("batch request to data in millis")
+          .buckets(5, 10, 20, 50, 100, 200, 500, 1000, 3000)
+          .register();
+
+  static void observeBatch(long millis) {
+    BATCH_HISTOGRAM.observe(millis);
+  }
+}
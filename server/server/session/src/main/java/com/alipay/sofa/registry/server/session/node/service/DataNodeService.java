@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.server.session.node.service;
 
 import com.alipay.sofa.registry.common.model.ClientOffPublishers;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.dataserver.SlotVersions;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.remoting.exchange.ExchangeCallback;
@@ -51,11 +52,21 @@ public interface DataNodeService {
    */
   void clientOff(ClientOffPublishers clientOffPublishers);
 
+  /**
+   * fetch the changed versions and the version digest of the slot
+   *
+   * @param dataCenter
+   * @param slotId
+   * @param interests
+   * @param digestOnly only fetch the version digest of the slot
+   * @param callback
+   */
   void fetchDataVersion(
       String dataCenter,
       int slotId,
       Map<String, DatumVersion> interests,
-      ExchangeCallback<Map<String /*datainfoid*/, DatumVersion>> callback);
+      boolean digestOnly,
+      ExchangeCallback<SlotVersions> callback);
   /**
    * fetch one dataCenter publisher data from data server
    *
@@ -64,4 +75,25 @@ public interface DataNodeService {
    * @return
    */
   SubDatum fetch(String dataInfoId, String dataCenterId);
+
+  /**
+   * fetch one dataCenter publisher data from data server, with the slot leader it is read from
+   *
+   * @param dataInfoId
+   * @param dataCenterId
+   * @return
+   */
+  FetchedDatum fetchDatum(String dataInfoId, String dataCenterId);
+
+  /**
+   * fetch the publishers modified since the version of base and merge them into the base, the data
+   * server responses the full datum if the version of base has aged out or the base is fetched from
+   * another slot leader or leaderEpoch
+   *
+   * @param dataInfoId
+   * @param dataCenterId
+   * @param base the datum fetched before
+   * @return
+   */
+  FetchedDatum fetchDelta(String dataInfoId, String dataCenterId, FetchedDatum base);
 }
@@ -17,12 +17,12 @@
 package com.alipay.sofa.registry.server.session.node.service;
 
 import com.alipay.sofa.registry.common.model.ClientOffPublishers;
-import com.alipay.sofa.registry.common.model.CommonResponse;
 import com.alipay.sofa.registry.common.model.dataserver.*;
 import com.alipay.sofa.registry.common.model.slot.Slot;
 import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.common.model.store.UnPublisher;
 import com.alipay.sofa.registry.compress.CompressConstants;
@@ -47,13 +47,16 @@ import com.alipay.sofa.registry.task.RejectedDiscardHandler;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.OsUtils;
 import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import java.util.*;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import javax.annotation.PostConstruct;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -72,6 +75,11 @@ public class DataNodeServiceImpl implements DataNodeService {
 
   @Autowired private SessionServerConfig sessionServerConfig;
 
+  private static final long DELTA_UNSUPPORTED_EXPIRE_MILLIS = 1000 * 60 * 10;
+
+  // the data servers failed to response the delta, fetch the full datum from them for a while
+  private final Map<String, Long> deltaUnsupportedNodes = Maps.newConcurrentMap();
+
   private Worker[] workers;
   private BlockingQueues<Req> blockingQueues;
 
@@ -98,6 +106,7 @@ public class DataNodeServiceImpl implements DataNodeService {
     int idx = slotId % blockingQueues.queueNum();
     try {
       blockingQueues.put(idx, req);
+      workers[idx].wakeup();
     } catch (FastRejectedExecutionException e) {
       throw new FastRejectedExecutionException(
           String.format("commit req overflow, slotId=%d, %s", slotId, e.getMessage()));
@@ -135,14 +144,21 @@ public class DataNodeServiceImpl implements DataNodeService {
       String dataCenter,
       int slotId,
       Map<String, DatumVersion> interests,
-      ExchangeCallback<Map<String, DatumVersion>> callback) {
+      boolean digestOnly,
+      ExchangeCallback<SlotVersions> callback) {
     final Slot slot = getSlot(slotId);
     final String dataNodeIp = slot.getLeader();
     try {
       final GetDataVersionRequest request =
-          new GetDataVersionRequest(dataCenter, ServerEnv.PROCESS_ID, slotId, interests);
+          new GetDataVersionRequest(
+              dataCenter,
+              ServerEnv.PROCESS_ID,
+              slotId,
+              digestOnly ? Collections.emptyMap() : interests);
       request.setSlotTableEpoch(slotTableCache.getEpoch());
       request.setSlotLeaderEpoch(slot.getLeaderEpoch());
+      request.setReturnSlotDigest(true);
+      request.setDigestOnly(digestOnly);
       final CallbackHandler handler =
           new CallbackHandler() {
             @Override
@@ -181,13 +197,18 @@ public class DataNodeServiceImpl implements DataNodeService {
       int slotId,
       String dataNodeIp,
       String dataCenter,
-      ExchangeCallback<Map<String, DatumVersion>> callback) {
-    SlotAccessGenericResponse<Map<String, DatumVersion>> genericResponse =
-        (SlotAccessGenericResponse<Map<String, DatumVersion>>) message;
+      ExchangeCallback<SlotVersions> callback) {
+    SlotAccessGenericResponse<Object> genericResponse = (SlotAccessGenericResponse<Object>) message;
     if (genericResponse.isSuccess()) {
-      Map<String, DatumVersion> map = genericResponse.getData();
-      DatumUtils.intern(map);
-      callback.onCallback(channel, map);
+      final Object data = genericResponse.getData();
+      // the data server not support the digest response the versions map
+      SlotVersions versions =
+          data instanceof SlotVersions
+              ? (SlotVersions) data
+              : new SlotVersions((Map<String, DatumVersion>) data, null);
+      callback.onCallback(
+          channel,
+          new SlotVersions(DatumUtils.intern(versions.getVersions()), versions.getDigest()));
     } else {
       callback.onException(
           channel,
@@ -204,6 +225,11 @@ public class DataNodeServiceImpl implements DataNodeService {
 
   @Override
   public SubDatum fetch(String dataInfoId, String dataCenter) {
+    return fetchDatum(dataInfoId, dataCenter).getDatum();
+  }
+
+  @Override
+  public FetchedDatum fetchDatum(String dataInfoId, String dataCenter) {
     String dataNodeIp = null;
     int slotId = -1;
     try {
@@ -212,38 +238,16 @@ public class DataNodeServiceImpl implements DataNodeService {
       slotId = slot.getId();
       GetDataRequest getDataRequest =
           new GetDataRequest(ServerEnv.PROCESS_ID, dataInfoId, dataCenter, slot.getId());
-      getDataRequest.setAcceptEncodes(CompressConstants.defaultCompressEncodes);
-      getDataRequest.setSlotTableEpoch(slotTableCache.getEpoch());
-      getDataRequest.setSlotLeaderEpoch(slot.getLeaderEpoch());
-      Request<GetDataRequest> getDataRequestStringRequest =
-          new Request<GetDataRequest>() {
-
-            @Override
-            public GetDataRequest getRequestBody() {
-              return getDataRequest;
-            }
-
-            @Override
-            public URL getRequestUrl() {
-              return getUrl(slot);
-            }
-
-            @Override
-            public Integer getTimeout() {
-              return sessionServerConfig.getDataNodeExchangeForFetchDatumTimeoutMillis();
-            }
-          };
-
-      Response response = dataNodeExchanger.request(getDataRequestStringRequest);
+      Response response = dataNodeExchanger.request(newGetDataRequest(slot, getDataRequest));
       Object result = response.getResult();
       SlotAccessGenericResponse<SubDatum> genericResponse =
           (SlotAccessGenericResponse<SubDatum>) result;
       if (genericResponse.isSuccess()) {
         final SubDatum datum = genericResponse.getData();
-        if (datum == null) {
-          return null;
-        }
-        return SubDatum.intern(datum);
+        return new FetchedDatum(
+            datum == null ? null : SubDatum.intern(datum),
+            dataNodeIp,
+            genericResponse.getSlotAccess().getSlotLeaderEpoch());
       } else {
         throw new RuntimeException(
             StringFormatter.format(
@@ -262,17 +266,102 @@ public class DataNodeServiceImpl implements DataNodeService {
     }
   }
 
-  private CommonResponse sendRequest(Request request) throws RequestException {
-    Response response = dataNodeExchanger.request(request);
-    Object result = response.getResult();
-    SlotAccessGenericResponse resp = (SlotAccessGenericResponse) result;
-    if (!resp.isSuccess()) {
+  @Override
+  public FetchedDatum fetchDelta(String dataInfoId, String dataCenter, FetchedDatum base) {
+    final Slot slot = getSlot(dataInfoId);
+    final String dataNodeIp = slot.getLeader();
+    final int slotId = slot.getId();
+    if (base.getDatum() == null
+        || !base.isFrom(dataNodeIp, slot.getLeaderEpoch())
+        || isDeltaUnsupported(dataNodeIp)) {
+      return fetchDatum(dataInfoId, dataCenter);
+    }
+    final Response response;
+    try {
+      GetDataDeltaRequest getDataRequest =
+          new GetDataDeltaRequest(
+              ServerEnv.PROCESS_ID,
+              dataInfoId,
+              dataCenter,
+              slotId,
+              base.getDatum().getVersion(),
+              base.getSlotLeader(),
+              base.getSlotLeaderEpoch());
+      response = dataNodeExchanger.request(newGetDataRequest(slot, getDataRequest));
+    } catch (RequestException e) {
+      // the data server maybe not support the delta
+      markDeltaUnsupported(dataNodeIp, e);
+      return fetchDatum(dataInfoId, dataCenter);
+    }
+    SlotAccessGenericResponse<SubDatumDelta> genericResponse =
+        (SlotAccessGenericResponse<SubDatumDelta>) response.getResult();
+    if (!genericResponse.isSuccess()) {
       throw new RuntimeException(
-          String.format(
-              "response failed, target: %s, request: %s, message: %s",
-              request.getRequestUrl(), request.getRequestBody(), resp.getMessage()));
+          StringFormatter.format(
+              "GetDataDelta got fail response {}, {}, {}, slotId={} msg:{}",
+              dataNodeIp,
+              dataInfoId,
+              dataCenter,
+              slotId,
+              genericResponse.getMessage()));
+    }
+    final SubDatumDelta delta = SubDatumDelta.intern(genericResponse.getData());
+    final long leaderEpoch = genericResponse.getSlotAccess().getSlotLeaderEpoch();
+    if (!delta.isDelta()) {
+      return new FetchedDatum(delta.getDatum(), dataNodeIp, leaderEpoch);
     }
-    return resp;
+    // the base maybe compressed when the full datum fetched
+    return new FetchedDatum(
+        delta.applyTo(DatumUtils.decompressSubDatum(base.getDatum())), dataNodeIp, leaderEpoch);
+  }
+
+  @VisibleForTesting
+  boolean isDeltaUnsupported(String dataNodeIp) {
+    final Long expireTimestamp = deltaUnsupportedNodes.get(dataNodeIp);
+    if (expireTimestamp == null) {
+      return false;
+    }
+    if (expireTimestamp > System.currentTimeMillis()) {
+      return true;
+    }
+    // check the data server again, it maybe upgraded
+    deltaUnsupportedNodes.remove(dataNodeIp, expireTimestamp);
+    return false;
+  }
+
+  private void markDeltaUnsupported(String dataNodeIp, Throwable cause) {
+    if (deltaUnsupportedNodes.put(
+            dataNodeIp, System.currentTimeMillis() + DELTA_UNSUPPORTED_EXPIRE_MILLIS)
+        == null) {
+      LOGGER.warn(
+          "[DeltaUnsupported]{}, fetch the full datum in {}ms, cause: {}",
+          dataNodeIp,
+          DELTA_UNSUPPORTED_EXPIRE_MILLIS,
+          cause.getMessage());
+    }
+  }
+
+  private Request<GetDataRequest> newGetDataRequest(Slot slot, GetDataRequest getDataRequest) {
+    getDataRequest.setAcceptEncodes(CompressConstants.defaultCompressEncodes);
+    getDataRequest.setSlotTableEpoch(slotTableCache.getEpoch());
+    getDataRequest.setSlotLeaderEpoch(slot.getLeaderEpoch());
+    return new Request<GetDataRequest>() {
+
+      @Override
+      public GetDataRequest getRequestBody() {
+        return getDataRequest;
+      }
+
+      @Override
+      public URL getRequestUrl() {
+        return getUrl(slot);
+      }
+
+      @Override
+      public Integer getTimeout() {
+        return sessionServerConfig.getDataNodeExchangeForFetchDatumTimeoutMillis();
+      }
+    };
   }
 
   private Slot getSlot(String dataInfoId) {
@@ -301,6 +390,21 @@ public class DataNodeServiceImpl implements DataNodeService {
     return new URL(dataIp, sessionServerConfig.getDataServerPort());
   }
 
+  @VisibleForTesting
+  void setDataNodeExchanger(NodeExchanger dataNodeExchanger) {
+    this.dataNodeExchanger = dataNodeExchanger;
+  }
+
+  @VisibleForTesting
+  void setSlotTableCache(SlotTableCache slotTableCache) {
+    this.slotTableCache = slotTableCache;
+  }
+
+  @VisibleForTesting
+  void setSessionServerConfig(SessionServerConfig sessionServerConfig) {
+    this.sessionServerConfig = sessionServerConfig;
+  }
+
   private Map<Integer, ClientOffPublisher> groupBySlot(ClientOffPublishers clientOffPublishers) {
     List<Publisher> publishers = clientOffPublishers.getPublishers();
     Map<Integer, ClientOffPublisher> ret = Maps.newHashMap();
@@ -315,7 +419,7 @@ public class DataNodeServiceImpl implements DataNodeService {
     return ret;
   }
 
-  private static final class Req {
+  static final class Req {
     final int slotId;
     final Object req;
 
@@ -326,30 +430,74 @@ public class DataNodeServiceImpl implements DataNodeService {
   }
 
   private static final class RetryBatch {
-    final BatchRequest batch;
-    long expireTimestamp;
+    final int slotId;
+    final List<Object> reqs = Lists.newArrayList();
     int retryCount;
 
-    RetryBatch(BatchRequest batch) {
-      this.batch = batch;
+    RetryBatch(int slotId) {
+      this.slotId = slotId;
     }
 
     @Override
     public String toString() {
       return "RetryBatch{"
-          + "batch="
-          + batch
+          + "slotId="
+          + slotId
+          + ", reqs="
+          + reqs.size()
           + ", retry="
           + retryCount
-          + ", expire="
-          + expireTimestamp
           + '}';
     }
   }
 
-  private final class Worker implements Runnable {
+  /**
+   * the batches of a slot are sent one by one, at most one batch of the slot is in flight. the
+   * failed batch stays at the head and blocks the slot until nextSendTimestamp
+   */
+  private static final class SlotQueue {
+    final int slotId;
+    final LinkedList<RetryBatch> batches = Lists.newLinkedList();
+    boolean inflight;
+    long nextSendTimestamp;
+
+    SlotQueue(int slotId) {
+      this.slotId = slotId;
+    }
+  }
+
+  private static final class Completion {
+    final RetryBatch batch;
+    final String dataNodeIp;
+    final long startTimestamp;
+    final boolean success;
+
+    Completion(RetryBatch batch, String dataNodeIp, long startTimestamp, boolean success) {
+      this.batch = batch;
+      this.dataNodeIp = dataNodeIp;
+      this.startTimestamp = startTimestamp;
+      this.success = success;
+    }
+  }
+
+  /**
+   * the worker sends the batches asynchronously, the batches in flight of a data node are bounded
+   * by dataNodeMaxInflightBatches, a slow data node not blocks the slots of other data nodes. the
+   * reqs held by the worker are bounded by dataNodeExecutorQueueSize, when it is full the worker
+   * stops draining the queue, so the callers are rejected by the bounded queue
+   */
+  final class Worker implements Runnable {
     final BlockingQueue<Req> queue;
-    final LinkedList<RetryBatch> retryBatches = Lists.newLinkedList();
+    final Map<Integer, SlotQueue> slotQueues = Maps.newLinkedHashMap();
+    final Map<String, Integer> inflights = Maps.newHashMap();
+    // the slots in backoff, only used to wakeup the worker
+    final PriorityQueue<SlotQueue> retrySlots =
+        new PriorityQueue<>(Comparator.comparingLong(q -> q.nextSendTimestamp));
+    final Queue<Completion> completions = new ConcurrentLinkedQueue<>();
+    // the reqs in slotQueues, not include the reqs in flight
+    int pendingReqs;
+    // parked when idle, unparked by the commit of req and the completion
+    volatile Thread thread;
 
     Worker(BlockingQueue<Req> queue) {
       this.queue = queue;
@@ -357,105 +505,229 @@ public class DataNodeServiceImpl implements DataNodeService {
 
     @Override
     public void run() {
+      this.thread = Thread.currentThread();
       for (; ; ) {
         try {
-          final Req firstReq = queue.poll(200, TimeUnit.MILLISECONDS);
-          if (firstReq != null) {
-            // TODO config max
-            Map<Integer, LinkedList<Object>> reqs =
-                drainReq(queue, sessionServerConfig.getDataNodeMaxBatchSize());
-            // send by order, firstReq.slotId is the first one
-            LinkedList<Object> firstBatch = reqs.remove(firstReq.slotId);
-            if (firstBatch == null) {
-              firstBatch = Lists.newLinkedList();
-            }
-            firstBatch.addFirst(firstReq.req);
-            request(firstReq.slotId, firstBatch);
-            for (Map.Entry<Integer, LinkedList<Object>> batch : reqs.entrySet()) {
-              request(batch.getKey(), batch.getValue());
-            }
-          }
-          // check the retry
-          if (!retryBatches.isEmpty()) {
-            final Iterator<RetryBatch> it = retryBatches.iterator();
-            List<RetryBatch> retries = Lists.newArrayList();
-            while (it.hasNext()) {
-              RetryBatch batch = it.next();
-              it.remove();
-              if (!DataNodeServiceImpl.this.request(batch.batch)) {
-                retries.add(batch);
-              }
-            }
-            for (RetryBatch retry : retries) {
-              retry(retry);
-            }
-          }
+          runOnce(waitMillis(System.currentTimeMillis()));
         } catch (Throwable e) {
           LOGGER.safeError("failed to request batch", e);
         }
       }
     }
 
-    private boolean retry(RetryBatch retry) {
-      retry.retryCount++;
-      if (retry.retryCount <= sessionServerConfig.getDataNodeRetryTimes()) {
-        if (retryBatches.size() >= sessionServerConfig.getDataNodeRetryQueueSize()) {
-          // remove the oldest
-          retryBatches.removeFirst();
+    void runOnce(long waitMillis) {
+      // too many pending reqs, not drain the queue and only wait for the completions
+      final boolean drain = pendingReqs < sessionServerConfig.getDataNodeExecutorQueueSize();
+      if (waitMillis > 0 && completions.isEmpty() && (!drain || queue.isEmpty())) {
+        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(waitMillis));
+      }
+      if (drain) {
+        final Req firstReq = queue.poll();
+        if (firstReq != null) {
+          // send by order, firstReq.slotId is the first one
+          addReq(firstReq);
+          final int max = sessionServerConfig.getDataNodeMaxBatchSize();
+          List<Req> reqs = new ArrayList<>(max);
+          queue.drainTo(reqs, max);
+          for (Req req : reqs) {
+            addReq(req);
+          }
         }
-        retry.expireTimestamp =
-            System.currentTimeMillis() + sessionServerConfig.getDataNodeRetryBackoffMillis();
-        retryBatches.add(retry);
-        return true;
       }
-      return false;
+      process(System.currentTimeMillis());
     }
 
-    private boolean request(int slotId, List<Object> reqs) {
-      final BatchRequest batch = new BatchRequest(ServerEnv.PROCESS_ID, slotId, reqs);
-      if (!DataNodeServiceImpl.this.request(batch)) {
-        retry(new RetryBatch(batch));
-        return false;
+    void process(long now) {
+      handleCompletions();
+      handleWakeups(now);
+      sendBatches(now);
+    }
+
+    long waitMillis(long now) {
+      if (!completions.isEmpty()) {
+        return 0;
       }
-      return true;
+      final SlotQueue retry = retrySlots.peek();
+      if (retry == null) {
+        return 200;
+      }
+      return Math.min(200, retry.nextSendTimestamp - now);
     }
-  }
 
-  private boolean request(BatchRequest batch) {
-    try {
-      final Slot slot = getSlot(batch.getSlotId());
+    void addReq(Req req) {
+      final SlotQueue slotQueue = slotQueues.computeIfAbsent(req.slotId, SlotQueue::new);
+      RetryBatch batch = slotQueue.batches.peekLast();
+      if (batch == null
+          || batch.retryCount != 0
+          || batch.reqs.size() >= sessionServerConfig.getDataNodeMaxBatchSize()) {
+        batch = new RetryBatch(req.slotId);
+        slotQueue.batches.addLast(batch);
+      }
+      batch.reqs.add(req.req);
+      pendingReqs++;
+    }
+
+    void handleCompletions() {
+      Completion completion;
+      while ((completion = completions.poll()) != null) {
+        handleCompletion(completion);
+      }
+    }
+
+    private void handleCompletion(Completion completion) {
+      final SlotQueue slotQueue =
+          slotQueues.computeIfAbsent(completion.batch.slotId, SlotQueue::new);
+      slotQueue.inflight = false;
+      final Integer count = inflights.get(completion.dataNodeIp);
+      if (count != null && count > 1) {
+        inflights.put(completion.dataNodeIp, count - 1);
+      } else {
+        inflights.remove(completion.dataNodeIp);
+      }
+      DataNodeMetrics.INFLIGHT_BATCH_GAUGE.dec();
+      DataNodeMetrics.observeBatch(System.currentTimeMillis() - completion.startTimestamp);
+      if (completion.success) {
+        DataNodeMetrics.BATCH_SUCCESS_COUNTER.inc();
+      } else {
+        DataNodeMetrics.BATCH_FAIL_COUNTER.inc();
+        // put back to the head, the later batches of the slot wait for it
+        slotQueue.batches.addFirst(completion.batch);
+        pendingReqs += completion.batch.reqs.size();
+        retry(slotQueue, System.currentTimeMillis());
+      }
+    }
+
+    void handleWakeups(long now) {
+      SlotQueue retry;
+      while ((retry = retrySlots.peek()) != null && retry.nextSendTimestamp <= now) {
+        retrySlots.poll();
+      }
+    }
+
+    void sendBatches(long now) {
+      final int maxInflight = sessionServerConfig.getDataNodeMaxInflightBatches();
+      final Iterator<SlotQueue> it = slotQueues.values().iterator();
+      while (it.hasNext()) {
+        final SlotQueue slotQueue = it.next();
+        if (slotQueue.inflight || slotQueue.nextSendTimestamp > now) {
+          continue;
+        }
+        final RetryBatch batch = slotQueue.batches.peekFirst();
+        if (batch == null) {
+          it.remove();
+          continue;
+        }
+        final Slot slot;
+        final URL url;
+        try {
+          slot = getSlot(slotQueue.slotId);
+          url = getUrl(slot);
+        } catch (Throwable e) {
+          LOGGER.error("failed to request batch, {}", batch, e);
+          DataNodeMetrics.BATCH_FAIL_COUNTER.inc();
+          retry(slotQueue, now);
+          continue;
+        }
+        final String dataNodeIp = slot.getLeader();
+        final int count = inflights.getOrDefault(dataNodeIp, 0);
+        if (count >= maxInflight) {
+          // the window of the data node is full, wait for the completions
+          continue;
+        }
+        slotQueue.batches.pollFirst();
+        pendingReqs -= batch.reqs.size();
+        slotQueue.nextSendTimestamp = 0;
+        slotQueue.inflight = true;
+        inflights.put(dataNodeIp, count + 1);
+        DataNodeMetrics.INFLIGHT_BATCH_GAUGE.inc();
+        request(slot, url, batch);
+      }
+    }
+
+    private void request(Slot slot, URL url, RetryBatch retryBatch) {
+      final long startTimestamp = System.currentTimeMillis();
+      final String dataNodeIp = slot.getLeader();
+      final BatchRequest batch =
+          new BatchRequest(ServerEnv.PROCESS_ID, retryBatch.slotId, retryBatch.reqs);
       batch.setSlotTableEpoch(slotTableCache.getEpoch());
       batch.setSlotLeaderEpoch(slot.getLeaderEpoch());
-      sendRequest(
-          new Request() {
+      final CallbackHandler handler =
+          new CallbackHandler() {
             @Override
-            public Object getRequestBody() {
-              return batch;
+            public void onCallback(Channel channel, Object message) {
+              final SlotAccessGenericResponse resp = (SlotAccessGenericResponse) message;
+              if (!resp.isSuccess()) {
+                LOGGER.error(
+                    "response failed, target: {}, request: {}, message: {}",
+                    dataNodeIp,
+                    batch,
+                    resp.getMessage());
+              }
+              complete(new Completion(retryBatch, dataNodeIp, startTimestamp, resp.isSuccess()));
             }
 
             @Override
-            public URL getRequestUrl() {
-              return getUrl(slot);
+            public void onException(Channel channel, Throwable exception) {
+              LOGGER.error("failed to request batch, {}", batch, exception);
+              complete(new Completion(retryBatch, dataNodeIp, startTimestamp, false));
             }
-          });
-      return true;
-    } catch (Throwable e) {
-      LOGGER.error("failed to request batch, {}", batch, e);
-      return false;
+
+            @Override
+            public Executor getExecutor() {
+              // only enqueue the completion, run in the callback thread
+              return null;
+            }
+          };
+      try {
+        Response response = dataNodeExchanger.request(new SimpleRequest<>(batch, url, handler));
+        Response.ResultStatus result = (Response.ResultStatus) response.getResult();
+        if (result != Response.ResultStatus.SUCCESSFUL) {
+          throw new RequestException("response not success, status=" + result);
+        }
+      } catch (Throwable e) {
+        LOGGER.error("failed to request batch, {}", batch, e);
+        complete(new Completion(retryBatch, dataNodeIp, startTimestamp, false));
+      }
     }
-  }
 
-  private Map<Integer, LinkedList<Object>> drainReq(BlockingQueue<Req> queue, int max) {
-    List<Req> reqs = new ArrayList<>(max);
-    queue.drainTo(reqs, max);
-    if (reqs.isEmpty()) {
-      return Collections.emptyMap();
+    private void complete(Completion completion) {
+      completions.add(completion);
+      wakeup();
     }
-    Map<Integer, LinkedList<Object>> ret = Maps.newLinkedHashMap();
-    for (Req req : reqs) {
-      LinkedList<Object> objects = ret.computeIfAbsent(req.slotId, k -> Lists.newLinkedList());
-      objects.add(req.req);
+
+    void wakeup() {
+      final Thread t = thread;
+      if (t != null) {
+        LockSupport.unpark(t);
+      }
+    }
+
+    /** the failed batch is the head of the slotQueue */
+    boolean retry(SlotQueue slotQueue, long now) {
+      final RetryBatch retry = slotQueue.batches.peekFirst();
+      retry.retryCount++;
+      if (retry.retryCount > sessionServerConfig.getDataNodeRetryTimes()) {
+        LOGGER.error("[DropBatch]retry too many times, {}", retry);
+        dropHead(slotQueue);
+        return false;
+      }
+      if (retrySlots.size() >= sessionServerConfig.getDataNodeRetryQueueSize()) {
+        // too many slots in backoff, drop the failed batch
+        LOGGER.error("[DropBatch]retry queue full, {}", retry);
+        dropHead(slotQueue);
+        return false;
+      }
+      slotQueue.nextSendTimestamp =
+          now + (long) sessionServerConfig.getDataNodeRetryBackoffMillis() * retry.retryCount;
+      retrySlots.add(slotQueue);
+      return true;
+    }
+
+    private void dropHead(SlotQueue slotQueue) {
+      final RetryBatch dropped = slotQueue.batches.pollFirst();
+      pendingReqs -= dropped.reqs.size();
+      slotQueue.nextSendTimestamp = 0;
+      DataNodeMetrics.BATCH_DROP_COUNTER.inc();
     }
-    return ret;
   }
 }
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.node.service;
+
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.util.StringFormatter;
+import java.util.Objects;
+
+/**
+ * the datum fetched from data server, with the slot leader and leaderEpoch it is read from. the
+ * versions are generated by each data server, the delta of the datum is only valid on the same slot
+ * leader and leaderEpoch
+ */
+public final class FetchedDatum {
+  private final SubDatum datum;
+  private final String slotLeader;
+  private final long slotLeaderEpoch;
+
+  public FetchedDatum(SubDatum datum, String slotLeader, long slotLeaderEpoch) {
+    this.datum = datum;
+    this.slotLeader = slotLeader;
+    this.slotLeaderEpoch = slotLeaderEpoch;
+  }
+
+  public SubDatum getDatum() {
+    return datum;
+  }
+
+  public String getSlotLeader() {
+    return slotLeader;
+  }
+
+  public long getSlotLeaderEpoch() {
+    return slotLeaderEpoch;
+  }
+
+  public boolean isFrom(String leader, long leaderEpoch) {
+    return Objects.equals(slotLeader, leader) && slotLeaderEpoch == leaderEpoch;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "FetchedDatum{version={},leader={},leaderEpoch={}}",
+        datum == null ? null : datum.getVersion(),
+        slotLeader,
+        slotLeaderEpoch);
+  }
+}
@@ -100,6 +100,7 @@ public class FirePushService {
 
   public boolean fireOnPushEmpty(Subscriber subscriber, String dataCenter, long version) {
     long pushVersion = subscriber.markPushEmpty(dataCenter, version);
+    sessionInterests.onMarkPushEmpty(subscriber, dataCenter);
 
     SubDatum emptyDatum = DatumUtils.newEmptySubDatum(subscriber, dataCenter, pushVersion);
     final long now = System.currentTimeMillis();
@@ -235,9 +236,8 @@ public class FirePushService {
       }
     }
     CACHE_MISS_COUNTER.inc();
-    // the cache is too old
-    sessionCacheService.invalidate(key);
-    value = sessionCacheService.getValue(key);
+    // the cache is too old, reload the delta based on it
+    value = sessionCacheService.reload(key, value);
     return value == null ? null : (SubDatum) value.getPayload();
   }
 
@@ -16,17 +16,22 @@
  */
 package com.alipay.sofa.registry.server.session.push;
 
+import static com.alipay.sofa.registry.server.session.push.PushMetrics.Push.*;
+
 import com.alipay.sofa.registry.common.model.SubscriberUtils;
 import com.alipay.sofa.registry.common.model.client.pb.ReceivedDataPb;
 import com.alipay.sofa.registry.common.model.store.*;
 import com.alipay.sofa.registry.compress.Compressor;
 import com.alipay.sofa.registry.core.model.ReceivedConfigData;
 import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.remoting.SerializedPayload;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.converter.ReceivedDataConverter;
 import com.alipay.sofa.registry.server.session.converter.pb.ReceivedDataConvertor;
 import com.alipay.sofa.registry.server.session.predicate.ZonePredicate;
 import com.alipay.sofa.registry.server.session.providedata.CompressPushService;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
+import com.alipay.sofa.registry.util.SystemUtils;
 import com.google.common.collect.Lists;
 import java.util.*;
 import java.util.function.Predicate;
@@ -34,11 +39,18 @@ import javax.annotation.Resource;
 import org.springframework.beans.factory.annotation.Autowired;
 
 public class PushDataGenerator {
+  private static final String KEY_PUSH_PAYLOAD_CACHE_CAPACITY =
+      "registry.session.push_payload.capacity";
 
   @Autowired protected SessionServerConfig sessionServerConfig;
 
   @Resource protected CompressPushService compressPushService;
 
+  final PushPayloadCache payloadCache =
+      new PushPayloadCache(
+          10 * 1000,
+          SystemUtils.getSystemInteger(KEY_PUSH_PAYLOAD_CACHE_CAPACITY, 1024 * 1024 * 128));
+
   public PushData createPushData(SubDatum unzipDatum, Map<String, Subscriber> subscriberMap) {
     unzipDatum.mustUnzipped();
     if (subscriberMap.size() > 1) {
@@ -55,35 +67,106 @@ public class PushDataGenerator {
     Predicate<String> zonePredicate =
         ZonePredicate.zonePredicate(dataId, clientCell, subscriber.getScope(), sessionServerConfig);
 
-    PushData<ReceivedData> pushData =
-        ReceivedDataConverter.getReceivedDataMulti(
-            unzipDatum,
-            subscriber.getScope(),
-            Lists.newArrayList(subscriberMap.keySet()),
-            clientCell,
-            zonePredicate);
-    pushData.getPayload().setVersion(unzipDatum.getVersion());
+    final List<String> subscriberIds = Lists.newArrayList(subscriberMap.keySet());
     final Byte serializerIndex = subscriber.getSourceAddress().getSerializerIndex();
-    if (serializerIndex == null || URL.PROTOBUF != serializerIndex) {
-      return pushData;
+    final boolean protobuf = serializerIndex != null && URL.PROTOBUF == serializerIndex;
+    final SubDatum base = getDeltaBase(unzipDatum, subscriberMap.values());
+    if (base != null) {
+      PushData<ReceivedData> pushData =
+          ReceivedDataConverter.getReceivedDataDelta(
+              DatumUtils.decompressSubDatum(base),
+              unzipDatum,
+              subscriber.getScope(),
+              subscriberIds,
+              clientCell,
+              zonePredicate);
+      if (pushData != null) {
+        PUSH_DATA_DELTA_COUNTER.inc();
+        if (!protobuf) {
+          return pushData;
+        }
+        // the delta is small and differs per base, not compressed
+        ReceivedDataPb receivedDataPb = ReceivedDataConvertor.convert2Pb(pushData.getPayload());
+        return new PushData<>(receivedDataPb, pushData.getDataCount());
+      }
+    }
+    PUSH_DATA_FULL_COUNTER.inc();
+    // the payloads without the subscriber ids are shared by the subscribers of the same cell
+    final PushData<ReceivedData> template =
+        payloadCache.getOrCreate(
+            new PushPayloadCache.Key(unzipDatum, subscriber.getScope(), clientCell, null, (byte) 0),
+            () ->
+                ReceivedDataConverter.getReceivedDataMulti(
+                    unzipDatum,
+                    subscriber.getScope(),
+                    Collections.emptyList(),
+                    clientCell,
+                    zonePredicate));
+    if (!protobuf) {
+      return new PushData<>(
+          ReceivedDataConverter.copyOf(template.getPayload(), subscriberIds),
+          template.getDataCount());
     }
-    Compressor compressor =
+    final Compressor compressor =
         compressPushService.getCompressor(
-            pushData.getPayload(),
+            template.getPayload(),
             subscriber.getAcceptEncodes(),
             subscriber.getSourceAddress().getIpAddress());
+    final PushData<byte[]> pbTemplate =
+        payloadCache.getOrCreate(
+            new PushPayloadCache.Key(
+                unzipDatum,
+                subscriber.getScope(),
+                clientCell,
+                compressor == null ? null : compressor.getEncoding(),
+                URL.PROTOBUF),
+            () -> createPbTemplate(template, compressor));
+    // write the serialized template with the subscriber ids, not re-encoded
+    SerializedPayload payload =
+        new SerializedPayload(
+            ReceivedDataPb.class.getName(),
+            URL.PROTOBUF,
+            ReceivedDataConvertor.appendSubscriberRegistIds(
+                pbTemplate.getPayload(), subscriberIds));
+    return new PushData<>(
+        payload, pbTemplate.getDataCount(), pbTemplate.getEncode(), pbTemplate.getEncodeSize());
+  }
+
+  private static PushData<byte[]> createPbTemplate(
+      PushData<ReceivedData> template, Compressor compressor) {
     if (compressor == null) {
-      ReceivedDataPb receivedDataPb = ReceivedDataConvertor.convert2Pb(pushData.getPayload());
-      return new PushData<>(receivedDataPb, pushData.getDataCount());
-    } else {
-      ReceivedDataPb receivedDataPb =
-          ReceivedDataConvertor.convert2CompressedPb(pushData.getPayload(), compressor);
-      return new PushData<>(
-          receivedDataPb,
-          pushData.getDataCount(),
-          compressor.getEncoding(),
-          receivedDataPb.getBody().size());
+      ReceivedDataPb receivedDataPb = ReceivedDataConvertor.convert2Pb(template.getPayload());
+      return new PushData<>(receivedDataPb.toByteArray(), template.getDataCount());
+    }
+    ReceivedDataPb receivedDataPb =
+        ReceivedDataConvertor.convert2CompressedPb(template.getPayload(), compressor);
+    return new PushData<>(
+        receivedDataPb.toByteArray(),
+        template.getDataCount(),
+        compressor.getEncoding(),
+        receivedDataPb.getBody().size());
+  }
+
+  /**
+   * the delta push is available when all the subscribers accept it and have been pushed the same
+   * datum before
+   */
+  SubDatum getDeltaBase(SubDatum datum, Collection<Subscriber> subscribers) {
+    if (!sessionServerConfig.isPushDeltaEnable()) {
+      return null;
+    }
+    SubDatum base = null;
+    for (Subscriber subscriber : subscribers) {
+      if (!subscriber.acceptDeltaPush()) {
+        return null;
+      }
+      final SubDatum pushed = subscriber.getPushedDatum(datum.getDataCenter());
+      if (pushed == null || (base != null && base.getVersion() != pushed.getVersion())) {
+        return null;
+      }
+      base = pushed;
     }
+    return base != null && base.getVersion() < datum.getVersion() ? base : null;
   }
 
   public PushData createPushData(Watcher watcher, ReceivedConfigData data) {
@@ -156,6 +156,17 @@ public final class PushMetrics {
             .help("push empty skip count")
             .register();
 
+    private static final Counter PUSH_DATA_COUNTER =
+        Counter.build()
+            .namespace("session")
+            .subsystem("push")
+            .name("push_data_total")
+            .help("push data count")
+            .labelNames("type")
+            .register();
+    static final Counter.Child PUSH_DATA_FULL_COUNTER = PUSH_DATA_COUNTER.labels("full");
+    static final Counter.Child PUSH_DATA_DELTA_COUNTER = PUSH_DATA_COUNTER.labels("delta");
+
     static final Counter PUSH_REG_SKIP_COUNTER =
         Counter.build()
             .namespace("session")
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.push;
+
+import com.alipay.sofa.registry.common.model.store.PushData;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.concurrent.CachedExecutor;
+import com.alipay.sofa.registry.core.model.DataBox;
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.alipay.sofa.registry.util.StringUtils;
+import com.google.common.base.Throwables;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+/**
+ * the push payloads of a datum version, shared by the push tasks of the subscribers with the same
+ * scope and cell. the payloads not contain the subscriber registerIds, the protobuf payloads are
+ * cached as serialized bytes
+ */
+public final class PushPayloadCache {
+  private final CachedExecutor<Key, PushData> executor;
+
+  public PushPayloadCache(long silentMs, long maxWeight) {
+    this.executor =
+        new CachedExecutor<>(silentMs, maxWeight, (k, v) -> k.size() + sizeOf(v), false);
+  }
+
+  public <T> PushData<T> getOrCreate(Key key, Callable<PushData<T>> creator) {
+    try {
+      return executor.execute(key, (Callable) creator);
+    } catch (Throwable e) {
+      Throwables.propagateIfPossible(e.getCause());
+      throw new IllegalStateException(e);
+    }
+  }
+
+  public long getHitCount() {
+    return executor.getHitCount();
+  }
+
+  public long getMissingCount() {
+    return executor.getMissingCount();
+  }
+
+  static int sizeOf(PushData pushData) {
+    final Object payload = pushData.getPayload();
+    if (payload instanceof byte[]) {
+      return ((byte[]) payload).length;
+    }
+    int size = 64;
+    if (payload instanceof ReceivedData) {
+      for (Map.Entry<String, List<DataBox>> e : ((ReceivedData) payload).getData().entrySet()) {
+        size += StringUtils.sizeof(e.getKey());
+        for (DataBox box : e.getValue()) {
+          size += StringUtils.sizeof(box.getData()) + 16;
+        }
+      }
+    }
+    return size;
+  }
+
+  public static final class Key {
+    final String dataInfoId;
+    final String dataCenter;
+    final long version;
+    final ScopeEnum scope;
+    final String cell;
+    final String encoding;
+    final byte serializer;
+    final int hashCode;
+
+    public Key(SubDatum datum, ScopeEnum scope, String cell, String encoding, byte serializer) {
+      this.dataInfoId = datum.getDataInfoId();
+      this.dataCenter = datum.getDataCenter();
+      this.version = datum.getVersion();
+      this.scope = scope;
+      this.cell = cell;
+      this.encoding = encoding;
+      this.serializer = serializer;
+      this.hashCode =
+          Objects.hash(dataInfoId, dataCenter, version, scope, cell, encoding, serializer);
+    }
+
+    int size() {
+      return StringUtils.sizeof(dataInfoId)
+          + StringUtils.sizeof(dataCenter)
+          + StringUtils.sizeof(cell)
+          + StringUtils.sizeof(encoding)
+          + 32;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Key that = (Key) o;
+      return version == that.version
+          && serializer == that.serializer
+          && scope == that.scope
+          && Objects.equals(dataInfoId, that.dataInfoId)
+          && Objects.equals(dataCenter, that.dataCenter)
+          && Objects.equals(cell, that.cell)
+          && Objects.equals(encoding, that.encoding);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public String toString() {
+      return StringFormatter.format(
+          "PayloadKey{{},{},ver={},{},cell={},encode={},serializer={}}",
+          dataInfoId,
+          dataCenter,
+          version,
+          scope,
+          cell,
+          encoding,
+          serializer);
+    }
+  }
+}
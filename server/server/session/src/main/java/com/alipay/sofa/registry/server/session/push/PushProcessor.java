@@ -31,6 +31,7 @@ import com.alipay.sofa.registry.remoting.ChannelOverflowException;
 import com.alipay.sofa.registry.remoting.exchange.RequestChannelClosedException;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.node.service.ClientNodeService;
+import com.alipay.sofa.registry.server.session.store.Interests;
 import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.task.KeyedThreadPoolExecutor;
 import com.alipay.sofa.registry.task.MetricsableThreadPoolExecutor;
@@ -66,6 +67,8 @@ public class PushProcessor {
 
   @Autowired protected ClientNodeService clientNodeService;
 
+  @Autowired protected Interests sessionInterests;
+
   final Cleaner cleaner = new Cleaner();
 
   final RejectedDiscardHandler discardHandler = new RejectedDiscardHandler();
@@ -238,8 +241,10 @@ public class PushProcessor {
       return false;
     }
     for (Subscriber subscriber : subs) {
-      subscriber.checkAndUpdateCtx(
-          task.datum.getDataCenter(), task.datum.getVersion(), task.getPushDataCount());
+      if (subscriber.checkAndUpdateCtx(
+          task.datum.getDataCenter(), task.datum.getVersion(), task.getPushDataCount())) {
+        sessionInterests.onPushed(subscriber, task.datum.getDataCenter());
+      }
     }
     PUSH_EMPTY_SKIP_COUNTER.inc();
     LOGGER.info(
@@ -458,14 +463,13 @@ public class PushProcessor {
           SubscriberUtils.getMaxPushedVersion(
               pushTask.datum.getDataCenter(), pushTask.subscriberMap.values());
       for (Subscriber subscriber : pushTask.subscriberMap.values()) {
-        if (!subscriber.checkAndUpdateCtx(
-            pushTask.datum.getDataCenter(),
-            pushTask.datum.getVersion(),
-            pushTask.getPushDataCount())) {
+        if (!subscriber.checkAndUpdateCtx(pushTask.datum, pushTask.getPushDataCount())) {
           LOGGER.info(
               "PushY, but failed to updateVersion, {}, {}",
               pushTask.taskID,
               pushTask.pushingTaskKey);
+        } else {
+          sessionInterests.onPushed(subscriber, pushTask.datum.getDataCenter());
         }
       }
       this.pushTask.trace.finishPush(
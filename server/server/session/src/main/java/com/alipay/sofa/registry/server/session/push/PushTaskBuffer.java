@@ -30,6 +30,8 @@ import com.google.common.collect.Sets;
 import java.net.InetSocketAddress;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class PushTaskBuffer {
   private static final Logger LOGGER = LoggerFactory.getLogger(PushTaskBuffer.class);
@@ -56,7 +58,7 @@ public final class PushTaskBuffer {
     }
     if (worker.bufferMap.putIfAbsent(key, pushTask) == null) {
       // fast path
-      wakeup(worker, pushTask);
+      worker.schedule(key, pushTask);
       BUFFER_NEW_COUNTER.inc();
       return true;
     }
@@ -66,7 +68,7 @@ public final class PushTaskBuffer {
       if (prev == null) {
         if (worker.bufferMap.putIfAbsent(key, pushTask) == null) {
           // prev has remove at this time
-          wakeup(worker, pushTask);
+          worker.schedule(key, pushTask);
           BUFFER_NEW_COUNTER.inc();
           return true;
         }
@@ -76,7 +78,7 @@ public final class PushTaskBuffer {
           // update the expireTimestamp as prev's, avoid the push block by the continues fire
           pushTask.expireTimestamp = prev.expireTimestamp;
           if (worker.bufferMap.replace(key, prev, pushTask)) {
-            wakeup(worker, pushTask);
+            worker.schedule(key, pushTask);
             BUFFER_REPLACE_COUNTER.inc();
             return true;
           } else {
@@ -101,14 +103,24 @@ public final class PushTaskBuffer {
     }
   }
 
-  private void wakeup(BufferWorker worker, PushTask pushTask) {
-    if (pushTask.trace.pushCause.pushType.noDelay) {
-      worker.wakeup();
-    }
+  private static long deadlineOf(PushTask pushTask) {
+    // no delay, push immediately
+    return pushTask.trace.pushCause.pushType.noDelay ? 0 : pushTask.expireTimestamp;
   }
 
   final class BufferWorker extends WakeUpLoopRunnable {
     final Map<BufferTaskKey, PushTask> bufferMap = new ConcurrentHashMap<>(4096);
+    // the deadlines of the buffered tasks, an entry is stale if the task of the key has been
+    // removed or replaced, the stale entries are dropped when polled
+    final ConcurrentSkipListSet<Deadline> deadlines = new ConcurrentSkipListSet<>();
+
+    void schedule(BufferTaskKey key, PushTask pushTask) {
+      final long deadline = deadlineOf(pushTask);
+      deadlines.add(new Deadline(deadline, key));
+      if (deadline == 0) {
+        wakeup();
+      }
+    }
 
     @Override
     public void runUnthrowable() {
@@ -117,28 +129,64 @@ public final class PushTaskBuffer {
 
     @Override
     public int getWaitingMillis() {
-      return 200;
+      // only the worker polls the deadlines, the first could not be removed by others
+      if (deadlines.isEmpty()) {
+        return 200;
+      }
+      final long wait = deadlines.first().deadline - System.currentTimeMillis();
+      return (int) Math.max(1, Math.min(200, wait));
     }
 
     private List<PushTask> transferAndMerge() {
-      if (bufferMap.isEmpty()) {
+      if (deadlines.isEmpty()) {
         return Collections.emptyList();
       }
-      List<PushTask> pending = Lists.newArrayListWithCapacity(1024);
+      List<PushTask> pending = Lists.newArrayListWithCapacity(128);
       final long now = System.currentTimeMillis();
-      for (Map.Entry<BufferTaskKey, PushTask> e : bufferMap.entrySet()) {
-        final PushTask task = e.getValue();
-        // no delay or expire, push immediately
-        if (task.trace.pushCause.pushType.noDelay || task.expireTimestamp <= now) {
-          pending.add(task);
+      Deadline first;
+      while ((first = deadlines.pollFirst()) != null) {
+        if (first.deadline > now) {
+          deadlines.add(first);
+          break;
+        }
+        final PushTask task = bufferMap.get(first.key);
+        if (task == null) {
+          continue;
+        }
+        final long deadline = deadlineOf(task);
+        if (deadline <= now) {
           // the task maybe update
-          bufferMap.remove(e.getKey(), task);
+          if (bufferMap.remove(first.key, task)) {
+            pending.add(task);
+          }
+        } else if (deadline > first.deadline) {
+          // make sure the task has a deadline, the duplicate one is dropped when polled
+          deadlines.add(new Deadline(deadline, first.key));
         }
       }
       return pending;
     }
   }
 
+  static final class Deadline implements Comparable<Deadline> {
+    private static final AtomicLong SEQ = new AtomicLong();
+    final long deadline;
+    final long seq;
+    final BufferTaskKey key;
+
+    Deadline(long deadline, BufferTaskKey key) {
+      this.deadline = deadline;
+      this.key = key;
+      this.seq = SEQ.incrementAndGet();
+    }
+
+    @Override
+    public int compareTo(Deadline o) {
+      int c = Long.compare(deadline, o.deadline);
+      return c != 0 ? c : Long.compare(seq, o.seq);
+    }
+  }
+
   int watchBuffer(BufferWorker worker) {
     int bufferedSize = worker.bufferMap.size();
     if (bufferedSize >= MAX_BUFFERED_SIZE) {
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.registry;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
+
+public final class ScanVersionMetric {
+  private ScanVersionMetric() {}
+
+  private static final Counter FETCH_SLOT_VERSION_COUNTER =
+      Counter.build()
+          .namespace("session")
+          .subsystem("scan_ver")
+          .name("fetch_total")
+          .help("fetch slot versions total")
+          .labelNames("result")
+          .register();
+
+  static final Counter.Child FETCH_SUCCESS_COUNTER = FETCH_SLOT_VERSION_COUNTER.labels("Y");
+  static final Counter.Child FETCH_FAIL_COUNTER = FETCH_SLOT_VERSION_COUNTER.labels("N");
+  static final Counter.Child FETCH_TIMEOUT_COUNTER = FETCH_SLOT_VERSION_COUNTER.labels("timeout");
+
+  private static final Histogram FETCH_SLOT_VERSION_HISTOGRAM =
+      Histogram.build()
+          .namespace("session")
+          .subsystem("scan_ver")
+          .name("fetch_slot_millis")
+          .help("fetch slot versions in millis")
+          .labelNames("slot")
+          .buckets(5, 10, 20, 50, 100, 200, 500, 1000, 3000)
+          .register();
+
+  static void observeFetchSlotVersion(int slotId, long millis) {
+    FETCH_SLOT_VERSION_HISTOGRAM.labels(String.valueOf(slotId)).observe(millis);
+  }
+}
@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.server.session.registry;
 import com.alipay.sofa.registry.common.model.ConnectId;
 import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.dataserver.SlotVersions;
 import com.alipay.sofa.registry.common.model.store.*;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
@@ -57,7 +58,9 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import javax.annotation.PostConstruct;
 import org.apache.commons.lang.StringUtils;
@@ -106,6 +109,9 @@ public class SessionRegistry implements Registry {
 
   private final VersionWatchDog versionWatchDog = new VersionWatchDog();
 
+  // the digest of the slot when the last scan found nothing changed
+  final Map<Integer, SlotVersionDigest> slotVersionDigests = Maps.newConcurrentMap();
+
   @PostConstruct
   public void init() {
     ConcurrentUtils.createDaemonThread("SessionVerWatchDog", versionWatchDog).start();
@@ -412,16 +418,17 @@ public class SessionRegistry implements Registry {
   private void scanVersions(
       long round, String dataCenter, Map<String, DatumVersion> interestVersions) {
     Map<Integer, Map<String, DatumVersion>> interestVersionsGroup = groupBySlot(interestVersions);
-
-    Map<Integer, FetchVersionResult> resultMap =
-        Maps.newHashMapWithExpectedSize(interestVersions.size());
+    // the results are handled on arrival in the callbacks, the scan thread only waits the round
+    final CountDownLatch finished = new CountDownLatch(interestVersionsGroup.size());
+    List<FetchVersionResult> results = Lists.newArrayListWithCapacity(interestVersionsGroup.size());
     for (Map.Entry<Integer, Map<String, DatumVersion>> group : interestVersionsGroup.entrySet()) {
       final Integer slotId = group.getKey();
       try {
         final FetchVersionResult result =
-            fetchDataVersionAsync(dataCenter, slotId, group.getValue(), round);
+            fetchDataVersionAsync(dataCenter, slotId, group.getValue(), round, finished);
         if (result != null) {
-          resultMap.put(slotId, result);
+          results.add(result);
+          continue;
         }
       } catch (Throwable e) {
         SCAN_VER_LOGGER.error(
@@ -431,59 +438,66 @@ public class SessionRegistry implements Registry {
             group.getValue().size(),
             e);
       }
+      finished.countDown();
     }
     final int timeoutMillis = sessionServerConfig.getDataNodeExchangeTimeoutMillis();
-    final long waitDeadline = System.currentTimeMillis() + timeoutMillis + 2000;
-    // wait async finish
-    ConcurrentUtils.sleepUninterruptibly(100, TimeUnit.MILLISECONDS);
-    // check callback result, use for.count to avoid the clock skew
-    for (int i = 0; i < (timeoutMillis * 2) / 50; i++) {
-      handleFetchResult(round, dataCenter, resultMap);
-      if (resultMap.isEmpty() || System.currentTimeMillis() > waitDeadline) {
-        break;
+    if (!ConcurrentUtils.awaitUninterruptibly(
+        finished, timeoutMillis + 2000, TimeUnit.MILLISECONDS)) {
+      List<FetchVersionResult> timeouts = Lists.newArrayList();
+      for (FetchVersionResult result : results) {
+        if (!result.isDone()) {
+          timeouts.add(result);
+        }
       }
-      ConcurrentUtils.sleepUninterruptibly(50, TimeUnit.MILLISECONDS);
-    }
-    handleFetchResult(round, dataCenter, resultMap);
-    if (!resultMap.isEmpty()) {
+      ScanVersionMetric.FETCH_TIMEOUT_COUNTER.inc(timeouts.size());
       SCAN_VER_LOGGER.error(
-          "[fetchSlotVerTimeout]round={},callbacks={},{}", round, resultMap.size(), resultMap);
+          "[fetchSlotVerTimeout]round={},callbacks={},{}", round, timeouts.size(), timeouts);
     }
   }
 
-  int handleFetchResult(long round, String dataCenter, Map<Integer, FetchVersionResult> resultMap) {
-    int count = 0;
-    final Iterator<Map.Entry<Integer, FetchVersionResult>> it = resultMap.entrySet().iterator();
-    while (it.hasNext()) {
-      final Map.Entry<Integer, FetchVersionResult> e = it.next();
-      FetchVersionResult result = e.getValue();
-      if (result.callback == null) {
-        // not finish
-        continue;
+  /**
+   * handle the result of the slot when the callback arrives, the result is handled at most once
+   *
+   * @param result the fetch of the slot
+   * @param callback the callback of the fetch
+   * @return the count of the fired dataInfoIds, -1 if the result has been handled
+   */
+  int handleFetchResult(FetchVersionResult result, FetchVersionCallback callback) {
+    if (!result.done(callback)) {
+      return -1;
+    }
+    try {
+      ScanVersionMetric.observeFetchSlotVersion(
+          result.slotId, System.currentTimeMillis() - result.startTimestamp);
+      if (callback.versions == null) {
+        ScanVersionMetric.FETCH_FAIL_COUNTER.inc();
+        return 0;
       }
-      it.remove();
-      count++;
-      // success
-      if (result.callback.versions != null) {
-        final long now = System.currentTimeMillis();
-        for (Map.Entry<String, DatumVersion> version : result.callback.versions.entrySet()) {
-          final String dataInfoId = version.getKey();
-          final long verVal = version.getValue().getValue();
-          if (sessionInterests.checkInterestVersion(dataCenter, dataInfoId, verVal).interested) {
-            TriggerPushContext ctx = new TriggerPushContext(dataCenter, verVal, result.leader, now);
-            firePushService.fireOnChange(dataInfoId, ctx);
-            SCAN_VER_LOGGER.info(
-                "[fetchSlotVerNotify]round={},{},{},{},{}",
-                round,
-                e.getKey(),
-                dataInfoId,
-                dataCenter,
-                verVal);
-          }
+      ScanVersionMetric.FETCH_SUCCESS_COUNTER.inc();
+      int count = 0;
+      final long now = System.currentTimeMillis();
+      for (Map.Entry<String, DatumVersion> version : callback.versions.entrySet()) {
+        final String dataInfoId = version.getKey();
+        final long verVal = version.getValue().getValue();
+        if (sessionInterests.checkInterestVersion(result.dataCenter, dataInfoId, verVal)
+            .interested) {
+          TriggerPushContext ctx =
+              new TriggerPushContext(result.dataCenter, verVal, result.leader, now);
+          firePushService.fireOnChange(dataInfoId, ctx);
+          count++;
+          SCAN_VER_LOGGER.info(
+              "[fetchSlotVerNotify]round={},{},{},{},{}",
+              result.round,
+              result.slotId,
+              dataInfoId,
+              result.dataCenter,
+              verVal);
         }
       }
+      return count;
+    } finally {
+      result.finished.countDown();
     }
-    return count;
   }
 
   public String getDataCenterWhenPushEmpty() {
@@ -520,24 +534,40 @@ public class SessionRegistry implements Registry {
     return ret;
   }
 
-  private static final class FetchVersionResult {
+  static final class FetchVersionResult {
+    final long round;
+    final String dataCenter;
     final String leader;
     final int slotId;
-    volatile FetchVersionCallback callback;
-
-    FetchVersionResult(int slotId, String leader) {
+    final long startTimestamp = System.currentTimeMillis();
+    final CountDownLatch finished;
+    private final AtomicReference<FetchVersionCallback> callback = new AtomicReference<>();
+
+    FetchVersionResult(
+        long round, String dataCenter, int slotId, String leader, CountDownLatch finished) {
+      this.round = round;
+      this.dataCenter = dataCenter;
       this.leader = leader;
       this.slotId = slotId;
+      this.finished = finished;
+    }
+
+    boolean done(FetchVersionCallback callback) {
+      return this.callback.compareAndSet(null, callback);
+    }
+
+    boolean isDone() {
+      return callback.get() != null;
     }
 
     @Override
     public String toString() {
       return StringFormatter.format(
-          "FetchResult{slotId={},{},finish={}}", slotId, leader, callback != null);
+          "FetchResult{slotId={},{},finish={}}", slotId, leader, isDone());
     }
   }
 
-  private static final class FetchVersionCallback {
+  static final class FetchVersionCallback {
     final Map<String, DatumVersion> versions;
 
     FetchVersionCallback(Map<String, DatumVersion> versions) {
@@ -546,24 +576,88 @@ public class SessionRegistry implements Registry {
   }
 
   FetchVersionResult fetchDataVersionAsync(
-      String dataCenter, int slotId, Map<String, DatumVersion> interestVersions, long round) {
+      String dataCenter,
+      int slotId,
+      Map<String, DatumVersion> interestVersions,
+      long round,
+      CountDownLatch finished) {
     final String leader = slotTableCache.getLeader(slotId);
     if (StringUtils.isBlank(leader)) {
       SCAN_VER_LOGGER.error("[NoLeader]slotId={}, round={}", slotId, round);
       return null;
     }
-    final FetchVersionResult result = new FetchVersionResult(slotId, leader);
+    final FetchVersionResult result =
+        new FetchVersionResult(round, dataCenter, slotId, leader, finished);
+    final SlotVersionDigest digest =
+        new SlotVersionDigest(dataCenter, leader, SlotVersions.digest(interestVersions));
+    final SlotVersionDigest prevDigest = slotVersionDigests.get(slotId);
+    // the interests and the leader not changed since the last round without any change,
+    // only need to check the version digest of the slot
+    final boolean digestOnly = prevDigest != null && prevDigest.sameInterests(digest);
+    fetchDataVersion(result, dataCenter, interestVersions, round, digest, prevDigest, digestOnly);
+    return result;
+  }
+
+  private void fetchDataVersion(
+      FetchVersionResult result,
+      String dataCenter,
+      Map<String, DatumVersion> interestVersions,
+      long round,
+      SlotVersionDigest digest,
+      SlotVersionDigest prevDigest,
+      boolean digestOnly) {
+    final int slotId = result.slotId;
+    final String leader = result.leader;
     dataNodeService.fetchDataVersion(
         dataCenter,
         slotId,
         interestVersions,
-        new ExchangeCallback<Map<String, DatumVersion>>() {
+        digestOnly,
+        new ExchangeCallback<SlotVersions>() {
           @Override
-          public void onCallback(Channel channel, Map<String, DatumVersion> message) {
+          public void onCallback(Channel channel, SlotVersions message) {
+            final Map<String, DatumVersion> versions = message.getVersions();
+            final Long dataDigest = message.getDigest();
+            if (digestOnly) {
+              if (dataDigest == null || dataDigest != prevDigest.dataDigest) {
+                // the slot has changed, fetch with the interests
+                slotVersionDigests.remove(slotId, prevDigest);
+                SCAN_VER_LOGGER.info(
+                    "[fetchSlotDigest]round={},{},{},leader={},changed={}",
+                    round,
+                    slotId,
+                    dataCenter,
+                    leader,
+                    "Y");
+                try {
+                  fetchDataVersion(
+                      result, dataCenter, interestVersions, round, digest, null, false);
+                } catch (Throwable e) {
+                  onException(channel, e);
+                }
+                return;
+              }
+              // still check the interests, maybe some subscribers of the dataInfoId are behind
+              handleFetchResult(result, new FetchVersionCallback(interestVersions));
+              SCAN_VER_LOGGER.info(
+                  "[fetchSlotDigest]round={},{},{},leader={},changed={}",
+                  round,
+                  slotId,
+                  dataCenter,
+                  leader,
+                  "N");
+              return;
+            }
+            if (versions.isEmpty() && dataDigest != null) {
+              // all the interests are the same as the datum, the next round could check digest
+              slotVersionDigests.put(slotId, digest.withDataDigest(dataDigest));
+            } else {
+              slotVersionDigests.remove(slotId);
+            }
             // merge the version
             Map<String, DatumVersion> mergedVersions = new HashMap<>(interestVersions);
-            mergedVersions.putAll(message);
-            result.callback = new FetchVersionCallback(mergedVersions);
+            mergedVersions.putAll(versions);
+            handleFetchResult(result, new FetchVersionCallback(mergedVersions));
             SCAN_VER_LOGGER.info(
                 "[fetchSlotVer]round={},{},{},leader={},interests={},gets={},success={}",
                 round,
@@ -571,13 +665,14 @@ public class SessionRegistry implements Registry {
                 dataCenter,
                 leader,
                 interestVersions.size(),
-                message.size(),
+                versions.size(),
                 "Y");
           }
 
           @Override
           public void onException(Channel channel, Throwable e) {
-            result.callback = new FetchVersionCallback(null);
+            slotVersionDigests.remove(slotId);
+            handleFetchResult(result, new FetchVersionCallback(null));
             SCAN_VER_LOGGER.info(
                 "[fetchSlotVer]round={},{},{},leader={},interests={},gets={},success={}",
                 round,
@@ -597,7 +692,35 @@ public class SessionRegistry implements Registry {
                 e);
           }
         });
-    return result;
+  }
+
+  static final class SlotVersionDigest {
+    final String dataCenter;
+    final String leader;
+    final long interestDigest;
+    final long dataDigest;
+
+    SlotVersionDigest(String dataCenter, String leader, long interestDigest) {
+      this(dataCenter, leader, interestDigest, 0);
+    }
+
+    private SlotVersionDigest(
+        String dataCenter, String leader, long interestDigest, long dataDigest) {
+      this.dataCenter = dataCenter;
+      this.leader = leader;
+      this.interestDigest = interestDigest;
+      this.dataDigest = dataDigest;
+    }
+
+    SlotVersionDigest withDataDigest(long dataDigest) {
+      return new SlotVersionDigest(dataCenter, leader, interestDigest, dataDigest);
+    }
+
+    boolean sameInterests(SlotVersionDigest digest) {
+      return interestDigest == digest.interestDigest
+          && dataCenter.equals(digest.dataCenter)
+          && leader.equals(digest.leader);
+    }
   }
 
   public void cleanClientConnect() {
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.remoting.handler;
+
+import com.alipay.sofa.registry.core.model.BaseRegister;
+import com.alipay.sofa.registry.core.model.BatchRegisterRequest;
+import com.alipay.sofa.registry.core.model.BatchRegisterResponse;
+import com.alipay.sofa.registry.core.model.PublisherRegister;
+import com.alipay.sofa.registry.core.model.RegisterResponse;
+import com.alipay.sofa.registry.core.model.SubscriberRegister;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.session.strategy.PublisherHandlerStrategy;
+import com.alipay.sofa.registry.server.session.strategy.SubscriberHandlerStrategy;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/** handle the registers of the batch one by one, the failure of an item not affects the others */
+public class BatchRegisterHandler extends AbstractClientDataRequestHandler<BatchRegisterRequest> {
+
+  @Autowired PublisherHandlerStrategy publisherHandlerStrategy;
+
+  @Autowired SubscriberHandlerStrategy subscriberHandlerStrategy;
+
+  @Override
+  public Object doHandle(Channel channel, BatchRegisterRequest request) {
+    BatchRegisterResponse response = new BatchRegisterResponse();
+    for (BaseRegister register : request.getRegisters()) {
+      RegisterResponse registerResponse = new RegisterResponse();
+      if (register instanceof PublisherRegister) {
+        publisherHandlerStrategy.handlePublisherRegister(
+            channel, (PublisherRegister) register, registerResponse);
+      } else if (register instanceof SubscriberRegister) {
+        subscriberHandlerStrategy.handleSubscriberRegister(
+            channel, (SubscriberRegister) register, registerResponse);
+      } else {
+        registerResponse.setSuccess(false);
+        registerResponse.setRegistId(register == null ? null : register.getRegistId());
+        registerResponse.setMessage("unsupported register type in batch");
+      }
+      response.addResponse(registerResponse);
+    }
+    response.setSuccess(true);
+    return response;
+  }
+
+  @Override
+  public Class interest() {
+    return BatchRegisterRequest.class;
+  }
+}
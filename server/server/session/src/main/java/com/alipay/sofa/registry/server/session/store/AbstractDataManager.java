@@ -39,7 +39,7 @@ public abstract class AbstractDataManager<T extends BaseInfo>
 
   protected final Logger logger;
 
-  final ConnectDataIndexer connectDataIndexer = new ConnectDataIndexer(getClass().getName());
+  final ConnectDataIndexer connectDataIndexer = new ConnectDataIndexer();
 
   @Autowired protected SessionServerConfig sessionServerConfig;
 
@@ -80,7 +80,17 @@ public abstract class AbstractDataManager<T extends BaseInfo>
   }
 
   protected Tuple<T, Boolean> addData(T data) {
-    return connectDataIndexer.add(data.connectId(), DataPos.of(data), () -> addDataToStore(data));
+    final ConnectId connectId = data.connectId();
+    Tuple<T, Boolean> ret =
+        connectDataIndexer.add(connectId, DataPos.of(data), () -> addDataToStore(data));
+    final T existing = ret.o1;
+    if (!ret.o2) {
+      // conflict with a newer one, the index of the input is useless
+      connectDataIndexer.remove(connectId, DataPos.of(data));
+    } else if (existing != null && !connectId.equals(existing.connectId())) {
+      connectDataIndexer.remove(existing.connectId(), DataPos.of(existing));
+    }
+    return ret;
   }
 
   @Override
@@ -94,6 +104,8 @@ public abstract class AbstractDataManager<T extends BaseInfo>
 
     if (dataToDelete == null) {
       logger.warn("Delete but not registered, {}, {}", dataInfoId, registerId);
+    } else {
+      connectDataIndexer.remove(dataToDelete.connectId(), DataPos.of(dataToDelete));
     }
     return dataToDelete;
   }
@@ -104,16 +116,14 @@ public abstract class AbstractDataManager<T extends BaseInfo>
     Map<String, T> ret = Maps.newHashMapWithExpectedSize(128);
     for (DataPos pos : connectDataIndexer.queryByKey(connectId)) {
       Map<String, T> dataMap = store.get(pos.getDataInfoId());
-      if (CollectionUtils.isEmpty(dataMap)) {
-        continue;
-      }
-      T data = dataMap.get(pos.getRegisterId());
-      if (data == null || !data.connectId().equals(connectId)) {
-        continue;
-      }
-      if (dataMap.remove(pos.getRegisterId(), data)) {
+      T data = dataMap == null ? null : dataMap.get(pos.getRegisterId());
+      if (data != null
+          && data.connectId().equals(connectId)
+          && dataMap.remove(pos.getRegisterId(), data)) {
         ret.put(data.getRegisterId(), data);
       }
+      // the view is not copied, the remove is safe during the iteration
+      connectDataIndexer.remove(connectId, pos);
     }
     return ret;
   }
@@ -235,22 +245,10 @@ public abstract class AbstractDataManager<T extends BaseInfo>
 
   class ConnectDataIndexer extends DataIndexer<ConnectId, DataPos> {
 
-    public ConnectDataIndexer(String name) {
-      super(name);
-    }
-
     @Override
-    protected void dataStoreForEach(BiConsumer<ConnectId, DataPos> consumer) {
-      Store<T> store = getStore();
-      if (store == null) {
-        return;
-      }
-      store.forEach(
-          (dataInfoId, datum) -> {
-            for (T data : datum.values()) {
-              consumer.accept(data.connectId(), DataPos.of(data));
-            }
-          });
+    protected boolean dataStoreContains(ConnectId connectId, DataPos pos) {
+      T data = queryById(pos.getRegisterId(), pos.getDataInfoId());
+      return data != null && connectId.equals(data.connectId());
     }
   }
 }
@@ -17,128 +17,83 @@
 package com.alipay.sofa.registry.server.session.store;
 
 import com.alipay.sofa.registry.concurrent.UnThrowableCallable;
-import com.alipay.sofa.registry.log.Logger;
-import com.alipay.sofa.registry.log.LoggerFactory;
-import com.alipay.sofa.registry.util.ConcurrentUtils;
-import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
-import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Sets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.BiConsumer;
 
+/**
+ * the index is maintained incrementally: the entry of a key is guarded by its own lock, the add of
+ * the index and the write of the data store are done under the lock, and the remove of the index
+ * rechecks the data store under the lock, so the index never misses the data in the store and the
+ * empty entries are dropped without a full rebuild
+ */
 public abstract class DataIndexer<K, V> {
-  private static final Logger LOG = LoggerFactory.getLogger("SRV-CONNECT");
-
-  private volatile Map<K, Set<V>> index = new ConcurrentHashMap<>(1024);
-  private volatile Map<K, Set<V>> tempIndex = new ConcurrentHashMap<>(1024);
-  private volatile Term lastTerm = new Term();
-  private volatile boolean doubleWrite = false;
-
-  private final IndexerRefresher indexerRefresher = new IndexerRefresher();
-
-  public DataIndexer(String name) {
-    ConcurrentUtils.createDaemonThread(name + "-IndexerRefresher", indexerRefresher).start();
-  }
+  private final Map<K, Entry<V>> index = new ConcurrentHashMap<>(1024);
 
   public <R> R add(K key, V val, UnThrowableCallable<R> dataStoreCaller) {
-    Term term = lastTerm;
-    term.start.incrementAndGet();
-    try {
-      if (doubleWrite) {
-        insert(tempIndex, key, val);
+    for (; ; ) {
+      final Entry<V> entry = index.computeIfAbsent(key, k -> new Entry<>());
+      synchronized (entry) {
+        if (entry.removed) {
+          // the entry has been dropped, retry with a new entry
+          continue;
+        }
+        entry.values.add(val);
+        return dataStoreCaller.call();
       }
-      insert(index, key, val);
-      return dataStoreCaller.call();
-    } finally {
-      term.done.incrementAndGet();
     }
   }
 
-  private void insert(Map<K, Set<V>> d, K key, V val) {
-    d.computeIfAbsent(key, k -> Sets.newConcurrentHashSet()).add(val);
-  }
-
-  public Set<V> queryByKey(K key) {
-    Set<V> s = index.get(key);
-    if (s == null) {
-      return Collections.emptySet();
+  /**
+   * remove the val if the data store not contains it anymore, call it after the data is removed or
+   * replaced in the data store
+   *
+   * @param key the key
+   * @param val the val
+   * @return true if the val is removed from the index
+   */
+  public boolean remove(K key, V val) {
+    final Entry<V> entry = index.get(key);
+    if (entry == null) {
+      return false;
     }
-    return new HashSet<>(s);
-  }
-
-  public Set<K> getKeys() {
-    return new HashSet<>(index.keySet());
-  }
-
-  private void refresh() {
-    tempIndex = new ConcurrentHashMap<>(this.index.size());
-    Term prevTerm = lastTerm;
-    doubleWrite = true;
-    try {
-      lastTerm = new Term();
-      long startTime = System.currentTimeMillis();
-      boolean timeout = !prevTerm.waitAllDone();
-      long waitTime = System.currentTimeMillis();
-      if (timeout) {
-        LOG.error("[IndexBuildTimeout]index refresh timeout span={}ms", waitTime - startTime);
+    synchronized (entry) {
+      if (entry.removed || dataStoreContains(key, val)) {
+        return false;
+      }
+      final boolean removed = entry.values.remove(val);
+      if (entry.values.isEmpty()) {
+        entry.removed = true;
+        index.remove(key, entry);
       }
-      dataStoreForEach(
-          (key, val) -> {
-            insert(tempIndex, key, val);
-          });
-      LOG.info(
-          "index refresh finished waitSpan={}ms, buildSpan={}ms, indexSize={}",
-          waitTime - startTime,
-          System.currentTimeMillis() - waitTime,
-          tempIndex.size());
-      index = tempIndex;
-    } finally {
-      doubleWrite = false;
+      return removed;
     }
   }
 
-  @VisibleForTesting
-  public void triggerRefresh() {
-    indexerRefresher.wakeup();
+  /**
+   * the returned view is weakly consistent and not copied, the caller should not modify it
+   *
+   * @param key the key
+   * @return the values of the key
+   */
+  public Collection<V> queryByKey(K key) {
+    final Entry<V> entry = index.get(key);
+    return entry == null ? Collections.emptySet() : entry.view;
   }
 
-  protected abstract void dataStoreForEach(BiConsumer<K, V> consumer);
-
-  private static final class Term {
-    private final AtomicLong start = new AtomicLong(0);
-    private final AtomicLong done = new AtomicLong(0);
-    private static final long timeoutMillis = 10000;
-
-    private boolean waitAllDone() {
-      long startTs = System.currentTimeMillis();
-      for (; ; ) {
-        long doneCount = this.done.get();
-        long startCount = this.start.get();
-        if (startCount == doneCount) {
-          return true;
-        }
-        if (System.currentTimeMillis() - startTs > timeoutMillis) {
-          return false;
-        }
-        ConcurrentUtils.sleepUninterruptibly(1, TimeUnit.MILLISECONDS);
-      }
-    }
+  public Set<K> getKeys() {
+    return new HashSet<>(index.keySet());
   }
 
-  private final class IndexerRefresher extends WakeUpLoopRunnable {
+  public int size() {
+    return index.size();
+  }
 
-    @Override
-    public void runUnthrowable() {
-      refresh();
-    }
+  protected abstract boolean dataStoreContains(K key, V val);
 
-    @Override
-    public int getWaitingMillis() {
-      return (int) ((ThreadLocalRandom.current().nextDouble() * 30 + 30) * 1000);
-    }
+  private static final class Entry<V> {
+    final Set<V> values = Sets.newConcurrentHashSet();
+    final Collection<V> view = Collections.unmodifiableSet(values);
+    boolean removed;
   }
 }
@@ -45,6 +45,22 @@ public interface Interests extends DataManager<Subscriber, String, String> {
 
   Tuple<Map<String, DatumVersion>, List<Subscriber>> selectSubscribers(String dataCenter);
 
+  /**
+   * notify the pushed version of the subscriber has been updated
+   *
+   * @param subscriber
+   * @param dataCenter
+   */
+  void onPushed(Subscriber subscriber, String dataCenter);
+
+  /**
+   * notify the subscriber has been marked to push empty
+   *
+   * @param subscriber
+   * @param dataCenter
+   */
+  void onMarkPushEmpty(Subscriber subscriber, String dataCenter);
+
   Map<String, List<String>> filterIPs(String group, int limit);
 
   enum InterestVersionCheck {
@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.server.session.store;
 
+import com.alipay.sofa.registry.common.model.ConnectId;
 import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
@@ -28,6 +29,7 @@ import com.google.common.collect.Maps;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.util.CollectionUtils;
@@ -46,6 +48,8 @@ public class SessionInterests extends AbstractDataManager<Subscriber> implements
 
   private final Store<Subscriber> store = new SimpleStore<>(1024 * 16, 256);
 
+  private final Map<String, PushedVersionAggregate> aggregates = new ConcurrentHashMap<>(1024 * 16);
+
   @Override
   public boolean add(Subscriber subscriber) {
     ParaCheckUtil.checkNotNull(subscriber.getScope(), "subscriber.scope");
@@ -53,9 +57,54 @@ public class SessionInterests extends AbstractDataManager<Subscriber> implements
 
     Subscriber.internSubscriber(subscriber);
     Tuple<Subscriber, Boolean> ret = addData(subscriber);
+    if (ret.o2 && ret.o1 != null) {
+      // the replaced one may hold the max pushed version
+      onRemoved(ret.o1);
+    }
     return ret.o2;
   }
 
+  @Override
+  public Subscriber deleteById(String registerId, String dataInfoId) {
+    Subscriber subscriber = super.deleteById(registerId, dataInfoId);
+    if (subscriber != null) {
+      onRemoved(subscriber);
+    }
+    return subscriber;
+  }
+
+  @Override
+  public Map<String, Subscriber> deleteByConnectId(ConnectId connectId) {
+    Map<String, Subscriber> ret = super.deleteByConnectId(connectId);
+    for (Subscriber subscriber : ret.values()) {
+      onRemoved(subscriber);
+    }
+    return ret;
+  }
+
+  private void onRemoved(Subscriber subscriber) {
+    PushedVersionAggregate aggregate = aggregates.get(subscriber.getDataInfoId());
+    if (aggregate != null) {
+      aggregate.invalidateAll();
+    }
+  }
+
+  @Override
+  public void onPushed(Subscriber subscriber, String dataCenter) {
+    PushedVersionAggregate aggregate = aggregates.get(subscriber.getDataInfoId());
+    if (aggregate != null) {
+      aggregate.onPushed(subscriber, dataCenter);
+    }
+  }
+
+  @Override
+  public void onMarkPushEmpty(Subscriber subscriber, String dataCenter) {
+    PushedVersionAggregate aggregate = aggregates.get(subscriber.getDataInfoId());
+    if (aggregate != null) {
+      aggregate.invalidate(dataCenter);
+    }
+  }
+
   @Override
   public InterestVersionCheck checkInterestVersion(
       String dataCenter, String datumDataInfoId, long version) {
@@ -88,26 +137,26 @@ public class SessionInterests extends AbstractDataManager<Subscriber> implements
     store.forEach(
         (String dataInfoId, Map<String, Subscriber> subs) -> {
           if (CollectionUtils.isEmpty(subs)) {
+            aggregates.remove(dataInfoId);
             return;
           }
-          long maxVersion = 0;
-          for (Subscriber sub : subs.values()) {
+          final PushedVersions pushedVersions =
+              aggregates
+                  .computeIfAbsent(dataInfoId, k -> new PushedVersionAggregate())
+                  .get(dataCenter, subs.values());
+          for (Subscriber sub : pushedVersions.markedPushEmpty) {
             // not global sub and not local dataCenter, not interest the other dataCenter's pub
             if (sub.getScope() != ScopeEnum.global && !isLocalDataCenter) {
               continue;
             }
-            if (sub.isMarkedPushEmpty(dataCenter)) {
-              if (sub.needPushEmpty(dataCenter)) {
-                toPushEmptySubscribers.add(sub);
-              }
-              continue;
-            }
-            final long pushVersion = sub.getPushedVersion(dataCenter);
-            if (maxVersion < pushVersion) {
-              maxVersion = pushVersion;
+            if (sub.needPushEmpty(dataCenter)) {
+              toPushEmptySubscribers.add(sub);
             }
           }
-          versions.put(dataInfoId, new DatumVersion(maxVersion));
+          versions.put(
+              dataInfoId,
+              new DatumVersion(
+                  isLocalDataCenter ? pushedVersions.maxVersion : pushedVersions.globalMaxVersion));
         });
     return Tuple.of(versions, toPushEmptySubscribers);
   }
@@ -138,4 +187,69 @@ public class SessionInterests extends AbstractDataManager<Subscriber> implements
         });
     return ret;
   }
+
+  /**
+   * the pushed versions of the subscribers of a dataInfoId, computed lazily per dataCenter. the
+   * push only raises the max version, the remove and the mark of push empty invalidate it
+   */
+  private final class PushedVersionAggregate {
+    private final Map<String, PushedVersions> versions = Maps.newHashMapWithExpectedSize(4);
+
+    synchronized PushedVersions get(String dataCenter, Collection<Subscriber> subs) {
+      PushedVersions pushedVersions = versions.get(dataCenter);
+      if (pushedVersions == null) {
+        pushedVersions = PushedVersions.of(dataCenter, subs);
+        versions.put(dataCenter, pushedVersions);
+      }
+      return pushedVersions;
+    }
+
+    synchronized void onPushed(Subscriber subscriber, String dataCenter) {
+      final PushedVersions pushedVersions = versions.get(dataCenter);
+      if (pushedVersions == null || subscriber.isMarkedPushEmpty(dataCenter)) {
+        return;
+      }
+      // the subscriber maybe removed or replaced after the push. check it under the monitor, the
+      // remove happens before invalidateAll, so a remove after the check clears this update
+      if (queryById(subscriber.getRegisterId(), subscriber.getDataInfoId()) != subscriber) {
+        return;
+      }
+      pushedVersions.update(subscriber, subscriber.getPushedVersion(dataCenter));
+    }
+
+    synchronized void invalidate(String dataCenter) {
+      versions.remove(dataCenter);
+    }
+
+    synchronized void invalidateAll() {
+      versions.clear();
+    }
+  }
+
+  private static final class PushedVersions {
+    long maxVersion;
+    long globalMaxVersion;
+    final List<Subscriber> markedPushEmpty = Lists.newArrayListWithCapacity(2);
+
+    static PushedVersions of(String dataCenter, Collection<Subscriber> subs) {
+      PushedVersions pushedVersions = new PushedVersions();
+      for (Subscriber sub : subs) {
+        if (sub.isMarkedPushEmpty(dataCenter)) {
+          pushedVersions.markedPushEmpty.add(sub);
+          continue;
+        }
+        pushedVersions.update(sub, sub.getPushedVersion(dataCenter));
+      }
+      return pushedVersions;
+    }
+
+    void update(Subscriber sub, long pushedVersion) {
+      if (maxVersion < pushedVersion) {
+        maxVersion = pushedVersion;
+      }
+      if (sub.getScope() == ScopeEnum.global && globalMaxVersion < pushedVersion) {
+        globalMaxVersion = pushedVersion;
+      }
+    }
+  }
 }
@@ -17,16 +17,16 @@
 package com.alipay.sofa.registry.server.session.store;
 
 import com.alipay.sofa.registry.common.model.Tuple;
+import com.alipay.sofa.registry.common.model.slot.SlotArray;
 import com.google.common.collect.Maps;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import org.glassfish.jersey.internal.guava.Sets;
 
 public class SlotStore<T> implements Store<T> {
-  private final Map<Integer, SimpleStore<T>> slots = new ConcurrentHashMap<>(512);
+  private final SlotArray<SimpleStore<T>> slots = new SlotArray<>();
   private final SlotOfCaller slotOfCaller;
 
   public SlotStore(SlotOfCaller slotOfCaller) {
@@ -54,7 +54,7 @@ public class SlotStore<T> implements Store<T> {
 
   @Override
   public void forEach(BiConsumer<String, Map<String, T>> consumer) {
-    for (SimpleStore<T> store : slots.values()) {
+    for (SimpleStore<T> store : slots) {
       store.forEach(consumer);
     }
   }
@@ -62,7 +62,7 @@ public class SlotStore<T> implements Store<T> {
   @Override
   public Map<String, Map<String, T>> copyMap() {
     Map<String, Map<String, T>> ret = Maps.newHashMapWithExpectedSize(1024 * 16);
-    for (SimpleStore<T> store : slots.values()) {
+    for (SimpleStore<T> store : slots) {
       ret.putAll(store.copyMap());
     }
     return ret;
@@ -76,7 +76,7 @@ public class SlotStore<T> implements Store<T> {
   public Tuple<Long, Long> count() {
     long dataInfoIdCount = 0;
     long dataCount = 0;
-    for (SimpleStore<T> store : slots.values()) {
+    for (SimpleStore<T> store : slots) {
       Tuple<Long, Long> ret = store.count();
       dataInfoIdCount += ret.getFirst();
       dataCount += ret.getSecond();
@@ -87,7 +87,7 @@ public class SlotStore<T> implements Store<T> {
   @Override
   public Collection<String> getDataInfoIds() {
     Set<String> ret = Sets.newHashSetWithExpectedSize(1024 * 16);
-    for (SimpleStore<T> store : slots.values()) {
+    for (SimpleStore<T> store : slots) {
       ret.addAll(store.getDataInfoIds());
     }
     return ret;
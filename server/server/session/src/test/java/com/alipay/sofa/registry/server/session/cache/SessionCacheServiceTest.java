@@ -18,7 +18,9 @@ package com.alipay.sofa.registry.server.session.cache;
 
 import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.server.session.TestUtils;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
 import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
+import com.alipay.sofa.registry.server.session.node.service.FetchedDatum;
 import java.util.Collections;
 import org.assertj.core.util.Lists;
 import org.junit.Assert;
@@ -37,6 +39,8 @@ public class SessionCacheServiceTest {
     DatumCacheGenerator generator = new DatumCacheGenerator();
     cacheService.setCacheGenerators(Collections.singletonMap(DatumKey.class.getName(), generator));
     generator.dataNodeService = Mockito.mock(DataNodeService.class);
+    Mockito.when(generator.dataNodeService.fetchDatum(Mockito.anyString(), Mockito.anyString()))
+        .thenReturn(new FetchedDatum(null, "192.168.0.1", 1));
 
     cacheService.init();
     DatumKey datumKey = new DatumKey(dataInfoId, dataCenter);
@@ -64,8 +68,9 @@ public class SessionCacheServiceTest {
             "testGroup",
             Lists.newArrayList(System.currentTimeMillis()));
 
-    Mockito.when(generator.dataNodeService.fetch(Mockito.anyString(), Mockito.anyString()))
-        .thenReturn(subDatum);
+    final FetchedDatum fetched = new FetchedDatum(subDatum, "192.168.0.1", 1);
+    Mockito.when(generator.dataNodeService.fetchDatum(Mockito.anyString(), Mockito.anyString()))
+        .thenReturn(fetched);
     // invalidate the null value
     cacheService.invalidate(key);
     value = cacheService.getValue(key);
@@ -77,6 +82,35 @@ public class SessionCacheServiceTest {
     value = cacheService.getValueIfPresent(key);
     Assert.assertNull(value);
 
+    // reload the delta based on the stale value
+    SubDatum newer =
+        SubDatum.normalOf(
+            dataInfoId,
+            dataCenter,
+            200,
+            Collections.emptyList(),
+            "testDataId",
+            "testInstanceId",
+            "testGroup",
+            Lists.newArrayList(System.currentTimeMillis()));
+    Mockito.when(
+            generator.dataNodeService.fetchDelta(
+                Mockito.anyString(), Mockito.anyString(), Mockito.eq(fetched)))
+        .thenReturn(new FetchedDatum(newer, "192.168.0.1", 1));
+    SessionServerConfigBean config = TestUtils.newSessionConfig(dataCenter);
+    generator.sessionServerConfig = config;
+    Value stale = cacheService.getValue(key);
+    Assert.assertEquals(((DatumValue) stale).getFetched(), fetched);
+    value = cacheService.reload(key, stale);
+    Assert.assertEquals(value.getPayload(), newer);
+    Assert.assertEquals(cacheService.getValueIfPresent(key).getPayload(), newer);
+
+    // disable the delta
+    config.setDataDeltaFetchEnable(false);
+    value = cacheService.reload(key, stale);
+    Assert.assertEquals(value.getPayload(), subDatum);
+    cacheService.invalidate(key);
+
     // touch remove listener
     for (int i = 0; i < 1000; i++) {
       datumKey = new DatumKey(dataInfoId + ":" + i, dataCenter);
@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.server.session.converter;
 
 import com.alipay.sofa.registry.common.model.ServerDataBox;
 import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.common.model.store.PushData;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.common.model.store.SubPublisher;
 import com.alipay.sofa.registry.core.model.DataBox;
@@ -27,8 +28,10 @@ import com.alipay.sofa.registry.core.model.ScopeEnum;
 import com.alipay.sofa.registry.server.session.TestUtils;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
 import com.alipay.sofa.registry.server.session.predicate.ZonePredicate;
+import com.google.common.collect.Lists;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Predicate;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -73,6 +76,54 @@ public class ReceivedDataConverterTest {
     Assert.assertEquals(dataBoxes.get(0).getData(), subPublisher.getDataList().get(0).extract());
   }
 
+  @Test
+  public void testGetReceivedDataDelta() throws Exception {
+    SessionServerConfigBean configBean = TestUtils.newSessionConfig("testDc");
+    List<SubPublisher> publishers = Lists.newArrayList();
+    for (int i = 0; i < 5; i++) {
+      publishers.add(TestUtils.newSubPublisher(1, System.currentTimeMillis()));
+    }
+    SubDatum base = TestUtils.newSubDatum(dataId, 100, publishers);
+    List<String> subIds = Collections.singletonList("testSubId");
+    Predicate<String> zonePredicate =
+        ZonePredicate.zonePredicate(dataId, localZone, ScopeEnum.dataCenter, configBean);
+    // nothing changed, empty delta
+    PushData<ReceivedData> pushData =
+        ReceivedDataConverter.getReceivedDataDelta(
+            base, base, ScopeEnum.dataCenter, subIds, localZone, zonePredicate);
+    Assert.assertEquals(pushData.getDataCount(), 5);
+    Assert.assertTrue(pushData.getPayload().getData().isEmpty());
+    Assert.assertTrue(pushData.getPayload().getRemovedData().isEmpty());
+
+    SubPublisher removed = publishers.remove(0);
+    SubPublisher added = TestUtils.newSubPublisher(1, System.currentTimeMillis(), "testCell2");
+    publishers.add(added);
+    SubDatum datum = TestUtils.newSubDatum(dataId, 200, publishers);
+    pushData =
+        ReceivedDataConverter.getReceivedDataDelta(
+            base, datum, ScopeEnum.dataCenter, subIds, localZone, zonePredicate);
+    Assert.assertEquals(pushData.getDataCount(), 5);
+    ReceivedData data = pushData.getPayload();
+    assertReceivedData(data, datum, subIds, localZone);
+    Assert.assertEquals(data.getBaseVersion().longValue(), 100);
+    Assert.assertEquals(data.getData().size(), 1);
+    Assert.assertEquals(data.getData().get(added.getCell()).size(), 1);
+    Assert.assertEquals(data.getRemovedData().size(), 1);
+    Assert.assertEquals(
+        data.getRemovedData().get(removed.getCell()).get(0).getData(),
+        removed.getDataList().get(0).extract());
+
+    // all changed, the delta is not smaller than the full
+    datum =
+        TestUtils.newSubDatum(
+            dataId,
+            300,
+            Collections.singletonList(TestUtils.newSubPublisher(1, System.currentTimeMillis())));
+    Assert.assertNull(
+        ReceivedDataConverter.getReceivedDataDelta(
+            base, datum, ScopeEnum.dataCenter, subIds, localZone, zonePredicate));
+  }
+
   @Test
   public void testGetReceivedConfigData() throws Exception {
     ServerDataBox dataBox = new ServerDataBox("testDataBox");
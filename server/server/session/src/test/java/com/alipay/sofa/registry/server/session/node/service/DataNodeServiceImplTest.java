@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.node.service;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.alipay.sofa.registry.common.model.dataserver.BatchRequest;
+import com.alipay.sofa.registry.common.model.dataserver.GetDataDeltaRequest;
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotAccess;
+import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
+import com.alipay.sofa.registry.remoting.exchange.NodeExchanger;
+import com.alipay.sofa.registry.remoting.exchange.RequestException;
+import com.alipay.sofa.registry.remoting.exchange.message.Request;
+import com.alipay.sofa.registry.remoting.exchange.message.Response;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.alipay.sofa.registry.server.session.slot.SlotTableCache;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class DataNodeServiceImplTest {
+  private final List<Request> requests = Lists.newArrayList();
+  private DataNodeServiceImpl dataNodeService;
+  private SessionServerConfigBean config;
+
+  @Before
+  public void before() {
+    config = new SessionServerConfigBean(null);
+    config.setDataNodeMaxInflightBatches(2);
+    config.setDataNodeRetryBackoffMillis(100);
+    config.setDataNodeRetryTimes(1);
+    SlotTableCache slotTableCache = mock(SlotTableCache.class);
+    when(slotTableCache.getEpoch()).thenReturn(10L);
+    when(slotTableCache.getSlot(anyInt()))
+        .thenAnswer(
+            invocation -> {
+              final int slotId = (Integer) invocation.getArguments()[0];
+              // slot 0,1,2 on the same data node
+              String leader = slotId < 3 ? "192.168.0.1" : "192.168.0.2";
+              return new Slot(slotId, leader, 1, Collections.emptySet());
+            });
+    NodeExchanger exchanger = mock(NodeExchanger.class);
+    when(exchanger.request(Mockito.any(Request.class)))
+        .thenAnswer(
+            invocation -> {
+              requests.add((Request) invocation.getArguments()[0]);
+              return (Response) () -> Response.ResultStatus.SUCCESSFUL;
+            });
+    dataNodeService = new DataNodeServiceImpl();
+    dataNodeService.setSessionServerConfig(config);
+    dataNodeService.setSlotTableCache(slotTableCache);
+    dataNodeService.setDataNodeExchanger(exchanger);
+  }
+
+  private static BatchRequest batchOf(Request request) {
+    return (BatchRequest) request.getRequestBody();
+  }
+
+  private static void success(Request request) {
+    request
+        .getCallBackHandler()
+        .onCallback(null, SlotAccessGenericResponse.successResponse(null, null));
+  }
+
+  @Test
+  public void testWindow() throws Exception {
+    DataNodeServiceImpl.Worker worker = dataNodeService.new Worker(new LinkedBlockingQueue<>());
+    for (int slotId = 0; slotId < 4; slotId++) {
+      worker.queue.add(new DataNodeServiceImpl.Req(slotId, "req-" + slotId));
+    }
+    worker.runOnce(0);
+    // the window of 192.168.0.1 is full, slot 2 is waiting
+    Assert.assertEquals(3, requests.size());
+    Assert.assertEquals(0, batchOf(requests.get(0)).getSlotId());
+    Assert.assertEquals(1, batchOf(requests.get(1)).getSlotId());
+    Assert.assertEquals(3, batchOf(requests.get(2)).getSlotId());
+    Assert.assertEquals(10, batchOf(requests.get(0)).getSlotTableEpoch());
+
+    // the slot in flight is not sent again
+    worker.queue.add(new DataNodeServiceImpl.Req(0, "req-0-1"));
+    worker.runOnce(0);
+    Assert.assertEquals(3, requests.size());
+
+    success(requests.get(0));
+    Assert.assertEquals(0, worker.waitMillis(System.currentTimeMillis()));
+    worker.runOnce(0);
+    Assert.assertEquals(4, requests.size());
+    BatchRequest batch = batchOf(requests.get(3));
+    Assert.assertEquals(0, batch.getSlotId());
+    Assert.assertEquals(Lists.newArrayList("req-0-1"), batch.getRequest());
+
+    success(requests.get(1));
+    worker.runOnce(0);
+    Assert.assertEquals(5, requests.size());
+    Assert.assertEquals(2, batchOf(requests.get(4)).getSlotId());
+  }
+
+  @Test
+  public void testRetry() throws Exception {
+    DataNodeServiceImpl.Worker worker = dataNodeService.new Worker(new LinkedBlockingQueue<>());
+    worker.queue.add(new DataNodeServiceImpl.Req(3, "req-3"));
+    worker.runOnce(0);
+    Assert.assertEquals(1, requests.size());
+
+    requests.get(0).getCallBackHandler().onException(null, new Exception("mock"));
+    // the completion not occupies the queue of the callers
+    Assert.assertTrue(worker.queue.isEmpty());
+    Assert.assertEquals(0, worker.waitMillis(System.currentTimeMillis()));
+    worker.runOnce(0);
+    Assert.assertEquals(1, requests.size());
+    Assert.assertEquals(1, worker.retrySlots.size());
+    final long waitMillis = worker.waitMillis(System.currentTimeMillis());
+    Assert.assertTrue(waitMillis > 0 && waitMillis <= 100);
+
+    // the retry is due
+    worker.process(System.currentTimeMillis() + 1000);
+    Assert.assertEquals(2, requests.size());
+    Assert.assertEquals(Lists.newArrayList("req-3"), batchOf(requests.get(1)).getRequest());
+    Assert.assertTrue(worker.retrySlots.isEmpty());
+
+    // retry too many times, dropped
+    requests
+        .get(1)
+        .getCallBackHandler()
+        .onCallback(null, SlotAccessGenericResponse.failedResponse(null, "mock"));
+    worker.runOnce(0);
+    Assert.assertTrue(worker.retrySlots.isEmpty());
+    Assert.assertTrue(worker.slotQueues.isEmpty());
+    Assert.assertTrue(worker.inflights.isEmpty());
+    Assert.assertEquals(0, worker.pendingReqs);
+  }
+
+  @Test
+  public void testRetryOrder() throws Exception {
+    DataNodeServiceImpl.Worker worker = dataNodeService.new Worker(new LinkedBlockingQueue<>());
+    worker.queue.add(new DataNodeServiceImpl.Req(3, "req-1"));
+    worker.runOnce(0);
+    worker.queue.add(new DataNodeServiceImpl.Req(3, "req-2"));
+    worker.runOnce(0);
+    Assert.assertEquals(1, requests.size());
+
+    // batch-1 failed, batch-2 waits for the retry of batch-1
+    requests.get(0).getCallBackHandler().onException(null, new Exception("mock"));
+    worker.runOnce(0);
+    Assert.assertEquals(1, requests.size());
+    Assert.assertEquals(2, worker.pendingReqs);
+
+    worker.process(System.currentTimeMillis() + 1000);
+    Assert.assertEquals(2, requests.size());
+    Assert.assertEquals(Lists.newArrayList("req-1"), batchOf(requests.get(1)).getRequest());
+
+    success(requests.get(1));
+    worker.runOnce(0);
+    Assert.assertEquals(3, requests.size());
+    Assert.assertEquals(Lists.newArrayList("req-2"), batchOf(requests.get(2)).getRequest());
+    Assert.assertEquals(0, worker.pendingReqs);
+  }
+
+  @Test
+  public void testPendingFull() throws Exception {
+    config.setDataNodeExecutorQueueSize(2);
+    DataNodeServiceImpl.Worker worker = dataNodeService.new Worker(new LinkedBlockingQueue<>());
+    worker.queue.add(new DataNodeServiceImpl.Req(3, "req-1"));
+    worker.runOnce(0);
+    Assert.assertEquals(1, requests.size());
+    worker.queue.add(new DataNodeServiceImpl.Req(3, "req-2"));
+    worker.queue.add(new DataNodeServiceImpl.Req(3, "req-3"));
+    worker.runOnce(0);
+    Assert.assertEquals(2, worker.pendingReqs);
+
+    // the pending reqs reach the limit, the queue is not drained
+    worker.queue.add(new DataNodeServiceImpl.Req(3, "req-4"));
+    worker.runOnce(0);
+    Assert.assertEquals(1, worker.queue.size());
+    Assert.assertEquals(1, requests.size());
+
+    success(requests.get(0));
+    worker.runOnce(10);
+    Assert.assertEquals(2, requests.size());
+    Assert.assertEquals(
+        Lists.newArrayList("req-2", "req-3"), batchOf(requests.get(1)).getRequest());
+    Assert.assertEquals(0, worker.pendingReqs);
+    worker.runOnce(0);
+    Assert.assertEquals(0, worker.queue.size());
+    Assert.assertEquals(1, worker.pendingReqs);
+  }
+
+  @Test
+  public void testFetchDelta() throws Exception {
+    final String dataInfoId = "testFetchDeltaDataInfoId";
+    final SubDatum base = newSubDatum(dataInfoId, 100);
+    final SubDatum full = newSubDatum(dataInfoId, 300);
+    final SlotAccess access = new SlotAccess(0, 10, SlotAccess.Status.Accept, 1);
+    final AtomicBoolean deltaFailed = new AtomicBoolean();
+    NodeExchanger exchanger = mock(NodeExchanger.class);
+    when(exchanger.request(Mockito.any(Request.class)))
+        .thenAnswer(
+            invocation -> {
+              final Request request = (Request) invocation.getArguments()[0];
+              requests.add(request);
+              if (!(request.getRequestBody() instanceof GetDataDeltaRequest)) {
+                return (Response) () -> SlotAccessGenericResponse.successResponse(access, full);
+              }
+              if (deltaFailed.get()) {
+                throw new RequestException("mock unsupported");
+              }
+              SubDatumDelta delta =
+                  SubDatumDelta.deltaOf(100, newSubDatum(dataInfoId, 200), Collections.emptyList());
+              return (Response) () -> SlotAccessGenericResponse.successResponse(access, delta);
+            });
+    dataNodeService.setDataNodeExchanger(exchanger);
+
+    // slot 0 is on 192.168.0.1 with leaderEpoch=1
+    FetchedDatum fetched =
+        dataNodeService.fetchDelta(dataInfoId, "dc", new FetchedDatum(base, "192.168.0.1", 1));
+    GetDataDeltaRequest deltaRequest = (GetDataDeltaRequest) requests.get(0).getRequestBody();
+    Assert.assertEquals(100, deltaRequest.getFromVersion());
+    Assert.assertEquals("192.168.0.1", deltaRequest.getFromSlotLeader());
+    Assert.assertEquals(1, deltaRequest.getFromSlotLeaderEpoch());
+    Assert.assertEquals(200, fetched.getDatum().getVersion());
+    Assert.assertTrue(fetched.isFrom("192.168.0.1", 1));
+
+    // the base is fetched from another leader, fetch the full
+    fetched =
+        dataNodeService.fetchDelta(dataInfoId, "dc", new FetchedDatum(base, "192.168.0.2", 1));
+    Assert.assertFalse(requests.get(1).getRequestBody() instanceof GetDataDeltaRequest);
+    Assert.assertEquals(300, fetched.getDatum().getVersion());
+
+    // the data server not support the delta, fallback to the full and remember it
+    deltaFailed.set(true);
+    fetched =
+        dataNodeService.fetchDelta(dataInfoId, "dc", new FetchedDatum(base, "192.168.0.1", 1));
+    Assert.assertEquals(300, fetched.getDatum().getVersion());
+    Assert.assertEquals(4, requests.size());
+    Assert.assertTrue(dataNodeService.isDeltaUnsupported("192.168.0.1"));
+    dataNodeService.fetchDelta(dataInfoId, "dc", new FetchedDatum(base, "192.168.0.1", 1));
+    Assert.assertEquals(5, requests.size());
+    Assert.assertFalse(requests.get(4).getRequestBody() instanceof GetDataDeltaRequest);
+  }
+
+  private static SubDatum newSubDatum(String dataInfoId, long version) {
+    return SubDatum.normalOf(
+        dataInfoId,
+        "dc",
+        version,
+        Collections.emptyList(),
+        "testDataId",
+        "testInstanceId",
+        "testGroup",
+        Lists.newArrayList(version));
+  }
+}
@@ -164,8 +164,10 @@ public class FirePushServiceTest {
     datum = TestUtils.newSubDatum("testDataId", 80, Collections.emptyList());
     v = new Value((Sizer) datum);
     when(svc.sessionCacheService.getValueIfPresent(Mockito.anyObject())).thenReturn(v);
-    when(svc.sessionCacheService.getValue(Mockito.anyObject())).thenReturn(v);
+    when(svc.sessionCacheService.reload(Mockito.anyObject(), Mockito.anyObject())).thenReturn(v);
     Assert.assertFalse(svc.doExecuteOnChange("testDataId", ctx));
+    Mockito.verify(svc.sessionCacheService, Mockito.times(1))
+        .reload(Mockito.anyObject(), Mockito.eq(v));
   }
 
   @Test
@@ -173,7 +175,8 @@ public class FirePushServiceTest {
     final long now = System.currentTimeMillis();
     TriggerPushContext ctx = new TriggerPushContext("testDc", 100, "testDataNode", now);
     FirePushService svc = mockFirePushService();
-    when(svc.sessionCacheService.getValue(Mockito.anyObject())).thenThrow(new RuntimeException());
+    when(svc.sessionCacheService.reload(Mockito.anyObject(), Mockito.anyObject()))
+        .thenThrow(new RuntimeException());
     Assert.assertFalse(svc.changeHandler.onChange("testDataId", ctx));
     SubDatum datum = TestUtils.newSubDatum("testDataId", 200, Collections.emptyList());
     Value v = new Value((Sizer) datum);
@@ -23,17 +23,22 @@ import com.alipay.sofa.registry.common.model.client.pb.ReceivedDataPb;
 import com.alipay.sofa.registry.common.model.metaserver.CompressPushSwitch;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
 import com.alipay.sofa.registry.common.model.store.*;
+import com.alipay.sofa.registry.core.constants.AttributeKeyConstants;
 import com.alipay.sofa.registry.core.model.DataBox;
 import com.alipay.sofa.registry.core.model.ReceivedConfigData;
 import com.alipay.sofa.registry.core.model.ReceivedData;
 import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.alipay.sofa.registry.remoting.SerializedPayload;
 import com.alipay.sofa.registry.server.session.TestUtils;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
 import com.alipay.sofa.registry.server.session.converter.ReceivedDataConverter;
 import com.alipay.sofa.registry.server.session.providedata.CompressPushService;
 import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.util.DatumVersionUtil;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.assertj.core.util.Sets;
@@ -90,6 +95,112 @@ public class PushDataGeneratorTest {
     Assert.assertEquals(2, receivedData.getData().values().stream().mapToInt(List::size).sum());
   }
 
+  @Test
+  public void testPayloadCache() {
+    PushDataGenerator generator = new PushDataGenerator();
+    generator.sessionServerConfig = TestUtils.newSessionConfig("testDc", zone);
+    generator.compressPushService = new CompressPushService();
+    Subscriber sub1 = TestUtils.newZoneSubscriber(zone);
+    Subscriber sub2 = TestUtils.newZoneSubscriber(zone);
+    SubPublisher pub = TestUtils.newSubPublisher(10, 20, "TESTZONE");
+    SubDatum subDatum = TestUtils.newSubDatum("testDataId", 200, Lists.newArrayList(pub));
+    PushData<ReceivedData> pushData1 =
+        generator.createPushData(subDatum, Collections.singletonMap(sub1.getRegisterId(), sub1));
+    PushData<ReceivedData> pushData2 =
+        generator.createPushData(subDatum, Collections.singletonMap(sub2.getRegisterId(), sub2));
+    Assert.assertEquals(1, generator.payloadCache.getMissingCount());
+    Assert.assertEquals(1, generator.payloadCache.getHitCount());
+    Assert.assertEquals(
+        Lists.newArrayList(sub1.getRegisterId()), pushData1.getPayload().getSubscriberRegistIds());
+    Assert.assertEquals(
+        Lists.newArrayList(sub2.getRegisterId()), pushData2.getPayload().getSubscriberRegistIds());
+    Assert.assertTrue(pushData1.getPayload().getData() == pushData2.getPayload().getData());
+    Assert.assertEquals(1, pushData2.getDataCount());
+
+    // pb shares the data of hessian
+    Subscriber sub3 = TestUtils.newZonePbSubscriber(zone);
+    Subscriber sub4 = TestUtils.newZonePbSubscriber(zone);
+    PushData pbData3 =
+        generator.createPushData(subDatum, Collections.singletonMap(sub3.getRegisterId(), sub3));
+    PushData pbData4 =
+        generator.createPushData(subDatum, Collections.singletonMap(sub4.getRegisterId(), sub4));
+    ReceivedDataPb pb3 = toPb(pbData3);
+    ReceivedDataPb pb4 = toPb(pbData4);
+    Assert.assertEquals(2, generator.payloadCache.getMissingCount());
+    Assert.assertEquals(4, generator.payloadCache.getHitCount());
+    Assert.assertEquals(1, pb3.getSubscriberRegistIdsCount());
+    Assert.assertEquals(sub3.getRegisterId(), pb3.getSubscriberRegistIds(0));
+    Assert.assertEquals(sub4.getRegisterId(), pb4.getSubscriberRegistIds(0));
+    Assert.assertEquals(pb3.getDataMap(), pb4.getDataMap());
+    Assert.assertEquals(200, pb4.getVersion());
+    Assert.assertEquals(1, pbData4.getDataCount());
+
+    // new version
+    subDatum = TestUtils.newSubDatum("testDataId", 201, Lists.newArrayList(pub));
+    pushData1 =
+        generator.createPushData(subDatum, Collections.singletonMap(sub1.getRegisterId(), sub1));
+    Assert.assertEquals(201, pushData1.getPayload().getVersion().longValue());
+    Assert.assertEquals(3, generator.payloadCache.getMissingCount());
+  }
+
+  @Test
+  public void testDelta() {
+    PushDataGenerator generator = new PushDataGenerator();
+    generator.sessionServerConfig = TestUtils.newSessionConfig("testDc", zone);
+    generator.compressPushService = new CompressPushService();
+    Map<String, Subscriber> subscriberMap = Maps.newHashMap();
+    Subscriber sub1 = TestUtils.newZonePbSubscriber(zone);
+    Subscriber sub2 = TestUtils.newZonePbSubscriber(zone);
+    subscriberMap.put(sub1.getRegisterId(), sub1);
+    subscriberMap.put(sub2.getRegisterId(), sub2);
+    List<SubPublisher> list = Lists.newArrayList();
+    for (int i = 0; i < 4; i++) {
+      list.add(TestUtils.newSubPublisher(10, 20, "TESTZONE"));
+    }
+    SubDatum subDatum = TestUtils.newSubDatum("testDataId", 200, list);
+    sub1.checkAndUpdateCtx(subDatum, 4);
+    sub2.checkAndUpdateCtx(subDatum, 4);
+    // not accept delta push
+    Assert.assertNull(sub1.getPushedDatum(subDatum.getDataCenter()));
+
+    Map<String, String> attributes =
+        Collections.singletonMap(AttributeKeyConstants.ATTRIBUTE_ACCEPT_DELTA_PUSH, "true");
+    sub1.setAttributes(attributes);
+    sub2.setAttributes(attributes);
+    subDatum = TestUtils.newSubDatum("testDataId", 300, list);
+    sub1.checkAndUpdateCtx(subDatum, 4);
+    Assert.assertTrue(sub1.getPushedDatum(subDatum.getDataCenter()) == subDatum);
+
+    list.add(TestUtils.newSubPublisher(10, 20, "TESTZONE"));
+    SubDatum newDatum = TestUtils.newSubDatum("testDataId", 400, list);
+    // sub2 has no base
+    Assert.assertNull(generator.getDeltaBase(newDatum, subscriberMap.values()));
+    sub2.checkAndUpdateCtx(subDatum, 4);
+    Assert.assertTrue(generator.getDeltaBase(newDatum, subscriberMap.values()) == subDatum);
+
+    PushData pushData = generator.createPushData(newDatum, subscriberMap);
+    ReceivedDataPb pb = toPb(pushData);
+    Assert.assertEquals(5, pushData.getDataCount());
+    Assert.assertEquals(300, pb.getBaseVersion());
+    Assert.assertEquals(400, pb.getVersion());
+    Assert.assertEquals(1, pb.getDataMap().get("TESTZONE").getDataCount());
+    Assert.assertEquals(0, pb.getRemovedDataCount());
+
+    // push fail, the next push is full
+    sub2.onPushFail(newDatum.getDataCenter(), newDatum.getVersion());
+    Assert.assertNull(sub2.getPushedDatum(subDatum.getDataCenter()));
+    pushData = generator.createPushData(newDatum, subscriberMap);
+    pb = toPb(pushData);
+    Assert.assertEquals(0, pb.getBaseVersion());
+    Assert.assertEquals(5, pb.getDataMap().get("TESTZONE").getDataCount());
+    Assert.assertEquals(2, pb.getSubscriberRegistIdsCount());
+
+    // switch off
+    sub2.checkAndUpdateCtx(subDatum, 4);
+    ((SessionServerConfigBean) generator.sessionServerConfig).setPushDeltaEnable(false);
+    Assert.assertNull(generator.getDeltaBase(newDatum, subscriberMap.values()));
+  }
+
   @Test
   public void testWatch() {
     PushDataGenerator generator = new PushDataGenerator();
@@ -149,9 +260,26 @@ public class PushDataGeneratorTest {
       list.add(pub);
     }
     SubDatum subDatum = TestUtils.newSubDatum("testDataId", 200, list);
-    PushData<ReceivedDataPb> pushData = generator.createPushData(subDatum, subscriberMap);
-    Assert.assertEquals(0, pushData.getPayload().getDataMap().size());
-    Assert.assertNotEquals(0, pushData.getPayload().getBody().size());
-    Assert.assertNotEquals(0, pushData.getPayload().getOriginBodySize());
+    PushData pushData = generator.createPushData(subDatum, subscriberMap);
+    ReceivedDataPb pb = toPb(pushData);
+    Assert.assertEquals(0, pb.getDataMap().size());
+    Assert.assertNotEquals(0, pb.getBody().size());
+    Assert.assertNotEquals(0, pb.getOriginBodySize());
+    Assert.assertEquals("zstd", pushData.getEncode());
+    Assert.assertEquals(2, pb.getSubscriberRegistIdsCount());
+  }
+
+  private static ReceivedDataPb toPb(PushData pushData) {
+    if (pushData.getPayload() instanceof ReceivedDataPb) {
+      return (ReceivedDataPb) pushData.getPayload();
+    }
+    SerializedPayload payload = (SerializedPayload) pushData.getPayload();
+    Assert.assertEquals(ReceivedDataPb.class.getName(), payload.getClassName());
+    Assert.assertEquals(URL.PROTOBUF, payload.getSerializer());
+    try {
+      return ReceivedDataPb.parseFrom(payload.getContent());
+    } catch (InvalidProtocolBufferException e) {
+      throw new IllegalStateException(e);
+    }
   }
 }
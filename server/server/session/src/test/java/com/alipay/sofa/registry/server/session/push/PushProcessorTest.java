@@ -31,6 +31,7 @@ import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean
 import com.alipay.sofa.registry.server.session.node.service.ClientNodeService;
 import com.alipay.sofa.registry.server.session.providedata.FetchGrayPushSwitchService;
 import com.alipay.sofa.registry.server.session.providedata.FetchStopPushService;
+import com.alipay.sofa.registry.server.session.store.Interests;
 import com.alipay.sofa.registry.task.RejectedDiscardHandler;
 import com.alipay.sofa.registry.util.BackOffTimes;
 import java.util.Collections;
@@ -144,8 +145,9 @@ public class PushProcessorTest {
 
     task = worker.bufferMap.values().iterator().next();
     Assert.assertEquals(task.trace.pushCause.pushType, PushType.Sub);
-    // make task expire
+    // make task expire, reschedule with the new deadline
     task.expireTimestamp = System.currentTimeMillis();
+    worker.schedule(processor.taskBuffer.bufferTaskKey(task), task);
 
     Assert.assertEquals(processor.taskBuffer.watchBuffer(worker), 1);
     Assert.assertEquals(processor.taskBuffer.watchBuffer(worker), 0);
@@ -384,6 +386,7 @@ public class PushProcessorTest {
     config.setPushTaskBufferBucketSize(1);
     processor.sessionServerConfig = config;
     processor.clientNodeService = Mockito.mock(ClientNodeService.class);
+    processor.sessionInterests = Mockito.mock(Interests.class);
     processor.pushSwitchService = new PushSwitchService();
     processor.pushSwitchService.setFetchStopPushService(new FetchStopPushService());
     processor.pushSwitchService.setFetchGrayPushSwitchService(new FetchGrayPushSwitchService());
@@ -60,7 +60,68 @@ public class PushTaskBufferTest {
     Assert.assertEquals(task1.expireTimestamp, 1);
   }
 
+  @Test
+  public void testDeadline() {
+    PushTaskBuffer buffer = new PushTaskBuffer(1);
+    buffer.suspend();
+    PushTaskBuffer.BufferWorker worker = buffer.workers[0];
+    final long now = System.currentTimeMillis();
+    MockTask delay = newTask(PushType.Sub, 100);
+    delay.expireTimestamp = now + 60000;
+    MockTask expire = newTask(PushType.Sub, 100);
+    expire.expireTimestamp = now - 1;
+    MockTask noDelay = newTask(PushType.Temp, 100);
+    noDelay.expireTimestamp = now + 60000;
+    Assert.assertTrue(buffer.buffer(delay));
+    Assert.assertTrue(buffer.buffer(expire));
+    Assert.assertTrue(buffer.buffer(noDelay));
+    Assert.assertEquals(3, buffer.size());
+    Assert.assertEquals(1, worker.getWaitingMillis());
+
+    buffer.watchBuffer(worker);
+    Assert.assertTrue(expire.committed);
+    Assert.assertTrue(noDelay.committed);
+    Assert.assertFalse(delay.committed);
+    Assert.assertEquals(1, buffer.size());
+    Assert.assertEquals(1, worker.deadlines.size());
+    Assert.assertEquals(200, worker.getWaitingMillis());
+
+    // replaced by a newer one, keep the deadline of prev
+    MockTask newer = newTask(delay.subscriber, PushType.Sub, 101);
+    newer.expireTimestamp = now - 1;
+    Assert.assertTrue(buffer.buffer(newer));
+    Assert.assertEquals(delay.expireTimestamp, newer.expireTimestamp);
+    buffer.watchBuffer(worker);
+    Assert.assertFalse(newer.committed);
+
+    // replaced by a no delay one
+    MockTask newerNoDelay = newTask(delay.subscriber, PushType.Temp, 102);
+    Assert.assertTrue(buffer.buffer(newerNoDelay));
+    buffer.watchBuffer(worker);
+    Assert.assertTrue(newerNoDelay.committed);
+    Assert.assertFalse(newer.committed);
+    Assert.assertEquals(0, buffer.size());
+    // the stale deadlines of the replaced tasks are dropped when reached
+    Assert.assertEquals(2, worker.deadlines.size());
+    Assert.assertEquals(0, buffer.watchBuffer(worker));
+  }
+
+  private static MockTask newTask(PushType pushType, long version) {
+    return newTask(TestUtils.newZoneSubscriber("testDataId", "region"), pushType, version);
+  }
+
+  private static MockTask newTask(Subscriber subscriber, PushType pushType, long version) {
+    SubDatum datum =
+        TestUtils.newSubDatum(subscriber.getDataId(), version, Collections.emptyList());
+    return new MockTask(
+        new PushCause(null, pushType, System.currentTimeMillis()),
+        NetUtil.getLocalSocketAddress(),
+        Collections.singletonMap(subscriber.getRegisterId(), subscriber),
+        datum);
+  }
+
   private static final class MockTask extends PushTask {
+    boolean committed;
 
     MockTask(
         PushCause pushCause,
@@ -72,6 +133,7 @@ public class PushTaskBufferTest {
 
     @Override
     protected boolean commit() {
+      committed = true;
       return false;
     }
 
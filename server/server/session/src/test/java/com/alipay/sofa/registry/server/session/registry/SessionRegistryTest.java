@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.registry;
+
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.server.session.push.FirePushService;
+import com.alipay.sofa.registry.server.session.store.Interests;
+import com.google.common.collect.Maps;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SessionRegistryTest {
+  private static final String DC = "testDc";
+
+  @Test
+  public void testHandleFetchResult() {
+    SessionRegistry registry = new SessionRegistry();
+    registry.sessionInterests = mock(Interests.class);
+    registry.firePushService = mock(FirePushService.class);
+    when(registry.sessionInterests.checkInterestVersion(eq(DC), eq("a"), anyLong()))
+        .thenReturn(Interests.InterestVersionCheck.Interested);
+    when(registry.sessionInterests.checkInterestVersion(eq(DC), eq("b"), anyLong()))
+        .thenReturn(Interests.InterestVersionCheck.Obsolete);
+
+    CountDownLatch finished = new CountDownLatch(2);
+    SessionRegistry.FetchVersionResult result =
+        new SessionRegistry.FetchVersionResult(1, DC, 10, "leader", finished);
+    Map<String, DatumVersion> versions = Maps.newHashMap();
+    versions.put("a", new DatumVersion(100));
+    versions.put("b", new DatumVersion(100));
+    Assert.assertFalse(result.isDone());
+    Assert.assertEquals(
+        1, registry.handleFetchResult(result, new SessionRegistry.FetchVersionCallback(versions)));
+    Assert.assertTrue(result.isDone());
+    Assert.assertEquals(1, finished.getCount());
+    verify(registry.firePushService, times(1)).fireOnChange(eq("a"), anyObject());
+
+    // handled only once
+    Assert.assertEquals(
+        -1, registry.handleFetchResult(result, new SessionRegistry.FetchVersionCallback(null)));
+    Assert.assertEquals(1, finished.getCount());
+
+    // failed
+    result = new SessionRegistry.FetchVersionResult(1, DC, 11, "leader", finished);
+    Assert.assertEquals(
+        0, registry.handleFetchResult(result, new SessionRegistry.FetchVersionCallback(null)));
+    Assert.assertEquals(0, finished.getCount());
+    verify(registry.firePushService, times(1)).fireOnChange(anyString(), anyObject());
+  }
+}
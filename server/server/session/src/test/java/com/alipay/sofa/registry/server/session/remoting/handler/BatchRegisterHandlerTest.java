@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.remoting.handler;
+
+import static org.mockito.Mockito.*;
+
+import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.core.model.BatchRegisterRequest;
+import com.alipay.sofa.registry.core.model.BatchRegisterResponse;
+import com.alipay.sofa.registry.core.model.ConfiguratorRegister;
+import com.alipay.sofa.registry.core.model.PublisherRegister;
+import com.alipay.sofa.registry.core.model.SubscriberRegister;
+import com.alipay.sofa.registry.remoting.ChannelHandler;
+import com.alipay.sofa.registry.server.session.TestUtils;
+import com.alipay.sofa.registry.server.session.bootstrap.ExecutorManager;
+import com.alipay.sofa.registry.server.session.strategy.PublisherHandlerStrategy;
+import com.alipay.sofa.registry.server.session.strategy.SubscriberHandlerStrategy;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchRegisterHandlerTest {
+
+  private BatchRegisterHandler newHandler() {
+    BatchRegisterHandler handler = new BatchRegisterHandler();
+    handler.executorManager = new ExecutorManager(TestUtils.newSessionConfig("testDc"));
+    Assert.assertNotNull(handler.getExecutor());
+    Assert.assertEquals(handler.interest(), BatchRegisterRequest.class);
+    Assert.assertEquals(handler.getConnectNodeType(), Node.NodeType.CLIENT);
+    Assert.assertEquals(handler.getType(), ChannelHandler.HandlerType.PROCESSER);
+    Assert.assertEquals(handler.getInvokeType(), ChannelHandler.InvokeType.SYNC);
+    handler.publisherHandlerStrategy = mock(PublisherHandlerStrategy.class);
+    handler.subscriberHandlerStrategy = mock(SubscriberHandlerStrategy.class);
+    return handler;
+  }
+
+  @Test
+  public void testHandle() {
+    BatchRegisterHandler handler = newHandler();
+    BatchRegisterRequest request = new BatchRegisterRequest();
+    request.addRegister(new PublisherRegister());
+    request.addRegister(new SubscriberRegister());
+    request.addRegister(new PublisherRegister());
+    ConfiguratorRegister configurator = new ConfiguratorRegister();
+    configurator.setRegistId("testRegistId");
+    request.addRegister(configurator);
+
+    BatchRegisterResponse response = (BatchRegisterResponse) handler.doHandle(null, request);
+    Assert.assertTrue(response.isSuccess());
+    Assert.assertEquals(response.getResponses().size(), 4);
+    Assert.assertFalse(response.getResponses().get(3).isSuccess());
+    Assert.assertEquals(response.getResponses().get(3).getRegistId(), "testRegistId");
+    verify(handler.publisherHandlerStrategy, times(2))
+        .handlePublisherRegister(anyObject(), anyObject(), any());
+    verify(handler.subscriberHandlerStrategy, times(1))
+        .handleSubscriberRegister(anyObject(), anyObject(), any());
+  }
+}
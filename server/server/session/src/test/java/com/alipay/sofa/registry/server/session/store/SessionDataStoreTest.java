@@ -131,6 +131,33 @@ public class SessionDataStoreTest {
     Assert.assertEquals(m.get(publisher.getDataInfoId()).size(), 1);
   }
 
+  @Test
+  public void testIndex() {
+    SessionDataStore store = new SessionDataStore();
+    store.slotTableCache = new SlotTableCacheImpl();
+    Publisher pub = TestUtils.createTestPublisher("testIndex");
+    pub.setSourceAddress(new URL("192.168.1.1", 1000));
+    Assert.assertTrue(store.add(pub));
+    Assert.assertEquals(Collections.singleton(pub.connectId()), store.getConnectIds());
+
+    // replaced by a newer one from another connection
+    Publisher newPub = PublisherUtils.clonePublisher(pub);
+    newPub.setVersion(pub.getVersion() + 1);
+    newPub.setSourceAddress(new URL("192.168.1.2", 1000));
+    Assert.assertTrue(store.add(newPub));
+    Assert.assertEquals(Collections.singleton(newPub.connectId()), store.getConnectIds());
+    Assert.assertTrue(store.queryByConnectId(pub.connectId()).isEmpty());
+
+    // conflict with the newer one, not indexed
+    Assert.assertFalse(store.add(pub));
+    Assert.assertEquals(Collections.singleton(newPub.connectId()), store.getConnectIds());
+    assertIndex(store);
+
+    Assert.assertEquals(newPub, store.deleteById(newPub.getRegisterId(), newPub.getDataInfoId()));
+    Assert.assertTrue(store.getConnectIds().isEmpty());
+    Assert.assertEquals(0, store.connectDataIndexer.size());
+  }
+
   @Test
   public void testConcurrent() throws InterruptedException {
     SessionDataStore store = new SessionDataStore();
@@ -189,7 +216,6 @@ public class SessionDataStoreTest {
             0,
             TimeUnit.SECONDS,
             new LinkedBlockingDeque<>(clientOffs.size()));
-    Timer refreshTimer = new Timer();
 
     for (Publisher pub : pubs) {
       pubExecutor.execute(
@@ -213,34 +239,31 @@ public class SessionDataStoreTest {
             latch.countDown();
           });
     }
-    refreshTimer.scheduleAtFixedRate(
-        new TimerTask() {
-          @Override
-          public void run() {
-            store.connectDataIndexer.triggerRefresh();
-          }
-        },
-        0,
-        50);
     latch.await();
-    for (Publisher publisher : store.getDataList()) {
-      Assert.assertTrue(
-          store.queryByConnectId(publisher.connectId()).containsKey(publisher.getRegisterId()));
-    }
-    Assert.assertTrue(store.getConnectIds().size() >= urls.size() - clientOffs.size());
+    assertIndex(store);
     for (ConnectId connectId : clientOffs) {
       store.deleteByConnectId(connectId);
     }
-    for (Publisher publisher : store.getDataList()) {
-      Assert.assertTrue(
-          store.queryByConnectId(publisher.connectId()).containsKey(publisher.getRegisterId()));
-    }
-    Assert.assertTrue(store.getConnectIds().size() >= urls.size() - clientOffs.size());
+    assertIndex(store);
 
     pubExecutor.shutdown();
     unpubExecutor.shutdown();
     clientOffExecutor.shutdown();
-    refreshTimer.cancel();
+  }
+
+  private static void assertIndex(SessionDataStore store) {
+    Map<ConnectId, Set<String>> expect = new HashMap<>();
+    for (Publisher publisher : store.getDataList()) {
+      expect
+          .computeIfAbsent(publisher.connectId(), k -> new HashSet<>())
+          .add(publisher.getRegisterId());
+    }
+    Assert.assertEquals(expect.keySet(), store.getConnectIds());
+    for (Map.Entry<ConnectId, Set<String>> e : expect.entrySet()) {
+      Assert.assertEquals(e.getValue(), store.queryByConnectId(e.getKey()).keySet());
+      Assert.assertEquals(
+          e.getValue().size(), store.connectDataIndexer.queryByKey(e.getKey()).size());
+    }
   }
 
   public static <T> List<T> pickSample(List<T> population, int nSamplesNeeded, Random r) {
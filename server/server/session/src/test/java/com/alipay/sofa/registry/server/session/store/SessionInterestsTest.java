@@ -16,11 +16,15 @@
  */
 package com.alipay.sofa.registry.server.session.store;
 
+import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.store.DataInfo;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
 import com.alipay.sofa.registry.server.session.AbstractSessionServerTestBase;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import org.junit.Assert;
 import org.junit.Before;
@@ -98,6 +102,62 @@ public class SessionInterestsTest extends AbstractSessionServerTestBase {
     Assert.assertEquals(map.get(subscriber.getDataInfoId()).getValue(), 80);
   }
 
+  @Test
+  public void testSelectSubscribersIncremental() {
+    String dataInfo = randomString(10);
+    String instanceId = randomString(10);
+    Subscriber subscriber1 = randomSubscriber(dataInfo, instanceId);
+    Subscriber subscriber2 = randomSubscriber(dataInfo, instanceId);
+    subscriber2.setScope(ScopeEnum.global);
+    final String dataInfoId = subscriber1.getDataInfoId();
+    final String remoteDc = getDc() + "1";
+    interests.add(subscriber1);
+    interests.add(subscriber2);
+    Assert.assertEquals(0, interests.selectSubscribers(getDc()).o1.get(dataInfoId).getValue());
+    Assert.assertEquals(0, interests.selectSubscribers(remoteDc).o1.get(dataInfoId).getValue());
+
+    Assert.assertTrue(subscriber1.checkAndUpdateCtx(getDc(), 100, 1));
+    interests.onPushed(subscriber1, getDc());
+    Assert.assertEquals(100, interests.selectSubscribers(getDc()).o1.get(dataInfoId).getValue());
+
+    // the remote dataCenter only counts the global subscribers
+    Assert.assertTrue(subscriber1.checkAndUpdateCtx(remoteDc, 80, 1));
+    interests.onPushed(subscriber1, remoteDc);
+    Assert.assertTrue(subscriber2.checkAndUpdateCtx(remoteDc, 50, 1));
+    interests.onPushed(subscriber2, remoteDc);
+    Assert.assertEquals(50, interests.selectSubscribers(remoteDc).o1.get(dataInfoId).getValue());
+
+    // the aggregate is updated by the notify, not by scanning the subscribers
+    Assert.assertTrue(subscriber2.checkAndUpdateCtx(getDc(), 200, 1));
+    Assert.assertEquals(100, interests.selectSubscribers(getDc()).o1.get(dataInfoId).getValue());
+    interests.onPushed(subscriber2, getDc());
+    Assert.assertEquals(200, interests.selectSubscribers(getDc()).o1.get(dataInfoId).getValue());
+
+    subscriber2.markPushEmpty(getDc(), 300);
+    interests.onMarkPushEmpty(subscriber2, getDc());
+    Tuple<Map<String, DatumVersion>, List<Subscriber>> ret = interests.selectSubscribers(getDc());
+    Assert.assertEquals(100, ret.o1.get(dataInfoId).getValue());
+    Assert.assertEquals(Collections.singletonList(subscriber2), ret.o2);
+
+    Assert.assertEquals(subscriber1, interests.deleteById(subscriber1.getRegisterId(), dataInfoId));
+    ret = interests.selectSubscribers(getDc());
+    Assert.assertEquals(0, ret.o1.get(dataInfoId).getValue());
+    Assert.assertEquals(Collections.singletonList(subscriber2), ret.o2);
+
+    // the removed subscriber is not counted
+    Assert.assertTrue(subscriber1.checkAndUpdateCtx(getDc(), 500, 1));
+    interests.onPushed(subscriber1, getDc());
+    Assert.assertEquals(0, interests.selectSubscribers(getDc()).o1.get(dataInfoId).getValue());
+
+    // the empty has pushed
+    Assert.assertTrue(subscriber2.checkAndUpdateCtx(getDc(), 300, 0));
+    interests.onPushed(subscriber2, getDc());
+    Assert.assertEquals(0, interests.selectSubscribers(getDc()).o2.size());
+
+    interests.deleteByConnectId(subscriber2.connectId());
+    Assert.assertEquals(0, interests.selectSubscribers(getDc()).o1.size());
+  }
+
   @Test
   public void testFilterIPs() {
     Assert.assertEquals(0, interests.filterIPs("", 0).size());
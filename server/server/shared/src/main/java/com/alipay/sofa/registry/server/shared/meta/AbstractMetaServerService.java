@@ -30,6 +30,8 @@ import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.BaseHear
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.HeartbeatRequest;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
 import com.alipay.sofa.registry.common.model.slot.GetSlotTableStatusRequest;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
 import com.alipay.sofa.registry.common.model.slot.SlotTableStatusResponse;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.log.Logger;
@@ -139,9 +141,12 @@ public abstract class AbstractMetaServerService<T extends BaseHeartBeatResponse>
     boolean success = true;
     try {
       HeartbeatRequest heartbeatRequest = createRequest();
+      // the slot table of request is the base of the delta
+      final SlotTable base = heartbeatRequest.getSlotTable();
+      heartbeatRequest.setAcceptSlotTableDelta(base != null);
       GenericResponse<T> resp =
           (GenericResponse<T>) metaServerManager.sendRequest(heartbeatRequest).getResult();
-      handleHeartbeatResponse(resp);
+      handleHeartbeatResponse(resp, base);
 
       success = true;
     } catch (Throwable e) {
@@ -170,10 +175,15 @@ public abstract class AbstractMetaServerService<T extends BaseHeartBeatResponse>
   }
 
   void handleHeartbeatResponse(GenericResponse<T> resp) {
+    handleHeartbeatResponse(resp, null);
+  }
+
+  void handleHeartbeatResponse(GenericResponse<T> resp, SlotTable base) {
     if (resp == null) {
       throw new RuntimeException("renew node to metaServer error : resp is null");
     }
     if (resp.isSuccess()) {
+      applySlotTableDelta(resp.getData(), base);
       updateState(resp.getData());
       metaServerManager.refresh(resp.getData());
       handleRenewResult(resp.getData());
@@ -203,6 +213,20 @@ public abstract class AbstractMetaServerService<T extends BaseHeartBeatResponse>
     }
   }
 
+  private void applySlotTableDelta(T response, SlotTable base) {
+    final SlotTableDelta delta = response.getSlotTableDelta();
+    if (delta == null) {
+      return;
+    }
+    if (base == null) {
+      throw new RuntimeException("renew node to metaServer error, no base of " + delta);
+    }
+    response.setSlotTable(delta.apply(base));
+    if (!delta.isEmpty()) {
+      RENEWER_LOGGER.info("apply slot table {}", delta);
+    }
+  }
+
   void handleHeartbeatFailed(String leaderIp, Throwable e) {
     renewFailCounter.incrementAndGet();
     RENEWER_LOGGER.error(
@@ -24,7 +24,9 @@ import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.BaseHear
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.HeartbeatRequest;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
+import com.alipay.sofa.registry.common.model.slot.Slot;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.remoting.exchange.message.Response;
 import com.alipay.sofa.registry.server.shared.TestUtils;
@@ -53,6 +55,30 @@ public class MetaServerServiceTest {
     Assert.assertEquals(mockServerService.renewFailCounter.get(), 0);
   }
 
+  @Test
+  public void testHandleHeartbeatSlotTableDelta() {
+    MockServerService mockServerService = new MockServerService();
+    mockServerService.setMetaServerManager(Mockito.mock(MetaServerManager.class));
+    SlotTable base =
+        new SlotTable(
+            10, Lists.newArrayList(new Slot(0, "192.168.1.1", 1, Collections.emptySet())));
+    SlotTable update =
+        new SlotTable(
+            11, Lists.newArrayList(new Slot(0, "192.168.1.2", 2, Collections.emptySet())));
+    GenericResponse<BaseHeartBeatResponse> resp = new GenericResponse<>();
+    resp.setSuccess(true);
+    resp.setData(
+        new BaseHeartBeatResponse(true, VersionedList.EMPTY, null, VersionedList.EMPTY, "test", 100)
+            .setSlotTableDelta(SlotTableDelta.diff(base, update)));
+    // no base to apply
+    TestUtils.assertRunException(
+        RuntimeException.class, () -> mockServerService.handleHeartbeatResponse(resp));
+
+    mockServerService.handleHeartbeatResponse(resp, base);
+    Assert.assertEquals(update, resp.getData().getSlotTable());
+    Assert.assertEquals(Sets.newHashSet("192.168.1.2"), mockServerService.getDataServerList());
+  }
+
   @Test
   public void testHandleHeartbeatResp() {
     MockServerService mockServerService = new MockServerService();
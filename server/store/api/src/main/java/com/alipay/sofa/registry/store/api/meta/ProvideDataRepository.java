@@ -55,4 +55,11 @@ public interface ProvideDataRepository {
    * @return
    */
   Map<String, PersistenceData> getAll();
+
+  /**
+   * query the versions of all provide data, the data values are not loaded
+   *
+   * @return dataInfoId -> version
+   */
+  Map<String, Long> getAllVersions();
 }
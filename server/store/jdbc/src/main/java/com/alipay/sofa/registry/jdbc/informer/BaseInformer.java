@@ -16,13 +16,19 @@
  */
 package com.alipay.sofa.registry.jdbc.informer;
 
+import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.task.MetricsableThreadPoolExecutor;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import io.prometheus.client.Gauge;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -45,6 +51,13 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
 
   protected int watchLoopIntervalMs = 1000;
   protected int listLoopIntervalMs = 1000 * 60 * 30;
+  // list the partitions of the id range concurrently if > 1, the container should be thread safe
+  // and not depend on the order of the entries
+  protected int listParallelism = 1;
+  protected int minPageSize = 100;
+  protected int maxPageSize = 5000;
+  protected int pageTargetMillis = 200;
+  private ExecutorService listExecutor;
   private final String name;
   private final Logger logger;
   private static final int DB_INSERT_DELAY_MS = 1000;
@@ -74,6 +87,15 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
     logger.info("{}-Informer started", name);
   }
 
+  public synchronized void stop() {
+    watchLoop.close();
+    listLoop.close();
+    if (listExecutor != null) {
+      listExecutor.shutdownNow();
+    }
+    logger.info("{}-Informer stopped", name);
+  }
+
   private void watch() {
     syncStart();
     try {
@@ -89,36 +111,118 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
                 logger.info("watch received entry: {}", entry);
               },
               start,
-              100);
+              Long.MAX_VALUE,
+              new PageSize(100));
       logger.info("end watch to {}", maxId);
-      lastLoadId = maxId;
+      setLastLoadId(maxId);
     } finally {
       syncEnd();
     }
   }
 
-  private void list() {
+  @VisibleForTesting
+  void list() {
     syncStart();
+    final long startTimestamp = System.currentTimeMillis();
+    final Gauge.Child listEntries = InformerMetrics.LIST_ENTRIES.labels(name);
+    listEntries.set(0);
     try {
       C newContainer = containerFactory();
-      long maxId = listToTail(newContainer::onEntry, 0, 1000);
-      logger.info("end list to {}", maxId);
+      EntryCallable<T> callable =
+          (T entry) -> {
+            newContainer.onEntry(entry);
+            listEntries.inc();
+          };
+      long start = listParallelism > 1 ? listPartitions(callable) : 0;
+      long maxId = listToTail(callable, start, Long.MAX_VALUE, new PageSize(1000));
+      logger.info(
+          "end list to {}, entries: {}, span: {}",
+          maxId,
+          (long) listEntries.get(),
+          System.currentTimeMillis() - startTimestamp);
       preList(newContainer);
       this.container = newContainer;
-      lastLoadId = maxId;
+      setLastLoadId(maxId);
     } finally {
+      InformerMetrics.LIST_MILLIS.labels(name).set(System.currentTimeMillis() - startTimestamp);
       syncEnd();
     }
   }
 
-  private long listToTail(EntryCallable<T> callable, final long start, final int page) {
+  /**
+   * list the id range (0, maxId] by partitions concurrently
+   *
+   * @return the id which all the entries before it have been listed
+   */
+  private long listPartitions(EntryCallable<T> callable) {
+    final long maxId = getMaxIdFromStorage();
+    InformerMetrics.LIST_MAX_ID.labels(name).set(maxId);
+    if (maxId <= 0) {
+      return 0;
+    }
+    final ExecutorService executor = getListExecutor();
+    final long step = (maxId + listParallelism - 1) / listParallelism;
+    final List<Tuple<Long, Future<Long>>> partitions = Lists.newArrayList();
+    for (long start = 0; start < maxId; start += step) {
+      final long begin = start;
+      final long end = Math.min(start + step, maxId);
+      partitions.add(
+          Tuple.of(
+              end,
+              executor.submit(
+                  () -> listToTail(callable, begin, end, new PageSize(minPageSize * 10)))));
+    }
+    long listed = 0;
+    boolean continuous = true;
+    for (Tuple<Long, Future<Long>> partition : partitions) {
+      final long last;
+      try {
+        last = partition.o2.get();
+      } catch (Throwable e) {
+        // the list is aborted, not wait for the rest partitions
+        for (Tuple<Long, Future<Long>> p : partitions) {
+          p.o2.cancel(true);
+        }
+        throw new IllegalStateException(name + " list partition failed", e);
+      }
+      if (continuous) {
+        listed = last;
+        // the partition stops at an unstable entry, the rest are listed sequentially from it
+        continuous = last >= partition.o1;
+      }
+    }
+    logger.info(
+        "end list partitions to {}, maxId: {}, partitions: {}", listed, maxId, partitions.size());
+    return listed;
+  }
+
+  private synchronized ExecutorService getListExecutor() {
+    if (listExecutor == null) {
+      listExecutor =
+          MetricsableThreadPoolExecutor.newExecutor(
+              name + "-List", listParallelism, listParallelism);
+    }
+    return listExecutor;
+  }
+
+  /**
+   * list the entries in the id range (start, end]
+   *
+   * @return the max id has been listed
+   */
+  private long listToTail(EntryCallable<T> callable, long start, long end, PageSize pageSize) {
     long curStart = start;
-    while (true) {
-      List<T> entries = listStableEntries(curStart, page);
+    while (curStart < end) {
+      final long begin = System.currentTimeMillis();
+      List<T> entries = listStableEntries(curStart, pageSize.size);
+      pageSize.adjust(System.currentTimeMillis() - begin);
       if (CollectionUtils.isEmpty(entries)) {
         break;
       }
       for (T entry : entries) {
+        if (entry.getId() > end) {
+          return end;
+        }
         callable.onEntry(entry);
         curStart = Math.max(curStart, entry.getId());
       }
@@ -182,6 +286,20 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
 
   protected abstract Date getNow();
 
+  /**
+   * the max id of the storage, it is used to partition the list when listParallelism > 1
+   *
+   * @return the max id, 0 if the storage is empty
+   */
+  protected long getMaxIdFromStorage() {
+    return 0;
+  }
+
+  private void setLastLoadId(long lastLoadId) {
+    this.lastLoadId = lastLoadId;
+    InformerMetrics.LAST_LOAD_ID.labels(name).set(lastLoadId);
+  }
+
   protected void preList(C newContainer) {}
 
   private final class WatchLoop extends WakeUpLoopRunnable {
@@ -226,6 +344,23 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
     }
   }
 
+  /** double the page size if the page is fast, halve it if slow */
+  final class PageSize {
+    int size;
+
+    PageSize(int size) {
+      this.size = Math.max(Math.min(size, maxPageSize), minPageSize);
+    }
+
+    void adjust(long spanMillis) {
+      if (spanMillis > pageTargetMillis) {
+        size = Math.max(size / 2, minPageSize);
+      } else if (spanMillis < pageTargetMillis / 2) {
+        size = Math.min(size * 2, maxPageSize);
+      }
+    }
+  }
+
   interface EntryCallable<T> {
     void onEntry(T entry);
   }
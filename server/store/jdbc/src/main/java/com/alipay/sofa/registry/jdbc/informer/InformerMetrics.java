@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jdbc.informer;
+
+import io.prometheus.client.Gauge;
+
+final class InformerMetrics {
+  private InformerMetrics() {}
+
+  static final Gauge LIST_ENTRIES =
+      Gauge.build()
+          .namespace("metadata")
+          .subsystem("informer")
+          .name("list_entries")
+          .help("entries listed by the current or last list")
+          .labelNames("name")
+          .register();
+
+  static final Gauge LIST_MAX_ID =
+      Gauge.build()
+          .namespace("metadata")
+          .subsystem("informer")
+          .name("list_max_id")
+          .help("max id of the storage when the list starts, 0 if not partitioned")
+          .labelNames("name")
+          .register();
+
+  static final Gauge LIST_MILLIS =
+      Gauge.build()
+          .namespace("metadata")
+          .subsystem("informer")
+          .name("list_millis")
+          .help("millis of the last list")
+          .labelNames("name")
+          .register();
+
+  static final Gauge LAST_LOAD_ID =
+      Gauge.build()
+          .namespace("metadata")
+          .subsystem("informer")
+          .name("last_load_id")
+          .help("last loaded id of the list and watch")
+          .labelNames("name")
+          .register();
+}
@@ -73,4 +73,12 @@ public interface AppRevisionMapper {
       @Param("dataCenter") String dataCenter,
       @Param("beforeTime") Date beforeTime,
       @Param("limit") int limit);
+
+  /**
+   * query the max id
+   *
+   * @param dataCenter
+   * @return null if no rows
+   */
+  Long selectMaxId(@Param("dataCenter") String dataCenter);
 }
@@ -67,6 +67,19 @@ public interface ProvideDataMapper {
   List<ProvideDataDomain> queryByPage(
       @Param("dataCenter") String dataCenter, @Param("start") int start, @Param("limit") int limit);
 
+  /**
+   * query the keys and versions order by id, the data value is not loaded
+   *
+   * @param dataCenter
+   * @param maxId
+   * @param limit
+   * @return
+   */
+  List<ProvideDataDomain> queryVersionsAfterId(
+      @Param("dataCenter") String dataCenter,
+      @Param("maxId") long maxId,
+      @Param("limit") int limit);
+
   /**
    * query total count
    *
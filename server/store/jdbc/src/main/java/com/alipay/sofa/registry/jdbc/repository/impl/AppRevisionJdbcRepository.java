@@ -46,6 +46,7 @@ import java.util.*;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -122,6 +123,11 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
         60 * 1000);
   }
 
+  @PreDestroy
+  public void preDestroy() {
+    informer.stop();
+  }
+
   @Override
   public void register(AppRevision appRevision) throws Exception {
     if (appRevision == null) {
@@ -257,6 +263,7 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
 
     public Informer() {
       super("AppRevision", LOG);
+      listParallelism = 4;
     }
 
     @Override
@@ -274,5 +281,11 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
     protected Date getNow() {
       return dateNowRepository.getNow();
     }
+
+    @Override
+    protected long getMaxIdFromStorage() {
+      Long maxId = appRevisionMapper.selectMaxId(defaultCommonConfig.getClusterId(tableName()));
+      return maxId == null ? 0 : maxId;
+    }
   }
 }
@@ -172,6 +172,48 @@ public class ProvideDataJdbcRepository implements ProvideDataRepository, Recover
     return responses;
   }
 
+  @Override
+  public Map<String, Long> getAllVersions() {
+    String clusterId = defaultCommonConfig.getClusterId(tableName());
+    Map<String, Long> versions = getAllVersionsByClusterId(clusterId);
+
+    if (defaultCommonConfig.isRecoverCluster()) {
+      String recoverClusterId = defaultCommonConfig.getRecoverClusterId();
+      Map<String, Long> recoverVersions = getAllVersionsByClusterId(recoverClusterId);
+      Set<String> dataInfoIds = recoverConfigRepository.queryKey(tableName());
+
+      if (CollectionUtils.isNotEmpty(dataInfoIds)) {
+        for (String dataInfoId : dataInfoIds) {
+          // dependency config
+          Long version = recoverVersions.get(dataInfoId);
+          if (version == null) {
+            versions.remove(dataInfoId);
+          } else {
+            versions.put(dataInfoId, version);
+          }
+        }
+      }
+    }
+    PROVIDE_DATA_QUERY_COUNTER.inc();
+    return versions;
+  }
+
+  private Map<String, Long> getAllVersionsByClusterId(String clusterId) {
+    Map<String, Long> versions = Maps.newHashMapWithExpectedSize(batchQuerySize);
+    long maxId = 0;
+    for (; ; ) {
+      List<ProvideDataDomain> provideDataDomains =
+          provideDataMapper.queryVersionsAfterId(clusterId, maxId, batchQuerySize);
+      for (ProvideDataDomain provideDataDomain : provideDataDomains) {
+        versions.put(provideDataDomain.getDataKey(), provideDataDomain.getDataVersion());
+        maxId = Math.max(maxId, provideDataDomain.getId());
+      }
+      if (provideDataDomains.size() < batchQuerySize) {
+        return versions;
+      }
+    }
+  }
+
   @Override
   public String tableName() {
     return TableEnum.PROVIDE_DATA.getTableName();
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jdbc.informer;
+
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BaseInformerTest {
+  private static final Logger LOG = LoggerFactory.getLogger(BaseInformerTest.class);
+
+  @Test
+  public void testList() {
+    List<Entry> entries = Lists.newArrayList();
+    for (long i = 1; i <= 5000; i++) {
+      // with gaps
+      if (i % 7 != 0) {
+        entries.add(new Entry(i, new Date(0)));
+      }
+    }
+    TestInformer sequential = new TestInformer(entries, 1);
+    sequential.list();
+    Assert.assertEquals(entries.size(), sequential.getContainer().ids.size());
+    Assert.assertEquals(5000, sequential.getLastLoadId());
+
+    TestInformer parallel = new TestInformer(entries, 4);
+    parallel.list();
+    Assert.assertEquals(sequential.getContainer().ids, parallel.getContainer().ids);
+    Assert.assertEquals(5000, parallel.getLastLoadId());
+  }
+
+  @Test
+  public void testListUnstable() {
+    List<Entry> entries = Lists.newArrayList();
+    for (long i = 1; i <= 1000; i++) {
+      // the entry is inserted just now, the entries after it are listed in the next round
+      entries.add(new Entry(i, i == 300 ? new Date() : new Date(0)));
+    }
+    TestInformer parallel = new TestInformer(entries, 4);
+    parallel.list();
+    Assert.assertEquals(299, parallel.getLastLoadId());
+    Assert.assertTrue(parallel.getContainer().ids.contains(299L));
+    Assert.assertFalse(parallel.getContainer().ids.contains(300L));
+  }
+
+  @Test
+  public void testListPartitionFailed() {
+    List<Entry> entries = Lists.newArrayList();
+    for (long i = 1; i <= 1000; i++) {
+      entries.add(new Entry(i, new Date(0)));
+    }
+    TestInformer parallel = new TestInformer(entries, 4);
+    parallel.failStart = 500;
+    try {
+      parallel.list();
+      Assert.fail();
+    } catch (IllegalStateException e) {
+      Assert.assertTrue(e.getMessage().contains("list partition failed"));
+    }
+    Assert.assertTrue(parallel.getContainer().ids.isEmpty());
+    Assert.assertEquals(0, parallel.getLastLoadId());
+
+    // the list executor is shutdown
+    parallel.stop();
+    parallel.failStart = Long.MAX_VALUE;
+    try {
+      parallel.list();
+      Assert.fail();
+    } catch (RejectedExecutionException e) {
+      Assert.assertTrue(parallel.getContainer().ids.isEmpty());
+    }
+  }
+
+  static final class Entry implements DbEntry {
+    final long id;
+    final Date gmtCreate;
+
+    Entry(long id, Date gmtCreate) {
+      this.id = id;
+      this.gmtCreate = gmtCreate;
+    }
+
+    @Override
+    public long getId() {
+      return id;
+    }
+
+    @Override
+    public Date getGmtCreate() {
+      return gmtCreate;
+    }
+  }
+
+  static final class Container implements DbEntryContainer<Entry> {
+    final Set<Long> ids = Sets.newConcurrentHashSet();
+
+    @Override
+    public void onEntry(Entry entry) {
+      ids.add(entry.getId());
+    }
+  }
+
+  static final class TestInformer extends BaseInformer<Entry, Container> {
+    final List<Entry> entries;
+    volatile long failStart = Long.MAX_VALUE;
+
+    TestInformer(List<Entry> entries, int listParallelism) {
+      super("Test", LOG);
+      this.entries = entries;
+      this.listParallelism = listParallelism;
+    }
+
+    @Override
+    protected Container containerFactory() {
+      return new Container();
+    }
+
+    @Override
+    protected List<Entry> listFromStorage(long start, int limit) {
+      if (start >= failStart) {
+        throw new RuntimeException("mock list failed");
+      }
+      return entries.stream()
+          .filter(e -> e.getId() > start)
+          .limit(limit)
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    protected Date getNow() {
+      return new Date();
+    }
+
+    @Override
+    protected long getMaxIdFromStorage() {
+      return entries.get(entries.size() - 1).getId();
+    }
+  }
+}
@@ -93,4 +93,22 @@ public class ProvideDataJdbcRepositoryTest extends AbstractH2DbTestBase {
     Map<String, PersistenceData> all = provideDataJdbcRepository.getAll();
     Assert.assertTrue(all.values().contains(persistenceData));
   }
+
+  @Test
+  public void testGetAllVersions() {
+    long version = System.currentTimeMillis();
+
+    String dataInfoId = DataInfo.toDataInfoId("testGetAllVersions" + version, "DEFAULT", "DEFAULT");
+    PersistenceData persistenceData =
+        PersistenceDataBuilder.createPersistenceData(dataInfoId, "val");
+    boolean success = provideDataJdbcRepository.put(persistenceData, persistenceData.getVersion());
+    Assert.assertTrue(success);
+
+    Map<String, Long> versions = provideDataJdbcRepository.getAllVersions();
+    Assert.assertEquals(persistenceData.getVersion(), versions.get(dataInfoId).longValue());
+    Assert.assertEquals(provideDataJdbcRepository.getAll().keySet(), versions.keySet());
+
+    Assert.assertTrue(provideDataJdbcRepository.remove(dataInfoId, persistenceData.getVersion()));
+    Assert.assertFalse(provideDataJdbcRepository.getAllVersions().containsKey(dataInfoId));
+  }
 }